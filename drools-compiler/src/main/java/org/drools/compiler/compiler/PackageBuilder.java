@@ -1811,7 +1811,7 @@ public class PackageBuilder
         boolean propertyReactive = propertySpecificOption.isPropSpecific(cls.isAnnotationPresent(PropertyReactive.class),
                 cls.isAnnotationPresent(ClassReactive.class));
 
-        setPropertyReactive(null, typeDeclaration, propertyReactive);
+        typeDeclaration.setPropertyReactive(propertyReactive);
 
         Role role = cls.getAnnotation(Role.class);
         if (role != null && role.value() == Role.Type.EVENT) {
@@ -2662,7 +2662,7 @@ public class PackageBuilder
         boolean propertyReactive = propertySpecificOption.isPropSpecific(typeDescr.getAnnotationNames().contains(TypeDeclaration.ATTR_PROP_SPECIFIC),
                 typeDescr.getAnnotationNames().contains(TypeDeclaration.ATTR_NOT_PROP_SPECIFIC));
 
-        setPropertyReactive(typeDescr.getResource(), type, propertyReactive);
+        type.setPropertyReactive(propertyReactive);
 
         if (type.isValid()) {
             // prefer definitions where possible
@@ -2686,17 +2686,6 @@ public class PackageBuilder
         return true;
     }
 
-    private void setPropertyReactive(Resource resource,
-            TypeDeclaration type,
-            boolean propertyReactive) {
-        if (propertyReactive && type.getSettableProperties().size() >= 64) {
-            this.results.add(new DisabledPropertyReactiveWarning(resource, type.getTypeName()));
-            type.setPropertyReactive(false);
-        } else {
-            type.setPropertyReactive(propertyReactive);
-        }
-    }
-
     private void updateTraitDefinition(TypeDeclaration type,
             Class concrete) {
         try {
@@ -84,6 +84,9 @@ import static org.drools.core.common.ProjectClassLoader.createProjectClassLoader
  * drools.accumulate.function.min = org.kie.base.accumulators.MinAccumulateFunction
  * drools.accumulate.function.count = org.kie.base.accumulators.CountAccumulateFunction
  * drools.accumulate.function.sum = org.kie.base.accumulators.SumAccumulateFunction
+ * drools.accumulate.function.topN = org.kie.base.accumulators.TopNAccumulateFunction
+ * drools.accumulate.function.approxCountDistinct = org.kie.base.accumulators.ApproxCountDistinctAccumulateFunction
+ * drools.accumulate.function.approxPercentile = org.kie.base.accumulators.ApproxPercentileAccumulateFunction
  * 
  * drools.parser.processStringEscapes = true|false
  * 
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.compiler.reteoo.compiled;
+
+import java.lang.reflect.Modifier;
+
+import org.drools.compiler.compiler.PackageBuilder;
+import org.drools.compiler.compiler.PackageBuilderConfiguration;
+import org.drools.core.base.ClassFieldReader;
+import org.drools.core.base.ClassObjectType;
+import org.drools.core.common.InternalRuleBase;
+import org.drools.core.reteoo.AlphaNode;
+import org.drools.core.reteoo.CompositeObjectSinkAdapter;
+import org.drools.core.reteoo.NodeTypeEnums;
+import org.drools.core.reteoo.ObjectSink;
+import org.drools.core.reteoo.ObjectSinkPropagator;
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.drools.core.reteoo.compiled.CompiledNetwork;
+import org.drools.core.reteoo.compiled.CompiledNetworkFactoryService;
+import org.drools.core.rule.constraint.MvelConstraint;
+import org.drools.core.spi.AlphaNodeFieldConstraint;
+import org.drools.core.util.Iterator;
+import org.drools.core.util.ObjectHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiles the alpha network of an ObjectTypeNode through the ObjectTypeNodeCompiler.
+ *
+ * Only the networks made of nodes the generated code can refer to are compiled: any other network, as well
+ * as one failing to compile, is left to the interpreted propagation.
+ */
+public class CompiledNetworkFactoryServiceImpl implements CompiledNetworkFactoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger( CompiledNetworkFactoryServiceImpl.class );
+
+    public CompiledNetwork newCompiledNetwork(ObjectTypeNode objectTypeNode,
+                                              InternalRuleBase ruleBase) {
+        if ( !(objectTypeNode.getObjectType() instanceof ClassObjectType) ) {
+            return null;
+        }
+
+        ObjectSinkPropagator propagator = objectTypeNode.getSinkPropagator();
+        int threshold = Math.max( 1, ruleBase.getConfiguration().getAlphaNodeHashingThreshold() );
+        if ( countAlphaNodes( propagator.getSinks() ) < threshold || !isCompilable( propagator ) ) {
+            return null;
+        }
+
+        try {
+            PackageBuilder builder = new PackageBuilder( new PackageBuilderConfiguration( ruleBase.getRootClassLoader() ) );
+            CompiledNetwork compiledNetwork = ObjectTypeNodeCompiler.compile( builder,
+                                                                              objectTypeNode );
+            if ( builder.hasErrors() ) {
+                logger.warn( "Unable to compile the alpha network of " + objectTypeNode + ", it will be interpreted: " + builder.getErrors() );
+                return null;
+            }
+            return compiledNetwork;
+        } catch ( RuntimeException e ) {
+            logger.warn( "Unable to compile the alpha network of " + objectTypeNode + ", it will be interpreted", e );
+            return null;
+        }
+    }
+
+    private int countAlphaNodes(ObjectSink[] sinks) {
+        int count = 0;
+        for ( ObjectSink sink : sinks ) {
+            if ( sink.getType() == NodeTypeEnums.AlphaNode ) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean isCompilable(ObjectSinkPropagator propagator) {
+        if ( propagator instanceof CompositeObjectSinkAdapter ) {
+            CompositeObjectSinkAdapter composite = (CompositeObjectSinkAdapter) propagator;
+            // the RangeIndex lookup is faster than the linear evaluation the generated code would do
+            if ( composite.getRangeIndexedSinks() != null || !areHashedAlphasCompilable( composite ) ) {
+                return false;
+            }
+        }
+
+        for ( ObjectSink sink : propagator.getSinks() ) {
+            if ( sink.getType() == NodeTypeEnums.AlphaNode ) {
+                AlphaNodeFieldConstraint constraint = ((AlphaNode) sink).getConstraint();
+                // the generated code evaluates the constraint without a context entry, which would be shared by all the sessions
+                if ( !isAccessible( constraint.getClass() ) || constraint.createContextEntry() != null ||
+                     !isCompilable( ((AlphaNode) sink).getSinkPropagator() ) ) {
+                    return false;
+                }
+            } else if ( !(NodeTypeEnums.isBetaNode( sink ) || sink.getType() == NodeTypeEnums.LeftInputAdapterNode) ||
+                        !isAccessible( sink.getClass() ) ) {
+                // other node types aren't handled by the ObjectTypeNodeParser
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean areHashedAlphasCompilable(CompositeObjectSinkAdapter composite) {
+        ObjectHashMap hashedSinkMap = composite.getHashedSinkMap();
+        if ( hashedSinkMap == null ) {
+            return true;
+        }
+
+        Iterator it = hashedSinkMap.iterator();
+        for ( ObjectHashMap.ObjectEntry entry = (ObjectHashMap.ObjectEntry) it.next(); entry != null; entry = (ObjectHashMap.ObjectEntry) it.next() ) {
+            AlphaNodeFieldConstraint constraint = ((AlphaNode) entry.getValue()).getConstraint();
+            if ( !(constraint instanceof MvelConstraint) ||
+                 !(((MvelConstraint) constraint).getFieldExtractor() instanceof ClassFieldReader) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The generated class is loaded by a different class loader, so it can only refer to public top level classes
+     */
+    private boolean isAccessible(Class<?> clazz) {
+        return Modifier.isPublic( clazz.getModifiers() ) && clazz.getEnclosingClass() == null;
+    }
+}
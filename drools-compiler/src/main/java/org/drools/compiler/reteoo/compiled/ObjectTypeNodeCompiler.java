@@ -1,7 +1,6 @@
 package org.drools.compiler.reteoo.compiled;
 
 import org.drools.core.base.ClassObjectType;
-import org.drools.core.base.ValueType;
 import org.drools.compiler.compiler.PackageBuilder;
 import org.drools.compiler.compiler.PackageRegistry;
 import org.drools.compiler.lang.descr.PackageDescr;
@@ -9,12 +8,11 @@ import org.drools.core.reteoo.ObjectTypeNode;
 import org.drools.core.reteoo.compiled.AssertHandler;
 import org.drools.core.reteoo.compiled.CompiledNetwork;
 import org.drools.core.reteoo.compiled.DeclarationsHandler;
-import org.drools.core.reteoo.compiled.HashedAlphasDeclaration;
 import org.drools.core.reteoo.compiled.ObjectTypeNodeParser;
 import org.drools.core.reteoo.compiled.SetNodeReferenceHandler;
 import org.drools.compiler.rule.builder.dialect.java.JavaDialect;
 
-import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * todo: document
@@ -23,6 +21,13 @@ public class ObjectTypeNodeCompiler {
     private static final String NEWLINE = "\n";
     private static final String PACKAGE_NAME = "org.drools.core.reteoo.compiled";
     private static final String BINARY_PACKAGE_NAME = PACKAGE_NAME.replace('.', '/');
+
+    /**
+     * Suffix making the name of each generated class unique, as the same class loader may be
+     * shared by the networks compiled for several rule bases
+     */
+    private static final AtomicInteger GENERATED_CLASS_COUNTER = new AtomicInteger();
+
     /**
      * This field hold the fully qualified class name that the {@link ObjectTypeNode} is representing.
      */
@@ -45,7 +50,8 @@ public class ObjectTypeNodeCompiler {
 
         ClassObjectType classObjectType = (ClassObjectType) objectTypeNode.getObjectType();
         this.className = classObjectType.getClassName();
-        generatedClassSimpleName = "Compiled" + classObjectType.getClassName().replace('.', '_') + "Network";
+        generatedClassSimpleName = "Compiled" + classObjectType.getClassName().replace('.', '_').replace('$', '_') +
+                                   "Network" + GENERATED_CLASS_COUNTER.incrementAndGet();
     }
 
     private String generateSource() {
@@ -57,17 +63,14 @@ public class ObjectTypeNodeCompiler {
         DeclarationsHandler declarations = new DeclarationsHandler(builder);
         parser.accept(declarations);
 
-        // we need the hashed declarations when creating the constructor
-        Collection<HashedAlphasDeclaration> hashedAlphaDeclarations = declarations.getHashedAlphaDeclarations();
-
-        createConstructor(hashedAlphaDeclarations);
+        createConstructor();
 
         // create set node method
         SetNodeReferenceHandler setNode = new SetNodeReferenceHandler(builder);
         parser.accept(setNode);
 
         // create assert method
-        AssertHandler assertHandler = new AssertHandler(builder, className, hashedAlphaDeclarations.size() > 0);
+        AssertHandler assertHandler = new AssertHandler(builder);
         parser.accept(assertHandler);
 
         // end of class
@@ -86,35 +89,11 @@ public class ObjectTypeNodeCompiler {
     }
 
     /**
-     * Creates the constructor for the generated class. If the hashedAlphaDeclarations is empty, it will just
-     * output a empty default constructor; if it is not, the constructor will contain code to fill the hash
-     * alpha maps with the values and node ids.
-     *
-     * @param hashedAlphaDeclarations declarations used for creating statements to populate the hashed alpha
-     *                                maps for the generate class
+     * Creates the default constructor for the generated class. The hashed alpha maps are filled in
+     * when the node references are set, using the same HashKeys of the interpreted network.
      */
-    private void createConstructor(Collection<HashedAlphasDeclaration> hashedAlphaDeclarations) {
+    private void createConstructor() {
         builder.append("public ").append(generatedClassSimpleName).append("() {").append(NEWLINE);
-
-        // for each hashed alpha, we need to fill in the map member variable with the hashed values to node Ids
-        for (HashedAlphasDeclaration declaration : hashedAlphaDeclarations) {
-            String mapVariableName = declaration.getVariableName();
-
-            for (Object hashedValue : declaration.getHashedValues()) {
-                Object value = hashedValue;
-                // need to quote value if it is a string
-                if (declaration.getValueType() == ValueType.STRING_TYPE) {
-                    value = "\"" + value + "\"";
-                }
-
-                String nodeId = declaration.getNodeId(hashedValue);
-
-                // generate the map.put(hashedValue, nodeId) call
-                builder.append(mapVariableName).append(".put(").append(value).append(", ").append(nodeId).append(");");
-                builder.append(NEWLINE);
-            }
-        }
-
         builder.append("}").append(NEWLINE);
     }
 
@@ -133,7 +112,7 @@ public class ObjectTypeNodeCompiler {
      * @return binary name of generated class
      */
     private String getBinaryName() {
-        return BINARY_PACKAGE_NAME + "." + generatedClassSimpleName + ".class";
+        return BINARY_PACKAGE_NAME + "/" + generatedClassSimpleName + ".java";
     }
 
     private String getPackageName() {
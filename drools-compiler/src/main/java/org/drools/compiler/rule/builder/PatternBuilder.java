@@ -327,7 +327,10 @@ public class PatternBuilder
         for ( BehaviorDescr behaviorDescr : patternDescr.getBehaviors() ) {
             if ( pattern.getObjectType().isEvent() ) {
                 if ( Behavior.BehaviorType.TIME_WINDOW.matches( behaviorDescr.getSubType() ) ) {
-                    SlidingTimeWindow window = new SlidingTimeWindow( TimeUtils.parseTimeString( behaviorDescr.getParameters().get( 0 ) ) );
+                    List<String> parameters = behaviorDescr.getParameters();
+                    // the optional second parameter is the size of the panes the window slides by
+                    SlidingTimeWindow window = new SlidingTimeWindow( TimeUtils.parseTimeString( parameters.get( 0 ) ),
+                                                                      parameters.size() > 1 ? TimeUtils.parseTimeString( parameters.get( 1 ) ) : 0 );
                     pattern.addBehavior( window );
                 } else if ( Behavior.BehaviorType.LENGTH_WINDOW.matches( behaviorDescr.getSubType() ) ) {
                     SlidingLengthWindow window = new SlidingLengthWindow( Integer.valueOf( behaviorDescr.getParameters().get( 0 ) ) );
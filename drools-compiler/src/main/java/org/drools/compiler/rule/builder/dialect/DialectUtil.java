@@ -7,7 +7,7 @@ import org.drools.compiler.compiler.PackageBuilder;
 import org.drools.compiler.rule.builder.dialect.java.parser.JavaIfBlockDescr;
 import org.drools.compiler.rule.builder.dialect.java.parser.JavaTryBlockDescr;
 import org.drools.compiler.rule.builder.dialect.mvel.MVELConsequenceBuilder;
-import org.drools.core.util.BitMaskUtil;
+import org.drools.core.util.BitMask;
 import org.drools.core.util.ClassUtils;
 import org.drools.core.factmodel.ClassDefinition;
 import org.drools.compiler.lang.descr.BaseDescr;
@@ -620,7 +620,7 @@ public final class DialectUtil {
             statement = new ConsequenceMetaData.Statement(ConsequenceMetaData.Statement.Type.MODIFY, typeClass);
             context.getRule().getConsequenceMetaData().addStatement(statement);
         }
-        long modificationMask = isPropertyReactive ? 0 : Long.MAX_VALUE;
+        BitMask modificationMask = isPropertyReactive ? BitMask.EMPTY : BitMask.ALL_SET_BUT_TRAIT;
 
         int end = originalBlock.indexOf("{");
         if (end == -1) {
@@ -660,7 +660,7 @@ public final class DialectUtil {
                                               StringBuilder consequence,
                                               Declaration declr,
                                               String obj) {
-        long modificationMask = Long.MAX_VALUE;
+        BitMask modificationMask = BitMask.ALL_SET_BUT_TRAIT;
 
         Class<?> typeClass = findModifiedClass(context, d, declr);
         TypeDeclaration typeDeclaration = typeClass == null ? null : context.getPackageBuilder().getTypeDeclaration(typeClass);
@@ -669,7 +669,7 @@ public final class DialectUtil {
             boolean isPropertyReactive = typeDeclaration != null && typeDeclaration.isPropertyReactive();
             List<String> settableProperties = null;
             if (isPropertyReactive) {
-                modificationMask = 0;
+                modificationMask = BitMask.EMPTY;
                 typeDeclaration.setTypeClass(typeClass);
                 settableProperties = typeDeclaration.getSettableProperties();
             }
@@ -688,24 +688,42 @@ public final class DialectUtil {
         appendUpdateStatement(consequence, declr, obj, modificationMask, typeClass);
     }
 
-    private static void appendUpdateStatement(StringBuilder consequence, Declaration declr, String obj, long modificationMask, Class<?> typeClass) {
+    private static void appendUpdateStatement(StringBuilder consequence, Declaration declr, String obj, BitMask modificationMask, Class<?> typeClass) {
         boolean isInternalFact = declr == null || declr.isInternalFact();
         consequence
                 .append("drools.update( ")
                 .append(obj)
-                .append(isInternalFact ? "__Handle2__, " : "__Handle__, ")
-                .append(modificationMask)
-                .append("L, ")
+                .append(isInternalFact ? "__Handle2__, " : "__Handle__, ");
+        appendModificationMask(consequence, modificationMask);
+        consequence
+                .append(", ")
                 .append(typeClass != null ? typeClass.getCanonicalName() : "java.lang.Object")
                 .append(".class")
                 .append(" ); }");
     }
 
-    private static long parseModifiedProperties(ConsequenceMetaData.Statement statement,
+    private static void appendModificationMask(StringBuilder consequence, BitMask modificationMask) {
+        if (modificationMask.isLong() || modificationMask.equals(BitMask.ALL_SET_BUT_TRAIT)) {
+            // the common case of a mask fitting in a long is passed as a long literal
+            consequence.append(modificationMask.isLong() ? modificationMask.asLong() : Long.MAX_VALUE).append("L");
+            return;
+        }
+        consequence.append("org.drools.core.util.BitMask.valueOf(new long[] { ");
+        long[] words = modificationMask.toLongArray();
+        for (int i = 0; i < words.length; i++) {
+            if (i > 0) {
+                consequence.append(", ");
+            }
+            consequence.append(words[i]).append("L");
+        }
+        consequence.append(" })");
+    }
+
+    private static BitMask parseModifiedProperties(ConsequenceMetaData.Statement statement,
                                                 List<String> settableProperties,
                                                 TypeDeclaration typeDeclaration,
                                                 boolean propertyReactive,
-                                                long modificationMask,
+                                                BitMask modificationMask,
                                                 String exprStr) {
         int endMethodName = exprStr.indexOf('(');
         if (endMethodName >= 0) {
@@ -748,13 +766,13 @@ public final class DialectUtil {
         return modificationMask;
     }
 
-    private static long updateModificationMask(List<String> settableProperties,
-                                               boolean propertyReactive,
-                                               long modificationMask,
+    private static BitMask updateModificationMask(List<String> settableProperties,
+                                                  boolean propertyReactive,
+                                                  BitMask modificationMask,
                                                String propertyName) {
         if (propertyReactive) {
             int pos = settableProperties.indexOf(propertyName);
-            if (pos >= 0) modificationMask = BitMaskUtil.set(modificationMask, pos);
+            if (pos >= 0) modificationMask = modificationMask.setProperty(pos);
         }
         return modificationMask;
     }
@@ -98,8 +98,7 @@ public class ASMConsequenceBuilder extends AbstractASMConsequenceBuilder {
                     offset += store(objPos, declarations[i].getTypeName()); // obj[i]
 
                     if (notPatterns[i]) {
-                        mv.visitVarInsn(ALOAD, 1);
-                        invokeInterface(KnowledgeHelper.class, "getWorkingMemory", WorkingMemory.class);
+                        mv.visitVarInsn(ALOAD, 2); // WorkingMemory
                         loadAsObject(objPos);
                         invokeInterface(WorkingMemory.class, "getFactHandle", FactHandle.class, Object.class);
                         cast(InternalFactHandle.class);
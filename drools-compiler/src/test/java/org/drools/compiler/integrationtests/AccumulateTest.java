@@ -32,6 +32,7 @@ import org.drools.compiler.kproject.ReleaseIdImpl;
 import org.drools.core.RuleBase;
 import org.drools.core.RuleBaseFactory;
 import org.drools.core.StatelessSession;
+import org.drools.core.base.accumulators.ApproxPercentileAccumulateFunction;
 import org.drools.core.command.runtime.rule.InsertElementsCommand;
 import org.drools.core.reteoo.JoinNode;
 import org.drools.core.reteoo.LeftTupleSink;
@@ -60,8 +61,10 @@ import org.kie.api.runtime.rule.Variable;
 import org.kie.internal.KnowledgeBase;
 import org.kie.internal.KnowledgeBaseFactory;
 import org.kie.internal.builder.KnowledgeBuilder;
+import org.kie.internal.builder.KnowledgeBuilderConfiguration;
 import org.kie.internal.builder.KnowledgeBuilderError;
 import org.kie.internal.builder.KnowledgeBuilderFactory;
+import org.kie.internal.builder.conf.AccumulateFunctionOption;
 import org.kie.internal.io.ResourceFactory;
 import org.kie.internal.runtime.StatefulKnowledgeSession;
 import org.mockito.ArgumentCaptor;
@@ -2558,6 +2561,109 @@ public class AccumulateTest extends CommonTestMethodBase {
 
     }
     
+    @Test
+    public void testReversibleMinMaxTopN() throws Exception {
+        String drl = "import " + Cheese.class.getCanonicalName() + "\n" +
+                     "global java.util.List list; \n" +
+                     "rule R when\n" +
+                     "    accumulate( Cheese( $p : price ),\n" +
+                     "                $min : min( $p ),\n" +
+                     "                $max : max( $p ),\n" +
+                     "                $top : topN( $p ) )\n" +
+                     "then\n" +
+                     "    list.add( $min );\n" +
+                     "    list.add( $max );\n" +
+                     "    list.add( $top );\n" +
+                     "end\n";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( drl );
+        StatefulKnowledgeSession ksession = createKnowledgeSession( kbase );
+        List<Object> list = new ArrayList<Object>();
+        ksession.setGlobal( "list", list );
+
+        FactHandle[] handles = new FactHandle[15];
+        Cheese[] cheeses = new Cheese[15];
+        for ( int i = 0; i < cheeses.length; i++ ) {
+            cheeses[i] = new Cheese( "stilton", i % 5 == 0 ? 100 : i );
+            handles[i] = ksession.insert( cheeses[i] );
+        }
+        ksession.fireAllRules();
+        assertEquals( 1.0, list.get( 0 ) );
+        assertEquals( 100.0, list.get( 1 ) );
+        assertEquals( Arrays.asList( 100.0, 100.0, 100.0, 14.0, 13.0, 12.0, 11.0, 9.0, 8.0, 7.0 ), list.get( 2 ) );
+        list.clear();
+
+        // the duplicated maximum is only dropped once all its occurrences have been reversed
+        ksession.retract( handles[0] );
+        ksession.retract( handles[5] );
+        ksession.fireAllRules();
+        assertEquals( 100.0, list.get( 1 ) );
+        list.clear();
+
+        ksession.retract( handles[10] );
+        cheeses[1].setPrice( 50 );
+        ksession.update( handles[1], cheeses[1] );
+        ksession.fireAllRules();
+        assertEquals( 2.0, list.get( 0 ) );
+        assertEquals( 50.0, list.get( 1 ) );
+        assertEquals( Arrays.asList( 50.0, 14.0, 13.0, 12.0, 11.0, 9.0, 8.0, 7.0, 6.0, 4.0 ), list.get( 2 ) );
+        list.clear();
+
+        for ( int i = 2; i < cheeses.length; i++ ) {
+            if ( i % 5 != 0 ) {
+                ksession.retract( handles[i] );
+            }
+        }
+        ksession.fireAllRules();
+        assertEquals( 50.0, list.get( 0 ) );
+        assertEquals( 50.0, list.get( 1 ) );
+        assertEquals( Arrays.asList( 50.0 ), list.get( 2 ) );
+        ksession.dispose();
+    }
+
+    @Test
+    public void testApproximateAccumulateFunctions() throws Exception {
+        String drl = "import " + Cheese.class.getCanonicalName() + "\n" +
+                     "global java.util.List list; \n" +
+                     "rule R when\n" +
+                     "    accumulate( Cheese( $t : type, $p : price ),\n" +
+                     "                $distinct : approxCountDistinct( $t ),\n" +
+                     "                $median : approxPercentile( $p ),\n" +
+                     "                $p99 : p99( $p ) )\n" +
+                     "then\n" +
+                     "    list.add( $distinct );\n" +
+                     "    list.add( $median );\n" +
+                     "    list.add( $p99 );\n" +
+                     "end\n";
+
+        KnowledgeBuilderConfiguration kbuilderConf = KnowledgeBuilderFactory.newKnowledgeBuilderConfiguration();
+        kbuilderConf.setOption( AccumulateFunctionOption.get( "p99", new ApproxPercentileAccumulateFunction( 0.99 ) ) );
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( kbuilderConf, drl );
+        StatefulKnowledgeSession ksession = createKnowledgeSession( kbase );
+        List<Number> list = new ArrayList<Number>();
+        ksession.setGlobal( "list", list );
+
+        FactHandle[] handles = new FactHandle[10000];
+        for ( int i = 0; i < handles.length; i++ ) {
+            handles[i] = ksession.insert( new Cheese( "type" + ( i % 500 ), i ) );
+        }
+        ksession.fireAllRules();
+        assertEquals( 500, list.get( 0 ).doubleValue(), 25 );
+        assertEquals( 5000, list.get( 1 ).doubleValue(), 50 );
+        assertEquals( 9900, list.get( 2 ).doubleValue(), 20 );
+        list.clear();
+
+        // the sketches don't support reverse, so the group is accumulated again
+        for ( int i = 5000; i < handles.length; i++ ) {
+            ksession.retract( handles[i] );
+        }
+        ksession.fireAllRules();
+        assertEquals( 500, list.get( 0 ).doubleValue(), 25 );
+        assertEquals( 2500, list.get( 1 ).doubleValue(), 25 );
+        assertEquals( 4950, list.get( 2 ).doubleValue(), 10 );
+        ksession.dispose();
+    }
+
     @Test
     public void testImportAccumulateFunction() throws Exception {
         String drl = "package org.foo.bar\n"
@@ -0,0 +1,228 @@
+package org.drools.compiler.integrationtests;
+
+import org.drools.core.common.DefaultAgenda;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.junit.Test;
+import org.kie.api.io.ResourceType;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.builder.KnowledgeBuilder;
+import org.kie.internal.builder.KnowledgeBuilderFactory;
+import org.kie.internal.io.ResourceFactory;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AsyncConsequenceTest {
+
+    private static String drl = "package org.drools.integrationtests\n" +
+                                "global java.util.List list\n" +
+                                "global java.util.concurrent.CountDownLatch latch\n" +
+                                "rule Slow @async when\n" +
+                                "    $s : String()\n" +
+                                "then\n" +
+                                "    latch.await();\n" +
+                                "    insert( new Integer( $s.length() ) );\n" +
+                                "end\n" +
+                                "rule Failing @async when\n" +
+                                "    $c : Character()\n" +
+                                "then\n" +
+                                "    throw new IllegalStateException( \"failing\" );\n" +
+                                "end\n" +
+                                "rule Collect when\n" +
+                                "    $n : Number()\n" +
+                                "then\n" +
+                                "    list.add( $n );\n" +
+                                "end";
+
+    @Test(timeout = 20000)
+    public void testAsyncConsequenceDoesNotBlockFiring() throws Exception {
+        StatefulKnowledgeSession ksession = newSession();
+        List<Object> list = new ArrayList<Object>();
+        CountDownLatch latch = new CountDownLatch( 1 );
+        ksession.setGlobal( "list", list );
+        ksession.setGlobal( "latch", latch );
+        DefaultAgenda agenda = (DefaultAgenda) ((StatefulKnowledgeSessionImpl) ksession).session.getAgenda();
+
+        ksession.insert( "abc" );
+        ksession.fireAllRules();
+        assertEquals( 1, agenda.getPendingAsyncConsequences() );
+
+        // the slow consequence doesn't prevent the other rules from firing
+        ksession.insert( 5L );
+        ksession.fireAllRules();
+        assertEquals( Arrays.<Object>asList( 5L ), list );
+
+        // the insert of the slow consequence is applied by the firing thread
+        latch.countDown();
+        waitForAsyncConsequences( ksession, agenda );
+        assertEquals( Arrays.<Object>asList( 5L, 3 ), list );
+        assertEquals( 3, ksession.getFactCount() );
+        ksession.dispose();
+    }
+
+    @Test(timeout = 20000)
+    public void testAsyncConsequenceFailure() throws Exception {
+        StatefulKnowledgeSession ksession = newSession();
+        ksession.setGlobal( "list", new ArrayList<Object>() );
+        ksession.setGlobal( "latch", new CountDownLatch( 0 ) );
+        DefaultAgenda agenda = (DefaultAgenda) ((StatefulKnowledgeSessionImpl) ksession).session.getAgenda();
+
+        ksession.insert( 'c' );
+        ksession.fireAllRules();
+        try {
+            waitForAsyncConsequences( ksession, agenda );
+            fail( "the failure of the consequence is reported by the firing thread" );
+        } catch ( RuntimeException e ) {
+            // expected
+        }
+        assertEquals( 0, agenda.getPendingAsyncConsequences() );
+        ksession.dispose();
+    }
+
+    @Test(timeout = 20000)
+    public void testForkFailsWithPendingAsyncConsequences() throws Exception {
+        StatefulKnowledgeSession ksession = newSession();
+        ksession.setGlobal( "list", new ArrayList<Object>() );
+        CountDownLatch latch = new CountDownLatch( 1 );
+        ksession.setGlobal( "latch", latch );
+        DefaultAgenda agenda = (DefaultAgenda) ((StatefulKnowledgeSessionImpl) ksession).session.getAgenda();
+
+        ksession.insert( "abc" );
+        ksession.fireAllRules();
+        assertEquals( 1, agenda.getPendingAsyncConsequences() );
+        assertFalse( agenda.awaitAsyncConsequences( 50, TimeUnit.MILLISECONDS ) );
+
+        // the marshalling neither waits for the slow consequence nor changes the session
+        try {
+            ((StatefulKnowledgeSessionImpl) ksession).fork();
+            fail( "the result of the asynchronous consequence can't be marshalled" );
+        } catch ( IllegalStateException e ) {
+            // expected
+        }
+        assertEquals( 1, agenda.getPendingAsyncConsequences() );
+        assertEquals( 1, ksession.getFactCount() );
+
+        latch.countDown();
+        assertTrue( agenda.awaitAsyncConsequences( 10, TimeUnit.SECONDS ) );
+        ksession.fireAllRules();
+        assertEquals( 0, agenda.getPendingAsyncConsequences() );
+        StatefulKnowledgeSession fork = ((StatefulKnowledgeSessionImpl) ksession).fork();
+        assertEquals( 2, ksession.getFactCount() );
+        assertEquals( 2, fork.getFactCount() );
+        fork.dispose();
+        ksession.dispose();
+    }
+
+    @Test(timeout = 20000)
+    public void testAsyncConsequenceWakesUpFireUntilHalt() throws Exception {
+        final StatefulKnowledgeSession ksession = newSession();
+        List<Object> list = new CopyOnWriteArrayList<Object>();
+        CountDownLatch latch = new CountDownLatch( 1 );
+        ksession.setGlobal( "list", list );
+        ksession.setGlobal( "latch", latch );
+        DefaultAgenda agenda = (DefaultAgenda) ((StatefulKnowledgeSessionImpl) ksession).session.getAgenda();
+
+        Thread engine = new Thread( new Runnable() {
+            public void run() {
+                ksession.fireUntilHalt();
+            }
+        } );
+        engine.start();
+
+        ksession.insert( "abc" );
+        while ( agenda.getPendingAsyncConsequences() == 0 ) {
+            Thread.sleep( 10 );
+        }
+        // let the engine thread go idle before the consequence ends
+        Thread.sleep( 100 );
+        assertTrue( list.isEmpty() );
+
+        // the action queued by the consequence alone wakes up the engine thread
+        latch.countDown();
+        while ( list.isEmpty() ) {
+            Thread.sleep( 10 );
+        }
+        assertEquals( Arrays.<Object>asList( 3 ), list );
+        assertEquals( 0, agenda.getPendingAsyncConsequences() );
+
+        ksession.halt();
+        engine.join();
+        ksession.dispose();
+    }
+
+    @Test(timeout = 20000)
+    public void testSessionIsNotAccessibleFromAsyncConsequence() throws Exception {
+        String accessDrl = "package org.drools.integrationtests\n" +
+                           "global java.util.List list\n" +
+                           "rule Access @async when\n" +
+                           "    $s : String( $l : length )\n" +
+                           "then\n" +
+                           "    try {\n" +
+                           "        drools.getWorkingMemory();\n" +
+                           "    } catch ( UnsupportedOperationException e ) {\n" +
+                           "        list.add( \"workingMemory\" );\n" +
+                           "    }\n" +
+                           "    try {\n" +
+                           "        drools.getEntryPoint( \"DEFAULT\" );\n" +
+                           "    } catch ( UnsupportedOperationException e ) {\n" +
+                           "        list.add( \"entryPoint\" );\n" +
+                           "    }\n" +
+                           "    try {\n" +
+                           "        kcontext.getKieRuntime();\n" +
+                           "    } catch ( UnsupportedOperationException e ) {\n" +
+                           "        list.add( \"kieRuntime\" );\n" +
+                           "    }\n" +
+                           "    insert( new Integer( $l ) );\n" +
+                           "end\n" +
+                           "rule Collect when\n" +
+                           "    $n : Number()\n" +
+                           "then\n" +
+                           "    list.add( $n );\n" +
+                           "end";
+        StatefulKnowledgeSession ksession = newSession( accessDrl );
+        List<Object> list = new ArrayList<Object>();
+        ksession.setGlobal( "list", list );
+        DefaultAgenda agenda = (DefaultAgenda) ((StatefulKnowledgeSessionImpl) ksession).session.getAgenda();
+
+        ksession.insert( "abc" );
+        ksession.fireAllRules();
+        waitForAsyncConsequences( ksession, agenda );
+        // the changes are still applied by the firing thread
+        assertEquals( Arrays.<Object>asList( "workingMemory", "entryPoint", "kieRuntime", 3 ), list );
+        ksession.dispose();
+    }
+
+    private void waitForAsyncConsequences(StatefulKnowledgeSession ksession, DefaultAgenda agenda) throws InterruptedException {
+        while ( agenda.getPendingAsyncConsequences() > 0 ) {
+            Thread.sleep( 10 );
+            ksession.fireAllRules();
+        }
+        // fires the rules activated by the changes of the consequences
+        ksession.fireAllRules();
+    }
+
+    private StatefulKnowledgeSession newSession() {
+        return newSession( drl );
+    }
+
+    private StatefulKnowledgeSession newSession(String drl) {
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        kbuilder.add( ResourceFactory.newByteArrayResource( drl.getBytes() ), ResourceType.DRL );
+        assertFalse( kbuilder.getErrors().toString(), kbuilder.hasErrors() );
+
+        KnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
+        kbase.addKnowledgePackages( kbuilder.getKnowledgePackages() );
+        return kbase.newStatefulKnowledgeSession();
+    }
+}
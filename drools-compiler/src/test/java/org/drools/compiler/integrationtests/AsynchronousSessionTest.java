@@ -0,0 +1,192 @@
+package org.drools.compiler.integrationtests;
+
+import org.drools.core.impl.AsynchronousSession;
+import org.junit.Test;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.builder.KnowledgeBuilder;
+import org.kie.internal.builder.KnowledgeBuilderFactory;
+import org.kie.internal.builder.conf.RuleEngineOption;
+import org.kie.internal.io.ResourceFactory;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AsynchronousSessionTest {
+
+    private static String drl = "package org.drools.integrationtests\n" +
+                                "global java.util.concurrent.atomic.AtomicInteger count\n" +
+                                "rule R when\n" +
+                                "    Integer()\n" +
+                                "then\n" +
+                                "    count.incrementAndGet();\n" +
+                                "end";
+
+    @Test(timeout = 30000)
+    public void testConcurrentProducers() throws Exception {
+        final StatefulKnowledgeSession ksession = newSession();
+        AtomicInteger count = new AtomicInteger();
+        ksession.setGlobal( "count", count );
+
+        final AsynchronousSession async = new AsynchronousSession( ksession, 100 );
+        async.start();
+
+        int producers = 8;
+        final int facts = 500;
+        ExecutorService executor = Executors.newFixedThreadPool( producers );
+        List<Future<List<Future<FactHandle>>>> results = new ArrayList<Future<List<Future<FactHandle>>>>();
+        for ( int p = 0; p < producers; p++ ) {
+            final int producer = p;
+            results.add( executor.submit( new Callable<List<Future<FactHandle>>>() {
+                public List<Future<FactHandle>> call() {
+                    List<Future<FactHandle>> handles = new ArrayList<Future<FactHandle>>();
+                    for ( int i = 0; i < facts; i++ ) {
+                        handles.add( async.insert( producer * facts + i ) );
+                    }
+                    return handles;
+                }
+            } ) );
+        }
+
+        List<FactHandle> handles = new ArrayList<FactHandle>();
+        for ( Future<List<Future<FactHandle>>> result : results ) {
+            for ( Future<FactHandle> handle : result.get() ) {
+                handles.add( handle.get( 10, TimeUnit.SECONDS ) );
+            }
+        }
+        executor.shutdown();
+
+        // the deletes are applied in order after the inserts of their handles
+        Future<Void> lastDelete = null;
+        for ( int i = 0; i < handles.size(); i += 2 ) {
+            lastDelete = async.delete( handles.get( i ) );
+        }
+        lastDelete.get( 10, TimeUnit.SECONDS );
+
+        Future<Long> factCount = async.submit( new Callable<Long>() {
+            public Long call() {
+                return ksession.getFactCount();
+            }
+        } );
+        assertEquals( producers * facts / 2, factCount.get().longValue() );
+
+        async.stop();
+        assertFalse( async.isRunning() );
+        assertNull( async.getLastFireFailure() );
+
+        assertEquals( producers * facts, count.get() );
+        assertEquals( producers * facts * 3 / 2 + 1, async.getOperationCount() );
+        assertTrue( async.getBatchCount() >= async.getOperationCount() / 100 );
+        ksession.dispose();
+    }
+
+    @Test(timeout = 30000)
+    public void testStopAppliesEnqueuedOperations() throws Exception {
+        StatefulKnowledgeSession ksession = newSession();
+        AtomicInteger count = new AtomicInteger();
+        ksession.setGlobal( "count", count );
+
+        AsynchronousSession async = new AsynchronousSession( ksession );
+        async.start();
+        Future<FactHandle> handle = null;
+        for ( int i = 0; i < 1000; i++ ) {
+            handle = async.insert( i );
+        }
+        async.stop();
+
+        assertTrue( handle.isDone() );
+        assertNotNull( handle.get() );
+        assertEquals( 1000, count.get() );
+        ksession.dispose();
+    }
+
+    @Test(timeout = 30000)
+    public void testOperationsAreRejectedWhenNotRunning() throws Exception {
+        StatefulKnowledgeSession ksession = newSession();
+        ksession.setGlobal( "count", new AtomicInteger() );
+
+        AsynchronousSession async = new AsynchronousSession( ksession );
+        try {
+            async.insert( 1 );
+            fail( "the session isn't started" );
+        } catch ( RejectedExecutionException e ) {
+            // expected
+        }
+
+        async.start();
+        Future<FactHandle> handle = async.insert( 2 );
+        async.stop();
+        assertNotNull( handle.get( 10, TimeUnit.SECONDS ) );
+
+        try {
+            async.insert( 3 );
+            fail( "the session is stopped" );
+        } catch ( RejectedExecutionException e ) {
+            // expected
+        }
+        assertEquals( 1, async.getOperationCount() );
+        ksession.dispose();
+    }
+
+    @Test(timeout = 30000)
+    public void testPhreakTimersWakeUpTheEngineThread() throws Exception {
+        String timerDrl = "package org.drools.integrationtests\n" +
+                          "global java.util.concurrent.atomic.AtomicInteger count\n" +
+                          "rule Delayed timer (int: 200ms) when\n" +
+                          "    Integer()\n" +
+                          "then\n" +
+                          "    count.incrementAndGet();\n" +
+                          "end";
+        // the phreak timers queue the rule on the agenda, without any working memory action
+        StatefulKnowledgeSession ksession = newSession( timerDrl, RuleEngineOption.PHREAK );
+        AtomicInteger count = new AtomicInteger();
+        ksession.setGlobal( "count", count );
+
+        AsynchronousSession async = new AsynchronousSession( ksession );
+        async.start();
+        async.insert( 1 ).get( 10, TimeUnit.SECONDS );
+        assertEquals( 0, count.get() );
+
+        // no other operation is enqueued: the timer job alone has to wake up the engine thread
+        while ( count.get() == 0 ) {
+            Thread.sleep( 10 );
+        }
+        async.stop();
+        assertEquals( 1, count.get() );
+        ksession.dispose();
+    }
+
+    private StatefulKnowledgeSession newSession() {
+        return newSession( drl, RuleEngineOption.PHREAK );
+    }
+
+    private StatefulKnowledgeSession newSession(String drl, RuleEngineOption engine) {
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        kbuilder.add( ResourceFactory.newByteArrayResource( drl.getBytes() ), ResourceType.DRL );
+        assertFalse( kbuilder.getErrors().toString(), kbuilder.hasErrors() );
+
+        KieBaseConfiguration kbaseConf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kbaseConf.setOption( engine );
+        KnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase( kbaseConf );
+        kbase.addKnowledgePackages( kbuilder.getKnowledgePackages() );
+        return kbase.newStatefulKnowledgeSession();
+    }
+}
@@ -0,0 +1,146 @@
+package org.drools.compiler.integrationtests;
+
+import org.drools.compiler.Cheese;
+import org.drools.compiler.CommonTestMethodBase;
+import org.drools.compiler.Person;
+import org.drools.core.FactHandle;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.junit.Test;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class BulkInsertTest extends CommonTestMethodBase {
+
+    private static final String DRL =
+            "import " + Person.class.getCanonicalName() + ";\n" +
+            "import " + Cheese.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "rule R1 when\n" +
+            "    $p : Person( )\n" +
+            "    $c : Cheese( type == $p.likes )\n" +
+            "then\n" +
+            "    list.add( \"R1:\" + $p.getName() + \":\" + $c.getType() );\n" +
+            "end\n" +
+            "rule R2 when\n" +
+            "    $s : String( )\n" +
+            "    not Person( name == $s )\n" +
+            "then\n" +
+            "    list.add( \"R2:\" + $s );\n" +
+            "end\n";
+
+    @Test
+    public void testInsertAllFiresLikeSingleInserts() {
+        List<String> single = execute( false );
+        List<String> bulk = execute( true );
+        Collections.sort( single );
+        Collections.sort( bulk );
+        assertEquals( single, bulk );
+    }
+
+    @Test
+    public void testInsertAllReturnsHandlesInOrder() {
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( DRL );
+        StatefulKnowledgeSessionImpl ksession = (StatefulKnowledgeSessionImpl) createKnowledgeSession( kbase );
+        ksession.setGlobal( "list", new ArrayList<String>() );
+        try {
+            Person mark = new Person( "mark", "stilton" );
+            Cheese stilton = new Cheese( "stilton", 10 );
+            List<Object> facts = new ArrayList<Object>();
+            facts.add( mark );
+            facts.add( null );
+            facts.add( stilton );
+            facts.add( mark );
+
+            List<FactHandle> handles = ksession.insertAll( facts );
+            assertEquals( 4, handles.size() );
+            assertSame( mark, ksession.getObject( handles.get( 0 ) ) );
+            assertNull( handles.get( 1 ) );
+            assertSame( stilton, ksession.getObject( handles.get( 2 ) ) );
+            assertSame( handles.get( 0 ), handles.get( 3 ) );
+            assertEquals( 2, ksession.getFactCount() );
+            assertEquals( 1, ksession.fireAllRules() );
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testLockOnActiveUsesTheRecencyOfEachFact() {
+        String drl =
+                "import " + Person.class.getCanonicalName() + ";\n" +
+                "global java.util.List list;\n" +
+                "rule Update agenda-group \"G\" salience 10 when\n" +
+                "    $p : Person( name == \"b\", age == 0 )\n" +
+                "then\n" +
+                "    modify( $p ) { setAge( 1 ) }\n" +
+                "end\n" +
+                "rule Locked agenda-group \"G\" lock-on-active when\n" +
+                "    $p : Person( )\n" +
+                "then\n" +
+                "    list.add( $p.getName() );\n" +
+                "end\n";
+        List<String> single = executeLockOnActive( drl, false );
+        List<String> bulk = executeLockOnActive( drl, true );
+
+        // b is modified once the group is active, so only a fires
+        assertEquals( Collections.singletonList( "a" ), single );
+        assertEquals( single, bulk );
+    }
+
+    private List<String> executeLockOnActive(String drl, boolean bulk) {
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( drl );
+        StatefulKnowledgeSession ksession = createKnowledgeSession( kbase );
+
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+        try {
+            List<Object> facts = new ArrayList<Object>();
+            facts.add( new Person( "a", "stilton", 0 ) );
+            facts.add( new Person( "b", "stilton", 0 ) );
+            if ( bulk ) {
+                ( (StatefulKnowledgeSessionImpl) ksession ).insertAll( facts );
+            } else {
+                for ( Object fact : facts ) {
+                    ksession.insert( fact );
+                }
+            }
+            ksession.getAgenda().getAgendaGroup( "G" ).setFocus();
+            ksession.fireAllRules();
+        } finally {
+            ksession.dispose();
+        }
+        return list;
+    }
+
+    private List<String> execute(boolean bulk) {
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( DRL );
+        StatefulKnowledgeSession ksession = createKnowledgeSession( kbase );
+
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+        try {
+            List<Object> facts = new ArrayList<Object>();
+            for ( int i = 0; i < 20; i++ ) {
+                facts.add( new Person( "p" + i, "c" + ( i % 5 ), i * 3 ) );
+                facts.add( new Cheese( "c" + ( i % 7 ), i ) );
+                facts.add( "p" + ( i * 2 ) );
+            }
+            if ( bulk ) {
+                ( (StatefulKnowledgeSessionImpl) ksession ).insertAll( facts );
+            } else {
+                for ( Object fact : facts ) {
+                    ksession.insert( fact );
+                }
+            }
+            ksession.fireAllRules();
+        } finally {
+            ksession.dispose();
+        }
+        assertFalse( list.isEmpty() );
+        return list;
+    }
+}
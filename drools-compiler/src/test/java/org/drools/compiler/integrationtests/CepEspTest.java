@@ -4374,4 +4374,60 @@ public class CepEspTest extends CommonTestMethodBase {
 
         ksession.dispose();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSlidingTimeWindowWithPanes() {
+        String drl = "package org.drools.compiler\n" +
+                     "global java.util.List list;\n" +
+                     "declare StockTick\n" +
+                     "    @role( event )\n" +
+                     "end\n" +
+                     "rule R when\n" +
+                     "    accumulate( StockTick( $c : company ) over window:time( 10s, 2s ),\n" +
+                     "                $count : count( $c ),\n" +
+                     "                $companies : approxCountDistinct( $c ) )\n" +
+                     "then\n" +
+                     "    list.add( $count.intValue() + \":\" + $companies.intValue() );\n" +
+                     "end\n";
+
+        KieBaseConfiguration kbaseConf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kbaseConf.setOption( EventProcessingOption.STREAM );
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( kbaseConf, drl );
+
+        KieSessionConfiguration sessionConfig = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        sessionConfig.setOption( ClockTypeOption.get( ClockType.PSEUDO_CLOCK.getId() ) );
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession( sessionConfig, null );
+        SessionPseudoClock clock = ksession.getSessionClock();
+
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+
+        // two events in the pane [0, 2s), two in the pane [2s, 4s)
+        ksession.insert( new StockTick( 1, "AAA", 10, 0 ) );
+        clock.advanceTime( 1000, TimeUnit.MILLISECONDS );
+        ksession.insert( new StockTick( 2, "BBB", 10, 0 ) );
+        clock.advanceTime( 1500, TimeUnit.MILLISECONDS );
+        ksession.insert( new StockTick( 3, "CCC", 10, 0 ) );
+        clock.advanceTime( 500, TimeUnit.MILLISECONDS );
+        ksession.insert( new StockTick( 4, "CCC", 10, 0 ) );
+        ksession.fireAllRules();
+        assertEquals( "4:3", list.get( list.size() - 1 ) );
+
+        // the first events would have left a plain 10s window, but their pane is still in it
+        clock.advanceTime( 8500, TimeUnit.MILLISECONDS );
+        ksession.fireAllRules();
+        assertEquals( "4:3", list.get( list.size() - 1 ) );
+
+        // the whole first pane is dropped at once
+        list.clear();
+        clock.advanceTime( 500, TimeUnit.MILLISECONDS );
+        ksession.fireAllRules();
+        assertEquals( Arrays.asList( "2:1" ), list );
+
+        clock.advanceTime( 2000, TimeUnit.MILLISECONDS );
+        ksession.fireAllRules();
+        assertEquals( "0:0", list.get( list.size() - 1 ) );
+
+        ksession.dispose();
+    }
+}
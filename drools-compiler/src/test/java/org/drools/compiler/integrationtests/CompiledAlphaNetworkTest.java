@@ -0,0 +1,148 @@
+package org.drools.compiler.integrationtests;
+
+import org.drools.compiler.Cheese;
+import org.drools.compiler.CommonTestMethodBase;
+import org.drools.compiler.Person;
+import org.drools.core.base.ClassObjectType;
+import org.drools.core.common.InternalRuleBase;
+import org.drools.core.impl.KnowledgeBaseImpl;
+import org.drools.core.reteoo.CompositeObjectSinkAdapter;
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.junit.Test;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.builder.conf.RuleEngineOption;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class CompiledAlphaNetworkTest extends CommonTestMethodBase {
+
+    private static final String DRL =
+            "package org.drools.compiler.test\n" +
+            "import " + Person.class.getCanonicalName() + ";\n" +
+            "import " + Cheese.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "rule R1 when\n" +
+            "    $p : Person( name == \"a\" )\n" +
+            "then\n" +
+            "    list.add( \"R1:\" + $p.getName() + \":\" + $p.getAge() );\n" +
+            "end\n" +
+            "rule R2 when\n" +
+            "    $p : Person( name == \"b\" )\n" +
+            "then\n" +
+            "    list.add( \"R2:\" + $p.getName() + \":\" + $p.getAge() );\n" +
+            "end\n" +
+            "rule R3 when\n" +
+            "    $p : Person( name == \"c\", age > 10 )\n" +
+            "then\n" +
+            "    list.add( \"R3:\" + $p.getName() + \":\" + $p.getAge() );\n" +
+            "end\n" +
+            "rule R4 when\n" +
+            "    $p : Person( age > 20 )\n" +
+            "then\n" +
+            "    list.add( \"R4:\" + $p.getName() + \":\" + $p.getAge() );\n" +
+            "end\n" +
+            "rule R5 when\n" +
+            "    $p : Person( likes == \"stilton\" )\n" +
+            "    $c : Cheese( type == $p.likes )\n" +
+            "then\n" +
+            "    list.add( \"R5:\" + $p.getName() + \":\" + $c.getPrice() );\n" +
+            "end\n";
+
+    @Test
+    public void testCompiledNetworkFiresLikeInterpretedOne() {
+        KnowledgeBase compiledKbase = loadKnowledgeBase( true );
+        assertNotNull( getObjectTypeNode( compiledKbase, "Person" ).getCompiledNetwork() );
+
+        KnowledgeBase interpretedKbase = loadKnowledgeBase( false );
+        assertNull( getObjectTypeNode( interpretedKbase, "Person" ).getCompiledNetwork() );
+
+        List<String> compiled = execute( compiledKbase );
+        List<String> interpreted = execute( interpretedKbase );
+        assertFalse( compiled.isEmpty() );
+        assertEquals( interpreted, compiled );
+    }
+
+    @Test
+    public void testCompiledNetworkIsRegeneratedOnRuleRemoval() {
+        KnowledgeBase kbase = loadKnowledgeBase( true );
+        kbase.removeRule( "org.drools.compiler.test", "R1" );
+        assertNotNull( getObjectTypeNode( kbase, "Person" ).getCompiledNetwork() );
+
+        List<String> list = execute( kbase );
+        for ( String fired : list ) {
+            assertFalse( fired.startsWith( "R1:" ) );
+        }
+        assertTrue( list.contains( "R2:b:5" ) );
+    }
+
+    @Test
+    public void testRangeIndexedNetworkIsNotCompiled() {
+        String drl = DRL +
+                     "rule R6 when\n" +
+                     "    $p : Person( age > 25 )\n" +
+                     "then\n" +
+                     "    list.add( \"R6:\" + $p.getName() + \":\" + $p.getAge() );\n" +
+                     "end\n" +
+                     "rule R7 when\n" +
+                     "    $p : Person( age < 5 )\n" +
+                     "then\n" +
+                     "    list.add( \"R7:\" + $p.getName() + \":\" + $p.getAge() );\n" +
+                     "end\n";
+
+        KnowledgeBase compiledKbase = loadKnowledgeBase( true, drl );
+        ObjectTypeNode otn = getObjectTypeNode( compiledKbase, "Person" );
+        // the age constraints are dispatched through the RangeIndex of the interpreted network
+        assertNotNull( ((CompositeObjectSinkAdapter) otn.getSinkPropagator()).getRangeIndexedSinks() );
+        assertNull( otn.getCompiledNetwork() );
+
+        List<String> compiled = execute( compiledKbase );
+        List<String> interpreted = execute( loadKnowledgeBase( false, drl ) );
+        assertTrue( compiled.contains( "R6:b:27" ) );
+        assertTrue( compiled.contains( "R7:a:0" ) );
+        assertEquals( interpreted, compiled );
+    }
+
+    private KnowledgeBase loadKnowledgeBase(boolean compiledAlphaNetwork) {
+        return loadKnowledgeBase( compiledAlphaNetwork, DRL );
+    }
+
+    private KnowledgeBase loadKnowledgeBase(boolean compiledAlphaNetwork, String drl) {
+        KieBaseConfiguration kbaseConf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kbaseConf.setProperty( "drools.compiledAlphaNetwork", Boolean.toString( compiledAlphaNetwork ) );
+        return loadKnowledgeBaseFromString( null, kbaseConf, RuleEngineOption.PHREAK, drl );
+    }
+
+    private List<String> execute(KnowledgeBase kbase) {
+        StatefulKnowledgeSession ksession = createKnowledgeSession( kbase );
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+        try {
+            String[] names = new String[] { "a", "b", "c", "d" };
+            for ( int i = 0; i < 20; i++ ) {
+                ksession.insert( new Person( names[i % names.length], i % 2 == 0 ? "stilton" : "brie", i * 3 % 31 ) );
+            }
+            ksession.insert( new Person( "b", "cheddar", 5 ) );
+            ksession.insert( new Cheese( "stilton", 10 ) );
+            ksession.fireAllRules();
+        } finally {
+            ksession.dispose();
+        }
+        Collections.sort( list );
+        return list;
+    }
+
+    private ObjectTypeNode getObjectTypeNode(KnowledgeBase kbase, String nodeName) {
+        List<ObjectTypeNode> nodes = ((InternalRuleBase) ((KnowledgeBaseImpl) kbase).ruleBase).getRete().getObjectTypeNodes();
+        for ( ObjectTypeNode n : nodes ) {
+            if ( ((ClassObjectType) n.getObjectType()).getClassType().getSimpleName().equals( nodeName ) ) {
+                return n;
+            }
+        }
+        return null;
+    }
+}
@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 
 import org.drools.compiler.Cheese;
 import org.drools.compiler.CommonTestMethodBase;
@@ -1292,4 +1293,103 @@ public class DynamicRulesTest extends CommonTestMethodBase {
         ksession.fireAllRules();
         assertEquals(12, (int)list.get(0));
     }
-}
\ No newline at end of file
+
+    private static final String LONG_FIRE_DRL =
+            "global java.util.concurrent.CountDownLatch started\n" +
+            "global java.util.concurrent.CountDownLatch release\n" +
+            "rule Long when\n" +
+            "  String()\n" +
+            "then\n" +
+            "  started.countDown();\n" +
+            "  release.await();\n" +
+            "end\n";
+
+    private static final String DEPLOYED_DRL =
+            "global java.util.List list\n" +
+            "rule Deployed when\n" +
+            "  $i : Integer()\n" +
+            "then\n" +
+            "  list.add( $i );\n" +
+            "end\n";
+
+    @Test(timeout = 30000)
+    public void testDeployWaitsForLongFire() throws Exception {
+        final KnowledgeBase kbase = loadKnowledgeBaseFromString( LONG_FIRE_DRL );
+        final StatefulKnowledgeSession ksession = createKnowledgeSession( kbase );
+        CountDownLatch started = new CountDownLatch( 1 );
+        CountDownLatch release = new CountDownLatch( 1 );
+        ksession.setGlobal( "started", started );
+        ksession.setGlobal( "release", release );
+        ksession.insert( "fire" );
+
+        Thread firing = new Thread( new Runnable() {
+            public void run() {
+                ksession.fireAllRules();
+            }
+        } );
+        firing.start();
+        started.await();
+
+        final Collection<KnowledgePackage> kpkgs = loadKnowledgePackagesFromString( DEPLOYED_DRL );
+        Thread deploying = new Thread( new Runnable() {
+            public void run() {
+                kbase.addKnowledgePackages( kpkgs );
+            }
+        } );
+        deploying.start();
+
+        // the deploy waits, backing off, for the session to end its fire
+        deploying.join( 500 );
+        assertTrue( deploying.isAlive() );
+        release.countDown();
+        firing.join();
+        deploying.join();
+
+        List<Integer> list = new ArrayList<Integer>();
+        ksession.setGlobal( "list", list );
+        ksession.insert( 1 );
+        assertEquals( 1, ksession.fireAllRules() );
+        assertEquals( Collections.singletonList( 1 ), list );
+        ksession.dispose();
+    }
+
+    @Test(timeout = 30000)
+    public void testDeployFailsAfterSessionLockTimeout() throws Exception {
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setProperty( "drools.sessionLockTimeout", "300" );
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( kconf, LONG_FIRE_DRL );
+        final StatefulKnowledgeSession ksession = createKnowledgeSession( kbase );
+        CountDownLatch started = new CountDownLatch( 1 );
+        CountDownLatch release = new CountDownLatch( 1 );
+        ksession.setGlobal( "started", started );
+        ksession.setGlobal( "release", release );
+        ksession.insert( "fire" );
+
+        Thread firing = new Thread( new Runnable() {
+            public void run() {
+                ksession.fireAllRules();
+            }
+        } );
+        firing.start();
+        started.await();
+
+        Collection<KnowledgePackage> kpkgs = loadKnowledgePackagesFromString( DEPLOYED_DRL );
+        try {
+            kbase.addKnowledgePackages( kpkgs );
+            fail( "the session is still firing" );
+        } catch ( IllegalStateException e ) {
+            assertTrue( e.getMessage(), e.getMessage().contains( "300ms" ) );
+        } finally {
+            release.countDown();
+            firing.join();
+        }
+
+        // the rulebase has been released, so the deploy succeeds once the fire is over
+        kbase.addKnowledgePackages( kpkgs );
+        List<Integer> list = new ArrayList<Integer>();
+        ksession.setGlobal( "list", list );
+        ksession.insert( 1 );
+        assertEquals( 1, ksession.fireAllRules() );
+        ksession.dispose();
+    }
+}
@@ -0,0 +1,165 @@
+package org.drools.compiler.integrationtests;
+
+import org.drools.core.SessionConfiguration;
+import org.drools.core.common.DefaultAgenda;
+import org.drools.core.common.IdleStrategy;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.junit.Test;
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.builder.KnowledgeBuilder;
+import org.kie.internal.builder.KnowledgeBuilderFactory;
+import org.kie.internal.io.ResourceFactory;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the strategies used by fireUntilHalt to wait for the facts inserted by another thread.
+ */
+public class FireUntilHaltIdleStrategyTest {
+
+    private static String drl = "package org.drools.integrationtests\n" +
+                                "global java.util.concurrent.Semaphore fired\n" +
+                                "rule R when\n" +
+                                "    String()\n" +
+                                "then\n" +
+                                "    fired.release();\n" +
+                                "end";
+
+    @Test(timeout = 20000)
+    public void testBlocking() throws Exception {
+        checkWakeUps( IdleStrategy.BLOCKING, IdleStrategy.Blocking.class );
+    }
+
+    @Test(timeout = 20000)
+    public void testSpinThenPark() throws Exception {
+        checkWakeUps( IdleStrategy.SPIN_THEN_PARK, IdleStrategy.SpinThenPark.class );
+    }
+
+    @Test(timeout = 20000)
+    public void testBusySpin() throws Exception {
+        checkWakeUps( IdleStrategy.BUSY_SPIN, IdleStrategy.BusySpin.class );
+    }
+
+    @Test(timeout = 20000)
+    public void testCustomStrategy() throws Exception {
+        checkWakeUps( YieldingIdleStrategy.class.getName(), YieldingIdleStrategy.class );
+    }
+
+    @Test(timeout = 20000)
+    public void testBlockingInterrupt() throws Exception {
+        checkInterrupt( new IdleStrategy.Blocking() );
+    }
+
+    @Test(timeout = 20000)
+    public void testSpinThenParkInterrupt() throws Exception {
+        checkInterrupt( new IdleStrategy.SpinThenPark() );
+    }
+
+    @Test
+    public void testUnknownStrategy() {
+        try {
+            newSession( "org.drools.DoesNotExist" );
+            fail( "the idle strategy can't be found" );
+        } catch ( IllegalArgumentException e ) {
+            // expected
+        }
+    }
+
+    private void checkWakeUps(String idleStrategy, Class<?> strategyClass) throws Exception {
+        final StatefulKnowledgeSession ksession = newSession( idleStrategy );
+        Semaphore fired = new Semaphore( 0 );
+        ksession.setGlobal( "fired", fired );
+
+        IdleStrategy strategy = ((DefaultAgenda) ((StatefulKnowledgeSessionImpl) ksession).session.getAgenda()).getIdleStrategy();
+        assertEquals( strategyClass, strategy.getClass() );
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> future = executor.submit( new Runnable() {
+            public void run() {
+                ksession.fireUntilHalt();
+            }
+        } );
+
+        try {
+            for ( int i = 0; i < 50; i++ ) {
+                ksession.insert( "s" + i );
+                assertTrue( fired.tryAcquire( 5, TimeUnit.SECONDS ) );
+            }
+        } finally {
+            ksession.halt();
+            future.get( 5, TimeUnit.SECONDS );
+            executor.shutdownNow();
+            ksession.dispose();
+        }
+
+        // the firing thread waited for most of the inserts
+        assertTrue( strategy.getLatencyCount() > 0 );
+        assertTrue( strategy.getMaxLatencyNanos() >= strategy.getAverageLatencyNanos() );
+        assertFalse( ((StatefulKnowledgeSessionImpl) ksession).session.getAgenda().isFireUntilHalt() );
+    }
+
+    private void checkInterrupt(final IdleStrategy strategy) throws Exception {
+        final AtomicInteger idles = new AtomicInteger();
+        final AtomicBoolean interrupted = new AtomicBoolean( true );
+        Thread thread = new Thread( new Runnable() {
+            public void run() {
+                // the interrupt wakes up the first idle only
+                Thread.currentThread().interrupt();
+                strategy.idle();
+                interrupted.set( Thread.currentThread().isInterrupted() );
+                idles.incrementAndGet();
+                strategy.idle();
+                idles.incrementAndGet();
+            }
+        } );
+        thread.start();
+
+        while ( idles.get() == 0 ) {
+            Thread.sleep( 10 );
+        }
+        Thread.sleep( 200 );
+        assertFalse( interrupted.get() );
+        assertEquals( 1, idles.get() );
+        assertEquals( Thread.State.WAITING, thread.getState() );
+
+        strategy.signal();
+        thread.join( 5000 );
+        assertEquals( 2, idles.get() );
+    }
+
+    private StatefulKnowledgeSession newSession(String idleStrategy) {
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        kbuilder.add( ResourceFactory.newByteArrayResource( drl.getBytes() ), ResourceType.DRL );
+        assertFalse( kbuilder.getErrors().toString(), kbuilder.hasErrors() );
+
+        KnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
+        kbase.addKnowledgePackages( kbuilder.getKnowledgePackages() );
+
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setProperty( SessionConfiguration.IDLE_STRATEGY, idleStrategy );
+        return kbase.newStatefulKnowledgeSession( conf, null );
+    }
+
+    public static class YieldingIdleStrategy extends IdleStrategy {
+        protected void waitForSignal() {
+            while ( !isSignalled() ) {
+                Thread.yield();
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.drools.compiler.integrationtests;
+
+import org.drools.compiler.Cheese;
+import org.drools.compiler.CommonTestMethodBase;
+import org.drools.core.common.OpenAddressingObjectStore;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.junit.Test;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.conf.EqualityBehaviorOption;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OpenAddressingObjectStoreTest extends CommonTestMethodBase {
+
+    private static final String DRL =
+            "import " + Cheese.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "rule Expensive when\n" +
+            "    $c : Cheese( price > 100 )\n" +
+            "then\n" +
+            "    list.add( $c.getType() );\n" +
+            "end\n" +
+            "rule Big when\n" +
+            "    $i : Integer( this > 100 )\n" +
+            "then\n" +
+            "    list.add( $i );\n" +
+            "end\n";
+
+    @Test
+    public void testInsertUpdateDeleteByIdentity() {
+        insertUpdateDelete( EqualityBehaviorOption.IDENTITY );
+    }
+
+    @Test
+    public void testInsertUpdateDeleteByEquality() {
+        insertUpdateDelete( EqualityBehaviorOption.EQUALITY );
+    }
+
+    private void insertUpdateDelete(EqualityBehaviorOption equalityBehavior) {
+        StatefulKnowledgeSession ksession = newSession( equalityBehavior );
+        assertTrue( ((StatefulKnowledgeSessionImpl) ksession).getObjectStore() instanceof OpenAddressingObjectStore );
+        List<Object> list = new ArrayList<Object>();
+        ksession.setGlobal( "list", list );
+
+        // values differing only in their higher bits, so that their equality hash codes share the lower ones
+        List<Integer> facts = new ArrayList<Integer>();
+        List<FactHandle> handles = new ArrayList<FactHandle>();
+        for ( int i = 0; i < 1000; i++ ) {
+            Integer fact = new Integer( i << 16 );
+            facts.add( fact );
+            handles.add( ksession.insert( fact ) );
+        }
+        assertEquals( 1000, ksession.getFactCount() );
+        for ( int i = 0; i < 1000; i++ ) {
+            assertSame( handles.get( i ), ksession.getFactHandle( facts.get( i ) ) );
+            assertSame( facts.get( i ), ksession.getObject( handles.get( i ) ) );
+        }
+        // only the first one isn't big
+        assertEquals( 999, ksession.fireAllRules() );
+
+        // updated with a new object, which replaces the old one in the store
+        Integer small = new Integer( 1 );
+        ksession.update( handles.get( 500 ), small );
+        assertSame( handles.get( 500 ), ksession.getFactHandle( small ) );
+        assertNull( ksession.getFactHandle( facts.get( 500 ) ) );
+        facts.set( 500, small );
+
+        for ( int i = 0; i < 1000; i += 2 ) {
+            ksession.retract( handles.get( i ) );
+        }
+        assertEquals( 500, ksession.getFactCount() );
+        for ( int i = 0; i < 1000; i++ ) {
+            if ( i % 2 == 0 ) {
+                assertNull( ksession.getFactHandle( facts.get( i ) ) );
+            } else {
+                assertSame( handles.get( i ), ksession.getFactHandle( facts.get( i ) ) );
+            }
+        }
+        assertEquals( 500, ksession.getObjects().size() );
+
+        list.clear();
+        Integer big = new Integer( 1000 );
+        ksession.update( handles.get( 1 ), big );
+        assertEquals( 1, ksession.fireAllRules() );
+        assertEquals( big, list.get( 0 ) );
+        ksession.dispose();
+    }
+
+    @Test
+    public void testEqualityBehavior() {
+        StatefulKnowledgeSession ksession = newSession( EqualityBehaviorOption.EQUALITY );
+        ksession.setGlobal( "list", new ArrayList<String>() );
+
+        FactHandle stilton = ksession.insert( new Cheese( "stilton", 200 ) );
+        assertSame( stilton, ksession.insert( new Cheese( "stilton", 200 ) ) );
+        assertSame( stilton, ksession.getFactHandle( new Cheese( "stilton", 200 ) ) );
+        assertEquals( 1, ksession.getFactCount() );
+        assertEquals( 1, ksession.fireAllRules() );
+
+        ksession.retract( stilton );
+        assertNull( ksession.getFactHandle( new Cheese( "stilton", 200 ) ) );
+        assertEquals( 0, ksession.getFactCount() );
+        ksession.dispose();
+    }
+
+    private StatefulKnowledgeSession newSession(EqualityBehaviorOption equalityBehavior) {
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setProperty( "drools.openAddressingObjectStore", "true" );
+        kconf.setOption( equalityBehavior );
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( kconf, DRL );
+        return createKnowledgeSession( kbase );
+    }
+}
@@ -0,0 +1,113 @@
+package org.drools.compiler.integrationtests;
+
+import org.drools.compiler.Cheese;
+import org.drools.compiler.CommonTestMethodBase;
+import org.drools.compiler.Person;
+import org.junit.Test;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.builder.conf.RuleEngineOption;
+import org.kie.internal.conf.MaxThreadsOption;
+import org.kie.internal.conf.MultithreadEvaluationOption;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class ParallelEvaluationTest extends CommonTestMethodBase {
+
+    private static final String DRL =
+            "import " + Person.class.getCanonicalName() + ";\n" +
+            "import " + Cheese.class.getCanonicalName() + ";\n" +
+            "import " + ParallelEvaluationTest.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "rule R1 salience 10 when\n" +
+            "    $p : Person( )\n" +
+            "    $c : Cheese( type == $p.likes, eval( ParallelEvaluationTest.evaluated( $p ) ) )\n" +
+            "then\n" +
+            "    list.add( \"R1:\" + $p.getName() + \":\" + $c.getType() );\n" +
+            "end\n" +
+            "rule R2 salience 5 when\n" +
+            "    $c : Cheese( )\n" +
+            "    exists Person( likes == $c.type, eval( ParallelEvaluationTest.evaluated( $c ) ) )\n" +
+            "then\n" +
+            "    list.add( \"R2:\" + $c.getType() );\n" +
+            "end\n" +
+            "rule R3 salience 5 when\n" +
+            "    $s : String( )\n" +
+            "    not Person( name == $s )\n" +
+            "then\n" +
+            "    list.add( \"R3:\" + $s );\n" +
+            "end\n" +
+            "rule R4 when\n" +
+            "    $i : Integer( )\n" +
+            "    $n : Number( ) from accumulate( Cheese( price > $i, $price : price ), sum( $price ) )\n" +
+            "then\n" +
+            "    list.add( \"R4:\" + $i + \":\" + $n.intValue() );\n" +
+            "end\n" +
+            "rule R5 when\n" +
+            "    $p : Person( age > 30 )\n" +
+            "then\n" +
+            "    retract( $p );\n" +
+            "    list.add( \"R5:\" + $p.getName() );\n" +
+            "end\n";
+
+    private static final Set<Thread> evaluatingThreads = Collections.synchronizedSet( new HashSet<Thread>() );
+
+    public static boolean evaluated(Object fact) {
+        evaluatingThreads.add( Thread.currentThread() );
+        return true;
+    }
+
+    @Test
+    public void testParallelEvaluationFiresLikeSequentialEvaluation() {
+        List<String> sequential = execute( false );
+        assertEquals( 1, evaluatingThreads.size() );
+
+        List<String> parallel = execute( true );
+        assertEquals( sequential, parallel );
+        // the join nodes of R1 and R2 have been evaluated by different threads
+        assertTrue( evaluatingThreads.toString(), evaluatingThreads.size() > 1 );
+    }
+
+    @Test
+    public void testMultithreadEvaluationRequiresPhreak() {
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setOption( RuleEngineOption.RETEOO );
+        try {
+            kconf.setOption( MultithreadEvaluationOption.YES );
+            fail( "Multithread evaluation is not supported by rete" );
+        } catch ( IllegalArgumentException e ) {
+            // expected
+        }
+    }
+
+    private List<String> execute(boolean multithread) {
+        evaluatingThreads.clear();
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setOption( multithread ? MultithreadEvaluationOption.YES : MultithreadEvaluationOption.NO );
+        kconf.setOption( MaxThreadsOption.get( 4 ) );
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( kconf, DRL );
+        StatefulKnowledgeSession ksession = createKnowledgeSession( kbase );
+
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+        try {
+            for ( int i = 0; i < 20; i++ ) {
+                ksession.insert( new Person( "p" + i, "c" + ( i % 5 ), i * 3 ) );
+                ksession.insert( new Cheese( "c" + ( i % 7 ), i ) );
+                ksession.insert( "p" + ( i * 2 ) );
+            }
+            ksession.insert( 10 );
+            ksession.fireAllRules();
+        } finally {
+            ksession.dispose();
+        }
+        assertFalse( list.isEmpty() );
+        return list;
+    }
+}
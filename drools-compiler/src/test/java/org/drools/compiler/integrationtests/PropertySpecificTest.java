@@ -21,12 +21,14 @@ import org.drools.core.impl.StatefulKnowledgeSessionImpl;
 import org.drools.core.reteoo.AlphaNode;
 import org.drools.core.reteoo.BetaNode;
 import org.drools.core.reteoo.LeftInputAdapterNode;
+import org.drools.core.reteoo.ObjectSink;
 import org.drools.core.reteoo.ObjectTypeNode;
 import org.drools.core.reteoo.ReteooWorkingMemoryInterface;
 import org.drools.core.reteoo.RuleTerminalNode;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
 import org.kie.internal.builder.KnowledgeBuilder;
 import org.kie.internal.builder.KnowledgeBuilderConfiguration;
 import org.kie.internal.builder.KnowledgeBuilderFactory;
@@ -58,8 +60,8 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         LeftInputAdapterNode liaNode = ( LeftInputAdapterNode ) otn.getSinkPropagator().getSinks()[0];
         
         RuleTerminalNode rtNode = ( RuleTerminalNode ) liaNode.getSinkPropagator().getSinks()[0];
-        assertEquals( -1L, rtNode.getDeclaredMask() );
-        assertEquals( -1L, rtNode.getInferredMask() );
+        assertEquals( -1L, rtNode.getDeclaredMask().asLong() );
+        assertEquals( -1L, rtNode.getInferredMask().asLong() );
     }   
     
     @Test
@@ -80,8 +82,8 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         LeftInputAdapterNode liaNode = ( LeftInputAdapterNode ) otn.getSinkPropagator().getSinks()[0];
         
         RuleTerminalNode rtNode = ( RuleTerminalNode ) liaNode.getSinkPropagator().getSinks()[0];
-        assertEquals( -1L, rtNode.getDeclaredMask() );
-        assertEquals( -1L, rtNode.getInferredMask() );
+        assertEquals( -1L, rtNode.getDeclaredMask().asLong() );
+        assertEquals( -1L, rtNode.getInferredMask().asLong() );
     }   
     
     @Test
@@ -100,15 +102,15 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         assertNotNull( otn );
 
         AlphaNode alphaNode = ( AlphaNode ) otn.getSinkPropagator().getSinks()[0];
-        assertEquals( -1L, alphaNode.getDeclaredMask() );
-        assertEquals( -1L, alphaNode.getInferredMask() );
+        assertEquals( -1L, alphaNode.getDeclaredMask().asLong() );
+        assertEquals( -1L, alphaNode.getInferredMask().asLong() );
         
         
         LeftInputAdapterNode liaNode = ( LeftInputAdapterNode ) alphaNode.getSinkPropagator().getSinks()[0];
         
         RuleTerminalNode rtNode = ( RuleTerminalNode ) liaNode.getSinkPropagator().getSinks()[0];
-        assertEquals( -1L, rtNode.getDeclaredMask() );
-        assertEquals( -1L, rtNode.getInferredMask() );
+        assertEquals( -1L, rtNode.getDeclaredMask().asLong() );
+        assertEquals( -1L, rtNode.getInferredMask().asLong() );
     }  
     
     @Test
@@ -130,8 +132,8 @@ public class PropertySpecificTest extends CommonTestMethodBase {
 
         BetaNode betaNode = ( BetaNode ) otn.getSinkPropagator().getSinks()[0];
         
-        assertEquals( -1L, betaNode.getRightDeclaredMask() );
-        assertEquals( -1L, betaNode.getRightInferredMask() );
+        assertEquals( -1L, betaNode.getRightDeclaredMask().asLong() );
+        assertEquals( -1L, betaNode.getRightInferredMask().asLong() );
     }    
     
     @Test
@@ -152,13 +154,13 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         assertNotNull( otn );
 
         AlphaNode alphaNode = ( AlphaNode ) otn.getSinkPropagator().getSinks()[0];
-        assertEquals( -1L, alphaNode.getDeclaredMask() );
-        assertEquals( -1L, alphaNode.getInferredMask() );
+        assertEquals( -1L, alphaNode.getDeclaredMask().asLong() );
+        assertEquals( -1L, alphaNode.getInferredMask().asLong() );
         
         BetaNode betaNode = ( BetaNode ) alphaNode.getSinkPropagator().getSinks()[0]; 
         
-        assertEquals( -1L, betaNode.getRightDeclaredMask() );
-        assertEquals( -1L, betaNode.getRightInferredMask() );
+        assertEquals( -1L, betaNode.getRightDeclaredMask().asLong() );
+        assertEquals( -1L, betaNode.getRightInferredMask().asLong() );
     }  
     
     @Test
@@ -180,10 +182,10 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         LeftInputAdapterNode liaNode = ( LeftInputAdapterNode ) otn.getSinkPropagator().getSinks()[0];
         BetaNode betaNode = ( BetaNode ) liaNode.getSinkPropagator().getSinks()[1];
         
-        assertEquals( -1L, betaNode.getLeftDeclaredMask() );
-        assertEquals( -1L, betaNode.getLeftInferredMask() );
-        assertEquals( -1L, betaNode.getRightDeclaredMask() );
-        assertEquals( -1L, betaNode.getRightInferredMask() );
+        assertEquals( -1L, betaNode.getLeftDeclaredMask().asLong() );
+        assertEquals( -1L, betaNode.getLeftInferredMask().asLong() );
+        assertEquals( -1L, betaNode.getRightDeclaredMask().asLong() );
+        assertEquals( -1L, betaNode.getRightInferredMask().asLong() );
     }  
     
     @Test
@@ -206,10 +208,10 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         LeftInputAdapterNode liaNode = ( LeftInputAdapterNode ) otn.getSinkPropagator().getSinks()[0];
         BetaNode betaNode = ( BetaNode ) liaNode.getSinkPropagator().getSinks()[1];
         
-        assertEquals( -1L, betaNode.getLeftDeclaredMask() );
-        assertEquals( -1L, betaNode.getLeftInferredMask() );
-        assertEquals( -1L, betaNode.getRightDeclaredMask() );
-        assertEquals( -1L, betaNode.getRightInferredMask() );
+        assertEquals( -1L, betaNode.getLeftDeclaredMask().asLong() );
+        assertEquals( -1L, betaNode.getLeftInferredMask().asLong() );
+        assertEquals( -1L, betaNode.getRightDeclaredMask().asLong() );
+        assertEquals( -1L, betaNode.getRightInferredMask().asLong() );
     }    
     
     @Test
@@ -236,30 +238,30 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         assertNotNull( otn );
 
         AlphaNode alphaNode1 = ( AlphaNode ) otn.getSinkPropagator().getSinks()[0];
-        assertEquals( -1L, alphaNode1.getDeclaredMask() );
-        assertEquals( -1L, alphaNode1.getInferredMask() );
+        assertEquals( -1L, alphaNode1.getDeclaredMask().asLong() );
+        assertEquals( -1L, alphaNode1.getInferredMask().asLong() );
         
         
         // first share
         AlphaNode alphaNode1_1 = ( AlphaNode ) alphaNode1.getSinkPropagator().getSinks()[0];
-        assertEquals( -1L, alphaNode1_1.getDeclaredMask() );
-        assertEquals( -1L, alphaNode1_1.getInferredMask() );
+        assertEquals( -1L, alphaNode1_1.getDeclaredMask().asLong() );
+        assertEquals( -1L, alphaNode1_1.getInferredMask().asLong() );
         
         BetaNode betaNode1 = ( BetaNode ) alphaNode1_1.getSinkPropagator().getSinks()[0]; 
         
-        assertEquals( -1L, betaNode1.getRightDeclaredMask() );
-        assertEquals( -1L, betaNode1.getRightInferredMask() );
+        assertEquals( -1L, betaNode1.getRightDeclaredMask().asLong() );
+        assertEquals( -1L, betaNode1.getRightInferredMask().asLong() );
         
         
         // second share
         AlphaNode alphaNode1_2 = ( AlphaNode ) alphaNode1.getSinkPropagator().getSinks()[1];
-        assertEquals( -1L, alphaNode1_2.getDeclaredMask() );
-        assertEquals( -1L, alphaNode1_2.getInferredMask() );
+        assertEquals( -1L, alphaNode1_2.getDeclaredMask().asLong() );
+        assertEquals( -1L, alphaNode1_2.getInferredMask().asLong() );
         
         BetaNode betaNode2 = ( BetaNode ) alphaNode1_2.getSinkPropagator().getSinks()[0]; 
         
-        assertEquals( -1L, betaNode2.getRightDeclaredMask() );
-        assertEquals( -1L, betaNode2.getRightInferredMask() );
+        assertEquals( -1L, betaNode2.getRightDeclaredMask().asLong() );
+        assertEquals( -1L, betaNode2.getRightInferredMask().asLong() );
     }       
     
 
@@ -317,8 +319,8 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         LeftInputAdapterNode liaNode = ( LeftInputAdapterNode ) otn.getSinkPropagator().getSinks()[0];
         
         RuleTerminalNode rtNode = ( RuleTerminalNode ) liaNode.getSinkPropagator().getSinks()[0];
-        assertEquals( 0, rtNode.getDeclaredMask() );
-        assertEquals( 0, rtNode.getInferredMask() );
+        assertEquals( 0, rtNode.getDeclaredMask().asLong() );
+        assertEquals( 0, rtNode.getInferredMask().asLong() );
     }   
     
     @Test
@@ -357,7 +359,7 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         LeftInputAdapterNode liaNode = ( LeftInputAdapterNode ) alphaNode.getSinkPropagator().getSinks()[0];        
         
         RuleTerminalNode rtNode = ( RuleTerminalNode ) liaNode.getSinkPropagator().getSinks()[0];
-        assertEquals(  0, rtNode.getDeclaredMask() ); // rtn declares nothing
+        assertEquals(  0, rtNode.getDeclaredMask().asLong() ); // rtn declares nothing
         assertEquals(  calculatePositiveMask(list("a"), sp), rtNode.getInferredMask() ); // rtn infers from alpha 
     }  
     
@@ -407,7 +409,7 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         LeftInputAdapterNode liaNode1 = ( LeftInputAdapterNode ) alphaNode1_1.getSinkPropagator().getSinks()[0];
         RuleTerminalNode rtNode1 = ( RuleTerminalNode ) liaNode1.getSinkPropagator().getSinks()[0];
         
-        assertEquals( 0, rtNode1.getDeclaredMask() );
+        assertEquals( 0, rtNode1.getDeclaredMask().asLong() );
         assertEquals(  calculatePositiveMask(list("a", "b"), sp), rtNode1.getInferredMask() );
         
         
@@ -419,7 +421,7 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         LeftInputAdapterNode liaNode2 = ( LeftInputAdapterNode ) alphaNode1_2.getSinkPropagator().getSinks()[0];
         RuleTerminalNode rtNode2 = ( RuleTerminalNode ) liaNode2.getSinkPropagator().getSinks()[0];
         
-        assertEquals( 0, rtNode2.getDeclaredMask() );
+        assertEquals( 0, rtNode2.getDeclaredMask().asLong() );
         assertEquals(  calculatePositiveMask(list("a", "i"), sp), rtNode2.getInferredMask() );
         
         // test rule removal        
@@ -430,7 +432,7 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         assertEquals( calculatePositiveMask(list("i"), sp), alphaNode1_2.getDeclaredMask( ) );
         assertEquals( calculatePositiveMask(list("a", "i"), sp), alphaNode1_2.getInferredMask() );
         
-        assertEquals(  0, rtNode2.getDeclaredMask() );
+        assertEquals(  0, rtNode2.getDeclaredMask().asLong() );
         assertEquals(  calculatePositiveMask(list("a", "i"), sp), rtNode2.getInferredMask() );
         
         // have to rebuild to remove r1
@@ -449,7 +451,7 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         
         liaNode1 = ( LeftInputAdapterNode ) alphaNode1_1.getSinkPropagator().getSinks()[0];
         rtNode1 = ( RuleTerminalNode ) liaNode1.getSinkPropagator().getSinks()[0];       
-        assertEquals(  0, rtNode1.getDeclaredMask() );
+        assertEquals(  0, rtNode1.getDeclaredMask().asLong() );
         assertEquals(  calculatePositiveMask(list("a", "b"), sp), rtNode1.getInferredMask() );         
     }      
     
@@ -537,11 +539,11 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         assertNotNull( otn );
 
         BetaNode betaNode = ( BetaNode )  otn.getSinkPropagator().getSinks()[0]; 
-        assertEquals( 0, betaNode.getRightDeclaredMask() );
-        assertEquals( 0, betaNode.getRightInferredMask() );
+        assertEquals( 0, betaNode.getRightDeclaredMask().asLong() );
+        assertEquals( 0, betaNode.getRightInferredMask().asLong() );
         
-        assertEquals( 0, betaNode.getLeftDeclaredMask() );
-        assertEquals( 0, betaNode.getLeftInferredMask() );        
+        assertEquals( 0, betaNode.getLeftDeclaredMask().asLong() );
+        assertEquals( 0, betaNode.getLeftInferredMask().asLong() );        
     }     
     
     @Test
@@ -586,7 +588,7 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         assertEquals( calculatePositiveMask(list("a"), sp), alphaNode.getDeclaredMask( ) );
         assertEquals( calculatePositiveMask(list("a"), sp), alphaNode.getInferredMask());        
         
-        assertEquals(  0, betaNode.getLeftDeclaredMask() );
+        assertEquals(  0, betaNode.getLeftDeclaredMask().asLong() );
         assertEquals(  calculatePositiveMask(list("a"), sp), betaNode.getLeftInferredMask() );         
     }    
     
@@ -774,7 +776,7 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         assertEquals( calculateNegativeMask(list("!a"), sp), betaNode1.getLeftNegativeMask() );
         assertEquals( calculatePositiveMask(list("j"), sp), betaNode2.getLeftDeclaredMask() );
         assertEquals( calculatePositiveMask(list("a", "j"), sp), betaNode2.getLeftInferredMask() );
-        assertEquals( 0L, betaNode2.getLeftNegativeMask() );
+        assertEquals( 0L, betaNode2.getLeftNegativeMask().asLong() );
 
         // test rule removal        
         kbase.removeRule( "org.drools.compiler.integrationtests", "r0" );
@@ -790,7 +792,7 @@ public class PropertySpecificTest extends CommonTestMethodBase {
 
         assertEquals( calculatePositiveMask(list("j"), sp), betaNode2.getLeftDeclaredMask() );
         assertEquals( calculatePositiveMask(list("a", "j"), sp), betaNode2.getLeftInferredMask() );
-        assertEquals( 0L, betaNode2.getLeftNegativeMask() );
+        assertEquals( 0L, betaNode2.getLeftNegativeMask().asLong() );
 
         // have to rebuild to remove r1
         kbase = getKnowledgeBase(rule1, rule2);
@@ -2020,12 +2022,12 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         BetaNode betaNodeA = ( BetaNode ) otnA.getSinkPropagator().getSinks()[0];
         assertEquals( calculatePositiveMask(list("i", "b", "c"), sp), betaNodeA.getRightDeclaredMask() );
         assertEquals( calculatePositiveMask(list("i", "b", "c"), sp), betaNodeA.getRightInferredMask() );
-        assertEquals( -1L, betaNodeA.getLeftDeclaredMask() );
-        assertEquals( -1L, betaNodeA.getLeftInferredMask() );
+        assertEquals( -1L, betaNodeA.getLeftDeclaredMask().asLong() );
+        assertEquals( -1L, betaNodeA.getLeftInferredMask().asLong() );
 
         BetaNode betaNodeC = ( BetaNode ) otnC.getSinkPropagator().getSinks()[0];
-        assertEquals( 0L, betaNodeC.getRightDeclaredMask() );
-        assertEquals( 0L, betaNodeC.getRightInferredMask() );
+        assertEquals( 0L, betaNodeC.getRightDeclaredMask().asLong() );
+        assertEquals( 0L, betaNodeC.getRightInferredMask().asLong() );
         assertEquals( calculatePositiveMask(list("k"), sp), betaNodeC.getLeftDeclaredMask() );
         assertEquals( calculatePositiveMask(list("a", "k"), sp), betaNodeC.getLeftInferredMask() );
     }
@@ -2047,10 +2049,10 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         assertEquals( calculatePositiveMask(list("a", "k"), sp), betaNodeA.getLeftInferredMask() );
 
         BetaNode betaNodeC = ( BetaNode ) otnC.getSinkPropagator().getSinks()[0];
-        assertEquals(0L, betaNodeC.getRightDeclaredMask());
-        assertEquals( 0L, betaNodeC.getRightInferredMask() );
-        assertEquals( -1L, betaNodeC.getLeftDeclaredMask() );
-        assertEquals( -1L, betaNodeC.getLeftInferredMask() );
+        assertEquals(0L, betaNodeC.getRightDeclaredMask().asLong());
+        assertEquals( 0L, betaNodeC.getRightInferredMask().asLong() );
+        assertEquals( -1L, betaNodeC.getLeftDeclaredMask().asLong() );
+        assertEquals( -1L, betaNodeC.getLeftInferredMask().asLong() );
     }
 
     @Test
@@ -2076,13 +2078,13 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         LeftInputAdapterNode lia2 = (LeftInputAdapterNode)alphaNode.getSinkPropagator().getSinks()[1];
         assertSame(betaNodeC2, lia2.getSinkPropagator().getSinks()[0]);
 
-        assertEquals( 0L, betaNodeC1.getRightDeclaredMask() );
-        assertEquals( 0L, betaNodeC1.getRightInferredMask() );
+        assertEquals( 0L, betaNodeC1.getRightDeclaredMask().asLong() );
+        assertEquals( 0L, betaNodeC1.getRightInferredMask().asLong() );
         assertEquals( calculatePositiveMask(list("b"), sp), betaNodeC1.getLeftDeclaredMask() );
         assertEquals( calculatePositiveMask(list("a", "b"), sp), betaNodeC1.getLeftInferredMask() );
 
-        assertEquals( 0L, betaNodeC2.getRightDeclaredMask() );
-        assertEquals( 0L, betaNodeC2.getRightInferredMask() );
+        assertEquals( 0L, betaNodeC2.getRightDeclaredMask().asLong() );
+        assertEquals( 0L, betaNodeC2.getRightInferredMask().asLong() );
         assertEquals( calculatePositiveMask(list("c"), sp), betaNodeC2.getLeftDeclaredMask() );
         assertEquals( calculatePositiveMask(list("a", "c"), sp), betaNodeC2.getLeftInferredMask() );
 
@@ -2093,8 +2095,8 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         assertEquals( 1, lia2.getSinkPropagator().getSinks().length );
         BetaNode betaNodeC = ( BetaNode ) lia2.getSinkPropagator().getSinks()[0];
 
-        assertEquals( 0L, betaNodeC2.getRightDeclaredMask() );
-        assertEquals( 0L, betaNodeC2.getRightInferredMask() );
+        assertEquals( 0L, betaNodeC2.getRightDeclaredMask().asLong() );
+        assertEquals( 0L, betaNodeC2.getRightInferredMask().asLong() );
         assertEquals( calculatePositiveMask(list("c"), sp), betaNodeC2.getLeftDeclaredMask() );
         assertEquals( calculatePositiveMask(list("a", "c"), sp), betaNodeC2.getLeftInferredMask() );
     }
@@ -2118,20 +2120,20 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         assertSame(betaNodeA1.getLeftTupleSource(), betaNodeC);
         assertSame(betaNodeA2.getLeftTupleSource(), betaNodeC);
 
-        assertEquals( 0L, betaNodeC.getRightDeclaredMask() );
-        assertEquals( 0L, betaNodeC.getRightInferredMask() );
-        assertEquals( 0L, betaNodeC.getLeftDeclaredMask() );
+        assertEquals( 0L, betaNodeC.getRightDeclaredMask().asLong() );
+        assertEquals( 0L, betaNodeC.getRightInferredMask().asLong() );
+        assertEquals( 0L, betaNodeC.getLeftDeclaredMask().asLong() );
         assertEquals( calculatePositiveMask(list("a"), sp), betaNodeC.getLeftInferredMask() );
 
-        assertEquals( 0L, betaNodeA1.getRightDeclaredMask() );
-        assertEquals( 0L, betaNodeA1.getRightInferredMask() );
-        assertEquals( -1L, betaNodeA1.getLeftDeclaredMask() );
-        assertEquals( -1L, betaNodeA1.getLeftInferredMask() );
+        assertEquals( 0L, betaNodeA1.getRightDeclaredMask().asLong() );
+        assertEquals( 0L, betaNodeA1.getRightInferredMask().asLong() );
+        assertEquals( -1L, betaNodeA1.getLeftDeclaredMask().asLong() );
+        assertEquals( -1L, betaNodeA1.getLeftInferredMask().asLong() );
 
         assertEquals( calculatePositiveMask(list("b", "c"), sp), betaNodeA2.getRightDeclaredMask() );
         assertEquals( calculatePositiveMask(list("b", "c"), sp), betaNodeA2.getRightInferredMask() );
-        assertEquals( -1L, betaNodeA2.getLeftDeclaredMask() );
-        assertEquals( -1L, betaNodeA2.getLeftInferredMask() );
+        assertEquals( -1L, betaNodeA2.getLeftDeclaredMask().asLong() );
+        assertEquals( -1L, betaNodeA2.getLeftInferredMask().asLong() );
 
         kbase.removeRule( "org.drools.compiler.integrationtests", "r0" );
         assertEquals(1, betaNodeC.getSinkPropagator().getSinks().length);
@@ -2168,18 +2170,18 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         ObjectTypeNode otnC = getObjectTypeNode(kbase, "C" );
         BetaNode betaNodeC = ( BetaNode ) otnC.getSinkPropagator().getSinks()[0];
 
-        assertEquals( 0L, betaNodeC.getRightDeclaredMask() );
-        assertEquals( 0L, betaNodeC.getRightInferredMask() );
-        assertEquals( -1L, betaNodeC.getLeftDeclaredMask() );
-        assertEquals( -1L, betaNodeC.getLeftInferredMask() );
+        assertEquals( 0L, betaNodeC.getRightDeclaredMask().asLong() );
+        assertEquals( 0L, betaNodeC.getRightInferredMask().asLong() );
+        assertEquals( -1L, betaNodeC.getLeftDeclaredMask().asLong() );
+        assertEquals( -1L, betaNodeC.getLeftInferredMask().asLong() );
 
         ObjectTypeNode otnD = getObjectTypeNode(kbase, "D" );
         BetaNode betaNodeD = ( BetaNode ) otnC.getSinkPropagator().getSinks()[0];
 
-        assertEquals( 0L, betaNodeD.getRightDeclaredMask() );
-        assertEquals( 0L, betaNodeD.getRightInferredMask() );
-        assertEquals( -1L, betaNodeD.getLeftDeclaredMask() );
-        assertEquals( -1L, betaNodeD.getLeftInferredMask() );
+        assertEquals( 0L, betaNodeD.getRightDeclaredMask().asLong() );
+        assertEquals( 0L, betaNodeD.getRightInferredMask().asLong() );
+        assertEquals( -1L, betaNodeD.getLeftDeclaredMask().asLong() );
+        assertEquals( -1L, betaNodeD.getLeftInferredMask().asLong() );
 
         kbase.removeRule( "org.drools.compiler.integrationtests", "r1" );
         assertEquals( calculatePositiveMask(list("a"), sp), alphaNode.getDeclaredMask( ) );
@@ -2346,15 +2348,31 @@ public class PropertySpecificTest extends CommonTestMethodBase {
     }
 
     @Test
-    public void testDisablePropSpecWith64OrMoreFieldsAndRaiseWarning() {
+    public void testPropSpecWith64OrMoreFields() {
         StringBuilder drl = new StringBuilder();
         drl.append("package org.drools.compiler.integrationtests\n")
+                .append("global java.util.List list;\n")
                 .append("declare A\n")
                 .append("@propertyReactive\n");
-        for (int i = 0; i < 65; i++) {
+        for (int i = 0; i < 70; i++) {
             drl.append("a" + i + " : int\n");
         }
-        drl.append("end\n");
+        drl.append("end\n")
+                .append("rule Init when\n")
+                .append("   $a : A( a0 == 0 )\n")
+                .append("then\n")
+                .append("   modify( $a ) { setA65( 1 ) };\n")
+                .append("end\n")
+                .append("rule R1 when\n")
+                .append("   A( a65 == 1 )\n")
+                .append("then\n")
+                .append("   list.add( \"R1\" );\n")
+                .append("end\n")
+                .append("rule R2 when\n")
+                .append("   A( a1 == 0 )\n")
+                .append("then\n")
+                .append("   list.add( \"R2\" );\n")
+                .append("end\n");
 
         KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
         kbuilder.add( ResourceFactory.newByteArrayResource(drl.toString().getBytes()), ResourceType.DRL );
@@ -2362,8 +2380,38 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         if ( kbuilder.hasErrors() ) {
             fail( kbuilder.getErrors().toString() );
         }
+        assertFalse(((KnowledgeBuilderImpl)kbuilder).hasWarnings());
 
-        assertTrue(((KnowledgeBuilderImpl)kbuilder).hasWarnings());
+        KnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
+        kbase.addKnowledgePackages( kbuilder.getKnowledgePackages() );
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+
+        FactType factTypeA = kbase.getFactType( "org.drools.compiler.integrationtests", "A" );
+        ksession.insert( factTypeA.newInstance() );
+        ksession.fireAllRules( 10 );
+
+        // the 66th property must not be confused with the 2nd one, as it would with a 64 bits mask
+        assertEquals( 2, list.size() );
+        assertTrue( list.contains( "R1" ) );
+        assertTrue( list.contains( "R2" ) );
+
+        ObjectTypeNode otn = getObjectTypeNode(kbase, "A" );
+        ReteooWorkingMemoryInterface wm = ((StatefulKnowledgeSessionImpl)ksession).session;
+        List<String> sp = getSettableProperties(wm, otn);
+        assertEquals( 70, sp.size() );
+        AlphaNode alphaNode = null;
+        for ( ObjectSink sink : otn.getSinkPropagator().getSinks() ) {
+            if ( sink instanceof AlphaNode && ((AlphaNode) sink).getConstraint().toString().contains( "a65" ) ) {
+                alphaNode = (AlphaNode) sink;
+            }
+        }
+        assertNotNull( alphaNode );
+        assertEquals( calculatePositiveMask(list("a65"), sp), alphaNode.getDeclaredMask() );
+        assertFalse( alphaNode.getDeclaredMask().isLong() );
+        ksession.dispose();
     }
 
     @Test(timeout = 5000)
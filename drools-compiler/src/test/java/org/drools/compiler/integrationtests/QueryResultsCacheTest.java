@@ -0,0 +1,186 @@
+package org.drools.compiler.integrationtests;
+
+import org.drools.compiler.Cheese;
+import org.drools.compiler.Person;
+import org.drools.compiler.StockTick;
+import org.drools.core.SessionConfiguration;
+import org.drools.core.common.QueryResultsCache;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.drools.core.time.SessionPseudoClock;
+import org.junit.Test;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.conf.EventProcessingOption;
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.conf.ClockTypeOption;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.builder.KnowledgeBuilder;
+import org.kie.internal.builder.KnowledgeBuilderFactory;
+import org.kie.internal.io.ResourceFactory;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class QueryResultsCacheTest {
+
+    private static String drl = "package org.drools.integrationtests\n" +
+                                "import " + Person.class.getCanonicalName() + "\n" +
+                                "import " + Cheese.class.getCanonicalName() + "\n" +
+                                "global java.util.List list\n" +
+                                "query peopleOfAge(int $age)\n" +
+                                "    Person( age == $age )\n" +
+                                "end\n" +
+                                "query cheeseLovers(String $type)\n" +
+                                "    Person( likes == $type )\n" +
+                                "    Cheese( type == $type )\n" +
+                                "end\n" +
+                                "query fromList(String $s)\n" +
+                                "    String( this == $s ) from list\n" +
+                                "end";
+
+    @Test
+    public void testResultsDroppedByChanges() {
+        StatefulKnowledgeSession ksession = newSession( 10 );
+        QueryResultsCache cache = getCache( ksession );
+
+        ksession.insert( new Person( "mark", "cheddar", 30 ) );
+        Person bob = new Person( "bob", "stilton", 40 );
+        FactHandle bobHandle = ksession.insert( bob );
+
+        assertEquals( 1, ksession.getQueryResults( "peopleOfAge", 30 ).size() );
+        assertEquals( 1, ksession.getQueryResults( "peopleOfAge", 30 ).size() );
+        assertEquals( 1, cache.getHitCount() );
+
+        // a cheese doesn't change the people of an age
+        FactHandle cheese = ksession.insert( new Cheese( "cheddar" ) );
+        assertEquals( 1, ksession.getQueryResults( "peopleOfAge", 30 ).size() );
+        assertEquals( 2, cache.getHitCount() );
+        assertEquals( 1, ksession.getQueryResults( "cheeseLovers", "cheddar" ).size() );
+
+        ksession.insert( new Person( "edson", "cheddar", 30 ) );
+        assertEquals( 2, ksession.getQueryResults( "peopleOfAge", 30 ).size() );
+        assertEquals( 2, ksession.getQueryResults( "cheeseLovers", "cheddar" ).size() );
+
+        bob.setAge( 30 );
+        ksession.update( bobHandle, bob );
+        assertEquals( 3, ksession.getQueryResults( "peopleOfAge", 30 ).size() );
+        assertEquals( 0, ksession.getQueryResults( "peopleOfAge", 40 ).size() );
+
+        ksession.delete( cheese );
+        assertEquals( 0, ksession.getQueryResults( "cheeseLovers", "cheddar" ).size() );
+        assertEquals( 3, ksession.getQueryResults( "peopleOfAge", 30 ).size() );
+        assertEquals( 3, cache.getHitCount() );
+        ksession.dispose();
+    }
+
+    @Test
+    public void testLeastRecentlyUsedResultsEvicted() {
+        StatefulKnowledgeSession ksession = newSession( 2 );
+        QueryResultsCache cache = getCache( ksession );
+        ksession.insert( new Person( "mark", "cheddar", 30 ) );
+
+        ksession.getQueryResults( "peopleOfAge", 10 );
+        ksession.getQueryResults( "peopleOfAge", 20 );
+        ksession.getQueryResults( "peopleOfAge", 10 );
+        ksession.getQueryResults( "peopleOfAge", 30 );
+        assertEquals( 2, cache.size() );
+        assertEquals( 1, cache.getHitCount() );
+
+        // 20 was the least recently used
+        ksession.getQueryResults( "peopleOfAge", 10 );
+        ksession.getQueryResults( "peopleOfAge", 20 );
+        assertEquals( 2, cache.getHitCount() );
+        assertEquals( 4, cache.getMissCount() );
+        ksession.dispose();
+    }
+
+    @Test
+    public void testQueryUsingFromNotCached() {
+        StatefulKnowledgeSession ksession = newSession( 10 );
+        QueryResultsCache cache = getCache( ksession );
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+
+        assertEquals( 0, ksession.getQueryResults( "fromList", "a" ).size() );
+        list.add( "a" );
+        assertEquals( 1, ksession.getQueryResults( "fromList", "a" ).size() );
+        assertEquals( 0, cache.getHitCount() );
+        assertEquals( 0, cache.size() );
+        ksession.dispose();
+    }
+
+    @Test
+    public void testResultsDroppedByExpiration() {
+        String eventDrl = "package org.drools.integrationtests\n" +
+                          "import " + StockTick.class.getCanonicalName() + "\n" +
+                          "declare StockTick\n" +
+                          "    @role( event )\n" +
+                          "    @expires( 10s )\n" +
+                          "end\n" +
+                          "query ticks(String $company)\n" +
+                          "    StockTick( company == $company )\n" +
+                          "end\n" +
+                          "rule OnTick when\n" +
+                          "    StockTick()\n" +
+                          "then\n" +
+                          "end";
+        KieBaseConfiguration kbaseConf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kbaseConf.setOption( EventProcessingOption.STREAM );
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setProperty( SessionConfiguration.QUERY_RESULTS_CACHE_SIZE, "10" );
+        conf.setOption( ClockTypeOption.get( "pseudo" ) );
+        StatefulKnowledgeSession ksession = newKnowledgeBase( eventDrl, kbaseConf ).newStatefulKnowledgeSession( conf, null );
+        SessionPseudoClock clock = ksession.getSessionClock();
+
+        ksession.insert( new StockTick( 1, "RHT", 10, clock.getCurrentTime() ) );
+        assertEquals( 1, ksession.getQueryResults( "ticks", "RHT" ).size() );
+        assertEquals( 1, ksession.getQueryResults( "ticks", "RHT" ).size() );
+        assertEquals( 1, getCache( ksession ).getHitCount() );
+
+        // the expiration retracts the event from its ObjectTypeNode only
+        clock.advanceTime( 11, TimeUnit.SECONDS );
+        ksession.fireAllRules();
+        assertEquals( 0, ksession.getQueryResults( "ticks", "RHT" ).size() );
+        ksession.dispose();
+    }
+
+    @Test
+    public void testCacheDisabledByDefault() {
+        KnowledgeBase kbase = newKnowledgeBase();
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+        assertNull( getCache( ksession ) );
+        ksession.dispose();
+    }
+
+    private QueryResultsCache getCache(StatefulKnowledgeSession ksession) {
+        return ((StatefulKnowledgeSessionImpl) ksession).session.getQueryResultsCache();
+    }
+
+    private StatefulKnowledgeSession newSession(int cacheSize) {
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setProperty( SessionConfiguration.QUERY_RESULTS_CACHE_SIZE, Integer.toString( cacheSize ) );
+        return newKnowledgeBase().newStatefulKnowledgeSession( conf, null );
+    }
+
+    private KnowledgeBase newKnowledgeBase() {
+        return newKnowledgeBase( drl, KnowledgeBaseFactory.newKnowledgeBaseConfiguration() );
+    }
+
+    private KnowledgeBase newKnowledgeBase(String drl, KieBaseConfiguration kbaseConf) {
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        kbuilder.add( ResourceFactory.newByteArrayResource( drl.getBytes() ), ResourceType.DRL );
+        assertFalse( kbuilder.getErrors().toString(), kbuilder.hasErrors() );
+
+        KnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase( kbaseConf );
+        kbase.addKnowledgePackages( kbuilder.getKnowledgePackages() );
+        return kbase;
+    }
+}
@@ -0,0 +1,120 @@
+package org.drools.compiler.integrationtests;
+
+import org.drools.compiler.Cheese;
+import org.drools.compiler.CommonTestMethodBase;
+import org.drools.compiler.Person;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.junit.Test;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.builder.conf.RuleEngineOption;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class SessionForkTest extends CommonTestMethodBase {
+
+    private static final String DRL =
+            "package org.drools.compiler.test\n" +
+            "import " + Person.class.getCanonicalName() + ";\n" +
+            "import " + Cheese.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "rule R1 when\n" +
+            "    $p : Person( )\n" +
+            "    $c : Cheese( type == $p.likes )\n" +
+            "then\n" +
+            "    list.add( $p.getName() + \":\" + $c.getType() );\n" +
+            "end\n";
+
+    @Test
+    public void testForkKeepsFiredMatches() {
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( RuleEngineOption.PHREAK, DRL );
+        StatefulKnowledgeSession ksession = createKnowledgeSession( kbase );
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+
+        ksession.insert( new Person( "mark", "stilton", 30 ) );
+        ksession.insert( new Person( "edson", "brie", 30 ) );
+        ksession.insert( new Cheese( "stilton", 10 ) );
+        assertEquals( 1, ksession.fireAllRules() );
+
+        StatefulKnowledgeSession fork = ((StatefulKnowledgeSessionImpl) ksession).fork();
+        assertNotSame( ksession, fork );
+        assertSame( kbase, fork.getKieBase() );
+        assertEquals( 3, fork.getFactCount() );
+        // the fork gets its own globals
+        assertSame( list, fork.getGlobal( "list" ) );
+        List<String> forkList = new ArrayList<String>();
+        fork.setGlobal( "list", forkList );
+        assertSame( list, ksession.getGlobal( "list" ) );
+
+        // the matches already fired by the original session aren't fired again
+        assertEquals( 0, fork.fireAllRules() );
+
+        fork.insert( new Cheese( "brie", 5 ) );
+        assertEquals( 1, fork.fireAllRules() );
+        assertEquals( Collections.singletonList( "edson:brie" ), forkList );
+
+        // the original session is not affected by the fork
+        assertEquals( 3, ksession.getFactCount() );
+        assertEquals( 0, ksession.fireAllRules() );
+        ksession.insert( new Cheese( "brie", 7 ) );
+        assertEquals( 1, ksession.fireAllRules() );
+        assertEquals( 2, list.size() );
+        assertEquals( 1, forkList.size() );
+
+        fork.dispose();
+        ksession.dispose();
+    }
+
+    @Test
+    public void testForkCopiesFacts() {
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( RuleEngineOption.PHREAK, DRL );
+        StatefulKnowledgeSession ksession = createKnowledgeSession( kbase );
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+
+        Person mark = new Person( "mark", "stilton", 30 );
+        FactHandle markHandle = ksession.insert( mark );
+        ksession.insert( new Cheese( "brie", 10 ) );
+
+        StatefulKnowledgeSession fork = ((StatefulKnowledgeSessionImpl) ksession).fork();
+        Person forkMark = getFact( fork, Person.class );
+        assertNotSame( mark, forkMark );
+        assertEquals( "mark", forkMark.getName() );
+
+        // a fact modified in a fork doesn't change the original session
+        forkMark.setLikes( "brie" );
+        fork.update( fork.getFactHandle( forkMark ), forkMark );
+        assertEquals( "stilton", mark.getLikes() );
+        List<String> forkList = new ArrayList<String>();
+        fork.setGlobal( "list", forkList );
+        assertEquals( 1, fork.fireAllRules() );
+        assertEquals( Collections.singletonList( "mark:brie" ), forkList );
+        assertEquals( 0, ksession.fireAllRules() );
+
+        // a fact retracted from a fork is still in the original session
+        fork.retract( fork.getFactHandle( getFact( fork, Cheese.class ) ) );
+        assertEquals( 1, fork.getFactCount() );
+        assertEquals( 2, ksession.getFactCount() );
+
+        ksession.insert( new Cheese( "stilton", 5 ) );
+        assertEquals( 1, ksession.fireAllRules() );
+        assertEquals( Collections.singletonList( "mark:stilton" ), list );
+        assertSame( mark, ksession.getObject( markHandle ) );
+
+        fork.dispose();
+        ksession.dispose();
+    }
+
+    private <T> T getFact(StatefulKnowledgeSession ksession, Class<T> type) {
+        for ( Object object : ksession.getObjects() ) {
+            if ( type.isInstance( object ) ) {
+                return type.cast( object );
+            }
+        }
+        return null;
+    }
+}
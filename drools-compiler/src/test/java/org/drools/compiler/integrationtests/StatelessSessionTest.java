@@ -12,6 +12,7 @@ import org.drools.compiler.Cheese;
 import org.drools.compiler.Cheesery;
 import org.drools.compiler.CommonTestMethodBase;
 import org.drools.core.RuleBase;
+import org.drools.core.SessionConfiguration;
 import org.drools.core.StatelessSession;
 import org.drools.core.StatelessSessionResult;
 import org.drools.core.base.CopyIdentifiersGlobalExporter;
@@ -19,6 +20,7 @@ import org.drools.core.base.MapGlobalResolver;
 import org.drools.core.base.ReferenceOriginalGlobalExporter;
 import org.drools.core.command.impl.GenericCommand;
 import org.drools.core.command.runtime.BatchExecutionCommandImpl;
+import org.drools.core.impl.StatelessKnowledgeSessionImpl;
 import org.drools.compiler.compiler.PackageBuilder;
 import org.drools.core.rule.Package;
 import org.drools.core.spi.GlobalResolver;
@@ -36,6 +38,7 @@ import org.kie.api.io.Resource;
 import org.kie.api.io.ResourceType;
 import org.kie.api.runtime.Channel;
 import org.kie.api.runtime.ExecutionResults;
+import org.kie.api.runtime.KieSessionConfiguration;
 import org.kie.api.runtime.StatelessKieSession;
 import org.mockito.Mockito;
 
@@ -457,6 +460,89 @@ public class StatelessSessionTest extends CommonTestMethodBase {
         assertNull( ksession.getChannels().get( "x" ) );
     }
 
+    @Test
+    public void testPooledSessions() throws Exception {
+        String str = "";
+        str += "package org.kie \n";
+        str += "import org.drools.compiler.Cheese \n";
+        str += "global java.util.List list \n";
+        str += "rule cheese \n";
+        str += "  when \n";
+        str += "    $c : Cheese() \n";
+        str += "  then \n";
+        str += "    list.add( $c.getType() ); \n";
+        str += "end\n";
+        str += "rule noCheese \n";
+        str += "  when \n";
+        str += "    not Cheese() \n";
+        str += "  then \n";
+        str += "    list.add( \"none\" ); \n";
+        str += "end\n";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( str );
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setProperty( SessionConfiguration.STATELESS_SESSION_POOL_SIZE, "2" );
+        StatelessKnowledgeSessionImpl ksession = (StatelessKnowledgeSessionImpl) kbase.newStatelessKnowledgeSession( conf );
+        List list = new ArrayList();
+        ksession.setGlobal( "list", list );
+
+        ksession.execute( new Cheese( "stilton", 5 ) );
+        ksession.execute( new Cheese( "brie", 5 ) );
+        // the reused session doesn't remember the facts of the previous executions
+        ksession.execute( new ArrayList() );
+        assertEquals( Arrays.asList( "stilton", "brie", "none" ), list );
+
+        assertEquals( 1, ksession.getCreatedSessionsCount() );
+        assertEquals( 2, ksession.getReusedSessionsCount() );
+        assertEquals( 1, ksession.getPooledSessionsCount() );
+
+        // the pooled session is discarded when the network changes
+        kbase.removeRule( "org.kie", "noCheese" );
+        list.clear();
+        ksession.execute( new ArrayList() );
+        ksession.execute( new Cheese( "cheddar", 5 ) );
+        assertEquals( Arrays.asList( "cheddar" ), list );
+        assertEquals( 2, ksession.getCreatedSessionsCount() );
+        assertEquals( 3, ksession.getReusedSessionsCount() );
+    }
+
+    @Test
+    public void testPooledSessionWithPendingTimerIsNotReused() throws Exception {
+        String str = "";
+        str += "package org.kie \n";
+        str += "import org.drools.compiler.Cheese \n";
+        str += "global java.util.List list \n";
+        str += "rule delayed \n";
+        str += "  timer (int: 200ms) \n";
+        str += "  when \n";
+        str += "    $c : Cheese() \n";
+        str += "  then \n";
+        str += "    list.add( \"delayed:\" + $c.getType() ); \n";
+        str += "end\n";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( str );
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setProperty( SessionConfiguration.STATELESS_SESSION_POOL_SIZE, "2" );
+        StatelessKnowledgeSessionImpl ksession = (StatelessKnowledgeSessionImpl) kbase.newStatelessKnowledgeSession( conf );
+        List list = new ArrayList();
+        ksession.setGlobal( "list", list );
+
+        // the timer is still pending at the end of the execution, so the session is disposed
+        ksession.execute( new Cheese( "stilton", 5 ) );
+        assertEquals( 0, ksession.getPooledSessionsCount() );
+
+        Thread.sleep( 400 );
+        ksession.execute( new ArrayList() );
+        assertTrue( list.isEmpty() );
+        assertEquals( 2, ksession.getCreatedSessionsCount() );
+        assertEquals( 0, ksession.getReusedSessionsCount() );
+
+        // a session without any pending timer is reused
+        assertEquals( 1, ksession.getPooledSessionsCount() );
+        ksession.execute( new ArrayList() );
+        assertEquals( 1, ksession.getReusedSessionsCount() );
+    }
+
     private StatelessSession getSession() throws Exception {
         final PackageBuilder builder = new PackageBuilder();
         builder.addPackageFromDrl( new InputStreamReader( getClass().getResourceAsStream( "literal_rule_test.drl" ) ) );
@@ -43,6 +43,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class AddRuleTest {
 
@@ -549,6 +550,88 @@ public class AddRuleTest {
     }
 
 
+    @Test
+    public void testPopulatedRulesAddedInOneUpdate() throws Exception {
+        KnowledgeBase kbase1 = buildKnowledgeBase("r1", "   A() B() C() D() E()\n");
+        ReteooWorkingMemoryInterface wm = ((StatefulKnowledgeSessionImpl)kbase1.newStatefulKnowledgeSession()).session;
+        List list = new ArrayList();
+        wm.setGlobal("list", list);
+
+        wm.insert(new A(1));
+        wm.insert(new A(2));
+        wm.insert(new B(1));
+        wm.insert(new C(1));
+        wm.insert(new D(1));
+        wm.insert(new E(1));
+
+        wm.fireAllRules();
+        assertEquals( 2, list.size() );
+
+        ReteooRuleBase ruleBase = (ReteooRuleBase) ((KnowledgeBaseImpl) kbase1).ruleBase;
+        ruleBase.lock();
+        try {
+            kbase1.addKnowledgePackages( buildKnowledgePackage("r2", "   A() B() C() E()\n") );
+            kbase1.addKnowledgePackages( buildKnowledgePackage("r3", "   A() B() E()\n") );
+            kbase1.addKnowledgePackages( buildKnowledgePackage("r4", "   B() D()\n") );
+
+            // the facts are propagated to the new rules only once the update is over
+            assertFalse( ruleBase.getRuleAdditionBatch().isEmpty() );
+        } finally {
+            ruleBase.unlock();
+        }
+        assertNull( ruleBase.getRuleAdditionBatch() );
+
+        list.clear();
+        wm.fireAllRules();
+        assertEquals( 5, list.size() );
+        assertEquals( 2, countMatches( list, "r2" ) );
+        assertEquals( 2, countMatches( list, "r3" ) );
+        assertEquals( 1, countMatches( list, "r4" ) );
+    }
+
+    @Test
+    public void testRuleRemovedInTheUpdateAddingIt() throws Exception {
+        KnowledgeBase kbase1 = buildKnowledgeBase("r1", "   A() B() C()\n");
+        ReteooWorkingMemoryInterface wm = ((StatefulKnowledgeSessionImpl)kbase1.newStatefulKnowledgeSession()).session;
+        List list = new ArrayList();
+        wm.setGlobal("list", list);
+
+        wm.insert(new A(1));
+        wm.insert(new B(1));
+        wm.insert(new C(1));
+        wm.insert(new D(1));
+
+        wm.fireAllRules();
+        assertEquals( 1, list.size() );
+
+        ReteooRuleBase ruleBase = (ReteooRuleBase) ((KnowledgeBaseImpl) kbase1).ruleBase;
+        ruleBase.lock();
+        try {
+            kbase1.addKnowledgePackages( buildKnowledgePackage("r2", "   A() B() D()\n") );
+            kbase1.addKnowledgePackages( buildKnowledgePackage("r3", "   A() B() C() D()\n") );
+            // the removal propagates the pending additions before changing the network
+            kbase1.removeRule( "org.kie", "r2" );
+            assertTrue( ruleBase.getRuleAdditionBatch().isEmpty() );
+        } finally {
+            ruleBase.unlock();
+        }
+
+        list.clear();
+        wm.fireAllRules();
+        assertEquals( 1, list.size() );
+        assertEquals( "r3", ((Match)list.get(0)).getRule().getName() );
+    }
+
+    private int countMatches(List list, String ruleName) {
+        int count = 0;
+        for ( Object match : list ) {
+            if ( ((Match) match).getRule().getName().equals( ruleName ) ) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     private RuleTerminalNode getRtn(String ruleName, KnowledgeBase kbase) {
         return ( RuleTerminalNode ) ((ReteooRuleBase)((KnowledgeBaseImpl) kbase).ruleBase).getReteooBuilder().getTerminalNodes(ruleName)[0];
     }
@@ -0,0 +1,173 @@
+package org.drools.compiler.phreak;
+
+import org.drools.core.base.ClassObjectType;
+import org.drools.core.common.AbstractWorkingMemory;
+import org.drools.core.common.InternalRuleBase;
+import org.drools.core.impl.KnowledgeBaseImpl;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.drools.core.reteoo.BetaMemory;
+import org.drools.core.reteoo.JoinNode;
+import org.drools.core.reteoo.LeftInputAdapterNode;
+import org.drools.core.reteoo.NotNode;
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.drools.core.reteoo.PathMemory;
+import org.drools.core.reteoo.RuleTerminalNode;
+import org.drools.core.reteoo.SegmentMemory;
+import org.junit.Test;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.io.ResourceType;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.builder.KnowledgeBuilder;
+import org.kie.internal.builder.KnowledgeBuilderFactory;
+import org.kie.internal.builder.conf.RuleEngineOption;
+import org.kie.internal.definition.KnowledgePackage;
+import org.kie.internal.io.ResourceFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ResetSessionTest {
+
+    @Test
+    public void testResetKeepingNodeMemories() throws Exception {
+        KnowledgeBase kbase = buildKnowledgeBase("r1", "   a : A() B( object == a.object ) not C( object == a.object )\n");
+
+        AbstractWorkingMemory wm = (AbstractWorkingMemory) ((StatefulKnowledgeSessionImpl)kbase.newStatefulKnowledgeSession()).session;
+        List list = new ArrayList();
+        wm.setGlobal("list", list);
+
+        wm.insert(new A(1));
+        wm.insert(new A(2));
+        wm.insert(new B(1));
+        wm.insert(new B(2));
+        wm.insert(new C(2));
+        wm.fireAllRules();
+        assertEquals(1, list.size());
+
+        ObjectTypeNode aotn = getObjectTypeNode(kbase, A.class );
+        LeftInputAdapterNode liaNode = (LeftInputAdapterNode) aotn.getSinkPropagator().getSinks()[0];
+        JoinNode bNode = (JoinNode) liaNode.getSinkPropagator().getFirstLeftTupleSink();
+        NotNode cNode = (NotNode) bNode.getSinkPropagator().getFirstLeftTupleSink();
+        RuleTerminalNode rtn = (RuleTerminalNode) cNode.getSinkPropagator().getFirstLeftTupleSink();
+
+        BetaMemory bMem = ( BetaMemory ) wm.getNodeMemory(bNode);
+        BetaMemory cMem = ( BetaMemory ) wm.getNodeMemory(cNode);
+        PathMemory pmem = ( PathMemory ) wm.getNodeMemory(rtn);
+        SegmentMemory sm = bMem.getSegmentMemory();
+        assertEquals( 2, bMem.getLeftTupleMemory().size() );
+        assertEquals( 1, cMem.getRightTupleMemory().size() );
+
+        wm.reset(0, 0, 1, true);
+
+        // the memories are emptied in place
+        assertSame( bMem, wm.getNodeMemory(bNode) );
+        assertSame( cMem, wm.getNodeMemory(cNode) );
+        assertSame( pmem, wm.getNodeMemory(rtn) );
+        assertSame( sm, bMem.getSegmentMemory() );
+        assertEquals( 0, bMem.getLeftTupleMemory().size() );
+        assertEquals( 0, bMem.getRightTupleMemory().size() );
+        assertEquals( 0, cMem.getLeftTupleMemory().size() );
+        assertEquals( 0, cMem.getRightTupleMemory().size() );
+
+        // only the not node starts up linked in
+        assertEquals( sm.getInitialLinkedNodeMask(), sm.getLinkedNodeMask() );
+        assertEquals( cMem.getNodePosMaskBit(), sm.getLinkedNodeMask() );
+        assertEquals( 0, sm.getDirtyNodeMask() );
+        assertFalse( pmem.isRuleLinked() );
+        assertNull( pmem.getRuleAgendaItem() );
+
+        // the facts of the previous run are forgotten
+        list.clear();
+        wm.insert(new A(2));
+        wm.insert(new B(2));
+        wm.insert(new A(3));
+        wm.insert(new B(3));
+        wm.insert(new C(3));
+        wm.fireAllRules();
+        assertEquals(1, list.size());
+        assertEquals( 2, bMem.getLeftTupleMemory().size() );
+        assertEquals( 1, cMem.getRightTupleMemory().size() );
+    }
+
+    @Test
+    public void testResetAfterNetworkChange() throws Exception {
+        KnowledgeBase kbase = buildKnowledgeBase("r1", "   a : A() B( object == a.object )\n");
+
+        AbstractWorkingMemory wm = (AbstractWorkingMemory) ((StatefulKnowledgeSessionImpl)kbase.newStatefulKnowledgeSession()).session;
+        List list = new ArrayList();
+        wm.setGlobal("list", list);
+
+        wm.insert(new A(1));
+        wm.insert(new B(1));
+        wm.fireAllRules();
+        assertEquals(1, list.size());
+
+        ObjectTypeNode aotn = getObjectTypeNode(kbase, A.class );
+        LeftInputAdapterNode liaNode = (LeftInputAdapterNode) aotn.getSinkPropagator().getSinks()[0];
+        JoinNode bNode = (JoinNode) liaNode.getSinkPropagator().getFirstLeftTupleSink();
+        BetaMemory bMem = ( BetaMemory ) wm.getNodeMemory(bNode);
+
+        kbase.addKnowledgePackages( buildKnowledgePackage("r2", "   a : A() B( object == a.object ) C()\n") );
+
+        // the segments have been split by the new rule, so the memories are created again
+        wm.reset(0, 0, 1, true);
+        assertNotSame( bMem, wm.getNodeMemory(bNode) );
+
+        list.clear();
+        wm.insert(new A(2));
+        wm.insert(new B(2));
+        wm.insert(new C(2));
+        wm.fireAllRules();
+        assertEquals(2, list.size());
+    }
+
+    private ObjectTypeNode getObjectTypeNode(KnowledgeBase kbase, Class<?> nodeClass) {
+        List<ObjectTypeNode> nodes = ((InternalRuleBase)((KnowledgeBaseImpl)kbase).ruleBase).getRete().getObjectTypeNodes();
+        for ( ObjectTypeNode n : nodes ) {
+            if ( ((ClassObjectType)n.getObjectType()).getClassType() == nodeClass ) {
+                return n;
+            }
+        }
+        return null;
+    }
+
+    private KnowledgeBase buildKnowledgeBase(String ruleName, String rule) {
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setOption( RuleEngineOption.PHREAK );
+
+        KnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase(kconf);
+        kbase.addKnowledgePackages( buildKnowledgePackage(ruleName, rule) );
+        return kbase;
+    }
+
+    private Collection<KnowledgePackage> buildKnowledgePackage(String ruleName, String rule) {
+        String str = "";
+        str += "package org.kie \n";
+        str += "import " + A.class.getCanonicalName() + "\n" ;
+        str += "import " + B.class.getCanonicalName() + "\n" ;
+        str += "import " + C.class.getCanonicalName() + "\n" ;
+        str += "global java.util.List list \n";
+
+        str += "rule " + ruleName + "  when \n";
+        str +=  rule;
+        str += "then \n";
+        str += " list.add( kcontext.getMatch() );\n";
+        str += "end \n";
+
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+
+        kbuilder.add( ResourceFactory.newByteArrayResource(str.getBytes()),
+                      ResourceType.DRL );
+
+        assertFalse( kbuilder.getErrors().toString(), kbuilder.hasErrors() );
+        return kbuilder.getKnowledgePackages();
+    }
+}
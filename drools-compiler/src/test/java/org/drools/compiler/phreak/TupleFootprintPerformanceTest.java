@@ -0,0 +1,130 @@
+package org.drools.compiler.phreak;
+
+import org.drools.core.reteoo.EvalNodeLeftTuple;
+import org.drools.core.reteoo.FromNodeLeftTuple;
+import org.drools.core.reteoo.JoinNodeLeftTuple;
+import org.drools.core.reteoo.NotNodeLeftTuple;
+import org.drools.core.reteoo.RuleTerminalNodeLeftTuple;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.io.ResourceType;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.builder.KnowledgeBuilder;
+import org.kie.internal.builder.KnowledgeBuilderFactory;
+import org.kie.internal.builder.conf.RuleEngineOption;
+import org.kie.internal.io.ResourceFactory;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Prints the bytes taken by each partial match of a session, and the estimated shallow size of the
+ * tuples of each node type. Run it on the revision to compare with to get the figures before a change.
+ * Run it with -Dfact.count=1000000 -Xmx4g to reproduce the figures of large sessions, and with
+ * -Dref.size=8 when the compressed oops are disabled.
+ */
+@Ignore
+public class TupleFootprintPerformanceTest {
+    private static final int FACT_COUNT = Integer.parseInt(System.getProperty("fact.count", "100000"));
+    private static final int REF_SIZE   = Integer.parseInt(System.getProperty("ref.size", "4"));
+
+    @Test
+    public void testBytesPerPartialMatch() {
+        KnowledgeBase kbase = buildKnowledgeBase("   a : A() B( object == a.object ) C( object == a.object )\n");
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+        try {
+            for (int i = 0; i < FACT_COUNT; i++) {
+                ksession.insert(new A(i));
+                ksession.insert(new B(i));
+                ksession.insert(new C(i));
+            }
+
+            // the tuples after the first join are only created by the network evaluation
+            long before = usedMemory();
+            int fired = ksession.fireAllRules();
+            long used = usedMemory() - before;
+
+            // each match is made of the partial match of the second join and of the one of the terminal node
+            int partialMatches = 2 * fired;
+            System.out.println(partialMatches + " partial matches in " + used / 1024 + "KB: " +
+                               used / partialMatches + " bytes per partial match");
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    @Test
+    public void testTupleShallowSizes() {
+        Class<?>[] tupleClasses = new Class<?>[] { JoinNodeLeftTuple.class, NotNodeLeftTuple.class, EvalNodeLeftTuple.class,
+                                                   FromNodeLeftTuple.class, RuleTerminalNodeLeftTuple.class };
+        for (Class<?> tupleClass : tupleClasses) {
+            System.out.println(tupleClass.getSimpleName() + ": " + estimateShallowSize(tupleClass) + " bytes");
+        }
+    }
+
+    private static long estimateShallowSize(Class<?> clazz) {
+        long size = REF_SIZE == 4 ? 12 : 16;
+        for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    size += fieldSize(field.getType());
+                }
+            }
+        }
+        return (size + 7) & ~7;
+    }
+
+    private static int fieldSize(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return REF_SIZE;
+        }
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    private KnowledgeBase buildKnowledgeBase(String rule) {
+        String str = "";
+        str += "package org.kie \n";
+        str += "import " + A.class.getCanonicalName() + "\n" ;
+        str += "import " + B.class.getCanonicalName() + "\n" ;
+        str += "import " + C.class.getCanonicalName() + "\n" ;
+
+        str += "rule r1 when \n";
+        str +=  rule;
+        str += "then \n";
+        str += "end \n";
+
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        kbuilder.add( ResourceFactory.newByteArrayResource(str.getBytes()),
+                      ResourceType.DRL );
+        assertFalse( kbuilder.getErrors().toString(), kbuilder.hasErrors() );
+
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setOption( RuleEngineOption.PHREAK );
+
+        KnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase(kconf);
+        kbase.addKnowledgePackages( kbuilder.getKnowledgePackages() );
+        return kbase;
+    }
+
+    private static long usedMemory() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
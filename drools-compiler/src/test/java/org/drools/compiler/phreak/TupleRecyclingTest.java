@@ -0,0 +1,186 @@
+package org.drools.compiler.phreak;
+
+import org.drools.core.SessionConfiguration;
+import org.drools.core.TupleRecyclingMode;
+import org.drools.core.base.ClassObjectType;
+import org.drools.core.common.AbstractWorkingMemory;
+import org.drools.core.common.InternalRuleBase;
+import org.drools.core.impl.KnowledgeBaseImpl;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.drools.core.reteoo.BetaMemory;
+import org.drools.core.reteoo.ExistsNode;
+import org.drools.core.reteoo.JoinNode;
+import org.drools.core.reteoo.LeftInputAdapterNode;
+import org.drools.core.reteoo.NotNode;
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.junit.Test;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.builder.KnowledgeBuilder;
+import org.kie.internal.builder.KnowledgeBuilderFactory;
+import org.kie.internal.builder.conf.RuleEngineOption;
+import org.kie.internal.io.ResourceFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TupleRecyclingTest {
+
+    private static final String RULE = "   a : A() B( object == a.object ) not C( object == a.object ) exists B( object == a.object )\n";
+
+    @Test
+    public void testNoPoolsByDefault() throws Exception {
+        KnowledgeBase kbase = buildKnowledgeBase();
+        AbstractWorkingMemory wm = (AbstractWorkingMemory) ((StatefulKnowledgeSessionImpl)kbase.newStatefulKnowledgeSession()).session;
+
+        assertEquals( TupleRecyclingMode.NONE, wm.getSessionConfiguration().getTupleRecyclingMode() );
+
+        BetaMemory bMem = ( BetaMemory ) wm.getNodeMemory( getJoinNode( kbase ) );
+        assertNull( bMem.getLeftTuplePool() );
+        assertNull( bMem.getRightTuplePool() );
+    }
+
+    @Test
+    public void testRecycleGivesSameResults() throws Exception {
+        KnowledgeBase kbase = buildKnowledgeBase();
+        List<Integer> expected = runWorkload( kbase, newSession( kbase, TupleRecyclingMode.NONE ) );
+
+        AbstractWorkingMemory wm = newSession( kbase, TupleRecyclingMode.RECYCLE );
+        assertEquals( expected, runWorkload( kbase, wm ) );
+
+        JoinNode bNode = getJoinNode( kbase );
+        NotNode cNode = (NotNode) bNode.getSinkPropagator().getFirstLeftTupleSink();
+        ExistsNode dNode = (ExistsNode) cNode.getSinkPropagator().getFirstLeftTupleSink();
+
+        BetaMemory bMem = ( BetaMemory ) wm.getNodeMemory( bNode );
+        BetaMemory cMem = ( BetaMemory ) wm.getNodeMemory( cNode );
+        BetaMemory dMem = ( BetaMemory ) wm.getNodeMemory( dNode );
+
+        // the A tuples without B children, and all the right tuples, are handed out again
+        assertTrue( bMem.getLeftTuplePool().getReusedCount() > 0 );
+        assertTrue( bMem.getRightTuplePool().getReusedCount() > 0 );
+        assertTrue( cMem.getRightTuplePool().getReusedCount() > 0 );
+        assertTrue( dMem.getRightTuplePool().getReusedCount() > 0 );
+
+        // only the root tuples of the left input adapter are recycled
+        assertNull( cMem.getLeftTuplePool() );
+        assertNull( dMem.getLeftTuplePool() );
+    }
+
+    @Test
+    public void testVerifyNeverReusesTuples() throws Exception {
+        KnowledgeBase kbase = buildKnowledgeBase();
+        List<Integer> expected = runWorkload( kbase, newSession( kbase, TupleRecyclingMode.NONE ) );
+
+        AbstractWorkingMemory wm = newSession( kbase, TupleRecyclingMode.VERIFY );
+        assertEquals( expected, runWorkload( kbase, wm ) );
+
+        BetaMemory bMem = ( BetaMemory ) wm.getNodeMemory( getJoinNode( kbase ) );
+        assertTrue( bMem.getLeftTuplePool().getReleasedCount() > 0 );
+        assertTrue( bMem.getRightTuplePool().getReleasedCount() > 0 );
+        assertEquals( 0, bMem.getLeftTuplePool().getReusedCount() );
+        assertEquals( 0, bMem.getRightTuplePool().getReusedCount() );
+        assertEquals( 0, bMem.getRightTuplePool().size() );
+    }
+
+    private List<Integer> runWorkload(KnowledgeBase kbase, AbstractWorkingMemory wm) {
+        List<Integer> list = new ArrayList<Integer>();
+        wm.setGlobal( "list", list );
+
+        for ( int round = 0; round < 4; round++ ) {
+            List<FactHandle> as = new ArrayList<FactHandle>();
+            List<FactHandle> others = new ArrayList<FactHandle>();
+            for ( int i = 0; i < 20; i++ ) {
+                as.add( wm.insert( new A( i ) ) );
+                if ( i % 2 == 0 ) {
+                    others.add( wm.insert( new B( i ) ) );
+                }
+                if ( i % 4 == 0 ) {
+                    others.add( wm.insert( new C( i ) ) );
+                }
+            }
+            wm.fireAllRules();
+
+            // the A facts without a B never have children in the join node
+            for ( FactHandle fh : others ) {
+                wm.delete( fh );
+            }
+            for ( FactHandle fh : as ) {
+                wm.update( fh, wm.getObject( fh ) );
+            }
+            wm.fireAllRules();
+
+            for ( int i = 0; i < 20; i += 3 ) {
+                wm.insert( new B( i ) );
+            }
+            wm.fireAllRules();
+
+            for ( FactHandle fh : as ) {
+                wm.delete( fh );
+            }
+            wm.fireAllRules();
+        }
+
+        Collections.sort( list );
+        return list;
+    }
+
+    private AbstractWorkingMemory newSession(KnowledgeBase kbase, TupleRecyclingMode mode) {
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setProperty( SessionConfiguration.TUPLE_RECYCLING, mode.toExternalForm() );
+        return (AbstractWorkingMemory) ((StatefulKnowledgeSessionImpl)kbase.newStatefulKnowledgeSession( conf, null )).session;
+    }
+
+    private JoinNode getJoinNode(KnowledgeBase kbase) {
+        ObjectTypeNode aotn = getObjectTypeNode( kbase, A.class );
+        LeftInputAdapterNode liaNode = (LeftInputAdapterNode) aotn.getSinkPropagator().getSinks()[0];
+        return (JoinNode) liaNode.getSinkPropagator().getFirstLeftTupleSink();
+    }
+
+    private ObjectTypeNode getObjectTypeNode(KnowledgeBase kbase, Class<?> nodeClass) {
+        List<ObjectTypeNode> nodes = ((InternalRuleBase)((KnowledgeBaseImpl)kbase).ruleBase).getRete().getObjectTypeNodes();
+        for ( ObjectTypeNode n : nodes ) {
+            if ( ((ClassObjectType)n.getObjectType()).getClassType() == nodeClass ) {
+                return n;
+            }
+        }
+        return null;
+    }
+
+    private KnowledgeBase buildKnowledgeBase() {
+        String str = "";
+        str += "package org.kie \n";
+        str += "import " + A.class.getCanonicalName() + "\n" ;
+        str += "import " + B.class.getCanonicalName() + "\n" ;
+        str += "import " + C.class.getCanonicalName() + "\n" ;
+        str += "global java.util.List list \n";
+
+        str += "rule r1  when \n";
+        str +=  RULE;
+        str += "then \n";
+        str += " list.add( a.getObject() );\n";
+        str += "end \n";
+
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        kbuilder.add( ResourceFactory.newByteArrayResource(str.getBytes()),
+                      ResourceType.DRL );
+        assertFalse( kbuilder.getErrors().toString(), kbuilder.hasErrors() );
+
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setOption( RuleEngineOption.PHREAK );
+
+        KnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase(kconf);
+        kbase.addKnowledgePackages( kbuilder.getKnowledgePackages() );
+        return kbase;
+    }
+}
@@ -27,6 +27,7 @@ import org.drools.core.common.MemoryFactory;
 import org.drools.core.common.NodeMemories;
 import org.drools.core.common.ObjectStore;
 import org.drools.core.common.ObjectTypeConfigurationRegistry;
+import org.drools.core.common.QueryResultsCache;
 import org.drools.core.common.TruthMaintenanceSystem;
 import org.drools.core.common.WorkingMemoryAction;
 import org.drools.core.event.AgendaEventListener;
@@ -435,6 +436,14 @@ public class MockWorkingMemory implements InternalWorkingMemory {
         return null;
     }
 
+    public List<FactHandle> insertAll(Collection<?> objects) throws FactException {
+        List<FactHandle> handles = new ArrayList<FactHandle>();
+        for ( Object object : objects ) {
+            handles.add( insert( object ) );
+        }
+        return handles;
+    }
+
     public void modifyInsert(FactHandle factHandle,
                              Object object) {
         // TODO Auto-generated method stub
@@ -608,4 +617,8 @@ public class MockWorkingMemory implements InternalWorkingMemory {
         // TODO Auto-generated method stub
         return null;
     }
+
+    public QueryResultsCache getQueryResultsCache() {
+        return null;
+    }
 }
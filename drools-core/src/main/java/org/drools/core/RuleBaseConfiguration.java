@@ -107,6 +107,9 @@ import org.slf4j.LoggerFactory;
  * drools.classLoaderCacheEnabled = &lt;true|false&gt;
  * drools.phreakEnabled = &lt;true|false&gt;
  * drools.declarativeAgendaEnabled =  &lt;true|false&gt; 
+ * drools.openAddressingObjectStore = &lt;true|false&gt;
+ * drools.compiledAlphaNetwork = &lt;true|false&gt;
+ * drools.sessionLockTimeout = &lt;0..n&gt;
  * </pre>
  */
 public class RuleBaseConfiguration
@@ -143,6 +146,9 @@ public class RuleBaseConfiguration
     private String          ruleBaseUpdateHandler;
     private boolean         classLoaderCacheEnabled;
     private boolean         phreakEnabled;
+    private boolean         openAddressingObjectStore;
+    private boolean         compiledAlphaNetwork;
+    private long            sessionLockTimeout;
 
     private boolean declarativeAgenda;
 
@@ -205,6 +211,9 @@ public class RuleBaseConfiguration
         out.writeBoolean(classLoaderCacheEnabled);
         out.writeBoolean(phreakEnabled);
         out.writeBoolean(declarativeAgenda);
+        out.writeBoolean(openAddressingObjectStore);
+        out.writeBoolean(compiledAlphaNetwork);
+        out.writeLong(sessionLockTimeout);
         out.writeObject(componentFactory);
     }
 
@@ -236,6 +245,9 @@ public class RuleBaseConfiguration
         classLoaderCacheEnabled = in.readBoolean();
         phreakEnabled = in.readBoolean();
         declarativeAgenda = in.readBoolean();
+        openAddressingObjectStore = in.readBoolean();
+        compiledAlphaNetwork = in.readBoolean();
+        sessionLockTimeout = in.readLong();
         componentFactory = (KieComponentFactory) in.readObject();
     }
 
@@ -316,6 +328,12 @@ public class RuleBaseConfiguration
             setConflictResolver(determineConflictResolver(StringUtils.isEmpty(value) ? DepthConflictResolver.class.getName() : value));
         } else if ( name.equals( "drools.advancedProcessRuleIntegration" ) ) {
             setAdvancedProcessRuleIntegration(StringUtils.isEmpty(value) ? false : Boolean.valueOf(value));
+        } else if ( name.equals( "drools.openAddressingObjectStore" ) ) {
+            setOpenAddressingObjectStore(StringUtils.isEmpty(value) ? false : Boolean.valueOf(value));
+        } else if ( name.equals( "drools.compiledAlphaNetwork" ) ) {
+            setCompiledAlphaNetwork(StringUtils.isEmpty(value) ? false : Boolean.valueOf(value));
+        } else if ( name.equals( "drools.sessionLockTimeout" ) ) {
+            setSessionLockTimeout(StringUtils.isEmpty(value) ? 0 : Long.parseLong(value));
         } else if ( name.equals( MultithreadEvaluationOption.PROPERTY_NAME ) ) {
             setMultithreadEvaluation(StringUtils.isEmpty(value) ? false : Boolean.valueOf(value));
         } else if ( name.equals( MaxThreadsOption.PROPERTY_NAME ) ) {
@@ -371,6 +389,12 @@ public class RuleBaseConfiguration
             return getConflictResolver().getClass().getName();
         } else if ( name.equals( "drools.advancedProcessRuleIntegration" ) ) {
             return Boolean.toString(isAdvancedProcessRuleIntegration());
+        } else if ( name.equals( "drools.openAddressingObjectStore" ) ) {
+            return Boolean.toString(isOpenAddressingObjectStore());
+        } else if ( name.equals( "drools.compiledAlphaNetwork" ) ) {
+            return Boolean.toString(isCompiledAlphaNetwork());
+        } else if ( name.equals( "drools.sessionLockTimeout" ) ) {
+            return Long.toString(getSessionLockTimeout());
         } else if ( name.equals( MultithreadEvaluationOption.PROPERTY_NAME ) ) {
             return Boolean.toString( isMultithreadEvaluation() );
         } else if ( name.equals( MaxThreadsOption.PROPERTY_NAME ) ) {
@@ -456,8 +480,14 @@ public class RuleBaseConfiguration
         setAdvancedProcessRuleIntegration( Boolean.valueOf( this.chainedProperties.getProperty( "drools.advancedProcessRuleIntegration",
                                                                                                 "false" ) ).booleanValue() );
 
-        setMultithreadEvaluation( Boolean.valueOf( this.chainedProperties.getProperty( MultithreadEvaluationOption.PROPERTY_NAME,
-                                                                                       "false" ) ).booleanValue() );
+        setCompiledAlphaNetwork( Boolean.valueOf( this.chainedProperties.getProperty( "drools.compiledAlphaNetwork",
+                                                                                      "false" ) ).booleanValue() );
+
+        setSessionLockTimeout( Long.parseLong( this.chainedProperties.getProperty( "drools.sessionLockTimeout",
+                                                                   "0" ) ) );
+
+        setOpenAddressingObjectStore( Boolean.valueOf( this.chainedProperties.getProperty( "drools.openAddressingObjectStore",
+                                                                                           "false" ) ).booleanValue() );
 
         setMaxThreads( Integer.parseInt( this.chainedProperties.getProperty( MaxThreadsOption.PROPERTY_NAME,
                                                                              "3" ) ) );
@@ -474,6 +504,11 @@ public class RuleBaseConfiguration
         setPhreakEnabled(Boolean.valueOf(this.chainedProperties.getProperty(RuleEngineOption.PROPERTY_NAME,
                                                                             DEFAULT_PHREAK ? RuleEngineOption.PHREAK.toString() : RuleEngineOption.RETEOO.toString())
                                                                .equalsIgnoreCase(RuleEngineOption.PHREAK.toString())));
+
+        // multithread evaluation requires phreak, so it is set after the engine
+        setMultithreadEvaluation( Boolean.valueOf( this.chainedProperties.getProperty( MultithreadEvaluationOption.PROPERTY_NAME,
+                                                                                       "false" ) ).booleanValue() );
+
         setDeclarativeAgendaEnabled( Boolean.valueOf( this.chainedProperties.getProperty( DeclarativeAgendaOption.PROPERTY_NAME,
                                                                                           "false" ) ) );        
 
@@ -674,18 +709,19 @@ public class RuleBaseConfiguration
      * threads for evaluating the rules ("true"), or if the rulebase 
      * should work in classic single thread mode ("false").
      * 
+     * When enabled with Phreak, the rule paths of an agenda group that
+     * do not share any segment are evaluated concurrently, while conflict
+     * resolution and firing still happen on the agenda thread.
+     * 
      * @param enableMultithread true for multi-thread or 
      *                     false for single-thread. Default is false.
      */
     public void setMultithreadEvaluation(boolean enableMultithread) {
         checkCanChange();
-        if( enableMultithread ) {
-            throw new IllegalArgumentException( "Multithread mode is currently not supported. Please disable it." );
+        if (enableMultithread && !isPhreakEnabled()) {
+            throw new IllegalArgumentException( "Multithread evaluation is only supported by Phreak. Please disable it." );
         }
         this.multithread = enableMultithread;
-        if (multithread && isPhreakEnabled()) {
-            throw new IllegalArgumentException( "Multithread evaluation cannot be used when Left & Right Unlinking is enabled." );
-        }
     }
 
     /**
@@ -740,11 +776,15 @@ public class RuleBaseConfiguration
     
     /**
      * Enable Unlinking. It will also disable sequential mode 
-     * and multithread evaluation as these are incompatible with L&R unlinking.
+     * as it is incompatible with L&R unlinking.
+     * Multithread evaluation requires it.
      * @param enabled
      */
     public void setPhreakEnabled(boolean enabled) {
         checkCanChange(); // throws an exception if a change isn't possible;
+        if (!enabled && multithread) {
+            throw new IllegalArgumentException( "Multithread evaluation is only supported by Phreak. Please disable it." );
+        }
         this.phreakEnabled = enabled;
     }
 
@@ -815,6 +855,60 @@ public class RuleBaseConfiguration
     public void setAdvancedProcessRuleIntegration(boolean advancedProcessRuleIntegration) {
         this.advancedProcessRuleIntegration = advancedProcessRuleIntegration;
     }
+
+    /**
+     * @return whether the sessions keep their facts in an open addressing object store
+     */
+    public boolean isOpenAddressingObjectStore() {
+        return this.openAddressingObjectStore;
+    }
+
+    /**
+     * Makes the sessions keep their facts in an OpenAddressingObjectStore instead of the chained
+     * SingleThreadedObjectStore, so that no map entry is allocated per inserted fact.
+     * @param openAddressingObjectStore
+     */
+    public void setOpenAddressingObjectStore(boolean openAddressingObjectStore) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.openAddressingObjectStore = openAddressingObjectStore;
+    }
+
+    /**
+     * @return whether the alpha network of the ObjectTypeNodes is compiled into a generated class, when using phreak
+     */
+    public boolean isCompiledAlphaNetwork() {
+        return this.compiledAlphaNetwork;
+    }
+
+    /**
+     * Enables or disables the generation of a CompiledNetwork for the ObjectTypeNodes having at least
+     * alphaNodeHashingThreshold alpha nodes. It has effect only when phreak is enabled and drools-compiler
+     * is available on the classpath, otherwise the alpha network is always interpreted.
+     * Default is false: each update of the rulebase loads new classes, which are only released with it,
+     * and a deserialized rulebase falls back to the interpreted network.
+     * @param compiledAlphaNetwork
+     */
+    public void setCompiledAlphaNetwork(boolean compiledAlphaNetwork) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.compiledAlphaNetwork = compiledAlphaNetwork;
+    }
+
+    /**
+     * @return the milliseconds a change of the network waits for the sessions to be locked, 0 for no limit
+     */
+    public long getSessionLockTimeout() {
+        return this.sessionLockTimeout;
+    }
+
+    /**
+     * Sets the maximum number of milliseconds a change of the network waits for the sessions of the rulebase
+     * to stop firing before failing. Default is 0, that waits until they are all locked.
+     * @param sessionLockTimeout
+     */
+    public void setSessionLockTimeout(long sessionLockTimeout) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.sessionLockTimeout = sessionLockTimeout;
+    }
     
     public void addActivationListener(String name, ActivationListenerFactory factory) {
         if ( this.activationListeners == null ) {
@@ -17,6 +17,7 @@
 package org.drools.core;
 
 import org.drools.core.command.CommandService;
+import org.drools.core.common.IdleStrategy;
 import org.drools.core.common.ProjectClassLoader;
 import org.drools.core.util.ConfFileUtils;
 import org.drools.core.util.StringUtils;
@@ -69,6 +70,11 @@ import java.util.Properties;
  * 
  * drools.keepReference = <true|false>
  * drools.clockType = <pseudo|realtime|heartbeat|implicit>
+ * drools.timerService = <qualified class name of the realtime TimerService>
+ * drools.statelessSessionPoolSize = <number of sessions reused by a stateless session, 0 to disable the pooling>
+ * drools.tupleRecycling = <none|recycle|verify>
+ * drools.idleStrategy = <blocking|spinThenPark|busySpin|qualified class name of an IdleStrategy>
+ * drools.queryResultsCacheSize = <number of query results kept by getQueryResults, 0 to disable the cache>
  */
 public class SessionConfiguration
     implements
@@ -76,12 +82,28 @@ public class SessionConfiguration
     Externalizable {
     private static final long              serialVersionUID = 510l;
 
+    public static final String             STATELESS_SESSION_POOL_SIZE = "drools.statelessSessionPoolSize";
+
+    public static final String             TUPLE_RECYCLING = "drools.tupleRecycling";
+
+    public static final String             IDLE_STRATEGY = "drools.idleStrategy";
+
+    public static final String             QUERY_RESULTS_CACHE_SIZE = "drools.queryResultsCacheSize";
+
     private ChainedProperties              chainedProperties;
 
     private volatile boolean               immutable;
 
     private boolean                        keepReference;
 
+    private int                            statelessSessionPoolSize;
+
+    private TupleRecyclingMode             tupleRecyclingMode;
+
+    private String                         idleStrategy;
+
+    private int                            queryResultsCacheSize;
+
     private ForceEagerActivationFilter     forceEagerActivationFilter;
     private TimedRuleExecutionFilter       timedRuleExecutionFilter;
 
@@ -107,6 +129,10 @@ public class SessionConfiguration
         out.writeObject(clockType);
         out.writeObject( queryListener );
         out.writeObject( timerJobFactoryType );
+        out.writeInt( statelessSessionPoolSize );
+        out.writeObject( tupleRecyclingMode );
+        out.writeObject( idleStrategy );
+        out.writeInt( queryResultsCacheSize );
     }
     
     private static final SessionConfiguration defaultInstance = new SessionConfiguration();
@@ -124,6 +150,10 @@ public class SessionConfiguration
         clockType = (ClockType) in.readObject();
         queryListener = (QueryListenerOption) in.readObject();
         timerJobFactoryType = (TimerJobFactoryType) in.readObject();
+        statelessSessionPoolSize = in.readInt();
+        tupleRecyclingMode = (TupleRecyclingMode) in.readObject();
+        idleStrategy = (String) in.readObject();
+        queryResultsCacheSize = in.readInt();
     }
 
     /**
@@ -181,6 +211,18 @@ public class SessionConfiguration
 
         setTimerJobFactoryType(TimerJobFactoryType.resolveTimerJobFactoryType(this.chainedProperties.getProperty(TimerJobFactoryOption.PROPERTY_NAME,
                                                                                                                  TimerJobFactoryType.DEFUALT.getId())));
+
+        setStatelessSessionPoolSize( Integer.parseInt( this.chainedProperties.getProperty( STATELESS_SESSION_POOL_SIZE,
+                                                                                           "0" ) ) );
+
+        setTupleRecyclingMode( TupleRecyclingMode.resolveTupleRecyclingMode( this.chainedProperties.getProperty( TUPLE_RECYCLING,
+                                                                                                                 TupleRecyclingMode.NONE.getId() ) ) );
+
+        setIdleStrategy( this.chainedProperties.getProperty( IDLE_STRATEGY,
+                                                             IdleStrategy.BLOCKING ) );
+
+        setQueryResultsCacheSize( Integer.parseInt( this.chainedProperties.getProperty( QUERY_RESULTS_CACHE_SIZE,
+                                                                                        "0" ) ) );
     }
 
     public void addDefaultProperties(Properties properties) {
@@ -213,6 +255,14 @@ public class SessionConfiguration
             setTimerJobFactoryType(TimerJobFactoryType.resolveTimerJobFactoryType(StringUtils.isEmpty(value) ? "default" : value));
         } else if ( name.equals( QueryListenerOption.PROPERTY_NAME ) ) {
             setQueryListenerClass( StringUtils.isEmpty( value ) ? QueryListenerOption.STANDARD.getAsString() : value );
+        } else if ( name.equals( STATELESS_SESSION_POOL_SIZE ) ) {
+            setStatelessSessionPoolSize( StringUtils.isEmpty( value ) ? 0 : Integer.parseInt( value ) );
+        } else if ( name.equals( TUPLE_RECYCLING ) ) {
+            setTupleRecyclingMode( TupleRecyclingMode.resolveTupleRecyclingMode( StringUtils.isEmpty( value ) ? TupleRecyclingMode.NONE.getId() : value ) );
+        } else if ( name.equals( IDLE_STRATEGY ) ) {
+            setIdleStrategy( StringUtils.isEmpty( value ) ? IdleStrategy.BLOCKING : value );
+        } else if ( name.equals( QUERY_RESULTS_CACHE_SIZE ) ) {
+            setQueryResultsCacheSize( StringUtils.isEmpty( value ) ? 0 : Integer.parseInt( value ) );
         }
     }
 
@@ -230,6 +280,14 @@ public class SessionConfiguration
             return this.timerJobFactoryType.toExternalForm();
         } else if ( name.equals( QueryListenerOption.PROPERTY_NAME ) ) {
             return this.queryListener.getAsString();
+        } else if ( name.equals( STATELESS_SESSION_POOL_SIZE ) ) {
+            return Integer.toString( this.statelessSessionPoolSize );
+        } else if ( name.equals( TUPLE_RECYCLING ) ) {
+            return this.tupleRecyclingMode.toExternalForm();
+        } else if ( name.equals( IDLE_STRATEGY ) ) {
+            return this.idleStrategy;
+        } else if ( name.equals( QUERY_RESULTS_CACHE_SIZE ) ) {
+            return Integer.toString( this.queryResultsCacheSize );
         }
         return null;
     }
@@ -266,6 +324,66 @@ public class SessionConfiguration
         return this.keepReference;
     }
 
+    /**
+     * Sets the maximum number of sessions a stateless session keeps for its following executions.
+     * The pooled sessions are reset instead of being disposed at the end of each execution.
+     */
+    public void setStatelessSessionPoolSize(int statelessSessionPoolSize) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        if ( statelessSessionPoolSize < 0 ) {
+            throw new IllegalArgumentException( "The stateless session pool size can't be negative: " + statelessSessionPoolSize );
+        }
+        this.statelessSessionPoolSize = statelessSessionPoolSize;
+    }
+
+    public int getStatelessSessionPoolSize() {
+        return this.statelessSessionPoolSize;
+    }
+
+    /**
+     * Sets how the tuples deleted by the join, not and exists nodes of the session are handled.
+     * When they are recycled, the deleted tuples are reused by the following inserts of the same nodes.
+     */
+    public void setTupleRecyclingMode(TupleRecyclingMode tupleRecyclingMode) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.tupleRecyclingMode = tupleRecyclingMode;
+    }
+
+    public TupleRecyclingMode getTupleRecyclingMode() {
+        return this.tupleRecyclingMode;
+    }
+
+    /**
+     * Sets how fireUntilHalt waits for new activations: blocking, spinThenPark, busySpin,
+     * or the qualified class name of an IdleStrategy. The spinning strategies lower the latency
+     * between an insert and the firing of its rules, at the cost of the cpu used while idle.
+     */
+    public void setIdleStrategy(String idleStrategy) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.idleStrategy = idleStrategy;
+    }
+
+    public String getIdleStrategy() {
+        return this.idleStrategy;
+    }
+
+    /**
+     * Sets the maximum number of results kept by getQueryResults, for the most recently used query arguments.
+     * The results of a query are dropped as soon as a fact is inserted, updated or deleted through one of
+     * the ObjectTypeNodes of its network.
+     */
+    public void setQueryResultsCacheSize(int queryResultsCacheSize) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        if ( queryResultsCacheSize < 0 ) {
+            throw new IllegalArgumentException( "The query results cache size can't be negative: " + queryResultsCacheSize );
+        }
+        this.queryResultsCacheSize = queryResultsCacheSize;
+    }
+
+    public int getQueryResultsCacheSize() {
+        return this.queryResultsCacheSize;
+    }
+
     public void setForceEagerActivationFilter(ForceEagerActivationFilter forceEagerActivationFilter) {
         checkCanChange(); // throws an exception if a change isn't possible;
         this.forceEagerActivationFilter = forceEagerActivationFilter;
@@ -495,6 +613,29 @@ public class SessionConfiguration
         }
     }
 
+    public IdleStrategy newIdleStrategy() {
+        IdleStrategy strategy = IdleStrategy.resolveIdleStrategy( this.idleStrategy );
+        if ( strategy != null ) {
+            return strategy;
+        }
+
+        Class<IdleStrategy> clazz = null;
+        try {
+            clazz = (Class<IdleStrategy>) this.classLoader.loadClass( this.idleStrategy );
+        } catch ( ClassNotFoundException e ) {
+        }
+
+        if ( clazz == null ) {
+            throw new IllegalArgumentException( "Idle strategy '" + this.idleStrategy + "' not found" );
+        }
+        try {
+            return clazz.newInstance();
+        } catch ( Exception e ) {
+            throw new IllegalArgumentException( "Unable to instantiate idle strategy '" + this.idleStrategy + "'",
+                                                e );
+        }
+    }
+
     @SuppressWarnings("unchecked")
     public <T extends SingleValueKieSessionOption> T getOption(Class<T> option) {
         if ( ClockTypeOption.class.equals( option ) ) {
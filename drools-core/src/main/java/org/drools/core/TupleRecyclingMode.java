@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core;
+
+/**
+ * This enum represents the ways a session can handle the tuples deleted by its join, not and exists nodes
+ */
+public enum TupleRecyclingMode {
+
+    /**
+     * The deleted tuples are left to the garbage collector
+     */
+    NONE("none"),
+
+    /**
+     * The deleted tuples are kept in free lists of their nodes, and reused for the following inserts
+     */
+    RECYCLE("recycle"),
+
+    /**
+     * The deleted tuples are cleared as if they were recycled, but they are never reused, so that any
+     * use of a tuple after its recycling fails. This is meant for tests.
+     */
+    VERIFY("verify");
+
+    private final String string;
+    TupleRecyclingMode( String string ) {
+        this.string = string;
+    }
+
+    public String toExternalForm() {
+        return this.string;
+    }
+
+    public String toString() {
+        return this.string;
+    }
+
+    public String getId() {
+        return this.string;
+    }
+
+    public static TupleRecyclingMode resolveTupleRecyclingMode( String id ) {
+        if( NONE.getId().equalsIgnoreCase( id ) ) {
+            return NONE;
+        } else if( RECYCLE.getId().equalsIgnoreCase( id ) ) {
+            return RECYCLE;
+        } else if( VERIFY.getId().equalsIgnoreCase( id ) ) {
+            return VERIFY;
+        }
+        throw new IllegalArgumentException( "Illegal enum value '" + id + "' for TupleRecyclingMode" );
+    }
+}
@@ -16,6 +16,8 @@
 
 package org.drools.core;
 
+import java.util.Collection;
+import java.util.List;
 
 /**
  * An interface for instances that allow handling of entry-point-scoped
@@ -54,6 +56,20 @@ public interface WorkingMemoryEntryPoint extends org.kie.api.runtime.rule.EntryP
     FactHandle insert(Object object,
                       boolean dynamic) throws FactException;
 
+    /**
+     * Assert all the given facts as a single batch. The batch takes the session
+     * lock once and stages all the resulting tuples before any rule is evaluated.
+     * 
+     * @param objects
+     *            The fact objects.
+     * 
+     * @return The fact-handles associated with the objects, in iteration order.
+     * 
+     * @throws FactException
+     *             If a RuntimeException error occurs.
+     */
+    List<FactHandle> insertAll(Collection<?> objects) throws FactException;
+
     /**
      * Retract a fact.
      * 
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.base;
+
+import org.drools.core.FactHandle;
+import org.drools.core.WorkingMemory;
+import org.drools.core.common.InternalRuleBase;
+import org.drools.core.factmodel.traits.Thing;
+import org.drools.core.factmodel.traits.TraitableBean;
+import org.drools.core.spi.Activation;
+import org.drools.core.spi.KnowledgeHelper;
+import org.drools.core.util.BitMask;
+import org.kie.api.runtime.KieRuntime;
+import org.kie.api.runtime.rule.EntryPoint;
+import org.kie.api.runtime.rule.Match;
+import org.kie.internal.runtime.KnowledgeRuntime;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The KnowledgeHelper of a consequence run by an executor thread.
+ *
+ * The changes of the working memory requested by the consequence are recorded instead of being
+ * applied, and they are all applied later by the thread owning the session, through a
+ * DefaultKnowledgeHelper for the same activation. The inserts can't return the handle of the
+ * inserted fact, so they return null. The logical inserts and the traits are not supported,
+ * as they depend on the state of the session when the consequence is run. Neither is the access
+ * to the session itself or to its entry points, which would be changed by the executor thread.
+ */
+public class AsyncKnowledgeHelper extends DefaultKnowledgeHelper {
+
+    private static final long serialVersionUID = 510l;
+
+    /**
+     * A change of the working memory requested by an asynchronous consequence
+     */
+    public interface DeferredAction {
+        void apply(KnowledgeHelper helper);
+    }
+
+    private final List<DeferredAction> deferredActions = new ArrayList<DeferredAction>();
+
+    public AsyncKnowledgeHelper(Activation activation,
+                                WorkingMemory workingMemory) {
+        super( activation,
+               workingMemory );
+    }
+
+    public List<DeferredAction> getDeferredActions() {
+        return this.deferredActions;
+    }
+
+    public FactHandle insert(final Object object,
+                             final boolean dynamic) {
+        this.deferredActions.add( new DeferredAction() {
+            public void apply(KnowledgeHelper helper) {
+                helper.insert( object, dynamic );
+            }
+        } );
+        return null;
+    }
+
+    public void insertLogical(final Object object,
+                              final Object value,
+                              final boolean dynamic) {
+        throw new UnsupportedOperationException( "Logical inserts are not supported by asynchronous consequences" );
+    }
+
+    public void update(final FactHandle handle,
+                       final Object newObject) {
+        this.deferredActions.add( new DeferredAction() {
+            public void apply(KnowledgeHelper helper) {
+                helper.update( handle, newObject );
+            }
+        } );
+    }
+
+    public void update(final FactHandle handle,
+                       final BitMask mask,
+                       final Class<?> modifiedClass) {
+        this.deferredActions.add( new DeferredAction() {
+            public void apply(KnowledgeHelper helper) {
+                helper.update( handle, mask, modifiedClass );
+            }
+        } );
+    }
+
+    public void update(final Object object,
+                       final long mask,
+                       final Class<?> modifiedClass) {
+        this.deferredActions.add( new DeferredAction() {
+            public void apply(KnowledgeHelper helper) {
+                helper.update( object, mask, modifiedClass );
+            }
+        } );
+    }
+
+    public void update(final Object object,
+                       final BitMask mask,
+                       final Class<?> modifiedClass) {
+        this.deferredActions.add( new DeferredAction() {
+            public void apply(KnowledgeHelper helper) {
+                helper.update( object, mask, modifiedClass );
+            }
+        } );
+    }
+
+    public void delete(final FactHandle handle) {
+        this.deferredActions.add( new DeferredAction() {
+            public void apply(KnowledgeHelper helper) {
+                helper.delete( handle );
+            }
+        } );
+    }
+
+    public void delete(final Object object) {
+        this.deferredActions.add( new DeferredAction() {
+            public void apply(KnowledgeHelper helper) {
+                helper.delete( object );
+            }
+        } );
+    }
+
+    public void retract(final Object object) {
+        delete( object );
+    }
+
+    public void setFocus(final String focus) {
+        this.deferredActions.add( new DeferredAction() {
+            public void apply(KnowledgeHelper helper) {
+                helper.setFocus( focus );
+            }
+        } );
+    }
+
+    public void halt() {
+        this.deferredActions.add( new DeferredAction() {
+            public void apply(KnowledgeHelper helper) {
+                helper.halt();
+            }
+        } );
+    }
+
+    public void cancelMatch(final Match act) {
+        this.deferredActions.add( new DeferredAction() {
+            public void apply(KnowledgeHelper helper) {
+                helper.cancelMatch( act );
+            }
+        } );
+    }
+
+    public void blockMatch(final Match act) {
+        this.deferredActions.add( new DeferredAction() {
+            public void apply(KnowledgeHelper helper) {
+                helper.blockMatch( act );
+            }
+        } );
+    }
+
+    public void unblockAllMatches(final Match act) {
+        this.deferredActions.add( new DeferredAction() {
+            public void apply(KnowledgeHelper helper) {
+                helper.unblockAllMatches( act );
+            }
+        } );
+    }
+
+    /**
+     * The rule base isn't changed by the consequences, so it is still accessible, e.g. to the MVEL modify blocks
+     */
+    InternalRuleBase getRuleBase() {
+        return (InternalRuleBase) super.getWorkingMemory().getRuleBase();
+    }
+
+    public WorkingMemory getWorkingMemory() {
+        throw new UnsupportedOperationException( "The session is not accessible from asynchronous consequences" );
+    }
+
+    public KnowledgeRuntime getKnowledgeRuntime() {
+        throw new UnsupportedOperationException( "The session is not accessible from asynchronous consequences" );
+    }
+
+    public KieRuntime getKieRuntime() {
+        throw new UnsupportedOperationException( "The session is not accessible from asynchronous consequences" );
+    }
+
+    public <T> T getContext(Class<T> contextClass) {
+        throw new UnsupportedOperationException( "The session is not accessible from asynchronous consequences" );
+    }
+
+    public EntryPoint getEntryPoint(String id) {
+        throw new UnsupportedOperationException( "The entry points are not accessible from asynchronous consequences" );
+    }
+
+    public Map<String, EntryPoint> getEntryPoints() {
+        throw new UnsupportedOperationException( "The entry points are not accessible from asynchronous consequences" );
+    }
+
+    public <T, K> T don( K core, Collection<Class<? extends Thing>> traits, boolean logical ) {
+        throw new UnsupportedOperationException( "Traits are not supported by asynchronous consequences" );
+    }
+
+    public <T, K> T don( K core, Class<T> trait, boolean logical ) {
+        throw new UnsupportedOperationException( "Traits are not supported by asynchronous consequences" );
+    }
+
+    public <T,K,X extends TraitableBean> Thing<K> shed( TraitableBean<K,X> core, Class<T> trait ) {
+        throw new UnsupportedOperationException( "Traits are not supported by asynchronous consequences" );
+    }
+}
@@ -57,6 +57,7 @@ import org.drools.core.rule.TypeDeclaration;
 import org.drools.core.spi.Activation;
 import org.drools.core.spi.KnowledgeHelper;
 import org.drools.core.spi.Tuple;
+import org.drools.core.util.BitMask;
 import org.drools.core.util.HierarchyEncoder;
 import org.drools.core.util.LinkedList;
 import org.drools.core.util.LinkedListEntry;
@@ -116,6 +117,7 @@ public class DefaultKnowledgeHelper
     public DefaultKnowledgeHelper(Activation activation, final WorkingMemory workingMemory) {
         this.workingMemory = (InternalWorkingMemoryActions) workingMemory;
         this.activation = activation;
+        this.tuple = activation.getTuple();
         this.identityMap = null;
 
     }    
@@ -363,7 +365,7 @@ public class DefaultKnowledgeHelper
         InternalFactHandle h = (InternalFactHandle) handle;
         ((InternalWorkingMemoryEntryPoint) h.getEntryPoint()).update( h,
                                                                       newObject,
-                                                                      Long.MIN_VALUE,
+                                                                      BitMask.TRAIT,
                                                                       newObject.getClass(),
                                                                       this.activation );
         if ( getIdentityMap() != null ) {
@@ -377,6 +379,10 @@ public class DefaultKnowledgeHelper
     }
 
     public void update( final FactHandle handle, long mask, Class<?> modifiedClass ) {
+        update( handle, BitMask.valueOf( mask ), modifiedClass );
+    }
+
+    public void update( final FactHandle handle, BitMask mask, Class<?> modifiedClass ) {
         InternalFactHandle h = (InternalFactHandle) handle;
         ((NamedEntryPoint) h.getEntryPoint()).update( h,
                                                       h.getEqualityKey() != null && h.getEqualityKey().getStatus() == EqualityKey.JUSTIFIED,
@@ -411,11 +417,11 @@ public class DefaultKnowledgeHelper
     }
 
 
-    private void updateTraits( Object object, long mask, Thing originator, Class<?> modifiedClass, BitSet veto, Collection<Thing> mostSpecificTraits ) {
+    private void updateTraits( Object object, BitMask mask, Thing originator, Class<?> modifiedClass, BitSet veto, Collection<Thing> mostSpecificTraits ) {
         updateManyTraits( object, mask, Arrays.asList( originator ), modifiedClass, veto, mostSpecificTraits );
     }
 
-    private void updateManyTraits( Object object, long mask, Collection<Thing> originators, Class<?> modifiedClass, BitSet veto, Collection<Thing> mostSpecificTraits ) {
+    private void updateManyTraits( Object object, BitMask mask, Collection<Thing> originators, Class<?> modifiedClass, BitSet veto, Collection<Thing> mostSpecificTraits ) {
         veto = veto != null ? (BitSet) veto.clone() : null;
 
         for ( Thing t : mostSpecificTraits ) {
@@ -453,6 +459,10 @@ public class DefaultKnowledgeHelper
         update(getFactHandle(object), mask, modifiedClass);
     }
 
+    public void update(Object object, BitMask mask, Class<?> modifiedClass) {
+        update(getFactHandle(object), mask, modifiedClass);
+    }
+
     public void retract(Object object) {
         delete( getFactHandle( object ) );
     }
@@ -734,7 +744,7 @@ public class DefaultKnowledgeHelper
             if ( mostSpecificTraits != null ) {
                 updateCore( inner, core, null, logical );
                 if ( ! mostSpecificTraits.isEmpty() ) {
-                    updateManyTraits( inner, Long.MIN_VALUE, things.keySet(), core.getClass(), null, mostSpecificTraits );
+                    updateManyTraits( inner, BitMask.TRAIT, things.keySet(), core.getClass(), null, mostSpecificTraits );
                 }
             }
         }
@@ -782,7 +792,7 @@ public class DefaultKnowledgeHelper
         if ( mostSpecificTraits != null ) {
             updateCore( inner, core, trait, logical );
             if ( ! mostSpecificTraits.isEmpty() ) {
-                updateTraits( inner, Long.MIN_VALUE, (Thing) thing, trait, null, mostSpecificTraits );
+                updateTraits( inner, BitMask.TRAIT, (Thing) thing, trait, null, mostSpecificTraits );
             }
         } else if ( Thing.class == trait ) {
             updateCore( inner, core, trait, logical );
@@ -794,7 +804,7 @@ public class DefaultKnowledgeHelper
         InternalFactHandle h = (InternalFactHandle) handle;
         if ( handle != null ) {
             TraitFieldTMS fieldTMS = inner._getFieldTMS();
-            long mask = fieldTMS == null ? Long.MIN_VALUE : fieldTMS.getModificationMask();
+            BitMask mask = fieldTMS == null ? BitMask.TRAIT : BitMask.valueOf( fieldTMS.getModificationMask() );
             ((NamedEntryPoint) h.getEntryPoint()).update( h,
                                                           h.getEqualityKey() != null && h.getEqualityKey().getStatus() == EqualityKey.JUSTIFIED,
                                                           ((InternalFactHandle)handle).getObject(),
@@ -70,6 +70,10 @@ public class MapGlobalResolver
         this.delegate = delegate;
     }
 
+    public void clear() {
+        this.map.clear();
+    }
+
     public Collection<String> getGlobalKeys() {
         if ( delegate == null ) {
             return Collections.unmodifiableCollection(map.keySet());
@@ -34,6 +34,7 @@ import org.drools.core.rule.Rule;
 import org.drools.core.spi.Activation;
 import org.drools.core.spi.KnowledgeHelper;
 import org.drools.core.spi.Tuple;
+import org.drools.core.util.BitMask;
 import org.kie.internal.runtime.KnowledgeRuntime;
 import org.kie.api.runtime.Channel;
 import org.kie.api.runtime.KieRuntime;
@@ -272,6 +273,10 @@ public class SequentialKnowledgeHelper
         // TODO Auto-generated method stub
     }
 
+    public void update(FactHandle newObject, BitMask mask, Class<?> typeClass) {
+        // TODO Auto-generated method stub
+    }
+
     public void retract(FactHandle handle) {
         // TODO Auto-generated method stub
     }
@@ -288,6 +293,10 @@ public class SequentialKnowledgeHelper
         // TODO Auto-generated method stub
     }
 
+    public void update(Object newObject, BitMask mask, Class<?> typeClass) {
+        // TODO Auto-generated method stub
+    }
+
     public void retract(Object handle) {
         // TODO Auto-generated method stub
     }
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.base.accumulators;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.kie.api.runtime.rule.AccumulateFunction;
+
+/**
+ * <p>An implementation of an accumulator capable of estimating the number of distinct
+ * values of a group with a HyperLogLog sketch. Unlike collectSet, which keeps every
+ * element, each group uses 2^precision bytes whatever its size: with the default
+ * precision of 12 the sketch takes 4KB and the standard error of the estimate is about 1.6%.</p>
+ *
+ * <p>Example:</p>
+ * <pre>
+ * rule "Too many devices"
+ * when
+ *     $card : Card()
+ *     $devices : Number( longValue &gt; 10 ) from accumulate(
+ *             Payment( card == $card, $d : deviceId ),
+ *             approxCountDistinct( $d ) )
+ * then
+ *     // do something
+ * end
+ * </pre>
+ *
+ * <p>Values are told apart by their hash code, except for the primitive wrappers that are hashed
+ * on their value, and null values are ignored. A sketch can't forget a value, so this function doesn't
+ * support reverse and the group is re-accumulated when one of its facts is retracted.</p>
+ */
+public class ApproxCountDistinctAccumulateFunction implements AccumulateFunction {
+
+    public static final int DEFAULT_PRECISION = 12;
+
+    private int             precision;
+
+    public ApproxCountDistinctAccumulateFunction() {
+        this( DEFAULT_PRECISION );
+    }
+
+    public ApproxCountDistinctAccumulateFunction(int precision) {
+        if ( precision < 4 || precision > 16 ) {
+            throw new IllegalArgumentException( "The precision of approxCountDistinct must be between 4 and 16: " + precision );
+        }
+        this.precision = precision;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        precision = in.readInt();
+    }
+
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt( precision );
+    }
+
+    protected static class HyperLogLogData implements Externalizable {
+        public int    precision;
+        public byte[] registers;
+
+        public HyperLogLogData() {}
+
+        public HyperLogLogData(int precision) {
+            this.precision = precision;
+            this.registers = new byte[1 << precision];
+        }
+
+        public void add(long hash) {
+            int index = (int) ( hash >>> ( 64 - precision ) );
+            // the guard bit bounds the rank when all the remaining bits are zeros
+            int rank = Long.numberOfLeadingZeros( ( hash << precision ) | ( 1L << ( precision - 1 ) ) ) + 1;
+            if ( rank > registers[index] ) {
+                registers[index] = (byte) rank;
+            }
+        }
+
+        public long estimate() {
+            int m = registers.length;
+            double sum = 0;
+            int zeros = 0;
+            for ( byte register : registers ) {
+                sum += 1.0 / ( 1L << register );
+                if ( register == 0 ) {
+                    zeros++;
+                }
+            }
+            double estimate = ( 0.7213 / ( 1 + 1.079 / m ) ) * m * m / sum;
+            if ( estimate <= 2.5 * m && zeros > 0 ) {
+                // linear counting is more accurate for the small cardinalities
+                estimate = m * Math.log( (double) m / zeros );
+            }
+            return Math.round( estimate );
+        }
+
+        public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+            precision = in.readInt();
+            registers = new byte[1 << precision];
+            in.readFully( registers );
+        }
+
+        public void writeExternal(ObjectOutput out) throws IOException {
+            out.writeInt( precision );
+            out.write( registers );
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#createContext()
+     */
+    public Serializable createContext() {
+        return new HyperLogLogData( precision );
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#init(java.lang.Object)
+     */
+    public void init(Serializable context) throws Exception {
+        HyperLogLogData data = (HyperLogLogData) context;
+        Arrays.fill( data.registers, (byte) 0 );
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#accumulate(java.lang.Object, java.lang.Object)
+     */
+    public void accumulate(Serializable context,
+                           Object value) {
+        if ( value != null ) {
+            HyperLogLogData data = (HyperLogLogData) context;
+            data.add( hash( value ) );
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#reverse(java.lang.Object, java.lang.Object)
+     */
+    public void reverse(Serializable context,
+                        Object value) throws Exception {
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#getResult(java.lang.Object)
+     */
+    public Object getResult(Serializable context) throws Exception {
+        HyperLogLogData data = (HyperLogLogData) context;
+        return new Long( data.estimate() );
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#supportsReverse()
+     */
+    public boolean supportsReverse() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Class< ? > getResultType() {
+        return Number.class;
+    }
+
+    private static long hash(Object value) {
+        long key;
+        if ( value instanceof Double || value instanceof Float ) {
+            key = Double.doubleToLongBits( ((Number) value).doubleValue() );
+        } else if ( value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte ) {
+            key = ((Number) value).longValue();
+        } else {
+            key = value.hashCode();
+        }
+        // the finalization step of MurmurHash3 spreads the bits of the key on the whole hash
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.base.accumulators;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.kie.api.runtime.rule.AccumulateFunction;
+
+/**
+ * <p>An implementation of an accumulator capable of estimating a percentile of the values
+ * of a group with a merging t-digest. The values are summarized by at most a few hundreds
+ * of centroids, smaller at the tails of the distribution, so that the extreme percentiles are
+ * the most accurate ones and each group uses a bounded amount of memory whatever its size.</p>
+ *
+ * <p>The registered approxPercentile function estimates the median. Other percentiles can be
+ * registered under their own names through the AccumulateFunctionOption,
+ * e.g. AccumulateFunctionOption.get( "p99", new ApproxPercentileAccumulateFunction( 0.99 ) ).</p>
+ *
+ * <p>Example:</p>
+ * <pre>
+ * rule "Unusual amount"
+ * when
+ *     $card : Card()
+ *     $p99 : Number() from accumulate(
+ *             Payment( card == $card, $a : amount ),
+ *             p99( $a ) )
+ * then
+ *     // do something
+ * end
+ * </pre>
+ *
+ * <p>A centroid can't forget the values merged in it, so this function doesn't support reverse and
+ * the group is re-accumulated when one of its facts is retracted.</p>
+ */
+public class ApproxPercentileAccumulateFunction implements AccumulateFunction {
+
+    public static final double DEFAULT_PERCENTILE  = 0.5;
+
+    public static final double DEFAULT_COMPRESSION = 200;
+
+    private double             percentile;
+
+    private double             compression;
+
+    public ApproxPercentileAccumulateFunction() {
+        this( DEFAULT_PERCENTILE );
+    }
+
+    public ApproxPercentileAccumulateFunction(double percentile) {
+        this( percentile,
+              DEFAULT_COMPRESSION );
+    }
+
+    /**
+     * @param percentile the percentile to estimate, between 0 and 1
+     * @param compression the accuracy of the digest, which keeps at most about compression centroids
+     */
+    public ApproxPercentileAccumulateFunction(double percentile,
+                                              double compression) {
+        if ( percentile < 0 || percentile > 1 ) {
+            throw new IllegalArgumentException( "The percentile of approxPercentile must be between 0 and 1: " + percentile );
+        }
+        if ( compression < 10 ) {
+            throw new IllegalArgumentException( "The compression of approxPercentile must be at least 10: " + compression );
+        }
+        this.percentile = percentile;
+        this.compression = compression;
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public double getCompression() {
+        return compression;
+    }
+
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        percentile = in.readDouble();
+        compression = in.readDouble();
+    }
+
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeDouble( percentile );
+        out.writeDouble( compression );
+    }
+
+    protected static class TDigestData implements Externalizable {
+        public double   compression;
+
+        /** The centroids, sorted by mean */
+        public double[] means;
+        public double[] weights;
+        public int      centroidCount;
+
+        private double[] spareMeans;
+        private double[] spareWeights;
+
+        /** The values not yet merged in the centroids */
+        public double[] buffer;
+        public int      bufferSize;
+
+        public double   totalWeight;
+        public double   min;
+        public double   max;
+
+        public TDigestData() {}
+
+        public TDigestData(double compression) {
+            this.compression = compression;
+            allocate();
+            clear();
+        }
+
+        private void allocate() {
+            // two consecutive centroids span at least one unit of the scale function, whose range is compression / 2
+            int capacity = (int) Math.ceil( compression ) + 10;
+            means = new double[capacity];
+            weights = new double[capacity];
+            spareMeans = new double[capacity];
+            spareWeights = new double[capacity];
+            buffer = new double[2 * (int) Math.ceil( compression )];
+        }
+
+        public void clear() {
+            centroidCount = 0;
+            bufferSize = 0;
+            totalWeight = 0;
+            min = Double.POSITIVE_INFINITY;
+            max = Double.NEGATIVE_INFINITY;
+        }
+
+        public void add(double value) {
+            if ( bufferSize == buffer.length ) {
+                merge();
+            }
+            buffer[bufferSize++] = value;
+            min = Math.min( min, value );
+            max = Math.max( max, value );
+        }
+
+        /**
+         * Merges the buffered values in the centroids, so that each centroid spans at most
+         * one unit of the k1 scale function k(q) = compression / (2 * PI) * asin(2q - 1)
+         */
+        public void merge() {
+            if ( bufferSize == 0 ) {
+                return;
+            }
+            Arrays.sort( buffer, 0, bufferSize );
+
+            // the centroids are merged in the spare arrays, which are then swapped with the current ones
+            double[] oldMeans = means;
+            double[] oldWeights = weights;
+            int oldCount = centroidCount;
+            means = spareMeans;
+            weights = spareWeights;
+            spareMeans = oldMeans;
+            spareWeights = oldWeights;
+            centroidCount = 0;
+
+            double total = totalWeight + bufferSize;
+            double weightSoFar = 0;
+            double limit = total * limit( 0 );
+            double mean = 0;
+            double weight = 0;
+            int i = 0;
+            int j = 0;
+            while ( i < oldCount || j < bufferSize ) {
+                double nextMean;
+                double nextWeight;
+                if ( j == bufferSize || ( i < oldCount && oldMeans[i] <= buffer[j] ) ) {
+                    nextMean = oldMeans[i];
+                    nextWeight = oldWeights[i++];
+                } else {
+                    nextMean = buffer[j++];
+                    nextWeight = 1;
+                }
+
+                if ( weight > 0 && weightSoFar + weight + nextWeight > limit ) {
+                    means[centroidCount] = mean;
+                    weights[centroidCount++] = weight;
+                    weightSoFar += weight;
+                    limit = total * limit( weightSoFar / total );
+                    weight = 0;
+                }
+                weight += nextWeight;
+                mean += ( nextMean - mean ) * nextWeight / weight;
+            }
+            means[centroidCount] = mean;
+            weights[centroidCount++] = weight;
+
+            totalWeight = total;
+            bufferSize = 0;
+        }
+
+        private double limit(double q) {
+            double k = compression / ( 2 * Math.PI ) * Math.asin( 2 * q - 1 ) + 1;
+            if ( k >= compression / 4 ) {
+                return 1;
+            }
+            return ( Math.sin( k * 2 * Math.PI / compression ) + 1 ) / 2;
+        }
+
+        public double quantile(double q) {
+            merge();
+            if ( centroidCount == 0 ) {
+                return Double.NaN;
+            }
+            if ( centroidCount == 1 ) {
+                return means[0];
+            }
+
+            double index = q * totalWeight;
+            if ( index < weights[0] / 2 ) {
+                return interpolate( min, means[0], index / ( weights[0] / 2 ) );
+            }
+            double last = weights[centroidCount - 1];
+            if ( index > totalWeight - last / 2 ) {
+                return interpolate( means[centroidCount - 1], max, ( index - totalWeight + last / 2 ) / ( last / 2 ) );
+            }
+
+            // the centroid i is considered to be at the middle of its weight
+            double center = weights[0] / 2;
+            for ( int i = 0; i < centroidCount - 1; i++ ) {
+                double nextCenter = center + ( weights[i] + weights[i + 1] ) / 2;
+                if ( index <= nextCenter ) {
+                    return interpolate( means[i], means[i + 1], ( index - center ) / ( nextCenter - center ) );
+                }
+                center = nextCenter;
+            }
+            return means[centroidCount - 1];
+        }
+
+        private static double interpolate(double from,
+                                          double to,
+                                          double ratio) {
+            return from + ( to - from ) * ratio;
+        }
+
+        public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+            compression = in.readDouble();
+            allocate();
+            centroidCount = in.readInt();
+            for ( int i = 0; i < centroidCount; i++ ) {
+                means[i] = in.readDouble();
+                weights[i] = in.readDouble();
+            }
+            totalWeight = in.readDouble();
+            min = in.readDouble();
+            max = in.readDouble();
+        }
+
+        public void writeExternal(ObjectOutput out) throws IOException {
+            merge();
+            out.writeDouble( compression );
+            out.writeInt( centroidCount );
+            for ( int i = 0; i < centroidCount; i++ ) {
+                out.writeDouble( means[i] );
+                out.writeDouble( weights[i] );
+            }
+            out.writeDouble( totalWeight );
+            out.writeDouble( min );
+            out.writeDouble( max );
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#createContext()
+     */
+    public Serializable createContext() {
+        return new TDigestData( compression );
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#init(java.lang.Object)
+     */
+    public void init(Serializable context) throws Exception {
+        TDigestData data = (TDigestData) context;
+        data.clear();
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#accumulate(java.lang.Object, java.lang.Object)
+     */
+    public void accumulate(Serializable context,
+                           Object value) {
+        TDigestData data = (TDigestData) context;
+        data.add( ((Number) value).doubleValue() );
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#reverse(java.lang.Object, java.lang.Object)
+     */
+    public void reverse(Serializable context,
+                        Object value) throws Exception {
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#getResult(java.lang.Object)
+     */
+    public Object getResult(Serializable context) throws Exception {
+        TDigestData data = (TDigestData) context;
+        double result = data.quantile( percentile );
+        return new Double( Double.isNaN( result ) ? 0 : result );
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#supportsReverse()
+     */
+    public boolean supportsReverse() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Class< ? > getResultType() {
+        return Number.class;
+    }
+}
@@ -16,7 +16,6 @@
 
 package org.drools.core.base.accumulators;
 
-import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
@@ -25,22 +24,14 @@ import java.io.Serializable;
 import org.kie.api.runtime.rule.AccumulateFunction;
 
 /**
- * An implementation of an accumulator capable of calculating maximum values
+ * An implementation of an accumulator capable of calculating maximum values.
+ * The accumulated values are kept sorted, so that reversing one of them doesn't require
+ * to re-accumulate the whole group.
  */
 public class MaxAccumulateFunction implements AccumulateFunction {
 
-    protected static class MaxData implements Externalizable {
-        public double max = -Double.MAX_VALUE;
-        
+    protected static class MaxData extends OrderedValueCounts {
         public MaxData() {}
-
-        public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
-            max   = in.readDouble();
-        }
-
-        public void writeExternal(ObjectOutput out) throws IOException {
-            out.writeDouble(max);
-        }
     }
 
     public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
@@ -62,7 +53,7 @@ public class MaxAccumulateFunction implements AccumulateFunction {
      */
     public void init(Serializable context) throws Exception {
         MaxData data = (MaxData) context;
-        data.max = -Double.MAX_VALUE;
+        data.clear();
     }
 
     /* (non-Javadoc)
@@ -71,7 +62,7 @@ public class MaxAccumulateFunction implements AccumulateFunction {
     public void accumulate(Serializable context,
                            Object value) {
         MaxData data = (MaxData) context;
-        data.max = Math.max( data.max, ((Number)value).doubleValue() );
+        data.add( ((Number)value).doubleValue() );
     }
 
     /* (non-Javadoc)
@@ -79,6 +70,8 @@ public class MaxAccumulateFunction implements AccumulateFunction {
      */
     public void reverse(Serializable context,
                         Object value) throws Exception {
+        MaxData data = (MaxData) context;
+        data.remove( ((Number)value).doubleValue() );
     }
 
     /* (non-Javadoc)
@@ -86,14 +79,14 @@ public class MaxAccumulateFunction implements AccumulateFunction {
      */
     public Object getResult(Serializable context) throws Exception {
         MaxData data = (MaxData) context;
-        return new Double( data.max );
+        return new Double( data.isEmpty() ? -Double.MAX_VALUE : data.last() );
     }
 
     /* (non-Javadoc)
      * @see org.kie.base.accumulators.AccumulateFunction#supportsReverse()
      */
     public boolean supportsReverse() {
-        return false;
+        return true;
     }
 
     /**
@@ -16,7 +16,6 @@
 
 package org.drools.core.base.accumulators;
 
-import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
@@ -25,7 +24,9 @@ import java.io.Serializable;
 import org.kie.api.runtime.rule.AccumulateFunction;
 
 /**
- * An implementation of an accumulator capable of calculating minimun values
+ * An implementation of an accumulator capable of calculating minimun values.
+ * The accumulated values are kept sorted, so that reversing one of them doesn't require
+ * to re-accumulate the whole group.
  */
 public class MinAccumulateFunction implements AccumulateFunction {
 
@@ -37,18 +38,8 @@ public class MinAccumulateFunction implements AccumulateFunction {
 
     }
 
-    protected static class MinData implements Externalizable {
-        public double min = Double.MAX_VALUE;
-        
+    protected static class MinData extends OrderedValueCounts {
         public MinData() {}
-
-        public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
-            min   = in.readDouble();
-        }
-
-        public void writeExternal(ObjectOutput out) throws IOException {
-            out.writeDouble(min);
-        }
     }
 
     /* (non-Javadoc)
@@ -63,7 +54,7 @@ public class MinAccumulateFunction implements AccumulateFunction {
      */
     public void init(Serializable context) throws Exception {
         MinData data = (MinData) context;
-        data.min = Double.MAX_VALUE;
+        data.clear();
     }
 
     /* (non-Javadoc)
@@ -72,7 +63,7 @@ public class MinAccumulateFunction implements AccumulateFunction {
     public void accumulate(Serializable context,
                            Object value) {
         MinData data = (MinData) context;
-        data.min = Math.min( data.min, ((Number)value).doubleValue() );
+        data.add( ((Number)value).doubleValue() );
     }
 
     /* (non-Javadoc)
@@ -80,6 +71,8 @@ public class MinAccumulateFunction implements AccumulateFunction {
      */
     public void reverse(Serializable context,
                         Object value) throws Exception {
+        MinData data = (MinData) context;
+        data.remove( ((Number)value).doubleValue() );
     }
 
     /* (non-Javadoc)
@@ -87,14 +80,14 @@ public class MinAccumulateFunction implements AccumulateFunction {
      */
     public Object getResult(Serializable context) throws Exception {
         MinData data = (MinData) context;
-        return new Double( data.min );
+        return new Double( data.isEmpty() ? Double.MAX_VALUE : data.first() );
     }
 
     /* (non-Javadoc)
      * @see org.kie.base.accumulators.AccumulateFunction#supportsReverse()
      */
     public boolean supportsReverse() {
-        return false;
+        return true;
     }
 
     /**
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.base.accumulators;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A sorted multiset of the values accumulated by the min, max and top-N functions.
+ *
+ * Each distinct value is stored once together with the number of times it has been accumulated,
+ * so that both adding and reversing a value cost O(log n) and the functions don't need to
+ * re-accumulate the whole group when one of its facts is retracted or modified.
+ */
+public class OrderedValueCounts implements Externalizable {
+
+    private TreeMap<Double, int[]> counts = new TreeMap<Double, int[]>();
+
+    private int                    size;
+
+    public OrderedValueCounts() {
+    }
+
+    public void add(double value) {
+        Double key = Double.valueOf( value );
+        int[] count = counts.get( key );
+        if ( count == null ) {
+            counts.put( key, new int[] { 1 } );
+        } else {
+            count[0]++;
+        }
+        size++;
+    }
+
+    public void remove(double value) {
+        Double key = Double.valueOf( value );
+        int[] count = counts.get( key );
+        if ( count == null ) {
+            throw new IllegalStateException( "Reversing the value " + value + " which has never been accumulated" );
+        }
+        if ( --count[0] == 0 ) {
+            counts.remove( key );
+        }
+        size--;
+    }
+
+    public void clear() {
+        counts.clear();
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double first() {
+        return counts.firstKey().doubleValue();
+    }
+
+    public double last() {
+        return counts.lastKey().doubleValue();
+    }
+
+    /**
+     * Returns the greatest n values, duplicates included, in descending order
+     */
+    public double[] last(int n) {
+        double[] values = new double[Math.min( n, size )];
+        int i = 0;
+        for ( Iterator<Map.Entry<Double, int[]>> it = counts.descendingMap().entrySet().iterator(); i < values.length; ) {
+            Map.Entry<Double, int[]> entry = it.next();
+            for ( int j = entry.getValue()[0]; j > 0 && i < values.length; j-- ) {
+                values[i++] = entry.getKey().doubleValue();
+            }
+        }
+        return values;
+    }
+
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        counts = new TreeMap<Double, int[]>();
+        size = 0;
+        int distinct = in.readInt();
+        for ( int i = 0; i < distinct; i++ ) {
+            double value = in.readDouble();
+            int count = in.readInt();
+            counts.put( Double.valueOf( value ), new int[] { count } );
+            size += count;
+        }
+    }
+
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt( counts.size() );
+        for ( Map.Entry<Double, int[]> entry : counts.entrySet() ) {
+            out.writeDouble( entry.getKey().doubleValue() );
+            out.writeInt( entry.getValue()[0] );
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.base.accumulators;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.kie.api.runtime.rule.AccumulateFunction;
+
+/**
+ * <p>An implementation of an accumulator capable of calculating the N greatest values
+ * of a group, N being 10 unless a different size is given to the constructor.</p>
+ *
+ * <p>Example:</p>
+ * <pre>
+ * rule "Best quotes"
+ * when
+ *     $best : List() from accumulate(
+ *             Quote( $p : price ),
+ *             topN( $p ) )
+ * then
+ *     // do something
+ * end
+ * </pre>
+ *
+ * <p>The result is a list of Double, sorted in descending order, that keeps the duplicated values.
+ * Other sizes can be registered under their own names through the AccumulateFunctionOption,
+ * e.g. AccumulateFunctionOption.get( "top3", new TopNAccumulateFunction( 3 ) ).</p>
+ *
+ * <p>As for min and max, the accumulated values are kept sorted, so that reversing one of them
+ * doesn't require to re-accumulate the whole group.</p>
+ */
+public class TopNAccumulateFunction implements AccumulateFunction {
+
+    public static final int DEFAULT_SIZE = 10;
+
+    private int             size;
+
+    public TopNAccumulateFunction() {
+        this( DEFAULT_SIZE );
+    }
+
+    public TopNAccumulateFunction(int size) {
+        if ( size <= 0 ) {
+            throw new IllegalArgumentException( "The size of a top-N accumulate must be positive: " + size );
+        }
+        this.size = size;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        size = in.readInt();
+    }
+
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt( size );
+    }
+
+    protected static class TopNData extends OrderedValueCounts {
+        public TopNData() {}
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#createContext()
+     */
+    public Serializable createContext() {
+        return new TopNData();
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#init(java.lang.Object)
+     */
+    public void init(Serializable context) throws Exception {
+        TopNData data = (TopNData) context;
+        data.clear();
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#accumulate(java.lang.Object, java.lang.Object)
+     */
+    public void accumulate(Serializable context,
+                           Object value) {
+        TopNData data = (TopNData) context;
+        data.add( ((Number) value).doubleValue() );
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#reverse(java.lang.Object, java.lang.Object)
+     */
+    public void reverse(Serializable context,
+                        Object value) throws Exception {
+        TopNData data = (TopNData) context;
+        data.remove( ((Number) value).doubleValue() );
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#getResult(java.lang.Object)
+     */
+    public Object getResult(Serializable context) throws Exception {
+        TopNData data = (TopNData) context;
+        double[] top = data.last( size );
+        List<Double> result = new ArrayList<Double>( top.length );
+        for ( double value : top ) {
+            result.add( Double.valueOf( value ) );
+        }
+        return result;
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.base.accumulators.AccumulateFunction#supportsReverse()
+     */
+    public boolean supportsReverse() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Class< ? > getResultType() {
+        return List.class;
+    }
+}
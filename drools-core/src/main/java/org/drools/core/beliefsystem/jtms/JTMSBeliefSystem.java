@@ -13,6 +13,7 @@ import org.drools.core.util.LinkedListEntry;
 import org.drools.core.reteoo.ObjectTypeConf;
 import org.drools.core.spi.Activation;
 import org.drools.core.spi.PropagationContext;
+import org.drools.core.util.BitMask;
 
 public class JTMSBeliefSystem
         implements
@@ -210,7 +211,7 @@ public class JTMSBeliefSystem
             // Equality might have changed on the object, so remove (which uses the handle id) and add back in
             if ( handle.getObject() != object ) {
                 ((NamedEntryPoint) handle.getEntryPoint()).getObjectStore().updateHandle( handle, object );
-                ((NamedEntryPoint) handle.getEntryPoint() ).update( handle, true, handle.getObject(), Long.MAX_VALUE, Object.class, null );
+                ((NamedEntryPoint) handle.getEntryPoint() ).update( handle, true, handle.getObject(), BitMask.ALL_SET_BUT_TRAIT, Object.class, null );
             }
         }
     }
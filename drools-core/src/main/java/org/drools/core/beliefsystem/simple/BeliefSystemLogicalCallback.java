@@ -15,6 +15,7 @@ import org.drools.core.reteoo.ObjectTypeConf;
 import org.drools.core.rule.Rule;
 import org.drools.core.spi.Activation;
 import org.drools.core.spi.PropagationContext;
+import org.drools.core.util.BitMask;
 
 import java.io.IOException;
 import java.io.ObjectInput;
@@ -132,7 +133,7 @@ public class BeliefSystemLogicalCallback
         if ( update ) {
             if ( !bs.isEmpty() ) {
                 // We need the isEmpty check, in case the BeliefSet was made empty (due to retract) after this was scheduled
-                ((NamedEntryPoint) handle.getEntryPoint() ).update( handle, true, handle.getObject(), Long.MAX_VALUE, Object.class, null );
+                ((NamedEntryPoint) handle.getEntryPoint() ).update( handle, true, handle.getObject(), BitMask.ALL_SET_BUT_TRAIT, Object.class, null );
             }
         } else  {
             if ( fullyRetract ) {
@@ -11,6 +11,7 @@ import org.drools.core.util.LinkedListEntry;
 import org.drools.core.reteoo.ObjectTypeConf;
 import org.drools.core.spi.Activation;
 import org.drools.core.spi.PropagationContext;
+import org.drools.core.util.BitMask;
 
 /**
  * Default implementation emulates classical Drools TMS behaviour.
@@ -81,7 +82,7 @@ public class SimpleBeliefSystem
             // Equality might have changed on the object, so remove (which uses the handle id) and add back in
             ((NamedEntryPoint)bfh.getEntryPoint()).getObjectStore().updateHandle( bfh,  ((LinkedListEntry<LogicalDependency>) beliefSet.getFirst()).getObject().getObject() );
 
-            ((NamedEntryPoint) bfh.getEntryPoint() ).update( bfh, true, bfh.getObject(), Long.MAX_VALUE, Object.class, null );
+            ((NamedEntryPoint) bfh.getEntryPoint() ).update( bfh, true, bfh.getObject(), BitMask.ALL_SET_BUT_TRAIT, Object.class, null );
         }
     }
 
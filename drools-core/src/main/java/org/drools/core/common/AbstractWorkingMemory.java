@@ -113,6 +113,7 @@ import org.drools.core.time.TimerService;
 import org.drools.core.time.TimerServiceFactory;
 import org.drools.core.type.DateFormats;
 import org.drools.core.type.DateFormatsImpl;
+import org.drools.core.util.BitMask;
 import org.kie.api.conf.EventProcessingOption;
 import org.kie.api.event.process.ProcessEventListener;
 import org.kie.api.event.process.ProcessEventManager;
@@ -187,6 +188,11 @@ public class AbstractWorkingMemory
 
     protected ReentrantLock lock;
 
+    /**
+     * Read locked by the operations using the network, and write locked by the rulebase while modifying it
+     */
+    protected UpgradableReentrantReadWriteLock networkLock;
+
     /**
      * This must be thread safe as it is incremented and read via different
      * EntryPoints
@@ -227,6 +233,8 @@ public class AbstractWorkingMemory
 
     private InternalProcessRuntime processRuntime;
 
+    private QueryResultsCache queryResultsCache;
+
     private transient ObjectMarshallingStrategyStore marshallingStore;
     private transient List                           ruleBaseListeners;
 
@@ -354,6 +362,8 @@ public class AbstractWorkingMemory
         this.ruleEventListenerSupport = ruleEventListenerSupport;
         this.__ruleBaseEventListeners = new LinkedList();
         this.lock = new ReentrantLock();
+        this.networkLock = new UpgradableReentrantReadWriteLock();
+        this.ruleBase.addSessionLock( this.networkLock );
 
         timerService = TimerServiceFactory.getTimerService( this.config );     
         ((AcceptsTimerJobFactoryManager) timerService).setTimerJobFactoryManager( config.getTimerJobFactoryManager() );
@@ -374,6 +384,11 @@ public class AbstractWorkingMemory
         }
         this.agenda.setWorkingMemory(this);
 
+        if ( config.getQueryResultsCacheSize() > 0 ) {
+            this.queryResultsCache = new QueryResultsCache( config.getQueryResultsCacheSize(),
+                                                            ruleBase );
+        }
+
         if ( initInitFactHandle ) {
             initInitialFact(ruleBase, null);
         }
@@ -419,11 +434,20 @@ public class AbstractWorkingMemory
             startOperation();
 
             this.lock.lock();
-            this.ruleBase.readLock();
+            this.networkLock.readLock();
 
             this.ruleBase.executeQueuedActions();
             executeQueuedActions();
 
+            QueryResultsCache.Entry cached = null;
+            if ( this.queryResultsCache != null ) {
+                cached = this.queryResultsCache.get( queryName,
+                                                     arguments );
+                if ( cached.getResults() != null ) {
+                    return cached.getResults();
+                }
+            }
+
             DroolsQuery queryObject = new DroolsQuery( queryName,
                                                        arguments,
                                                        getQueryListenerInstance(),
@@ -456,12 +480,17 @@ public class AbstractWorkingMemory
 
             this.handleFactory.destroyFactHandle( handle );
 
-            return new QueryResults( (List<QueryRowWithSubruleIndex>) queryObject.getQueryResultCollector().getResults(),
-                                     decls.toArray( new Map[decls.size()] ),
-                                     this,
-                                     ( queryObject.getQuery() != null ) ? queryObject.getQuery().getParameters()  : new Declaration[0] );
+            QueryResults results = new QueryResults( (List<QueryRowWithSubruleIndex>) queryObject.getQueryResultCollector().getResults(),
+                                                     decls.toArray( new Map[decls.size()] ),
+                                                     this,
+                                                     ( queryObject.getQuery() != null ) ? queryObject.getQuery().getParameters()  : new Declaration[0] );
+            if ( cached != null ) {
+                this.queryResultsCache.put( cached,
+                                            results );
+            }
+            return results;
         } finally {
-            this.ruleBase.readUnlock();
+            this.networkLock.readUnlock();
             this.lock.unlock();
             endOperation();
         }
@@ -483,7 +512,7 @@ public class AbstractWorkingMemory
 
         try {
             startOperation();
-            this.ruleBase.readLock();
+            this.networkLock.readLock();
             this.lock.lock();
 
             this.ruleBase.executeQueuedActions();
@@ -514,7 +543,7 @@ public class AbstractWorkingMemory
                                       handle );
         } finally {
             this.lock.unlock();
-            this.ruleBase.readUnlock();
+            this.networkLock.readUnlock();
             endOperation();
         }
     }
@@ -566,7 +595,7 @@ public class AbstractWorkingMemory
 
         try {
             startOperation();
-            this.ruleBase.readLock();
+            this.networkLock.readLock();
             this.lock.lock();
 
             final PropagationContext pCtx = pctxFactory.createPropagationContext(getNextPropagationIdCounter(), PropagationContext.INSERTION,
@@ -592,7 +621,7 @@ public class AbstractWorkingMemory
 
         } finally {
             this.lock.unlock();
-            this.ruleBase.readUnlock();
+            this.networkLock.readUnlock();
             endOperation();
         }
     }
@@ -724,6 +753,10 @@ public class AbstractWorkingMemory
         return this.config;
     }
 
+    public QueryResultsCache getQueryResultsCache() {
+        return this.queryResultsCache;
+    }
+
     public void reset() {
         throw new UnsupportedOperationException( "This should not be called" );
     }
@@ -731,7 +764,24 @@ public class AbstractWorkingMemory
     public void reset(int handleId,
                       long handleCounter,
                       long propagationCounter) {
-        if (nodeMemories != null) nodeMemories.clear();
+        reset( handleId, handleCounter, propagationCounter, false );
+    }
+
+    /**
+     * Resets this session, optionally emptying the node memories in place instead of dropping them,
+     * so that the next facts are processed without creating the memories again
+     */
+    public void reset(int handleId,
+                      long handleCounter,
+                      long propagationCounter,
+                      boolean keepNodeMemories) {
+        if (nodeMemories != null) {
+            if (keepNodeMemories) {
+                nodeMemories.reset();
+            } else {
+                nodeMemories.clear();
+            }
+        }
         this.agenda.clear();
 
         for ( WorkingMemoryEntryPoint ep : this.entryPoints.values() ) {
@@ -749,6 +799,15 @@ public class AbstractWorkingMemory
         this.opCounter.set( 0 );
         this.lastIdleTimestamp.set( -1 );
 
+        if ( this.queryResultsCache != null ) {
+            this.queryResultsCache.clear();
+        }
+
+        if ( this.initialFactHandle != null ) {
+            // the initial fact has been cleared from the node memories together with the other facts
+            initInitialFact( this.ruleBase, null );
+        }
+
         // TODO should these be cleared?
         // we probably neeed to do CEP and Flow timers too
         // this.processInstanceManager.clear()
@@ -842,7 +901,7 @@ public class AbstractWorkingMemory
         }
 
         try {
-            this.ruleBase.readLock();
+            this.networkLock.readLock();
             startOperation();
             // Make sure the global has been declared in the RuleBase
             final Map globalDefintions = this.ruleBase.getGlobals();
@@ -855,10 +914,14 @@ public class AbstractWorkingMemory
             } else {
                 this.globalResolver.setGlobal( identifier,
                                                value );
+                if ( this.queryResultsCache != null ) {
+                    // the constraints of the queries may use the global
+                    this.queryResultsCache.clear();
+                }
             }
         } finally {
             endOperation();
-            this.ruleBase.readUnlock();
+            this.networkLock.readUnlock();
         }
     }
 
@@ -866,6 +929,9 @@ public class AbstractWorkingMemory
         try {
             this.lock.lock();
             this.globalResolver = globalResolver;
+            if ( this.queryResultsCache != null ) {
+                this.queryResultsCache.clear();
+            }
         } finally {
             this.lock.unlock();
         }
@@ -948,7 +1014,7 @@ public class AbstractWorkingMemory
                                         true ) ) {
             try {
                 startOperation();
-                ruleBase.readLock();
+                this.networkLock.readLock();
 
                 // do we need to call this in advance?
                 executeQueuedActions();
@@ -958,7 +1024,7 @@ public class AbstractWorkingMemory
                                                       fireLimit );
                 return fireCount;
             } finally {
-                ruleBase.readUnlock();
+                this.networkLock.readUnlock();
                 endOperation();
                 this.firing.set( false );
             }
@@ -1153,6 +1219,10 @@ public class AbstractWorkingMemory
                                               activation );
     }
 
+    public List<FactHandle> insertAll(final Collection<?> objects) throws FactException {
+        return this.defaultEntryPoint.insertAll( objects );
+    }
+
     public void insert(final InternalFactHandle handle,
                        final Object object,
                        final Rule rule,
@@ -1194,14 +1264,14 @@ public class AbstractWorkingMemory
                        final Object object) throws FactException {
         update( (FactHandle) handle,
                 object,
-                Long.MAX_VALUE,
+                BitMask.ALL_SET_BUT_TRAIT,
                 Object.class,
                 null );
     }
 
     public void update(final org.kie.api.runtime.rule.FactHandle factHandle,
                        final Object object,
-                       final long mask,
+                       final BitMask mask,
                        Class<?> modifiedClass,
                        final Activation activation) throws FactException {
 
@@ -1220,7 +1290,7 @@ public class AbstractWorkingMemory
      */
     public void update(FactHandle factHandle,
                        final Object object,
-                       final long mask,
+                       final BitMask mask,
                        Class<?> modifiedClass,
                        final Activation activation) throws FactException {
         this.defaultEntryPoint.update( factHandle,
@@ -1533,6 +1603,11 @@ public class AbstractWorkingMemory
                 final PropagationContext context = pctxFactory.createPropagationContext(workingMemory.getNextPropagationIdCounter(), PropagationContext.EXPIRATION,
                                                                                         null, null, this.factHandle);
                 ((EventFactHandle) factHandle).setExpired(true);
+                // the event doesn't go through the EntryPointNode, which invalidates the cached query results otherwise
+                QueryResultsCache queryResultsCache = workingMemory.getQueryResultsCache();
+                if ( queryResultsCache != null ) {
+                    queryResultsCache.invalidate( this.node );
+                }
                 this.node.retractObject(factHandle,
                                         context,
                                         workingMemory);
@@ -1728,7 +1803,7 @@ public class AbstractWorkingMemory
     }
 
     public void startBatchExecution(ExecutionResultImpl results) {
-        this.ruleBase.readLock();
+        this.networkLock.readLock();
         this.lock.lock();
         this.batchExecutionResult = results;
     }
@@ -1740,11 +1815,12 @@ public class AbstractWorkingMemory
     public void endBatchExecution() {
         this.batchExecutionResult = null;
         this.lock.unlock();
-        this.ruleBase.readUnlock();
+        this.networkLock.readUnlock();
     }
 
     public void dispose() {
         this.ruleBase.disposeStatefulSession( this );
+        this.ruleBase.removeSessionLock( this.networkLock );
 
         if (this.ruleBase.getConfiguration().isMBeansEnabled()) {
             DroolsManagementAgent.getInstance().unregisterKnowledgeSession(this);
@@ -25,6 +25,8 @@ import org.drools.core.marshalling.impl.ProtobufMessages;
 import org.drools.core.spi.Activation;
 import org.drools.core.spi.PropagationContext;
 import org.drools.core.util.BinaryHeapQueue;
+import org.drools.core.util.BucketedSalienceQueue;
+import org.drools.core.util.Queue;
 
 import java.io.IOException;
 import java.io.ObjectInput;
@@ -51,7 +53,7 @@ public class AgendaGroupQueueImpl
     /**
      * Items in the agenda.
      */
-    private          BinaryHeapQueue    priorityQueue;
+    private          Queue              priorityQueue;
     private volatile boolean            active;
     private          PropagationContext autoFocusActivator;
     private          long               activatedForRecency;
@@ -76,7 +78,8 @@ public class AgendaGroupQueueImpl
                                 final InternalRuleBase ruleBase) {
         this.name = name;
         if (ruleBase.getConfiguration().isPhreakEnabled()) {
-            this.priorityQueue = new BinaryHeapQueue(new PhreakConflictResolver());
+            // keeps a bucket per salience, until a rule with a dynamic salience is activated
+            this.priorityQueue = new BucketedSalienceQueue(new PhreakConflictResolver());
         } else {
             if (ruleBase.getConfiguration().isSequential()) {
                 this.priorityQueue = new BinaryHeapQueue(new SequentialConflictResolver());
@@ -88,7 +91,7 @@ public class AgendaGroupQueueImpl
         this.clearedForRecency = -1;
     }
 
-    public BinaryHeapQueue getBinaryHeapQueue() {
+    public Queue getPriorityQueue() {
         return this.priorityQueue;
     }
 
@@ -228,7 +231,7 @@ public class AgendaGroupQueueImpl
     }
 
     public void remove(final Activation activation) {
-        this.priorityQueue.dequeue(activation.getQueueIndex());
+        this.priorityQueue.dequeue(activation);
     }
 
     public long getActivatedForRecency() {
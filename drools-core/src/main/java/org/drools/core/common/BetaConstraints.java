@@ -25,6 +25,7 @@ import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.reteoo.builder.BuildContext;
 import org.drools.core.rule.ContextEntry;
 import org.drools.core.spi.BetaNodeFieldConstraint;
+import org.drools.core.util.BitMask;
 
 public interface BetaConstraints
     extends
@@ -63,7 +64,7 @@ public interface BetaConstraints
 
     void resetFactHandle(final ContextEntry[] context);
 
-    long getListenedPropertyMask(List<String> settableProperties);
+    BitMask getListenedPropertyMask(List<String> settableProperties);
 
     void init(BuildContext context, short betaNodeType);
     void initIndexes(int depth, short betaNodeType);
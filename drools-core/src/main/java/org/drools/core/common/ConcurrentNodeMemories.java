@@ -30,9 +30,13 @@ public class ConcurrentNodeMemories implements NodeMemories {
     private Lock                         lock;
     private InternalRuleBase             rulebase;
 
+    // the modification count of the rule base when the memories were cleared the last time
+    private int                          ruleBaseModificationCount;
+
     public ConcurrentNodeMemories( InternalRuleBase rulebase ) {
         this.rulebase = rulebase;
         this.memories = new AtomicReferenceArray<Memory>( this.rulebase.getNodeCount() );
+        this.ruleBaseModificationCount = rulebase.getModificationCount();
         this.lock = new ReentrantLock();
     }
 
@@ -47,6 +51,28 @@ public class ConcurrentNodeMemories implements NodeMemories {
     
     public void clear() {
         this.memories = new AtomicReferenceArray<Memory>( this.rulebase.getNodeCount() );
+        this.ruleBaseModificationCount = this.rulebase.getModificationCount();
+    }
+
+    /**
+     * @inheritDoc
+     *
+     * Adding or removing rules splits and merges the segments of the existing
+     * memories, so that their initial linking state is no longer known.
+     *
+     * @see org.kie.common.NodeMemories#reset()
+     */
+    public void reset() {
+        if ( this.ruleBaseModificationCount != this.rulebase.getModificationCount() ) {
+            clear();
+            return;
+        }
+        for ( int i = 0; i < this.memories.length(); i++ ) {
+            Memory memory = this.memories.get( i );
+            if ( memory != null ) {
+                memory.reset();
+            }
+        }
     }
 
     /**
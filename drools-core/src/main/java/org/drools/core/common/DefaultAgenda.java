@@ -21,15 +21,27 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.drools.core.RuleBaseConfiguration;
 import org.drools.core.WorkingMemory;
+import org.drools.core.base.AsyncKnowledgeHelper;
+import org.drools.core.base.DefaultKnowledgeHelper;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.drools.core.marshalling.impl.MarshallerWriteContext;
+import org.drools.core.marshalling.impl.ProtobufMessages;
+import org.drools.core.phreak.ParallelRuleEvaluator;
 import org.drools.core.phreak.RuleAgendaItem;
 import org.drools.core.phreak.RuleExecutor;
 import org.drools.core.phreak.StackEntry;
@@ -109,6 +121,17 @@ public class DefaultAgenda
     protected AtomicBoolean                                      halt               = new AtomicBoolean( true );
     protected volatile boolean                                 fireUntilHalt      = false;
 
+    private IdleStrategy                                         idleStrategy       = new IdleStrategy.Blocking();
+
+    private static volatile Executor                             defaultAsyncExecutor;
+
+    private Executor                                             asyncExecutor;
+
+    private final AtomicInteger                                  pendingAsyncConsequences = new AtomicInteger();
+
+    /** The asynchronous consequences not yet evaluated by the executor, it is also the monitor notified when one ends */
+    private final AtomicInteger                                  runningAsyncConsequences = new AtomicInteger();
+
     protected int                                                activationCounter;
 
     private boolean                                              declarativeAgenda;
@@ -117,6 +140,11 @@ public class DefaultAgenda
 
     private ActivationsFilter                                    activationsFilter;
 
+    private ParallelRuleEvaluator                                parallelEvaluator;
+
+    /** The rules made dirty since the last parallel evaluation, only collected when it is enabled */
+    private final List<RuleAgendaItem>                           dirtyRuleAgendaItems = new ArrayList<RuleAgendaItem>();
+
     // ------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------
@@ -172,6 +200,10 @@ public class DefaultAgenda
         }
 
         this.declarativeAgenda = rb.getConfiguration().isDeclarativeAgenda();
+
+        if ( rb.getConfiguration().isMultithreadEvaluation() && !rb.getConfiguration().isSequential() && !this.declarativeAgenda ) {
+            this.parallelEvaluator = new ParallelRuleEvaluator( rb.getConfiguration().getMaxThreads() );
+        }
     }
 
     public void readExternal(ObjectInput in) throws IOException,
@@ -252,6 +284,15 @@ public class DefaultAgenda
         } else {
             this.knowledgeHelper = rbc.getComponentFactory().getKnowledgeHelperFactory().newStatefulKnowledgeHelper( this.workingMemory );
         }
+        this.idleStrategy = this.workingMemory.getSessionConfiguration().newIdleStrategy();
+    }
+
+    /**
+     * Returns the strategy used by fireUntilHalt when there is nothing to fire, which also records
+     * the latency between the arrival of new work and the firing of its rules
+     */
+    public IdleStrategy getIdleStrategy() {
+        return this.idleStrategy;
     }
 
     /*
@@ -283,6 +324,27 @@ public class DefaultAgenda
         notifyHalt();
     }
 
+    @Override
+    public void addDirtyRuleAgendaItem(final RuleAgendaItem item) {
+        if ( this.parallelEvaluator == null ) {
+            return;
+        }
+        synchronized ( this.dirtyRuleAgendaItems ) {
+            this.dirtyRuleAgendaItems.add( item );
+        }
+    }
+
+    private List<RuleAgendaItem> takeDirtyRuleAgendaItems() {
+        synchronized ( this.dirtyRuleAgendaItems ) {
+            if ( this.dirtyRuleAgendaItems.isEmpty() ) {
+                return Collections.emptyList();
+            }
+            List<RuleAgendaItem> items = new ArrayList<RuleAgendaItem>( this.dirtyRuleAgendaItems );
+            this.dirtyRuleAgendaItems.clear();
+            return items;
+        }
+    }
+
     @Override
     public void removeEagerRuleAgendaItem(RuleAgendaItem item) {
         if ( !item.isInList() ) {
@@ -924,6 +986,11 @@ public class DefaultAgenda
                 final InternalAgendaGroup group = getNextFocus();
                 // if there is a group with focus
                 if ( group != null ) {
+                    if ( this.parallelEvaluator != null ) {
+                        // evaluate concurrently the independent rules of the group made dirty since the last fire,
+                        // before picking the next one to fire
+                        this.parallelEvaluator.evaluate( group, takeDirtyRuleAgendaItems(), this.workingMemory );
+                    }
                     RuleAgendaItem item;
                     if ( ((InternalRuleBase)workingMemory.getRuleBase()).getConfiguration().isSequential() ) {
                         item = (RuleAgendaItem) group.remove();
@@ -1013,22 +1080,17 @@ public class DefaultAgenda
                 if ( log.isTraceEnabled() ) {
                     log.trace( "Fire \"{}\" \n{}", activation.getRule().getName(), activation.getTuple() );
                 }
-                activation.getConsequence().evaluate( this.knowledgeHelper,
-                                                      this.workingMemory );
+                if ( activation.getRule().isAsync() ) {
+                    fireAsyncConsequence( activation );
+                } else {
+                    activation.getConsequence().evaluate( this.knowledgeHelper,
+                                                          this.workingMemory );
+                }
                 activation.setActive(false);
                 this.knowledgeHelper.cancelRemainingPreviousLogicalDependencies();
                 this.knowledgeHelper.reset();
             } catch ( final Exception e ) {
-                if ( this.legacyConsequenceExceptionHandler != null ) {
-                    this.legacyConsequenceExceptionHandler.handleException( activation,
-                                                                            this.workingMemory,
-                                                                            e );
-                } else if ( this.consequenceExceptionHandler != null ) {
-                    this.consequenceExceptionHandler.handleException( activation, this.workingMemory.getKnowledgeRuntime(),
-                                                                      e );
-                } else {
-                    throw new RuntimeException( e );
-                }
+                handleConsequenceException( activation, e );
             } finally {
                 if ( activation.getFactHandle() != null ) {
                     // update the Activation in the WM
@@ -1064,6 +1126,181 @@ public class DefaultAgenda
         }
     }
 
+    private void handleConsequenceException(Activation activation, Exception e) {
+        if ( this.legacyConsequenceExceptionHandler != null ) {
+            this.legacyConsequenceExceptionHandler.handleException( activation,
+                                                                    this.workingMemory,
+                                                                    e );
+        } else if ( this.consequenceExceptionHandler != null ) {
+            this.consequenceExceptionHandler.handleException( activation, this.workingMemory.getKnowledgeRuntime(),
+                                                              e );
+        } else {
+            throw new RuntimeException( e );
+        }
+    }
+
+    /**
+     * Runs the consequence of the given activation on the executor of the asynchronous consequences.
+     * The changes of the working memory done by the consequence are queued back as a single action,
+     * executed by the thread firing the rules.
+     */
+    private void fireAsyncConsequence(final Activation activation) {
+        final AsyncKnowledgeHelper helper = new AsyncKnowledgeHelper( activation,
+                                                                      this.workingMemory );
+        final InternalWorkingMemory wm = this.workingMemory;
+        this.pendingAsyncConsequences.incrementAndGet();
+        this.runningAsyncConsequences.incrementAndGet();
+        getAsyncExecutor().execute( new Runnable() {
+            public void run() {
+                Exception failure = null;
+                try {
+                    activation.getConsequence().evaluate( helper,
+                                                          wm );
+                } catch ( Exception e ) {
+                    failure = e;
+                }
+                try {
+                    wm.queueWorkingMemoryAction( new AsyncConsequenceAction( activation,
+                                                                             helper.getDeferredActions(),
+                                                                             failure ) );
+                } finally {
+                    synchronized ( runningAsyncConsequences ) {
+                        runningAsyncConsequences.decrementAndGet();
+                        runningAsyncConsequences.notifyAll();
+                    }
+                }
+            }
+        } );
+    }
+
+    /**
+     * Waits at most the given time for the asynchronous consequences still running on the executor, and returns
+     * false if some of them didn't end. Their changes are then applied by the next fire of the rules.
+     */
+    public boolean awaitAsyncConsequences(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos( timeout );
+        synchronized ( this.runningAsyncConsequences ) {
+            while ( this.runningAsyncConsequences.get() > 0 ) {
+                long remaining = deadline - System.nanoTime();
+                if ( remaining <= 0 ) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait( this.runningAsyncConsequences, remaining );
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of asynchronous consequences whose changes have not yet been applied to the session
+     */
+    public int getPendingAsyncConsequences() {
+        return this.pendingAsyncConsequences.get();
+    }
+
+    /**
+     * Sets the executor running the consequences of the rules with the @async metadata
+     */
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    public Executor getAsyncExecutor() {
+        if ( this.asyncExecutor == null ) {
+            this.asyncExecutor = getDefaultAsyncExecutor();
+        }
+        return this.asyncExecutor;
+    }
+
+    /**
+     * The executor shared by the sessions which don't set their own: one virtual thread per consequence
+     * when the JVM provides them, or else a cached pool of daemon threads
+     */
+    private static Executor getDefaultAsyncExecutor() {
+        if ( defaultAsyncExecutor == null ) {
+            synchronized ( DefaultAgenda.class ) {
+                if ( defaultAsyncExecutor == null ) {
+                    Executor executor;
+                    try {
+                        executor = (Executor) Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" ).invoke( null );
+                    } catch ( Exception e ) {
+                        executor = Executors.newCachedThreadPool( new ThreadFactory() {
+                            public Thread newThread(Runnable r) {
+                                Thread thread = new Thread( r, "drools-async-consequence" );
+                                thread.setDaemon( true );
+                                return thread;
+                            }
+                        } );
+                    }
+                    defaultAsyncExecutor = executor;
+                }
+            }
+        }
+        return defaultAsyncExecutor;
+    }
+
+    /**
+     * Applies the changes of the working memory done by an asynchronous consequence, or handles its failure
+     */
+    public static class AsyncConsequenceAction
+        implements
+        WorkingMemoryAction {
+
+        private Activation                                activation;
+        private List<AsyncKnowledgeHelper.DeferredAction> deferredActions;
+        private Exception                                 failure;
+
+        public AsyncConsequenceAction() {
+        }
+
+        public AsyncConsequenceAction(Activation activation,
+                                      List<AsyncKnowledgeHelper.DeferredAction> deferredActions,
+                                      Exception failure) {
+            this.activation = activation;
+            this.deferredActions = deferredActions;
+            this.failure = failure;
+        }
+
+        public void execute(InternalWorkingMemory workingMemory) {
+            DefaultAgenda agenda = (DefaultAgenda) workingMemory.getAgenda();
+            agenda.pendingAsyncConsequences.decrementAndGet();
+            try {
+                if ( this.failure != null ) {
+                    agenda.handleConsequenceException( this.activation, this.failure );
+                    return;
+                }
+                KnowledgeHelper helper = new DefaultKnowledgeHelper( this.activation,
+                                                                     workingMemory );
+                for ( AsyncKnowledgeHelper.DeferredAction action : this.deferredActions ) {
+                    action.apply( helper );
+                }
+            } catch ( Exception e ) {
+                agenda.handleConsequenceException( this.activation, e );
+            }
+        }
+
+        public void execute(InternalKnowledgeRuntime kruntime) {
+            execute( ((StatefulKnowledgeSessionImpl) kruntime).getInternalWorkingMemory() );
+        }
+
+        public void write(MarshallerWriteContext context) throws IOException {
+            throw new UnsupportedOperationException( "The results of asynchronous consequences can't be marshalled" );
+        }
+
+        public ProtobufMessages.ActionQueue.Action serialize(MarshallerWriteContext context) throws IOException {
+            throw new UnsupportedOperationException( "The results of asynchronous consequences can't be marshalled" );
+        }
+
+        public void writeExternal(ObjectOutput out) throws IOException {
+            throw new UnsupportedOperationException( "The results of asynchronous consequences can't be serialized" );
+        }
+
+        public void readExternal(ObjectInput in) throws IOException,
+                                                ClassNotFoundException {
+            throw new UnsupportedOperationException( "The results of asynchronous consequences can't be serialized" );
+        }
+    }
+
     public synchronized boolean fireTimedActivation(final Activation activation,
                                                     boolean saveForLater) throws ConsequenceException {
         //TODO : "save for later" : put activation in queue if halted, then dispatch again on next fire
@@ -1157,24 +1394,20 @@ public class DefaultAgenda
                     log.trace("Starting fireUntilHalt");
                 }
                 while ( continueFiring( -1 ) ) {
-                    boolean fired = fireNextItem( agendaFilter, 0, -1 ) > 0 ||
+                    int fireCount = fireNextItem( agendaFilter, 0, -1 );
+                    boolean fired = fireCount > 0 ||
                                     !((AbstractWorkingMemory) this.workingMemory).getActionQueue().isEmpty();
                     this.workingMemory.executeQueuedActions();
+                    this.idleStrategy.afterIdle( fireCount > 0 );
                     if ( !fired ) {
-                        synchronized ( this.halt ) {
-                            // has to check in here because a different thread might have set the halt flag already
-                            if( ! this.halt.get() ) {
-                                // need to check again the agenda is still empty as a new activation
-                                // could have been created between the time it did not fire the last 
-                                // one and the synchronized block started
-                                InternalAgendaGroup nextFocus = getNextFocus();
-                                if( nextFocus == null || nextFocus.isEmpty() ) {
-                                    try {
-                                        this.halt.wait();
-                                    } catch (InterruptedException e) {
-                                        // nothing to do
-                                    }
-                                }
+                        // has to check in here because a different thread might have set the halt flag already
+                        if( ! this.halt.get() ) {
+                            // need to check again the agenda is still empty as a new activation
+                            // could have been created since it did not fire the last one.
+                            // A signal arriving after this check makes the idle return immediately
+                            InternalAgendaGroup nextFocus = getNextFocus();
+                            if( nextFocus == null || nextFocus.isEmpty() ) {
+                                this.idleStrategy.idle();
                             }
                         }
                     }
@@ -1218,9 +1451,7 @@ public class DefaultAgenda
     }
 
     public void notifyHalt() {
-        synchronized ( this.halt ) {
-            this.halt.notifyAll();
-        }
+        this.idleStrategy.signal();
     }
 
     public void halt() {
@@ -26,6 +26,7 @@ import org.drools.core.reteoo.builder.BuildContext;
 import org.drools.core.rule.ContextEntry;
 import org.drools.core.rule.constraint.MvelConstraint;
 import org.drools.core.spi.BetaNodeFieldConstraint;
+import org.drools.core.util.BitMask;
 import org.kie.internal.conf.IndexPrecedenceOption;
 
 import java.io.IOException;
@@ -259,13 +260,13 @@ public class DefaultBetaConstraints
         throw new UnsupportedOperationException();
     }
 
-    public long getListenedPropertyMask(List<String> settableProperties) {
-        long mask = 0L;
+    public BitMask getListenedPropertyMask(List<String> settableProperties) {
+        BitMask mask = BitMask.EMPTY;
         for (BetaNodeFieldConstraint constraint : constraints) {
             if (constraint instanceof MvelConstraint) {
-                mask |= ((MvelConstraint)constraint).getListenedPropertyMask(settableProperties);
+                mask = mask.setAll(((MvelConstraint)constraint).getListenedPropertyMask(settableProperties));
             } else {
-                return Long.MAX_VALUE;
+                return BitMask.ALL_SET_BUT_TRAIT;
             }
         }
         return mask;
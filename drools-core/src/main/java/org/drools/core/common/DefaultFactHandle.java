@@ -20,7 +20,7 @@ import org.drools.core.FactHandle;
 import org.drools.core.factmodel.traits.TraitProxy;
 import org.drools.core.factmodel.traits.TraitTypeEnum;
 import org.drools.core.factmodel.traits.TraitableBean;
-import org.drools.core.util.AbstractBaseLinkedListNode;
+import org.drools.core.util.LinkedListNode;
 import org.drools.core.util.StringUtils;
 import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.reteoo.ObjectTypeNode;
@@ -31,16 +31,23 @@ import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlRootElement;
+import java.io.Serializable;
 import java.util.Arrays;
 
 /**
  * Implementation of <code>FactHandle</code>.
+ *
+ * Only the fields used by every fact are held by the handle itself. The equality key and the
+ * links of the truth maintenance, the trait type and the disconnected flag are kept in a
+ * side structure, allocated the first time one of them is set, so that the facts of the
+ * types not using them take less memory.
  */
 @XmlRootElement(name = "fact-handle")
 @XmlAccessorType(XmlAccessType.NONE)
-public class DefaultFactHandle extends AbstractBaseLinkedListNode<DefaultFactHandle>
-                              implements
-                              InternalFactHandle {
+public class DefaultFactHandle
+    implements
+    InternalFactHandle,
+    LinkedListNode<DefaultFactHandle> {
 
     // ----------------------------------------------------------------------
     // Instance members
@@ -51,7 +58,6 @@ public class DefaultFactHandle extends AbstractBaseLinkedListNode<DefaultFactHan
     private int                     id;
     private long                    recency;
     private Object                  object;
-    private EqualityKey             key;
     private int                     objectHashCode;
     private int                     identityHashCode;
 
@@ -63,9 +69,7 @@ public class DefaultFactHandle extends AbstractBaseLinkedListNode<DefaultFactHan
 
     private EntryPoint entryPoint;
 
-    private boolean                 disconnected;
-
-    private TraitTypeEnum           traitType;
+    private Extension               extension;
 
     // ----------------------------------------------------------------------
     // Constructors
@@ -117,7 +121,9 @@ public class DefaultFactHandle extends AbstractBaseLinkedListNode<DefaultFactHan
         this.object = object;
         this.objectHashCode = ( object != null ) ? object.hashCode() : 0;
         this.identityHashCode = identityHashCode;
-        this.traitType = isTraitOrTraitable ? determineTraitType() : TraitTypeEnum.NON_TRAIT;
+        if ( isTraitOrTraitable ) {
+            setTraitType( determineTraitType( object ) );
+        }
     }
 
     public DefaultFactHandle(int id,
@@ -132,8 +138,7 @@ public class DefaultFactHandle extends AbstractBaseLinkedListNode<DefaultFactHan
         this.objectHashCode = objectHashCode;
         this.recency = recency;
         this.object = object;
-        this.disconnected = true;
-        this.traitType = TraitTypeEnum.NON_TRAIT;
+        setDisconnected( true );
     }
 
     public DefaultFactHandle(String externalFormat) {
@@ -160,7 +165,7 @@ public class DefaultFactHandle extends AbstractBaseLinkedListNode<DefaultFactHan
     }
 
     public void disconnect() {
-        this.key = null;
+        setEqualityKey( null );
         this.firstLeftTuple = null;
         this.firstRightTuple = null;
         this.lastLeftTuple = null;
@@ -168,11 +173,17 @@ public class DefaultFactHandle extends AbstractBaseLinkedListNode<DefaultFactHan
         this.entryPoint = ( this.entryPoint == null ) ? null
                                                      : new DisconnectedWorkingMemoryEntryPoint(
                                                                                                 this.entryPoint.getEntryPointId() );
-        this.disconnected = true;
+        setDisconnected( true );
     }
 
     public boolean isDisconnected() {
-        return disconnected;
+        return this.extension != null && this.extension.disconnected;
+    }
+
+    private void setDisconnected( boolean disconnected ) {
+        if ( disconnected || this.extension != null ) {
+            getExtension().disconnected = disconnected;
+        }
     }
 
     public int getObjectHashCode() {
@@ -214,7 +225,7 @@ public class DefaultFactHandle extends AbstractBaseLinkedListNode<DefaultFactHan
                ":" +
                ( ( this.entryPoint != null ) ? this.entryPoint.getEntryPointId() : "null" ) +
                ":" +
-               this.traitType.name();
+               getTraitType().name();
     }
 
     @XmlAttribute(name = "external-form")
@@ -264,7 +275,7 @@ public class DefaultFactHandle extends AbstractBaseLinkedListNode<DefaultFactHan
         this.objectHashCode = ( object != null ) ? object.hashCode() : 0;
         this.identityHashCode = determineIdentityHashCode( object );
         if ( isTraitOrTraitable() ) {
-            this.traitType = determineTraitType();
+            setTraitType( determineTraitType( object ) );
         }
     }
 
@@ -272,14 +283,43 @@ public class DefaultFactHandle extends AbstractBaseLinkedListNode<DefaultFactHan
      * @return the key
      */
     public EqualityKey getEqualityKey() {
-        return this.key;
+        return this.extension != null ? this.extension.key : null;
     }
 
     /**
      * @param key the key to set
      */
     public void setEqualityKey( final EqualityKey key ) {
-        this.key = key;
+        if ( key != null || this.extension != null ) {
+            getExtension().key = key;
+        }
+    }
+
+    public DefaultFactHandle getNext() {
+        return this.extension != null ? this.extension.next : null;
+    }
+
+    public void setNext( final DefaultFactHandle next ) {
+        if ( next != null || this.extension != null ) {
+            getExtension().next = next;
+        }
+    }
+
+    public DefaultFactHandle getPrevious() {
+        return this.extension != null ? this.extension.previous : null;
+    }
+
+    public void setPrevious( final DefaultFactHandle previous ) {
+        if ( previous != null || this.extension != null ) {
+            getExtension().previous = previous;
+        }
+    }
+
+    public void nullPrevNext() {
+        if ( this.extension != null ) {
+            this.extension.previous = null;
+            this.extension.next = null;
+        }
     }
 
     /**
@@ -291,7 +331,24 @@ public class DefaultFactHandle extends AbstractBaseLinkedListNode<DefaultFactHan
     }
 
     public boolean isTraitOrTraitable() {
-        return traitType != TraitTypeEnum.NON_TRAIT;
+        return getTraitType() != TraitTypeEnum.NON_TRAIT;
+    }
+
+    private TraitTypeEnum getTraitType() {
+        return this.extension != null ? this.extension.traitType : TraitTypeEnum.NON_TRAIT;
+    }
+
+    private void setTraitType( TraitTypeEnum traitType ) {
+        if ( traitType != TraitTypeEnum.NON_TRAIT || this.extension != null ) {
+            getExtension().traitType = traitType;
+        }
+    }
+
+    private Extension getExtension() {
+        if ( this.extension == null ) {
+            this.extension = new Extension();
+        }
+        return this.extension;
     }
 
     public RightTuple getFirstRightTuple() {
@@ -537,29 +594,28 @@ public class DefaultFactHandle extends AbstractBaseLinkedListNode<DefaultFactHan
 
     public DefaultFactHandle quickClone() {
         DefaultFactHandle clone = new DefaultFactHandle( this.id, this.object, this.recency, this.entryPoint );
-        clone.key = this.key;
-
         clone.objectHashCode = this.objectHashCode;
         clone.identityHashCode = this.identityHashCode;
-        clone.disconnected = this.disconnected;
-        clone.traitType = this.traitType;
+        copyExtension( clone );
         return clone;
     }
 
     public void quickCloneUpdate(DefaultFactHandle clone) {
         clone.object = this.object;
         clone.recency  = this.recency;
-        clone.key = this.key;
-
         clone.objectHashCode = this.objectHashCode;
         clone.identityHashCode = this.identityHashCode;
-        clone.traitType = this.traitType;
-        clone.disconnected = this.disconnected;
+        copyExtension( clone );
+    }
+
+    private void copyExtension( DefaultFactHandle clone ) {
+        clone.setEqualityKey( getEqualityKey() );
+        clone.setTraitType( getTraitType() );
+        clone.setDisconnected( isDisconnected() );
     }
     
     public DefaultFactHandle clone() {
         DefaultFactHandle clone = new DefaultFactHandle( this.id, this.object, this.recency, this.entryPoint );
-        clone.key = this.key;
         clone.firstLeftTuple = this.firstLeftTuple;
         clone.lastLeftTuple = this.lastLeftTuple;
 
@@ -568,8 +624,7 @@ public class DefaultFactHandle extends AbstractBaseLinkedListNode<DefaultFactHan
 
         clone.objectHashCode = this.objectHashCode;
         clone.identityHashCode = System.identityHashCode( clone.object );
-        clone.disconnected = this.disconnected;
-		clone.traitType = this.traitType;
+        copyExtension( clone );
         return clone;
     }
 
@@ -610,31 +665,43 @@ public class DefaultFactHandle extends AbstractBaseLinkedListNode<DefaultFactHan
         this.entryPoint = ( StringUtils.isEmpty( elements[5] ) || "null".equals( elements[5].trim() ) ) ? null
                                                                                                        : new DisconnectedWorkingMemoryEntryPoint(
                                                                                                                                                   elements[5].trim() );
-        this.disconnected = true;
-        this.traitType = elements.length > 6 ? TraitTypeEnum.valueOf( elements[6] ) : TraitTypeEnum.NON_TRAIT;
+        setDisconnected( true );
+        setTraitType( elements.length > 6 ? TraitTypeEnum.valueOf( elements[6] ) : TraitTypeEnum.NON_TRAIT );
     }
 
 
-    private TraitTypeEnum determineTraitType() {
-        if ( isTraitOrTraitable() ) {
-            if ( object instanceof TraitProxy ) {
-                return TraitTypeEnum.TRAIT;
-            } else if ( object instanceof TraitableBean ) {
-                return TraitTypeEnum.TRAITABLE;
-            } else {
-                return TraitTypeEnum.LEGACY_TRAITABLE;
-            }
+    private static TraitTypeEnum determineTraitType( Object object ) {
+        if ( object instanceof TraitProxy ) {
+            return TraitTypeEnum.TRAIT;
+        } else if ( object instanceof TraitableBean ) {
+            return TraitTypeEnum.TRAITABLE;
         } else {
-            return TraitTypeEnum.NON_TRAIT;
+            return TraitTypeEnum.LEGACY_TRAITABLE;
         }
     }
 
     public boolean isTraitable() {
-        return traitType == TraitTypeEnum.TRAITABLE;
+        return getTraitType() == TraitTypeEnum.TRAITABLE;
     }
 
     public boolean isTraiting() {
-        return traitType == TraitTypeEnum.TRAIT.TRAIT;
+        return getTraitType() == TraitTypeEnum.TRAIT;
+    }
+
+    /**
+     * The rarely used state of a handle, allocated on demand
+     */
+    private static final class Extension implements Serializable {
+        private static final long serialVersionUID = 510l;
+
+        private EqualityKey       key;
+
+        private DefaultFactHandle previous;
+        private DefaultFactHandle next;
+
+        private TraitTypeEnum     traitType = TraitTypeEnum.NON_TRAIT;
+
+        private boolean           disconnected;
     }
 
 }
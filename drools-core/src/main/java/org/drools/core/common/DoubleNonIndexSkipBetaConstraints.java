@@ -29,6 +29,7 @@ import org.drools.core.rule.ContextEntry;
 import org.drools.core.rule.MutableTypeConstraint;
 import org.drools.core.rule.constraint.MvelConstraint;
 import org.drools.core.spi.BetaNodeFieldConstraint;
+import org.drools.core.util.BitMask;
 
 public class DoubleNonIndexSkipBetaConstraints 
     implements
@@ -149,12 +150,12 @@ public class DoubleNonIndexSkipBetaConstraints
         return this.constraints.isAllowedCachedRight( context, tuple );
     }
 
-    public long getListenedPropertyMask(List<String> settableProperties) {
+    public BitMask getListenedPropertyMask(List<String> settableProperties) {
         if (constraint0 instanceof MvelConstraint && constraint1 instanceof MvelConstraint) {
-            return ((MvelConstraint)constraint0).getListenedPropertyMask(settableProperties) |
-                    ((MvelConstraint)constraint1).getListenedPropertyMask(settableProperties);
+            return ((MvelConstraint)constraint0).getListenedPropertyMask(settableProperties)
+                    .setAll(((MvelConstraint)constraint1).getListenedPropertyMask(settableProperties));
         }
-        return Long.MAX_VALUE;
+        return BitMask.ALL_SET_BUT_TRAIT;
     }
 
     public boolean isLeftUpdateOptimizationAllowed() {
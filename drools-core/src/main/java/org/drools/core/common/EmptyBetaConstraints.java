@@ -29,6 +29,7 @@ import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.reteoo.builder.BuildContext;
 import org.drools.core.rule.ContextEntry;
 import org.drools.core.spi.BetaNodeFieldConstraint;
+import org.drools.core.util.BitMask;
 
 public class EmptyBetaConstraints
     implements
@@ -151,8 +152,8 @@ public class EmptyBetaConstraints
         throw new UnsupportedOperationException();
     }
 
-    public long getListenedPropertyMask(List<String> settableProperties) {
-        return 0L;
+    public BitMask getListenedPropertyMask(List<String> settableProperties) {
+        return BitMask.EMPTY;
     }
 
     public void init(BuildContext context, short betaNodeType) { }
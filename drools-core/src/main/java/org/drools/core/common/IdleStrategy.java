@@ -0,0 +1,216 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.common;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decides how the thread running fireUntilHalt waits when the agenda has nothing left to fire,
+ * and how it is woken up when another thread gives it some work.
+ *
+ * A signal received while the firing thread is not idle is remembered, so that its next idle
+ * returns immediately and no wake up is lost. The strategies may return earlier than the signal,
+ * as the caller checks the agenda again anyway.
+ *
+ * The strategy also measures the latency of the wake ups, from the first signal received while the
+ * firing thread is idle to the firing of the first rule after it.
+ */
+public abstract class IdleStrategy {
+
+    public static final String BLOCKING       = "blocking";
+    public static final String SPIN_THEN_PARK = "spinThenPark";
+    public static final String BUSY_SPIN      = "busySpin";
+
+    private volatile boolean   signalled;
+    private volatile Thread    idleThread;
+
+    private volatile long      signalTime;
+    private long               wakeUpTime;
+
+    private long               latencyCount;
+    private long               totalLatency;
+    private long               maxLatency;
+
+    /**
+     * Wakes up the idle firing thread, or makes its next idle return immediately
+     */
+    public void signal() {
+        if ( this.idleThread != null && this.signalTime == 0 ) {
+            this.signalTime = System.nanoTime();
+        }
+        this.signalled = true;
+        Thread thread = this.idleThread;
+        if ( thread != null ) {
+            wakeUp( thread );
+        }
+    }
+
+    /**
+     * Called by the firing thread when it has nothing left to do
+     */
+    public void idle() {
+        this.signalTime = 0;
+        this.idleThread = Thread.currentThread();
+        try {
+            if ( !this.signalled ) {
+                waitForSignal();
+            }
+        } finally {
+            this.idleThread = null;
+            this.signalled = false;
+            this.wakeUpTime = this.signalTime;
+            this.signalTime = 0;
+        }
+    }
+
+    /**
+     * Called by the firing thread after each run of the agenda following an idle, so that the wake up
+     * latency is recorded if a rule has been fired.
+     */
+    public void afterIdle(boolean fired) {
+        if ( this.wakeUpTime == 0 ) {
+            return;
+        }
+        if ( fired ) {
+            long latency = System.nanoTime() - this.wakeUpTime;
+            synchronized ( this ) {
+                this.latencyCount++;
+                this.totalLatency += latency;
+                if ( latency > this.maxLatency ) {
+                    this.maxLatency = latency;
+                }
+            }
+        }
+        this.wakeUpTime = 0;
+    }
+
+    protected boolean isSignalled() {
+        return this.signalled;
+    }
+
+    /**
+     * Returns when the strategy has been signalled, or earlier
+     */
+    protected abstract void waitForSignal();
+
+    /**
+     * Parks the firing thread until it is unparked by wakeUp(), or earlier
+     */
+    protected void park() {
+        LockSupport.park( this );
+        // park returns immediately while the interrupt flag is set: as the wait on the halt monitor did,
+        // an interrupt only wakes up the firing thread once, instead of making each following idle spin
+        Thread.interrupted();
+    }
+
+    /**
+     * Wakes up the given thread, which is idle or about to be
+     */
+    protected void wakeUp(Thread thread) {
+        LockSupport.unpark( thread );
+    }
+
+    public synchronized long getLatencyCount() {
+        return this.latencyCount;
+    }
+
+    public synchronized long getTotalLatencyNanos() {
+        return this.totalLatency;
+    }
+
+    public synchronized long getMaxLatencyNanos() {
+        return this.maxLatency;
+    }
+
+    public synchronized long getAverageLatencyNanos() {
+        return this.latencyCount == 0 ? 0 : this.totalLatency / this.latencyCount;
+    }
+
+    public static IdleStrategy resolveIdleStrategy(String id) {
+        if ( BLOCKING.equalsIgnoreCase( id ) ) {
+            return new Blocking();
+        } else if ( SPIN_THEN_PARK.equalsIgnoreCase( id ) ) {
+            return new SpinThenPark();
+        } else if ( BUSY_SPIN.equalsIgnoreCase( id ) ) {
+            return new BusySpin();
+        }
+        return null;
+    }
+
+    /**
+     * Parks the firing thread until it is signalled. This uses no cpu while idle.
+     */
+    public static class Blocking extends IdleStrategy {
+        protected void waitForSignal() {
+            park();
+        }
+    }
+
+    /**
+     * Spins for a while, then yields, and finally parks the firing thread. This keeps a low latency
+     * for the work arriving shortly after the agenda got empty, without burning a core when idle for long.
+     */
+    public static class SpinThenPark extends IdleStrategy {
+        public static final int DEFAULT_SPINS  = 10000;
+        public static final int DEFAULT_YIELDS = 100;
+
+        private final int spins;
+        private final int yields;
+
+        public SpinThenPark() {
+            this( DEFAULT_SPINS, DEFAULT_YIELDS );
+        }
+
+        public SpinThenPark(int spins, int yields) {
+            this.spins = spins;
+            this.yields = yields;
+        }
+
+        protected void waitForSignal() {
+            for ( int i = 0; i < this.spins; i++ ) {
+                if ( isSignalled() ) {
+                    return;
+                }
+            }
+            for ( int i = 0; i < this.yields; i++ ) {
+                if ( isSignalled() ) {
+                    return;
+                }
+                Thread.yield();
+            }
+            if ( !isSignalled() ) {
+                park();
+            }
+        }
+    }
+
+    /**
+     * Spins until the firing thread is signalled. This gives the lowest latency, at the cost of a fully
+     * used core for each idle session.
+     */
+    public static class BusySpin extends IdleStrategy {
+        protected void waitForSignal() {
+            while ( !isSignalled() ) {
+                // spin
+            }
+        }
+
+        protected void wakeUp(Thread thread) {
+            // the spinning thread sees the signal on its own
+        }
+    }
+}
@@ -187,6 +187,8 @@ public interface InternalAgenda
 
     void removeEagerRuleAgendaItem(RuleAgendaItem item);
 
+    void addDirtyRuleAgendaItem(RuleAgendaItem item);
+
     long getNextActivationCounter();
 
     /*
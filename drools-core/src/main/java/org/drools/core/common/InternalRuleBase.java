@@ -119,6 +119,12 @@ public interface InternalRuleBase
 
     int getNodeCount();
 
+    /**
+     * Returns a counter incremented every time the rule base is unlocked after a modification,
+     * so that the sessions built on a previous version of the network can be told apart
+     */
+    int getModificationCount();
+
     /**
      * Returns the type declaration associated to the given class
      *
@@ -156,6 +162,14 @@ public interface InternalRuleBase
      * Releases a read lock on the rulebase
      */
     void readUnlock();
+
+    /**
+     * Registers the network lock of a session. The sessions read lock their own network lock instead of the
+     * rulebase, which write locks all of them while modifying the network.
+     */
+    void addSessionLock(UpgradableReentrantReadWriteLock sessionLock);
+
+    void removeSessionLock(UpgradableReentrantReadWriteLock sessionLock);
     
     void registerAddedEntryNodeCache(EntryPointNode node);
     Set<EntryPointNode> getAddedEntryNodeCache();
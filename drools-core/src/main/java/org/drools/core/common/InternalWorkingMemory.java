@@ -112,6 +112,11 @@ public interface InternalWorkingMemory
      */
     public TimerService getTimerService();
 
+    /**
+     * Returns the cache of the results of getQueryResults, or null if it is disabled
+     */
+    public QueryResultsCache getQueryResultsCache();
+
     public void setKnowledgeRuntime(InternalKnowledgeRuntime kruntime);
     
     public InternalKnowledgeRuntime getKnowledgeRuntime();
@@ -20,6 +20,7 @@ import org.drools.core.FactException;
 import org.drools.core.FactHandle;
 import org.drools.core.rule.Rule;
 import org.drools.core.spi.Activation;
+import org.drools.core.util.BitMask;
 
 public interface InternalWorkingMemoryActions
         extends
@@ -27,7 +28,7 @@ public interface InternalWorkingMemoryActions
         InternalWorkingMemoryEntryPoint {
     public void update(FactHandle handle,
                        Object object,
-                       long mask,
+                       BitMask mask,
                        Class<?> modifiedClass,
                        Activation activation) throws FactException;
 
@@ -63,6 +63,7 @@ public class LeftTupleSetsImpl implements LeftTupleSets {
     }
 
     public boolean addInsert(LeftTuple leftTuple) {
+        assert leftTuple.getStagedType() != LeftTuple.RECYCLED : "staging a recycled tuple";
         leftTuple.setStagedType( LeftTuple.INSERT );
         if ( insertFirst == null ) {
             insertFirst = leftTuple;
@@ -75,6 +76,7 @@ public class LeftTupleSetsImpl implements LeftTupleSets {
     }
 
     public boolean addDelete(LeftTuple leftTuple) {
+        assert leftTuple.getStagedType() != LeftTuple.RECYCLED : "staging a recycled tuple";
         switch ( leftTuple.getStagedType() ) {
             // handle clash with already staged entries
             case LeftTuple.INSERT:
@@ -98,6 +100,7 @@ public class LeftTupleSetsImpl implements LeftTupleSets {
 
 
     public boolean addUpdate(LeftTuple leftTuple) {
+        assert leftTuple.getStagedType() != LeftTuple.RECYCLED : "staging a recycled tuple";
         if (leftTuple.getStagedType() == LeftTuple.INSERT) {
             // do nothing, it's already staged as insert, which means it's already scheduled for eval too.
             return false;
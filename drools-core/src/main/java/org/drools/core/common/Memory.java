@@ -14,4 +14,10 @@ public interface Memory extends LinkedListNode<Memory> {
 
     public void setSegmentMemory(SegmentMemory segmentMemory);
 
+    /**
+     * Empties this memory in place, keeping its position in the network and the capacity of its structures,
+     * so that it can be reused by a reset session
+     */
+    public void reset();
+
 }
@@ -20,8 +20,10 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Set;
@@ -51,6 +53,7 @@ import org.drools.core.spi.Activation;
 import org.drools.core.spi.FactHandleFactory;
 import org.drools.core.spi.ObjectType;
 import org.drools.core.spi.PropagationContext;
+import org.drools.core.util.BitMask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -108,7 +111,10 @@ public class NamedEntryPoint
         this.typeConfReg = new ObjectTypeConfigurationRegistry(this.ruleBase);
         this.handleFactory = this.wm.getFactHandleFactory();
         this.pctxFactory = ruleBase.getConfiguration().getComponentFactory().getPropagationContextFactory();
-        this.objectStore = new SingleThreadedObjectStore(this.ruleBase.getConfiguration(),
+        this.objectStore = this.ruleBase.getConfiguration().isOpenAddressingObjectStore() ?
+                           new OpenAddressingObjectStore(this.ruleBase.getConfiguration(),
+                                                         this.lock) :
+                           new SingleThreadedObjectStore(this.ruleBase.getConfiguration(),
                                                          this.lock);
     }
 
@@ -147,6 +153,83 @@ public class NamedEntryPoint
                       null);
     }
 
+    public List<FactHandle> insertAll(final Collection<?> objects) throws FactException {
+        List<FactHandle> handles = new ArrayList<FactHandle>( objects.size() );
+        if ( this.wm.isSequential() || !this.ruleBase.getConfiguration().isPhreakEnabled() ) {
+            // only Phreak stages the propagations, so there is nothing to share in the other cases
+            for ( Object object : objects ) {
+                handles.add( insert( object ) );
+            }
+            return handles;
+        }
+
+        try {
+            this.wm.startOperation();
+            try {
+                this.lock.lock();
+                this.wm.networkLock.readLock();
+
+                this.ruleBase.executeQueuedActions();
+                this.wm.executeQueuedActions();
+
+                for ( Object object : objects ) {
+                    handles.add( insertInBatch( object ) );
+                }
+
+                this.wm.executeQueuedActions();
+                this.wm.getAgenda().unstageActivations();
+            } finally {
+                this.wm.networkLock.readUnlock();
+                this.lock.unlock();
+            }
+            return handles;
+        } finally {
+            this.wm.endOperation();
+        }
+    }
+
+    private FactHandle insertInBatch(final Object object) {
+        if ( object == null ) {
+            // you cannot assert a null object
+            return null;
+        }
+
+        ObjectTypeConf typeConf = this.typeConfReg.getObjectTypeConf( this.entryPoint,
+                                                                      object );
+        if ( typeConf.isTMSEnabled() ) {
+            // equality keys must be resolved one object at a time, the lock is reentrant
+            return insert( object );
+        }
+
+        InternalFactHandle handle = this.objectStore.getHandleForObject( object );
+        if ( handle != null ) {
+            return handle;
+        }
+        handle = createHandle( object,
+                               typeConf );
+
+        // each fact gets its own context, as the activations use the recency of its handle
+        final PropagationContext propagationContext = this.pctxFactory.createPropagationContext(this.wm.getNextPropagationIdCounter(), PropagationContext.INSERTION, null,
+                                                                                                null, handle, entryPoint);
+
+        if ( typeConf.isDynamic() ) {
+            addPropertyChangeListener( handle, false );
+        }
+
+        this.entryPointNode.assertObject( handle,
+                                          propagationContext,
+                                          typeConf,
+                                          this.wm );
+
+        propagationContext.evaluateActionQueue( this.wm );
+
+        this.wm.workingMemoryEventSupport.fireObjectInserted( propagationContext,
+                                                              handle,
+                                                              object,
+                                                              this.wm );
+        return handle;
+    }
+
     protected FactHandle insert(final Object object,
                                 final Object tmsValue,
                                 final boolean dynamic,
@@ -187,7 +270,7 @@ public class NamedEntryPoint
             
             try {
                 this.lock.lock();
-                this.ruleBase.readLock();
+                this.wm.networkLock.readLock();
                 // check if the object already exists in the WM
                 handle = this.objectStore.getHandleForObject( object );
 
@@ -251,7 +334,7 @@ public class NamedEntryPoint
                                 TruthMaintenanceSystemHelper.clearLogicalDependencies( justifiedHandle, propagationContext );
                                 
                                 // now update existing handle to new value
-                                return update( justifiedHandle, true, object, Long.MAX_VALUE, Object.class, activation );
+                                return update( justifiedHandle, true, object, BitMask.ALL_SET_BUT_TRAIT, Object.class, activation );
                         } else   {  // STATED 
                             handle = createHandle( object,
                                                    typeConf ); // we know the handle is null                                                    
@@ -284,7 +367,7 @@ public class NamedEntryPoint
                         propagationContext );
 
             } finally {
-                this.ruleBase.readUnlock();
+                this.wm.networkLock.readUnlock();
                 this.lock.unlock();
             }
             return handle;
@@ -383,14 +466,14 @@ public class NamedEntryPoint
         update( handle,
                 false,
                 object,
-                Long.MAX_VALUE,
+                BitMask.ALL_SET_BUT_TRAIT,
                 Object.class,
                 null );
     }
     
     public void update(final org.kie.api.runtime.rule.FactHandle factHandle,
                        final Object object,
-                       final long mask,
+                       final BitMask mask,
                        final Class<?> modifiedClass,
                        final Activation activation) throws FactException {
         InternalFactHandle handle = (InternalFactHandle) factHandle;
@@ -405,12 +488,12 @@ public class NamedEntryPoint
     public InternalFactHandle update(InternalFactHandle handle,
                                      final boolean updateLogical,
                                      final Object object,
-                                     final long mask,
+                                     final BitMask mask,
                                      final Class<?> modifiedClass,
                                      final Activation activation) throws FactException {
         try {
             this.lock.lock();
-            this.ruleBase.readLock();
+            this.wm.networkLock.readLock();
             this.wm.startOperation();
             this.ruleBase.executeQueuedActions();
 
@@ -522,7 +605,7 @@ public class NamedEntryPoint
            }           
         } finally {
             this.wm.endOperation();
-            this.ruleBase.readUnlock();
+            this.wm.networkLock.readUnlock();
             this.lock.unlock();
         }
         return handle;
@@ -548,7 +631,7 @@ public class NamedEntryPoint
         }
         try {
             this.lock.lock();
-            this.ruleBase.readLock();
+            this.wm.networkLock.readLock();
             this.wm.startOperation();
             this.ruleBase.executeQueuedActions();
 
@@ -653,7 +736,7 @@ public class NamedEntryPoint
             }            
         } finally {
             this.wm.endOperation();
-            this.ruleBase.readUnlock();
+            this.wm.networkLock.readUnlock();
             this.lock.unlock();
         }
     }
@@ -29,6 +29,13 @@ public interface NodeMemories {
     public void setRuleBaseReference(InternalRuleBase ruleBase);
     
     public void clear();
+
+    /**
+     * Empties all the node memories in place, so that a reset session
+     * doesn't need to create them again. The memories are cleared as
+     * by clear() when the rule base changed since they were created.
+     */
+    public void reset();
     
     /**
      * Peeks at the content of the node memory for the given
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.common;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Iterator;
+import java.util.concurrent.locks.Lock;
+
+import org.drools.core.RuleBaseConfiguration;
+import org.drools.core.RuleBaseConfiguration.AssertBehaviour;
+import org.drools.core.util.JavaIteratorAdapter;
+import org.drools.core.util.OpenAddressingObjectHashMap;
+import org.kie.api.runtime.rule.FactHandle;
+
+/**
+ * An ObjectStore keeping its assert and identity maps in OpenAddressingObjectHashMaps, so that no map entry
+ * is allocated per fact. It behaves as the SingleThreadedObjectStore and it is used in its place when
+ * enabled through RuleBaseConfiguration.setOpenAddressingObjectStore().
+ */
+public class OpenAddressingObjectStore implements Externalizable, ObjectStore {
+    /** Object-to-handle mapping. */
+    private OpenAddressingObjectHashMap assertMap;
+    private OpenAddressingObjectHashMap identityMap;
+    private AssertBehaviour             behaviour;
+    private Lock                        lock;
+
+    public OpenAddressingObjectStore() {
+
+    }
+
+    public OpenAddressingObjectStore(RuleBaseConfiguration conf, Lock lock) {
+        this.behaviour = conf.getAssertBehaviour();
+        this.lock = lock;
+
+        this.assertMap = new OpenAddressingObjectHashMap();
+
+        if ( AssertBehaviour.IDENTITY.equals(this.behaviour) ) {
+            this.assertMap.setComparator( new IdentityAssertMapComparator() );
+            this.identityMap = assertMap;
+        } else {
+            this.assertMap.setComparator( new EqualityAssertMapComparator() );
+            this.identityMap = new OpenAddressingObjectHashMap();
+            this.identityMap.setComparator( new IdentityAssertMapComparator() );
+        }
+    }
+
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        assertMap   = (OpenAddressingObjectHashMap)in.readObject();
+        identityMap   = (OpenAddressingObjectHashMap)in.readObject();
+        behaviour   = (AssertBehaviour)in.readObject();
+        lock   = (Lock)in.readObject();
+    }
+
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeObject(assertMap);
+        out.writeObject(identityMap);
+        out.writeObject(behaviour);
+        out.writeObject(lock);
+    }
+
+    public int size() {
+        return this.assertMap.size();
+    }
+
+    public boolean isEmpty() {
+        return this.assertMap.isEmpty();
+    }
+
+    public void clear() {
+        this.assertMap.clear();
+        this.identityMap.clear();
+    }
+
+    public Object getObjectForHandle(FactHandle handle) {
+        try {
+            this.lock.lock();
+
+            // Make sure the FactHandle is from this WorkingMemory
+            final InternalFactHandle internalHandle = (InternalFactHandle) this.assertMap.get( handle );
+            if ( internalHandle == null ) {
+                return null;
+            }
+
+            return internalHandle.getObject();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public InternalFactHandle getHandleForObject(Object object){
+        if ( object == null ) {
+            return null;
+        } else {
+            return (InternalFactHandle) this.assertMap.get( object );
+        }
+    }
+
+    public InternalFactHandle reconnect(FactHandle factHandle) {
+        return (InternalFactHandle) this.assertMap.get( factHandle );
+    }
+
+    public InternalFactHandle getHandleForObjectIdentity(Object object) {
+        return (InternalFactHandle) this.identityMap.get( object );
+    }
+
+    public void updateHandle(InternalFactHandle handle, Object object){
+        this.assertMap.remove( handle );
+        if ( AssertBehaviour.EQUALITY.equals(this.behaviour) ) {
+            this.identityMap.remove( handle );
+        }
+        handle.setObject( object );
+        this.assertMap.put( handle,
+                            handle );
+        if ( AssertBehaviour.EQUALITY.equals(this.behaviour) ) {
+            this.identityMap.put( handle,
+                                  handle );
+        }
+    }
+
+    public void addHandle(InternalFactHandle handle, Object object) {
+        this.assertMap.put( handle,
+                            handle );
+        if ( AssertBehaviour.EQUALITY.equals(this.behaviour) ) {
+            this.identityMap.put( handle,
+                                  handle );
+        }
+    }
+
+    public void removeHandle(final FactHandle handle) {
+        this.assertMap.remove( handle );
+        if ( AssertBehaviour.EQUALITY.equals(this.behaviour) ) {
+            this.identityMap.remove( handle );
+        }
+    }
+
+    public Iterator iterateObjects() {
+        return new JavaIteratorAdapter( this.assertMap.keyIterator(),
+                                        JavaIteratorAdapter.OBJECT );
+    }
+
+    public Iterator iterateObjects(org.kie.api.runtime.ObjectFilter filter) {
+        return new JavaIteratorAdapter( this.assertMap.keyIterator(),
+                                        JavaIteratorAdapter.OBJECT,
+                                        filter );
+    }
+
+    public Iterator iterateFactHandles() {
+        return new JavaIteratorAdapter( this.assertMap.keyIterator(),
+                                        JavaIteratorAdapter.FACT_HANDLE );
+    }
+
+    public Iterator iterateFactHandles(org.kie.api.runtime.ObjectFilter filter) {
+        return new JavaIteratorAdapter( this.assertMap.keyIterator(),
+                                        JavaIteratorAdapter.FACT_HANDLE,
+                                        filter );
+    }
+
+}
@@ -27,7 +27,7 @@ import org.drools.core.rule.Rule;
 import org.drools.core.rule.TypeDeclaration;
 import org.drools.core.spi.ObjectType;
 import org.drools.core.spi.PropagationContext;
-import org.drools.core.util.BitMaskUtil;
+import org.drools.core.util.BitMask;
 
 import java.io.IOException;
 import java.io.ObjectInput;
@@ -58,9 +58,9 @@ public class PhreakPropagationContext
 
     private int                             originOffset;
 
-    private long                            modificationMask = Long.MAX_VALUE;
+    private BitMask                         modificationMask = BitMask.ALL_SET_BUT_TRAIT;
 
-    private long                            originalMask = Long.MAX_VALUE;
+    private BitMask                         originalMask = BitMask.ALL_SET_BUT_TRAIT;
 
     private Class<?>                        modifiedClass;
 
@@ -85,7 +85,7 @@ public class PhreakPropagationContext
               leftTuple,
               factHandle,
               EntryPointId.DEFAULT,
-              Long.MAX_VALUE,
+              BitMask.ALL_SET_BUT_TRAIT,
               Object.class,
               null );
         this.originOffset = -1;
@@ -103,7 +103,7 @@ public class PhreakPropagationContext
               leftTuple,
               factHandle,
               entryPoint,
-              Long.MAX_VALUE,
+              BitMask.ALL_SET_BUT_TRAIT,
               Object.class,
               null );
     }
@@ -116,7 +116,7 @@ public class PhreakPropagationContext
                                     final int activeActivations,
                                     final int dormantActivations,
                                     final EntryPointId entryPoint,
-                                    final long modificationMask) {
+                                    final BitMask modificationMask) {
         this( number,
               type,
               rule,
@@ -141,7 +141,7 @@ public class PhreakPropagationContext
               leftTuple,
               factHandle,
               entryPoint,
-              Long.MAX_VALUE,
+              BitMask.ALL_SET_BUT_TRAIT,
               Object.class,
               readerContext );
     }
@@ -152,7 +152,7 @@ public class PhreakPropagationContext
                                     final LeftTuple leftTuple,
                                     final InternalFactHandle factHandle,
                                     final EntryPointId entryPoint,
-                                    final long modificationMask,
+                                    final BitMask modificationMask,
                                     final Class<?> modifiedClass,
                                     final MarshallerReaderContext readerContext) {
         this.type = type;
@@ -177,7 +177,7 @@ public class PhreakPropagationContext
         this.leftTuple = (LeftTuple) in.readObject();
         this.entryPoint = (EntryPointId) in.readObject();
         this.originOffset = in.readInt();
-        this.modificationMask = in.readLong();
+        this.modificationMask = (BitMask) in.readObject();
     }
 
     public void writeExternal(ObjectOutput out) throws IOException {
@@ -187,7 +187,7 @@ public class PhreakPropagationContext
         out.writeObject( this.leftTuple );
         out.writeObject( this.entryPoint );
         out.writeInt( this.originOffset );
-        out.writeLong(this.modificationMask);
+        out.writeObject(this.modificationMask);
     }
 
     public long getPropagationNumber() {
@@ -291,28 +291,29 @@ public class PhreakPropagationContext
         // return, do nothing, this is for rete only
     }
 
-    public long getModificationMask() {
+    public BitMask getModificationMask() {
         return modificationMask;
     }
 
-    public void setModificationMask( long modificationMask ) {
+    public void setModificationMask( BitMask modificationMask ) {
         this.modificationMask = modificationMask;
     }
 
     public PropagationContext adaptModificationMaskForObjectType(ObjectType type, InternalWorkingMemory workingMemory) {
-        if (originalMask == Long.MAX_VALUE || originalMask <= 0 || !(type instanceof ClassObjectType)) {
+        if (originalMask.equals(BitMask.ALL_SET_BUT_TRAIT) || originalMask.isEmpty() || originalMask.isSet(BitMask.TRAIT_BIT) || !(type instanceof ClassObjectType)) {
             return this;
         }
         ClassObjectType classObjectType = (ClassObjectType)type;
-        Long cachedMask = classObjectType.getTransformedMask(modifiedClass, originalMask);
+        BitMask cachedMask = classObjectType.getTransformedMask(modifiedClass, originalMask);
 
         if (cachedMask != null) {
+            modificationMask = cachedMask;
             return this;
         }
 
         modificationMask = originalMask;
-        long typeBit = modificationMask & Long.MIN_VALUE;
-        modificationMask &= Long.MAX_VALUE;
+        boolean typeBit = modificationMask.isSet(BitMask.TRAIT_BIT);
+        modificationMask = modificationMask.reset(BitMask.TRAIT_BIT);
 
 
         Class<?> classType = classObjectType.getClassType();
@@ -320,24 +321,28 @@ public class PhreakPropagationContext
 
         if (classType == modifiedClass || "java.lang".equals(pkgName) || !(classType.isInterface() || modifiedClass.isInterface())) {
 
-            modificationMask |= typeBit;
+            if (typeBit) {
+                modificationMask = modificationMask.set(BitMask.TRAIT_BIT);
+            }
             return this;
         }
 
-        modificationMask = 0L;
+        modificationMask = BitMask.EMPTY;
         List<String> typeClassProps = getSettableProperties(workingMemory, classType, pkgName);
         List<String> modifiedClassProps = getSettableProperties( workingMemory, modifiedClass );
 
         for (int i = 0; i < modifiedClassProps.size(); i++) {
-            if (BitMaskUtil.isPositionSet(originalMask, i)) {
+            if (originalMask.isPropertySet(i)) {
                 int posInType = typeClassProps.indexOf(modifiedClassProps.get(i));
                 if (posInType >= 0) {
-                    modificationMask = BitMaskUtil.set(modificationMask, posInType);
+                    modificationMask = modificationMask.setProperty(posInType);
                 }
             }
         }
 
-        modificationMask |= typeBit;
+        if (typeBit) {
+            modificationMask = modificationMask.set(BitMask.TRAIT_BIT);
+        }
 
         classObjectType.storeTransformedMask(modifiedClass, originalMask, modificationMask);
 
@@ -0,0 +1,332 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.common;
+
+import org.drools.core.QueryResults;
+import org.drools.core.base.ClassObjectType;
+import org.drools.core.reteoo.BetaNode;
+import org.drools.core.reteoo.LeftInputAdapterNode;
+import org.drools.core.reteoo.LeftTupleSource;
+import org.drools.core.reteoo.NodeTypeEnums;
+import org.drools.core.reteoo.ObjectSource;
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.drools.core.reteoo.QueryElementNode;
+import org.drools.core.reteoo.QueryTerminalNode;
+import org.drools.core.reteoo.RightInputAdapterNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the results of getQueryResults for the most recently used queries and arguments.
+ *
+ * The results of a query are dropped as soon as a fact is inserted, updated or deleted through one of the
+ * ObjectTypeNodes feeding its network, including the networks of the queries it calls. The queries using
+ * from, eval, timers or sliding windows depend on more than the facts of the session, so their results are
+ * never cached. The results of the other queries must only depend on the facts and their arguments: the facts
+ * must be updated when they are modified, and the constraints must not use mutable globals.
+ *
+ * A query is evaluated again when it, or one of the queries it calls, has been redefined in the rule base.
+ */
+public class QueryResultsCache {
+
+    private final int                             maxSize;
+
+    private final InternalRuleBase                ruleBase;
+
+    private final Map<QueryKey, Entry>            entries;
+
+    private final Map<String, QueryState>         queries                 = new HashMap<String, QueryState>();
+
+    private final Map<Integer, List<QueryState>>  queriesByObjectTypeNode = new HashMap<Integer, List<QueryState>>();
+
+    private long                                  hitCount;
+    private long                                  missCount;
+
+    public QueryResultsCache(final int maxSize,
+                             final InternalRuleBase ruleBase) {
+        this.maxSize = maxSize;
+        this.ruleBase = ruleBase;
+        this.entries = new LinkedHashMap<QueryKey, Entry>( 16, 0.75f, true ) {
+            protected boolean removeEldestEntry(Map.Entry<QueryKey, Entry> eldest) {
+                return size() > QueryResultsCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the entry of the query for the given arguments. Its results are null when the query
+     * must be evaluated, and they are then given back to put.
+     */
+    public synchronized Entry get(final String queryName,
+                                  final Object[] arguments) {
+        QueryState state = getQueryState( queryName );
+        QueryKey key = new QueryKey( queryName, arguments );
+        if ( state.cacheable ) {
+            Entry entry = this.entries.get( key );
+            if ( entry != null && entry.generation == state.generation ) {
+                this.hitCount++;
+                return entry;
+            }
+            this.missCount++;
+        }
+        return new Entry( key, state );
+    }
+
+    /**
+     * Keeps the results evaluated for the given entry, unless the facts used by the query have changed since
+     * the entry was returned by get
+     */
+    public synchronized void put(final Entry entry,
+                                 final QueryResults results) {
+        if ( entry.state.cacheable && entry.generation == entry.state.generation && this.queries.get( entry.key.queryName ) == entry.state ) {
+            entry.results = results;
+            this.entries.put( entry.key, entry );
+        }
+    }
+
+    /**
+     * Drops the results of the queries fed by the given ObjectTypeNodes
+     */
+    public synchronized void invalidate(final ObjectTypeNode[] objectTypeNodes) {
+        if ( this.queriesByObjectTypeNode.isEmpty() ) {
+            return;
+        }
+        for ( int i = 0, length = objectTypeNodes.length; i < length; i++ ) {
+            invalidate( objectTypeNodes[i].getId() );
+        }
+    }
+
+    /**
+     * Drops the results of the queries fed by the given ObjectTypeNode, used when a fact
+     * is propagated through this node only, as an expiring event
+     */
+    public synchronized void invalidate(final ObjectTypeNode objectTypeNode) {
+        if ( !this.queriesByObjectTypeNode.isEmpty() ) {
+            invalidate( objectTypeNode.getId() );
+        }
+    }
+
+    private void invalidate(final int objectTypeNodeId) {
+        List<QueryState> states = this.queriesByObjectTypeNode.get( objectTypeNodeId );
+        if ( states != null ) {
+            for ( int j = 0, size = states.size(); j < size; j++ ) {
+                states.get( j ).generation++;
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        this.entries.clear();
+        this.queries.clear();
+        this.queriesByObjectTypeNode.clear();
+    }
+
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    public synchronized long getHitCount() {
+        return this.hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return this.missCount;
+    }
+
+    private QueryState getQueryState(String queryName) {
+        QueryState state = this.queries.get( queryName );
+        if ( state != null && state.isCurrent( this.ruleBase ) ) {
+            return state;
+        }
+
+        long generation = 0;
+        if ( state != null ) {
+            unregister( state );
+            generation = state.generation + 1;
+        }
+        state = new QueryState( generation );
+        state.cacheable = collectQuery( queryName, state );
+        this.queries.put( queryName, state );
+        if ( state.cacheable ) {
+            register( state );
+        }
+        return state;
+    }
+
+    private void register(QueryState state) {
+        for ( Integer id : state.objectTypeNodes ) {
+            List<QueryState> states = this.queriesByObjectTypeNode.get( id );
+            if ( states == null ) {
+                states = new ArrayList<QueryState>();
+                this.queriesByObjectTypeNode.put( id, states );
+            }
+            states.add( state );
+        }
+    }
+
+    private void unregister(QueryState state) {
+        for ( Integer id : state.objectTypeNodes ) {
+            List<QueryState> states = this.queriesByObjectTypeNode.get( id );
+            if ( states != null ) {
+                states.remove( state );
+                if ( states.isEmpty() ) {
+                    this.queriesByObjectTypeNode.remove( id );
+                }
+            }
+        }
+    }
+
+    private boolean collectQuery(String queryName, QueryState state) {
+        if ( state.terminalNodes.containsKey( queryName ) ) {
+            // recursive query
+            return true;
+        }
+        BaseNode[] tnodes = this.ruleBase.getReteooBuilder().getTerminalNodes( queryName );
+        state.terminalNodes.put( queryName, tnodes );
+        if ( tnodes == null ) {
+            return false;
+        }
+        for ( BaseNode tnode : tnodes ) {
+            if ( !collectLeftTupleSource( ((QueryTerminalNode) tnode).getLeftTupleSource(), state ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean collectLeftTupleSource(LeftTupleSource lts, QueryState state) {
+        for ( ; lts != null; lts = lts.getLeftTupleSource() ) {
+            switch ( lts.getType() ) {
+                case NodeTypeEnums.LeftInputAdapterNode :
+                    return collectObjectSource( ((LeftInputAdapterNode) lts).getObjectSource(), state );
+                case NodeTypeEnums.QueryElementNode :
+                    if ( !collectQuery( ((QueryElementNode) lts).getQueryElement().getQueryName(), state ) ) {
+                        return false;
+                    }
+                    break;
+                case NodeTypeEnums.QueryRiaFixerNode :
+                    break;
+                default :
+                    // from, eval, timers and conditional branches don't only depend on the facts
+                    if ( !NodeTypeEnums.isBetaNode( lts ) || !collectObjectSource( ((BetaNode) lts).getRightInput(), state ) ) {
+                        return false;
+                    }
+            }
+        }
+        return true;
+    }
+
+    private boolean collectObjectSource(ObjectSource source, QueryState state) {
+        for ( ; source != null; source = source.getParentObjectSource() ) {
+            switch ( source.getType() ) {
+                case NodeTypeEnums.ObjectTypeNode :
+                    // the query objects are only propagated by the evaluations of the queries
+                    if ( !ClassObjectType.DroolsQuery_ObjectType.equals( ((ObjectTypeNode) source).getObjectType() ) ) {
+                        state.objectTypeNodes.add( source.getId() );
+                    }
+                    return true;
+                case NodeTypeEnums.RightInputAdaterNode :
+                    return collectLeftTupleSource( ((RightInputAdapterNode) source).getLeftTupleSource(), state );
+                case NodeTypeEnums.WindowNode :
+                    // the facts leave the window with the time
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The results of a query for some arguments
+     */
+    public static class Entry {
+        private final QueryKey   key;
+        private final QueryState state;
+        private final long       generation;
+        private QueryResults     results;
+
+        private Entry(QueryKey key, QueryState state) {
+            this.key = key;
+            this.state = state;
+            this.generation = state.generation;
+        }
+
+        public QueryResults getResults() {
+            return this.results;
+        }
+    }
+
+    private static class QueryState {
+        private final Map<String, BaseNode[]> terminalNodes   = new HashMap<String, BaseNode[]>();
+        private final Set<Integer>            objectTypeNodes = new HashSet<Integer>();
+        private boolean                       cacheable;
+        private long                          generation;
+
+        private QueryState(long generation) {
+            this.generation = generation;
+        }
+
+        /**
+         * Checks that the query and the queries it calls haven't been redefined
+         */
+        private boolean isCurrent(InternalRuleBase ruleBase) {
+            for ( Map.Entry<String, BaseNode[]> entry : this.terminalNodes.entrySet() ) {
+                if ( ruleBase.getReteooBuilder().getTerminalNodes( entry.getKey() ) != entry.getValue() ) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static class QueryKey {
+        private final String   queryName;
+        private final Object[] arguments;
+        private final int      hashCode;
+
+        private QueryKey(String queryName, Object[] arguments) {
+            this.queryName = queryName;
+            this.arguments = arguments != null ? arguments.clone() : null;
+            this.hashCode = 31 * queryName.hashCode() + Arrays.hashCode( arguments );
+        }
+
+        public int hashCode() {
+            return this.hashCode;
+        }
+
+        public boolean equals(Object obj) {
+            if ( this == obj ) {
+                return true;
+            }
+            if ( !(obj instanceof QueryKey) ) {
+                return false;
+            }
+            QueryKey other = (QueryKey) obj;
+            return this.hashCode == other.hashCode && this.queryName.equals( other.queryName ) && Arrays.equals( this.arguments, other.arguments );
+        }
+    }
+}
@@ -65,6 +65,7 @@ public class RightTupleSetsImpl implements RightTupleSets {
     }
 
     public boolean addInsert(RightTuple rightTuple) {
+        assert rightTuple.getStagedType() != LeftTuple.RECYCLED : "staging a recycled tuple";
         rightTuple.setStagedType( LeftTuple.INSERT );
         if ( insertFirst == null ) {
             insertFirst = rightTuple;
@@ -77,6 +78,7 @@ public class RightTupleSetsImpl implements RightTupleSets {
     }
 
     public boolean addDelete(RightTuple rightTuple) {
+        assert rightTuple.getStagedType() != LeftTuple.RECYCLED : "staging a recycled tuple";
         switch ( rightTuple.getStagedType() ) {
             // handle clash with already staged entries
             case LeftTuple.INSERT:
@@ -100,6 +102,7 @@ public class RightTupleSetsImpl implements RightTupleSets {
 
 
     public boolean addUpdate(RightTuple rightTuple) {
+        assert rightTuple.getStagedType() != LeftTuple.RECYCLED : "staging a recycled tuple";
         if (rightTuple.getStagedType() != LeftTuple.NONE) {
             // do nothing, it's already staged as insert or an update, which means it's already scheduled for eval too.
             return false;
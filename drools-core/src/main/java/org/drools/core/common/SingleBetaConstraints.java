@@ -25,6 +25,7 @@ import org.drools.core.reteoo.builder.BuildContext;
 import org.drools.core.rule.ContextEntry;
 import org.drools.core.rule.constraint.MvelConstraint;
 import org.drools.core.spi.BetaNodeFieldConstraint;
+import org.drools.core.util.BitMask;
 
 import java.io.IOException;
 import java.io.ObjectInput;
@@ -211,8 +212,8 @@ public class SingleBetaConstraints
         throw new UnsupportedOperationException();
     }
 
-    public long getListenedPropertyMask(List<String> settableProperties) {
-        return constraint instanceof MvelConstraint ? ((MvelConstraint)constraint).getListenedPropertyMask(settableProperties) : Long.MAX_VALUE;
+    public BitMask getListenedPropertyMask(List<String> settableProperties) {
+        return constraint instanceof MvelConstraint ? ((MvelConstraint)constraint).getListenedPropertyMask(settableProperties) : BitMask.ALL_SET_BUT_TRAIT;
     }
 
     public boolean isLeftUpdateOptimizationAllowed() {
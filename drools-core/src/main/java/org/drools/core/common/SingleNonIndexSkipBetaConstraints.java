@@ -29,6 +29,7 @@ import org.drools.core.rule.ContextEntry;
 import org.drools.core.rule.MutableTypeConstraint;
 import org.drools.core.rule.constraint.MvelConstraint;
 import org.drools.core.spi.BetaNodeFieldConstraint;
+import org.drools.core.util.BitMask;
 
 public class SingleNonIndexSkipBetaConstraints 
     implements
@@ -147,8 +148,8 @@ public class SingleNonIndexSkipBetaConstraints
         return this.constraints.isAllowedCachedRight( context, tuple );
     }
 
-    public long getListenedPropertyMask(List<String> settableProperties) {
-        return constraint instanceof MvelConstraint ? ((MvelConstraint)constraint).getListenedPropertyMask(settableProperties) : Long.MAX_VALUE;
+    public BitMask getListenedPropertyMask(List<String> settableProperties) {
+        return constraint instanceof MvelConstraint ? ((MvelConstraint)constraint).getListenedPropertyMask(settableProperties) : BitMask.ALL_SET_BUT_TRAIT;
     }
 
     public boolean isLeftUpdateOptimizationAllowed() {
@@ -1,5 +1,6 @@
 package org.drools.core.common;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -96,6 +97,22 @@ public class UpgradableReentrantReadWriteLock {
         }
     }
 
+    /**
+     * Acquires the write lock if it becomes available in the given time. A thread already holding a read lock
+     * upgrades it as done by writeLock(), waiting for the other readers without any timeout.
+     */
+    public boolean tryWriteLock(long timeout, TimeUnit unit) {
+        if (lock.isWriteLockedByCurrentThread() || lockCounters.get().readCounter > 0) {
+            writeLock();
+            return true;
+        }
+        try {
+            return lock.writeLock().tryLock(timeout, unit);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private void lowPriorityWriteLock() {
         if (shouldTryAtomicUpgrade && tryingLockUpgrade.get()) {
             synchronized (lowPriotityMonitor) {
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.impl;
+
+import org.drools.core.common.AbstractWorkingMemory;
+import org.drools.core.common.DefaultAgenda;
+import org.drools.core.common.IdleStrategy;
+import org.drools.core.common.InternalAgendaGroup;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feeds a session from many producer threads through a single engine thread.
+ *
+ * The producers enqueue their inserts, updates and deletes on a lock free queue, and get a future
+ * for the result of each of them. The engine thread drains the queue in batches, applies the
+ * operations to the session, whose locks are then never contended, and fires the rules after each batch.
+ * Once started, the session must be used only through this class, or from its rules.
+ *
+ * The engine thread waits for new operations with the idle strategy of the agenda, so that it is also woken
+ * up by the timers and expirations of the session, whose rules are then fired as any other batch.
+ * An exception thrown while firing the rules doesn't stop it, and is kept for getLastFireFailure().
+ */
+public class AsynchronousSession {
+
+    public static final int          DEFAULT_BATCH_SIZE = 1024;
+
+    private final KieSession         session;
+    private final AbstractWorkingMemory workingMemory;
+    private final DefaultAgenda      agenda;
+    private final int                batchSize;
+    private final IdleStrategy       idleStrategy;
+
+    private final Queue<FutureTask<?>> queue = new ConcurrentLinkedQueue<FutureTask<?>>();
+
+    private volatile boolean         running;
+    private volatile RuntimeException lastFireFailure;
+    private Thread                   engineThread;
+
+    private final AtomicLong         operationCount = new AtomicLong();
+    private final AtomicLong         batchCount     = new AtomicLong();
+
+    public AsynchronousSession(KieSession session) {
+        this( session, DEFAULT_BATCH_SIZE );
+    }
+
+    public AsynchronousSession(KieSession session,
+                               int batchSize) {
+        if ( batchSize <= 0 ) {
+            throw new IllegalArgumentException( "The batch size must be positive: " + batchSize );
+        }
+        this.session = session;
+        this.workingMemory = (AbstractWorkingMemory) ((StatefulKnowledgeSessionImpl) session).getInternalWorkingMemory();
+        this.batchSize = batchSize;
+        this.agenda = (DefaultAgenda) this.workingMemory.getAgenda();
+        // the actions and rules queued on the session by its timers signal the idle strategy of its agenda
+        this.idleStrategy = this.agenda.getIdleStrategy();
+    }
+
+    public KieSession getSession() {
+        return this.session;
+    }
+
+    public Future<FactHandle> insert(final Object object) {
+        return enqueue( new Callable<FactHandle>() {
+            public FactHandle call() {
+                return session.insert( object );
+            }
+        } );
+    }
+
+    public Future<FactHandle> insert(final String entryPoint,
+                                     final Object object) {
+        return enqueue( new Callable<FactHandle>() {
+            public FactHandle call() {
+                return session.getEntryPoint( entryPoint ).insert( object );
+            }
+        } );
+    }
+
+    public Future<Void> update(final FactHandle handle,
+                               final Object object) {
+        return enqueue( new Callable<Void>() {
+            public Void call() {
+                session.update( handle, object );
+                return null;
+            }
+        } );
+    }
+
+    public Future<Void> delete(final FactHandle handle) {
+        return enqueue( new Callable<Void>() {
+            public Void call() {
+                session.delete( handle );
+                return null;
+            }
+        } );
+    }
+
+    /**
+     * Runs the given operation on the engine thread, in order with the inserts, updates and deletes
+     */
+    public <T> Future<T> submit(Callable<T> operation) {
+        return enqueue( operation );
+    }
+
+    /**
+     * Throws a RejectedExecutionException if the session isn't started or is being stopped,
+     * as nothing would ever apply the operation
+     */
+    private <T> Future<T> enqueue(Callable<T> operation) {
+        if ( !this.running ) {
+            throw new RejectedExecutionException( "The asynchronous session is not running" );
+        }
+        FutureTask<T> task = new FutureTask<T>( operation );
+        this.queue.offer( task );
+        // the engine thread applies what is enqueued before it sees the stop, so the task is withdrawn only
+        // if the session has been stopped in the meantime and no one took it yet
+        if ( !this.running && this.queue.remove( task ) ) {
+            throw new RejectedExecutionException( "The asynchronous session is not running" );
+        }
+        this.idleStrategy.signal();
+        return task;
+    }
+
+    /**
+     * Starts a new engine thread
+     */
+    public synchronized void start() {
+        if ( this.engineThread != null ) {
+            throw new IllegalStateException( "The asynchronous session is already started" );
+        }
+        this.running = true;
+        this.engineThread = new Thread( new Runnable() {
+            public void run() {
+                runEngine();
+            }
+        }, "drools-async-session" );
+        this.engineThread.setDaemon( true );
+        this.engineThread.start();
+    }
+
+    /**
+     * Stops the engine thread once it has applied the operations already enqueued.
+     * The operations enqueued afterwards are rejected.
+     */
+    public void stop() throws InterruptedException {
+        Thread thread;
+        synchronized ( this ) {
+            thread = this.engineThread;
+            this.engineThread = null;
+        }
+        this.running = false;
+        this.idleStrategy.signal();
+        if ( thread != null && thread != Thread.currentThread() ) {
+            thread.join();
+        }
+    }
+
+    private void runEngine() {
+        while ( this.running ) {
+            if ( !drain() ) {
+                this.idleStrategy.idle();
+            }
+        }
+        // applies what has been enqueued before the stop, the following operations being rejected
+        while ( drain() ) {
+        }
+    }
+
+    /**
+     * Applies a batch of operations and fires the rules. Returns false if neither the queue
+     * nor the session had anything to do.
+     */
+    private boolean drain() {
+        int count = 0;
+        FutureTask<?> task;
+        while ( count < this.batchSize && (task = this.queue.poll()) != null ) {
+            task.run();
+            count++;
+        }
+        if ( count == 0 ) {
+            if ( !hasPendingWork() ) {
+                return false;
+            }
+        } else {
+            this.operationCount.addAndGet( count );
+            this.batchCount.incrementAndGet();
+        }
+        try {
+            this.session.fireAllRules();
+        } catch ( RuntimeException e ) {
+            this.lastFireFailure = e;
+        }
+        this.idleStrategy.afterIdle( true );
+        return true;
+    }
+
+    /**
+     * Returns true if the session has something to fire without any new operation: the actions queued
+     * by the rete timers and expirations, or the rules queued on the agenda by the phreak ones
+     */
+    private boolean hasPendingWork() {
+        if ( !this.workingMemory.getActionQueue().isEmpty() ) {
+            return true;
+        }
+        InternalAgendaGroup nextFocus = this.agenda.getNextFocus();
+        return nextFocus != null && !nextFocus.isEmpty();
+    }
+
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    public RuntimeException getLastFireFailure() {
+        return this.lastFireFailure;
+    }
+
+    public long getOperationCount() {
+        return this.operationCount.get();
+    }
+
+    public long getBatchCount() {
+        return this.batchCount.get();
+    }
+
+    public IdleStrategy getIdleStrategy() {
+        return this.idleStrategy;
+    }
+}
@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 
+import java.io.IOException;
 import org.drools.core.FactException;
 import org.drools.core.RuleBase;
 import org.drools.core.WorkingMemory;
@@ -63,6 +64,7 @@ import org.drools.core.event.rule.impl.ObjectInsertedEventImpl;
 import org.drools.core.event.rule.impl.ObjectUpdatedEventImpl;
 import org.drools.core.event.rule.impl.RuleFlowGroupActivatedEventImpl;
 import org.drools.core.event.rule.impl.RuleFlowGroupDeactivatedEventImpl;
+import org.drools.core.marshalling.impl.SessionForker;
 import org.drools.core.reteoo.DisposedReteooWorkingMemory;
 import org.drools.core.reteoo.EntryPointNode;
 import org.drools.core.reteoo.ReteooWorkingMemoryInterface;
@@ -74,6 +76,7 @@ import org.drools.core.runtime.rule.impl.AgendaImpl;
 import org.drools.core.runtime.rule.impl.NativeQueryResults;
 import org.drools.core.spi.Activation;
 import org.drools.core.time.TimerService;
+import org.drools.core.util.BitMask;
 import org.kie.api.event.rule.RuleRuntimeEventListener;
 import org.kie.internal.KnowledgeBase;
 import org.kie.api.command.Command;
@@ -128,6 +131,23 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
         throw new UnsupportedOperationException( "This should not be called" );
     }
 
+    /**
+     * Creates a snapshot copy of this session, with copies of its facts and the same matches and timers: see SessionForker
+     */
+    public StatefulKnowledgeSession fork() {
+        AbstractWorkingMemory fork;
+        try {
+            fork = SessionForker.fork( (AbstractWorkingMemory) this.session );
+        } catch ( IOException e ) {
+            throw new RuntimeException( "Unable to fork the session " + getId(), e );
+        } catch ( ClassNotFoundException e ) {
+            throw new RuntimeException( "Unable to fork the session " + getId(), e );
+        }
+        StatefulKnowledgeSessionImpl ksession = (StatefulKnowledgeSessionImpl) fork.getKnowledgeRuntime();
+        ksession.kbase = this.kbase;
+        return ksession;
+    }
+
     public ObjectStore getObjectStore() {
         return this.session.getObjectStore();
     }
@@ -284,6 +304,10 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
         return this.session.insert( object );
     }
 
+    public List<org.drools.core.FactHandle> insertAll(Collection<?> objects) {
+        return this.session.insertAll( objects );
+    }
+
     public void retract(FactHandle factHandle) {
         this.session.delete( factHandle );
     }
@@ -435,7 +459,7 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
 
     public void update(FactHandle factHandle,
                        Object object,
-                       long mask,
+                       BitMask mask,
                        Class<?> modifiedClass,
                        Activation activation) throws FactException {
         this.session.update( (org.drools.core.FactHandle) factHandle,
@@ -22,10 +22,15 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.drools.core.SessionConfiguration;
+import org.drools.core.TimerJobFactoryType;
 import org.drools.core.base.MapGlobalResolver;
 import org.drools.core.command.impl.ContextImpl;
 import org.drools.core.command.impl.FixedKnowledgeCommandContext;
@@ -41,6 +46,9 @@ import org.drools.core.event.WorkingMemoryEventSupport;
 import org.drools.core.impl.StatefulKnowledgeSessionImpl.AgendaEventListenerWrapper;
 import org.drools.core.runtime.impl.ExecutionResultImpl;
 import org.drools.core.runtime.process.InternalProcessRuntime;
+import org.drools.core.time.AcceptsTimerJobFactoryManager;
+import org.drools.core.time.impl.TimerJobInstance;
+import org.drools.core.time.impl.TrackableTimeJobFactoryManager;
 import org.kie.api.KieBase;
 import org.kie.api.command.Command;
 import org.kie.api.event.process.ProcessEventListener;
@@ -95,6 +103,11 @@ public class StatelessKnowledgeSessionImpl extends AbstractRuntime
 
     private WorkingMemoryFactory wmFactory;
 
+    /** The sessions reset at the end of an execution and reused by the following ones, null if the pooling is disabled */
+    private transient BlockingQueue<PooledSession> sessionPool;
+    private final AtomicLong createdSessionsCount = new AtomicLong();
+    private final AtomicLong reusedSessionsCount = new AtomicLong();
+
     public StatelessKnowledgeSessionImpl() {
     }
 
@@ -106,6 +119,11 @@ public class StatelessKnowledgeSessionImpl extends AbstractRuntime
         this.conf = (conf != null) ? conf : SessionConfiguration.getDefaultInstance();
         this.environment = EnvironmentFactory.newEnvironment();
         this.wmFactory = ruleBase.getConfiguration().getComponentFactory().getWorkingMemoryFactory();
+
+        int poolSize = ((SessionConfiguration) this.conf).getStatelessSessionPoolSize();
+        if ( poolSize > 0 ) {
+            this.sessionPool = new ArrayBlockingQueue<PooledSession>( poolSize );
+        }
     }
 
     public InternalRuleBase getRuleBase() {
@@ -142,7 +160,7 @@ public class StatelessKnowledgeSessionImpl extends AbstractRuntime
             if (!initialized) {
                 // copy over the default generated listeners that are used for internal stuff once
                 registerSystemListeners(wm);
-                registerCustomListeners();
+                registerCustomListeners( this.agendaEventSupport, this.workingMemoryEventSupport, this.processEventSupport );
                 initialized = true;
             }
 
@@ -190,20 +208,22 @@ public class StatelessKnowledgeSessionImpl extends AbstractRuntime
         }
     }
 
-    private void registerCustomListeners() {
+    private void registerCustomListeners(AgendaEventSupport agendaEventSupport,
+                                         WorkingMemoryEventSupport workingMemoryEventSupport,
+                                         ProcessEventSupport processEventSupport) {
         if ( mappedAgendaListeners != null ) {
             for (org.drools.core.event.AgendaEventListener agendaListener : mappedAgendaListeners.values()) {
-                this.agendaEventSupport.addEventListener( agendaListener );
+                agendaEventSupport.addEventListener( agendaListener );
             }
         }
         if ( mappedWorkingMemoryListeners != null ) {
             for (org.drools.core.event.WorkingMemoryEventListener wmListener : mappedWorkingMemoryListeners.values()) {
-                this.workingMemoryEventSupport.addEventListener( wmListener );
+                workingMemoryEventSupport.addEventListener( wmListener );
             }
         }
         if ( cachedProcessEventListener != null ) {
             for (ProcessEventListener processListener : cachedProcessEventListener) {
-                this.processEventSupport.addEventListener( processListener );
+                processEventSupport.addEventListener( processListener );
             }
         }
     }
@@ -319,7 +339,8 @@ public class StatelessKnowledgeSessionImpl extends AbstractRuntime
     }
 
     public <T> T execute(Command<T> command) {
-        newWorkingMemory();
+        PooledSession pooledSession = borrowSession();
+        StatefulKnowledgeSession ksession = pooledSession != null ? pooledSession.ksession : newWorkingMemory();
 
         FixedKnowledgeCommandContext context = new FixedKnowledgeCommandContext( new ContextImpl( "ksession",
                                                                                                   null ),
@@ -355,30 +376,126 @@ public class StatelessKnowledgeSessionImpl extends AbstractRuntime
             }
         } finally {
             ((StatefulKnowledgeSessionImpl) ksession).session.endBatchExecution();
-            dispose();
+            releaseSession( pooledSession );
         }
     }
 
     public void execute(Object object) {
-        newWorkingMemory();
+        PooledSession pooledSession = borrowSession();
+        StatefulKnowledgeSession ksession = pooledSession != null ? pooledSession.ksession : newWorkingMemory();
         try {
             ksession.insert( object );
             ksession.fireAllRules();
         } finally {
-            dispose();
+            releaseSession( pooledSession );
         }
     }
 
     public void execute(Iterable objects) {
-        newWorkingMemory();
+        PooledSession pooledSession = borrowSession();
+        StatefulKnowledgeSession ksession = pooledSession != null ? pooledSession.ksession : newWorkingMemory();
         try {
             for ( Object object : objects ) {
                 ksession.insert( object );
             }
             ksession.fireAllRules();
         } finally {
+            releaseSession( pooledSession );
+        }
+    }
+
+    /**
+     * Returns the number of sessions currently waiting in the pool
+     */
+    public int getPooledSessionsCount() {
+        return this.sessionPool != null ? this.sessionPool.size() : 0;
+    }
+
+    /**
+     * Returns the number of sessions created by the pooled executions, that is the executions
+     * that didn't find a session in the pool
+     */
+    public long getCreatedSessionsCount() {
+        return this.createdSessionsCount.get();
+    }
+
+    /**
+     * Returns the number of executions that reused a session of the pool
+     */
+    public long getReusedSessionsCount() {
+        return this.reusedSessionsCount.get();
+    }
+
+    /**
+     * Takes a session from the pool, or creates a new one if the pool is empty,
+     * and binds it to the globals, listeners and channels of this stateless session.
+     * Returns null if the pooling is disabled.
+     */
+    private PooledSession borrowSession() {
+        if ( this.sessionPool == null ) {
+            return null;
+        }
+        InternalRuleBase ruleBase = getRuleBase();
+        PooledSession pooledSession;
+        while ( (pooledSession = this.sessionPool.poll()) != null && !pooledSession.isUpToDate( ruleBase ) ) {
+            // the session has been built on a previous version of the network
+            pooledSession.ksession.dispose();
+        }
+
+        if ( pooledSession == null ) {
+            pooledSession = newPooledSession( ruleBase );
+            this.createdSessionsCount.incrementAndGet();
+        } else {
+            this.reusedSessionsCount.incrementAndGet();
+        }
+
+        AbstractWorkingMemory wm = pooledSession.getWorkingMemory();
+        ((Globals) wm.getGlobalResolver()).setDelegate( this.sessionGlobals );
+        // the listeners are registered at each execution, as they may have changed since the previous one
+        registerCustomListeners( pooledSession.agendaEventSupport,
+                                 pooledSession.workingMemoryEventSupport,
+                                 pooledSession.processEventSupport );
+        for ( Map.Entry<String, Channel> entry : this.channels.entrySet() ) {
+            wm.registerChannel( entry.getKey(), entry.getValue() );
+        }
+        return pooledSession;
+    }
+
+    private PooledSession newPooledSession(InternalRuleBase ruleBase) {
+        ruleBase.readLock();
+        try {
+            AbstractWorkingMemory wm = (AbstractWorkingMemory) wmFactory.createWorkingMemory( ruleBase.nextWorkingMemoryCounter(), ruleBase,
+                                                                                              (SessionConfiguration) this.conf, this.environment );
+            if ( ((SessionConfiguration) this.conf).getTimerJobFactoryType() != TimerJobFactoryType.JPA ) {
+                // the default job factory doesn't keep the scheduled jobs, and the one of the configuration
+                // is shared by all its sessions: each pooled session tracks its own jobs, so that a session
+                // still holding some of them is never reused
+                ((AcceptsTimerJobFactoryManager) wm.getTimerService()).setTimerJobFactoryManager( new TrackableTimeJobFactoryManager() );
+            }
+            return new PooledSession( new StatefulKnowledgeSessionImpl( wm, new KnowledgeBaseImpl( ruleBase ) ),
+                                      ruleBase );
+        } finally {
+            ruleBase.readUnlock();
+        }
+    }
+
+    /**
+     * Resets the given session and puts it back in the pool, or disposes it if the pool is full
+     * or if the session still has some pending timers or process instances.
+     * Disposes the session of this stateless session if the given one is null, i.e. if the pooling is disabled.
+     */
+    private void releaseSession(PooledSession pooledSession) {
+        if ( pooledSession == null ) {
             dispose();
+            return;
         }
+        if ( pooledSession.isReusable() ) {
+            pooledSession.reset();
+            if ( this.sessionPool.offer( pooledSession ) ) {
+                return;
+            }
+        }
+        pooledSession.ksession.dispose();
     }
 
     public Environment getEnvironment() {
@@ -405,6 +522,101 @@ public class StatelessKnowledgeSessionImpl extends AbstractRuntime
         ksession = null;
     }
 
+    /**
+     * A session of the pool. It keeps its own event supports, holding the listeners registered by the session
+     * itself plus the ones of the stateless session currently executing it.
+     */
+    private static class PooledSession {
+
+        private final StatefulKnowledgeSessionImpl ksession;
+        private final InternalRuleBase             ruleBase;
+        private final int                          ruleBaseModificationCount;
+
+        private final AgendaEventSupport        agendaEventSupport        = new AgendaEventSupport();
+        private final WorkingMemoryEventSupport workingMemoryEventSupport = new WorkingMemoryEventSupport();
+        private final ProcessEventSupport       processEventSupport       = new ProcessEventSupport();
+
+        private final List<org.drools.core.event.AgendaEventListener>        systemAgendaListeners;
+        private final List<org.drools.core.event.WorkingMemoryEventListener> systemWorkingMemoryListeners;
+        private final List<ProcessEventListener>                             systemProcessListeners;
+
+        private PooledSession(StatefulKnowledgeSessionImpl ksession,
+                              InternalRuleBase ruleBase) {
+            this.ksession = ksession;
+            this.ruleBase = ruleBase;
+            this.ruleBaseModificationCount = ruleBase.getModificationCount();
+
+            AbstractWorkingMemory wm = getWorkingMemory();
+            this.systemAgendaListeners = new ArrayList<org.drools.core.event.AgendaEventListener>( wm.getAgendaEventSupport().getEventListeners() );
+            this.systemWorkingMemoryListeners = new ArrayList<org.drools.core.event.WorkingMemoryEventListener>( wm.getWorkingMemoryEventSupport().getEventListeners() );
+            wm.setAgendaEventSupport( this.agendaEventSupport );
+            wm.setWorkingMemoryEventSupport( this.workingMemoryEventSupport );
+
+            InternalProcessRuntime processRuntime = wm.getProcessRuntime();
+            if ( processRuntime != null ) {
+                this.systemProcessListeners = new ArrayList<ProcessEventListener>( processRuntime.getProcessEventListeners() );
+                processRuntime.setProcessEventSupport( this.processEventSupport );
+            } else {
+                this.systemProcessListeners = Collections.emptyList();
+            }
+            resetEventSupports();
+        }
+
+        private AbstractWorkingMemory getWorkingMemory() {
+            return (AbstractWorkingMemory) this.ksession.getInternalWorkingMemory();
+        }
+
+        private boolean isUpToDate(InternalRuleBase ruleBase) {
+            return this.ruleBase == ruleBase && this.ruleBaseModificationCount == ruleBase.getModificationCount();
+        }
+
+        private boolean isReusable() {
+            if ( !this.ksession.isAlive() ) {
+                return false;
+            }
+            AbstractWorkingMemory wm = getWorkingMemory();
+            // the pending timers, expirations and windows would fire during the executions of the next borrowers
+            Collection<TimerJobInstance> timerJobs = wm.getTimerService().getTimerJobInstances( wm.getId() );
+            if ( timerJobs != null && !timerJobs.isEmpty() ) {
+                return false;
+            }
+            InternalProcessRuntime processRuntime = wm.getProcessRuntime();
+            return processRuntime == null || processRuntime.getProcessInstances().isEmpty();
+        }
+
+        private void resetEventSupports() {
+            this.agendaEventSupport.clear();
+            for ( org.drools.core.event.AgendaEventListener listener : this.systemAgendaListeners ) {
+                this.agendaEventSupport.addEventListener( listener );
+            }
+            this.workingMemoryEventSupport.clear();
+            for ( org.drools.core.event.WorkingMemoryEventListener listener : this.systemWorkingMemoryListeners ) {
+                this.workingMemoryEventSupport.addEventListener( listener );
+            }
+            this.processEventSupport.clear();
+            for ( ProcessEventListener listener : this.systemProcessListeners ) {
+                this.processEventSupport.addEventListener( listener );
+            }
+        }
+
+        /**
+         * Brings the session back to the state it had just after its creation,
+         * without holding any reference to the facts, globals or listeners of the last execution
+         */
+        private void reset() {
+            AbstractWorkingMemory wm = getWorkingMemory();
+            wm.reset( 0, 0, 1, true );
+            Globals globals = (Globals) wm.getGlobalResolver();
+            if ( globals instanceof MapGlobalResolver ) {
+                // forgets the globals set by the commands of the last execution
+                ((MapGlobalResolver) globals).clear();
+            }
+            globals.setDelegate( null );
+            wm.getChannels().clear();
+            resetEventSupports();
+        }
+    }
+
     private static class AgendaEventListenerPlaceholder implements AgendaEventListener {
 
         @Override
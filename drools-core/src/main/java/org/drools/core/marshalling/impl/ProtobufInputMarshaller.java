@@ -147,7 +147,23 @@ public class ProtobufInputMarshaller {
                                                                                 ClassNotFoundException {
 
         ProtobufMessages.KnowledgeSession _session = loadAndParseSession( context );
-        
+
+        return readSession( _session,
+                            context,
+                            id,
+                            environment,
+                            config );
+    }
+
+    /**
+     * Create a new session from an already parsed session message
+     */
+    static AbstractWorkingMemory readSession(ProtobufMessages.KnowledgeSession _session,
+                                             MarshallerReaderContext context,
+                                             int id,
+                                             Environment environment,
+                                             SessionConfiguration config) throws IOException,
+                                                                         ClassNotFoundException {
         AbstractWorkingMemory session = createAndInitializeSession( context,
                                                                     id,
                                                                     environment,
@@ -35,6 +35,7 @@ import org.drools.core.common.ActivationIterator;
 import org.drools.core.common.AgendaGroupQueueImpl;
 import org.drools.core.common.AgendaItem;
 import org.drools.core.common.BaseNode;
+import org.drools.core.common.DefaultAgenda;
 import org.drools.core.common.DefaultFactHandle;
 import org.drools.core.common.EqualityKey;
 import org.drools.core.common.EventFactHandle;
@@ -124,8 +125,14 @@ public class ProtobufOutputMarshaller {
                                                  _session );
     }
 
-    private static ProtobufMessages.KnowledgeSession serializeSession(MarshallerWriteContext context) throws IOException {
+    static ProtobufMessages.KnowledgeSession serializeSession(MarshallerWriteContext context) throws IOException {
         AbstractWorkingMemory wm = (AbstractWorkingMemory) context.wm;
+        if ( wm.getAgenda() instanceof DefaultAgenda && ((DefaultAgenda) wm.getAgenda()).getPendingAsyncConsequences() > 0 ) {
+            // the results of the asynchronous consequences can't be marshalled
+            throw new IllegalStateException( "Unable to marshal the session " + wm.getId() + ": " +
+                                             ((DefaultAgenda) wm.getAgenda()).getPendingAsyncConsequences() +
+                                             " asynchronous consequences are not applied yet, wait for them and fire the rules first" );
+        }
         wm.getAgenda().unstageActivations();
         
         evaluateRuleActivations( wm );
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.marshalling.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Map;
+
+import org.drools.core.SessionConfiguration;
+import org.drools.core.base.MapGlobalResolver;
+import org.drools.core.common.AbstractWorkingMemory;
+import org.drools.core.common.BaseNode;
+import org.drools.core.common.DroolsObjectInputStream;
+import org.drools.core.common.InternalRuleBase;
+import org.drools.core.impl.EnvironmentImpl;
+import org.drools.core.reteoo.ReteooRuleBase;
+import org.kie.api.marshalling.ObjectMarshallingStrategy;
+import org.kie.api.runtime.EnvironmentName;
+
+/**
+ * Creates a snapshot copy of a populated session.
+ *
+ * The beta and segment memories can't be shared copy-on-write, since the tuples are linked to their fact
+ * handles and to each other, so the fork is built reading the protobuf message of the session straight from the
+ * objects created by the ProtobufOutputMarshaller: nothing is written to or parsed from a byte stream but the fact
+ * objects, which are copied with java serialization, so that a fact modified in the fork doesn't change the indexes
+ * of the original session. The facts must therefore be Serializable, and the cost of a fork is linear in the number
+ * of facts of the session: they are all copied and propagated again.
+ *
+ * The original session is locked while it is copied. As for its marshalling, its pending rule evaluations are
+ * flushed first. The event listeners and the channels are not copied, and the globals are copied by reference.
+ */
+public class SessionForker {
+
+    public static AbstractWorkingMemory fork(AbstractWorkingMemory session) throws IOException,
+                                                                            ClassNotFoundException {
+        InternalRuleBase ruleBase = (InternalRuleBase) session.getRuleBase();
+        Map<Integer, BaseNode> nodes = RuleBaseNodes.getNodeMap( ruleBase );
+        ObjectMarshallingStrategy strategy = new SerializablePlaceholderResolverStrategy( ClassObjectMarshallingStrategyAcceptor.DEFAULT );
+        ObjectMarshallingStrategyStoreImpl strategyStore = new ObjectMarshallingStrategyStoreImpl( new ObjectMarshallingStrategy[]{strategy} );
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        MarshallerWriteContext out = new MarshallerWriteContext( baos,
+                                                                 ruleBase,
+                                                                 session,
+                                                                 nodes,
+                                                                 strategyStore,
+                                                                 true,
+                                                                 true,
+                                                                 session.getEnvironment() );
+        ProtobufMessages.KnowledgeSession _session;
+        MarshallerReaderContext in;
+        session.getLock().lock();
+        ruleBase.readLock();
+        try {
+            out.clockTime = session.getTimerService().getCurrentTime();
+            _session = ProtobufOutputMarshaller.serializeSession( out );
+            // only the stream header has been written, the reader context expects to find it
+            out.close();
+
+            in = new MarshallerReaderContext( new ByteArrayInputStream( baos.toByteArray() ),
+                                              ruleBase,
+                                              nodes,
+                                              strategyStore,
+                                              ProtobufMarshaller.TIMER_READERS,
+                                              true,
+                                              true,
+                                              session.getEnvironment() );
+            for ( Map.Entry<ObjectMarshallingStrategy, Integer> entry : out.usedStrategies.entrySet() ) {
+                in.usedStrategies.put( entry.getValue(),
+                                       entry.getKey() );
+            }
+            copyStrategyContexts( out,
+                                  in,
+                                  ruleBase.getRootClassLoader() );
+        } finally {
+            ruleBase.readUnlock();
+            session.getLock().unlock();
+        }
+
+        SessionConfiguration config = session.getSessionConfiguration();
+        AbstractWorkingMemory fork = ProtobufInputMarshaller.readSession( _session,
+                                                                          in,
+                                                                          ruleBase.nextWorkingMemoryCounter(),
+                                                                          createEnvironment( session ),
+                                                                          config );
+        in.close();
+
+        if ( config.isKeepReference() ) {
+            ((ReteooRuleBase) ruleBase).addStatefulSession( fork );
+        }
+        return fork;
+    }
+
+    /**
+     * Serializes the objects collected by the strategies in a single stream, preserving the references between them
+     */
+    private static void copyStrategyContexts(MarshallerWriteContext out,
+                                             MarshallerReaderContext in,
+                                             ClassLoader classLoader) throws IOException,
+                                                                     ClassNotFoundException {
+        for ( Map.Entry<ObjectMarshallingStrategy, ObjectMarshallingStrategy.Context> entry : out.strategyContext.entrySet() ) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream oos = new ObjectOutputStream( bytes );
+            entry.getValue().write( oos );
+            oos.close();
+
+            ObjectMarshallingStrategy.Context context = entry.getKey().createContext();
+            ObjectInputStream ois = new DroolsObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ),
+                                                                 classLoader );
+            context.read( ois );
+            ois.close();
+            in.strategyContexts.put( entry.getKey(),
+                                     context );
+        }
+    }
+
+    /**
+     * The fork gets its own globals, so that setting one of them doesn't affect the original session
+     */
+    private static EnvironmentImpl createEnvironment(AbstractWorkingMemory session) {
+        MapGlobalResolver globals = new MapGlobalResolver();
+        for ( String identifier : ((InternalRuleBase) session.getRuleBase()).getGlobals().keySet() ) {
+            Object value = session.getGlobal( identifier );
+            if ( value != null ) {
+                globals.setGlobal( identifier,
+                                   value );
+            }
+        }
+
+        EnvironmentImpl environment = new EnvironmentImpl();
+        environment.setDelegate( session.getEnvironment() );
+        environment.set( EnvironmentName.GLOBALS,
+                         globals );
+        return environment;
+    }
+}
@@ -7,7 +7,6 @@ import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.common.LeftTupleSets;
 import org.drools.core.common.Memory;
 import org.drools.core.common.MemoryFactory;
-import org.drools.core.common.PropagationContextFactory;
 import org.drools.core.common.RightTupleSets;
 import org.drools.core.common.SynchronizedLeftTupleSets;
 import org.drools.core.reteoo.AbstractTerminalNode;
@@ -18,7 +17,6 @@ import org.drools.core.reteoo.BetaMemory;
 import org.drools.core.reteoo.BetaNode;
 import org.drools.core.reteoo.FromNode.FromMemory;
 import org.drools.core.reteoo.LeftInputAdapterNode;
-import org.drools.core.reteoo.LeftInputAdapterNode.RightTupleSinkAdapter;
 import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.reteoo.LeftTupleMemory;
 import org.drools.core.reteoo.LeftTupleSink;
@@ -37,7 +35,6 @@ import org.drools.core.reteoo.RightTupleMemory;
 import org.drools.core.reteoo.SegmentMemory;
 import org.drools.core.reteoo.TerminalNode;
 import org.drools.core.rule.Rule;
-import org.drools.core.spi.PropagationContext;
 import org.drools.core.util.FastIterator;
 import org.drools.core.util.Iterator;
 import org.drools.core.util.LinkedList;
@@ -57,6 +54,15 @@ public class AddRemoveRule {
     private static final Logger log = LoggerFactory.getLogger(AddRemoveRule.class);
 
     public static void addRule(TerminalNode tn, InternalWorkingMemory[] wms, InternalRuleBase ruleBase) {
+        RuleAdditionBatch batch = new RuleAdditionBatch();
+        addRule( tn, wms, ruleBase, batch );
+        batch.insertFacts( wms );
+    }
+
+    /**
+     * Adds the rule to the segments of the sessions, leaving the propagation of their facts to the given batch
+     */
+    public static void addRule(TerminalNode tn, InternalWorkingMemory[] wms, InternalRuleBase ruleBase, RuleAdditionBatch batch) {
         if ( log.isTraceEnabled() ) {
             log.trace("Adding Rule {}", tn.getRule().getName() );
         }
@@ -64,6 +70,15 @@ public class AddRemoveRule {
 
         ((ReteooRuleBase)ruleBase).invalidateSegmentPrototype(splitStartLeftTupleSource);
 
+        LeftInputAdapterNode liaNode = null;
+        if (NodeTypeEnums.LeftInputAdapterNode == splitStartLeftTupleSource.getType() && splitStartLeftTupleSource.getAssociations().size() == 1) {
+            // rule added with no sharing
+            liaNode = (LeftInputAdapterNode) splitStartLeftTupleSource;
+        }
+        List<BetaNode> betaNodes = new ArrayList<BetaNode>();
+        collectBetaNodes( splitStartLeftTupleSource.getSinkPropagator().getLastLeftTupleSink(), betaNodes );
+        batch.add( liaNode, betaNodes );
+
         for (InternalWorkingMemory wm : wms) {
 
             if (splitStartLeftTupleSource.getAssociations().size() > 1) {
@@ -110,13 +125,6 @@ public class AddRemoveRule {
                     correctSegmentBeforeSplitOnAdd(wm, newPmem, 0, pathMems.get(0), sm);
                 }
             }
-
-            if (NodeTypeEnums.LeftInputAdapterNode == splitStartLeftTupleSource.getType() && splitStartLeftTupleSource.getAssociations().size() == 1) {
-                // rule added with no sharing
-                insertLiaFacts(splitStartLeftTupleSource, wm);
-            }
-
-            insertFacts( splitStartLeftTupleSource.getSinkPropagator().getLastLeftTupleSink(), wm);
         }
     }
 
@@ -125,6 +133,12 @@ public class AddRemoveRule {
              log.trace("Removing Rule {}", tn.getRule().getName() );
          }
 
+         // the rules added so far must get their facts while all their nodes are still in the network
+         RuleAdditionBatch batch = ((ReteooRuleBase)ruleBase).getRuleAdditionBatch();
+         if ( batch != null && !batch.isEmpty() ) {
+             batch.insertFacts( wms );
+         }
+
          LeftTupleSource splitStartNode = getNetworkSplitPoint(tn);
 
          ((ReteooRuleBase)ruleBase).invalidateSegmentPrototype(splitStartNode);
@@ -438,28 +452,18 @@ public class AddRemoveRule {
          return counter;
      }
 
-    private static void insertLiaFacts(LeftTupleSource startNode, InternalWorkingMemory wm) {
-        // rule added with no sharing
-        PropagationContextFactory pctxFactory =((InternalRuleBase)wm.getRuleBase()).getConfiguration().getComponentFactory().getPropagationContextFactory();
-        final PropagationContext pctx = pctxFactory.createPropagationContext(wm.getNextPropagationIdCounter(), PropagationContext.RULE_ADDITION, null, null, null);
-        LeftInputAdapterNode lian = (LeftInputAdapterNode) startNode;
-        RightTupleSinkAdapter liaAdapter = new RightTupleSinkAdapter(lian);
-        lian.getObjectSource().updateSink(liaAdapter, pctx, wm);
-    }
-
-    private static void insertFacts(LeftTupleSink startNode, InternalWorkingMemory wm) {
+    /**
+     * Collects the beta nodes from the given one to the end of the rule, which need the existing facts on their right input
+     */
+    private static void collectBetaNodes(LeftTupleSink startNode, List<BetaNode> betaNodes) {
         LeftTupleSink lts =  startNode;
-        PropagationContextFactory pctxFactory =((InternalRuleBase)wm.getRuleBase()).getConfiguration().getComponentFactory().getPropagationContextFactory();
         while (!NodeTypeEnums.isTerminalNode(lts) && lts.getLeftTupleSource().getType() != NodeTypeEnums.RightInputAdaterNode ) {
             if (NodeTypeEnums.isBetaNode(lts)) {
                 BetaNode bn = (BetaNode) lts;
                 if (!bn.isRightInputIsRiaNode() ) {
-                    final PropagationContext pctx = pctxFactory.createPropagationContext(wm.getNextPropagationIdCounter(), PropagationContext.RULE_ADDITION, null, null, null);
-                    bn.getRightInput().updateSink(bn,
-                                                  pctx,
-                                                  wm);
+                    betaNodes.add(bn);
                 } else {
-                    insertSubnetworkFacts(bn, wm);
+                    collectSubnetworkBetaNodes(bn, betaNodes);
                 }
             } else if ( lts.getType() == NodeTypeEnums.RightInputAdaterNode ) {
                 // no need to delete anything, as this gets popagated during the rule evaluation
@@ -469,13 +473,13 @@ public class AddRemoveRule {
         }
     }
 
-    private static void insertSubnetworkFacts(BetaNode bn, InternalWorkingMemory wm) {
+    private static void collectSubnetworkBetaNodes(BetaNode bn, List<BetaNode> betaNodes) {
         RightInputAdapterNode rian = ( RightInputAdapterNode ) bn.getRightInput();
         LeftTupleSource subLts =  rian.getLeftTupleSource();
         while ( subLts.getLeftTupleSource() != rian.getStartTupleSource() ) {
             subLts = subLts.getLeftTupleSource();
         }
-        insertFacts( ( LeftTupleSink ) subLts, wm);
+        collectBetaNodes( ( LeftTupleSink ) subLts, betaNodes);
     }
 
     private static void deleteLiaFacts(LeftTupleSource startNode, InternalWorkingMemory wm) {
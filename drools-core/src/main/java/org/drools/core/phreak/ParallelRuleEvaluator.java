@@ -0,0 +1,251 @@
+package org.drools.core.phreak;
+
+import org.drools.core.common.InternalAgendaGroup;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.concurrent.ExecutorProviderImpl;
+import org.drools.core.reteoo.BetaNode;
+import org.drools.core.reteoo.LeftTupleSource;
+import org.drools.core.reteoo.NodeTypeEnums;
+import org.drools.core.reteoo.NotNode;
+import org.drools.core.reteoo.PathMemory;
+import org.drools.core.reteoo.SegmentMemory;
+import org.drools.core.reteoo.TerminalNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Evaluates the dirty rules of an agenda group concurrently, when multithread evaluation is enabled.
+ *
+ * Rules whose paths start from the same LeftInputAdapterNode share at least their root segment, so they
+ * are grouped in the same partition and evaluated sequentially by the same task. Partitions do not share
+ * any segment, so they can be evaluated in parallel.
+ *
+ * Terminal nodes are never evaluated concurrently: the tuples reaching them are deferred and processed
+ * on the calling agenda thread, in rule load order, so conflict resolution and firing stay deterministic.
+ * Rules whose evaluation may touch the agenda or the working memory (queries, timers, subnetworks,
+ * conditional branches) are left to the normal lazy evaluation.
+ */
+public class ParallelRuleEvaluator {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelRuleEvaluator.class);
+
+    private final Executor executor;
+    private final int      maxThreads;
+
+    public ParallelRuleEvaluator(int maxThreads) {
+        this.executor = new ExecutorProviderImpl().getExecutor();
+        this.maxThreads = maxThreads > 0 ? maxThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    /**
+     * Evaluates the given rules made dirty since the last evaluation, so that its cost doesn't depend on the size of
+     * the group. The rules of the other groups, or already evaluated lazily, are skipped.
+     */
+    public void evaluate(InternalAgendaGroup group, List<RuleAgendaItem> dirtyItems, InternalWorkingMemory wm) {
+        if (maxThreads < 2 || dirtyItems.size() < 2) {
+            return;
+        }
+
+        List<RuleExecutor> candidates = new ArrayList<RuleExecutor>();
+        Set<RuleExecutor> added = Collections.newSetFromMap(new IdentityHashMap<RuleExecutor, Boolean>());
+        for (RuleAgendaItem item : dirtyItems) {
+            RuleExecutor ruleExecutor = item.getRuleExecutor();
+            if (item.isQueued() && item.getAgendaGroup() == group && ruleExecutor.isDirty() &&
+                isConcurrentlyEvaluable(ruleExecutor.getPathMemory()) && added.add(ruleExecutor)) {
+                candidates.add(ruleExecutor);
+            }
+        }
+        if (candidates.size() < 2) {
+            return;
+        }
+        Collections.sort(candidates, LoadOrderComparator.INSTANCE);
+
+        List<List<RuleExecutor>> partitions = partition(candidates);
+        if (partitions.size() < 2) {
+            // all the rules share the same segments, leave them to the lazy evaluation
+            return;
+        }
+
+        List<EvaluationTask> tasks = assignTasks(partitions, wm);
+        if (log.isTraceEnabled()) {
+            log.trace("Evaluating {} rules in {} partitions with {} tasks", candidates.size(), partitions.size(), tasks.size());
+        }
+
+        List<FutureTask<Void>> futures = new ArrayList<FutureTask<Void>>(tasks.size() - 1);
+        for (int i = 1; i < tasks.size(); i++) {
+            FutureTask<Void> future = new FutureTask<Void>(tasks.get(i));
+            futures.add(future);
+            executor.execute(future);
+        }
+
+        RuntimeException failure = null;
+        try {
+            tasks.get(0).call();
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+
+        // all tasks must be completed before continuing, as they are still mutating the network
+        for (FutureTask<Void> future : futures) {
+            RuntimeException e = waitFor(future);
+            if (failure == null) {
+                failure = e;
+            }
+        }
+
+        for (RuleExecutor ruleExecutor : candidates) {
+            ruleExecutor.evaluateDeferredTerminalNode(wm);
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    public static boolean isConcurrentlyEvaluable(PathMemory pmem) {
+        if (pmem.getTupleQueue() != null || pmem.getNetworkNode().getType() != NodeTypeEnums.RuleTerminalNode) {
+            return false;
+        }
+
+        SegmentMemory[] smems = pmem.getSegmentMemories();
+        for (int i = 0; i < smems.length; i++) {
+            if (smems[i] == null || (i < smems.length - 1 && smems[i].isEmpty())) {
+                // child segments would be lazily created during the evaluation
+                return false;
+            }
+        }
+
+        for (LeftTupleSource lts = ((TerminalNode) pmem.getNetworkNode()).getLeftTupleSource();
+             lts.getType() != NodeTypeEnums.LeftInputAdapterNode;
+             lts = lts.getLeftTupleSource()) {
+            switch (lts.getType()) {
+                case NodeTypeEnums.JoinNode:
+                case NodeTypeEnums.ExistsNode:
+                case NodeTypeEnums.AccumulateNode:
+                case NodeTypeEnums.EvalConditionNode:
+                case NodeTypeEnums.FromNode:
+                    break;
+                case NodeTypeEnums.NotNode:
+                    if (((NotNode) lts).isEmptyBetaConstraints()) {
+                        // right inserts can unlink the rule during the evaluation, which would modify the agenda
+                        return false;
+                    }
+                    break;
+                default:
+                    return false;
+            }
+            if (NodeTypeEnums.isBetaNode(lts) && ((BetaNode) lts).isRightInputIsRiaNode()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<List<RuleExecutor>> partition(List<RuleExecutor> candidates) {
+        // segments are organized as a tree, so two paths share a segment only if they share the root one
+        Map<SegmentMemory, List<RuleExecutor>> partitionsByRoot = new IdentityHashMap<SegmentMemory, List<RuleExecutor>>();
+        List<List<RuleExecutor>> partitions = new ArrayList<List<RuleExecutor>>();
+        for (RuleExecutor ruleExecutor : candidates) {
+            SegmentMemory root = ruleExecutor.getPathMemory().getSegmentMemories()[0];
+            List<RuleExecutor> partition = partitionsByRoot.get(root);
+            if (partition == null) {
+                partition = new ArrayList<RuleExecutor>();
+                partitionsByRoot.put(root, partition);
+                partitions.add(partition);
+            }
+            partition.add(ruleExecutor);
+        }
+        return partitions;
+    }
+
+    private List<EvaluationTask> assignTasks(List<List<RuleExecutor>> partitions, InternalWorkingMemory wm) {
+        int taskNr = Math.min(maxThreads, partitions.size());
+        List<EvaluationTask> tasks = new ArrayList<EvaluationTask>(taskNr);
+        for (int i = 0; i < taskNr; i++) {
+            tasks.add(new EvaluationTask(wm));
+        }
+        for (List<RuleExecutor> partition : partitions) {
+            // give each partition to the least loaded task
+            EvaluationTask target = tasks.get(0);
+            for (int i = 1; i < taskNr; i++) {
+                if (tasks.get(i).size() < target.size()) {
+                    target = tasks.get(i);
+                }
+            }
+            target.addAll(partition);
+        }
+        return tasks;
+    }
+
+    private static RuntimeException waitFor(FutureTask<Void> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    future.get();
+                    return null;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    return cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class EvaluationTask implements Callable<Void> {
+        private final List<RuleExecutor>    ruleExecutors = new ArrayList<RuleExecutor>();
+        private final InternalWorkingMemory wm;
+
+        private EvaluationTask(InternalWorkingMemory wm) {
+            this.wm = wm;
+        }
+
+        private void addAll(List<RuleExecutor> partition) {
+            ruleExecutors.addAll(partition);
+        }
+
+        private int size() {
+            return ruleExecutors.size();
+        }
+
+        public Void call() {
+            for (RuleExecutor ruleExecutor : ruleExecutors) {
+                ruleExecutor.evaluateNetworkDeferringTerminalNode(wm);
+            }
+            return null;
+        }
+    }
+
+    private static class LoadOrderComparator implements Comparator<RuleExecutor> {
+
+        private static final LoadOrderComparator INSTANCE = new LoadOrderComparator();
+
+        public int compare(RuleExecutor e1, RuleExecutor e2) {
+            int l1 = e1.getRuleAgendaItem().getRule().getLoadOrder();
+            int l2 = e2.getRuleAgendaItem().getRule().getLoadOrder();
+            return l1 < l2 ? -1 : (l1 == l2 ? 0 : 1);
+        }
+    }
+}
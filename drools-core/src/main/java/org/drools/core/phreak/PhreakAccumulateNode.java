@@ -22,6 +22,10 @@ import org.drools.core.spi.PropagationContext;
 import org.drools.core.util.AbstractHashTable;
 import org.drools.core.util.FastIterator;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
 /**
 * Created with IntelliJ IDEA.
 * User: mdproctor
@@ -627,6 +631,9 @@ public class PhreakAccumulateNode {
                                LeftTupleSets trgLeftTuples) {
         RightTupleMemory rtm = am.getBetaMemory().getRightTupleMemory();
         Accumulate accumulate = accNode.getAccumulate();
+        // when the accumulate can't reverse, each left tuple losing some matches is re-accumulated only once,
+        // after all the deletes of the batch (e.g. a whole pane expired by a sliding window) have been removed
+        Set<LeftTuple> dirtyLeftTuples = accumulate.supportsReverse() ? null : Collections.newSetFromMap(new IdentityHashMap<LeftTuple, Boolean>());
 
         for (RightTuple rightTuple = srcRightTuples.getDeleteFirst(); rightTuple != null; ) {
             RightTuple next = rightTuple.getStagedNext();
@@ -642,7 +649,11 @@ public class PhreakAccumulateNode {
 
                         LeftTuple leftTuple = match.getLeftParent();
                         final AccumulateContext accctx = (AccumulateContext) leftTuple.getObject();
-                        removeMatch(accNode, accumulate, rightTuple, match, wm, am, accctx, true);
+                        removeMatch(accNode, accumulate, rightTuple, match, wm, am, accctx, false);
+
+                        if (dirtyLeftTuples != null) {
+                            dirtyLeftTuples.add(leftTuple);
+                        }
 
                         if (leftTuple.getStagedType() == LeftTuple.NONE) {
                             trgLeftTuples.addUpdate(leftTuple);
@@ -656,6 +667,17 @@ public class PhreakAccumulateNode {
             rightTuple.clearStaged();
             rightTuple = next;
         }
+
+        if (dirtyLeftTuples != null) {
+            for (LeftTuple leftTuple : dirtyLeftTuples) {
+                reaccumulateForLeftTuple(accNode,
+                                         accumulate,
+                                         leftTuple,
+                                         wm,
+                                         am,
+                                         (AccumulateContext) leftTuple.getObject());
+            }
+        }
     }
 
     public void evaluateResultConstraints(final AccumulateNode accNode,
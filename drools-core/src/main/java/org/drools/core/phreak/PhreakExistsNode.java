@@ -452,6 +452,7 @@ public class PhreakExistsNode {
             }
 
             leftTuple.clearStaged();
+            bm.recycleLeftTuple(leftTuple, existsNode);
             leftTuple = next;
         }
     }
@@ -528,6 +529,7 @@ public class PhreakExistsNode {
             }
             rightTuple.nullBlocked();
             rightTuple.clearStaged();
+            bm.recycleRightTuple(rightTuple);
             rightTuple = next;
         }
     }
@@ -419,6 +419,7 @@ public class PhreakJoinNode {
                 }
             }
             leftTuple.clearStaged();
+            bm.recycleLeftTuple(leftTuple, joinNode);
             leftTuple = next;
         }
     }
@@ -447,6 +448,7 @@ public class PhreakJoinNode {
                 }
             }
             rightTuple.clearStaged();
+            bm.recycleRightTuple(rightTuple);
             rightTuple = next;
         }
     }
@@ -455,6 +455,7 @@ public class PhreakNotNode {
                 blocker.removeBlocked(leftTuple);
             }
             leftTuple.clearStaged();
+            bm.recycleLeftTuple(leftTuple, notNode);
             leftTuple = next;
         }
     }
@@ -530,6 +531,7 @@ public class PhreakNotNode {
 
             rightTuple.nullBlocked();
             rightTuple.clearStaged();
+            bm.recycleRightTuple(rightTuple);
             rightTuple = next;
         }
 
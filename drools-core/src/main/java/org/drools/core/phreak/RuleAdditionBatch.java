@@ -0,0 +1,210 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.phreak;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.InternalRuleBase;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.common.PropagationContextFactory;
+import org.drools.core.common.RuleBasePartitionId;
+import org.drools.core.reteoo.AlphaNode;
+import org.drools.core.reteoo.AlphaNode.AlphaMemory;
+import org.drools.core.reteoo.BetaNode;
+import org.drools.core.reteoo.LeftInputAdapterNode;
+import org.drools.core.reteoo.LeftInputAdapterNode.RightTupleSinkAdapter;
+import org.drools.core.reteoo.ModifyPreviousTuples;
+import org.drools.core.reteoo.NodeTypeEnums;
+import org.drools.core.reteoo.ObjectSink;
+import org.drools.core.reteoo.ObjectSource;
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.drools.core.spi.RuleComponent;
+import org.drools.core.rule.Rule;
+import org.drools.core.spi.PropagationContext;
+
+/**
+ * The propagations of the existing facts into the rules added by a change-set. AddRemoveRule restructures the
+ * segments as soon as each rule is attached, as the split of a segment depends on the network built so far, while
+ * the facts are only propagated when the batch is flushed, once the whole change-set is in the network.
+ *
+ * This way the segments of the new rules are created once, with their final shape, and the facts of each
+ * ObjectTypeNode are iterated once for all the new right inputs it feeds, instead of once for each of them.
+ */
+public class RuleAdditionBatch {
+
+    private List<AddedRule> addedRules = new ArrayList<AddedRule>();
+
+    /**
+     * Records the nodes of a rule needing the existing facts: the LeftInputAdapterNode of a rule sharing no node,
+     * or null, and the beta nodes created by the rule
+     */
+    void add(LeftInputAdapterNode liaNode,
+             List<BetaNode> betaNodes) {
+        addedRules.add( new AddedRule( liaNode, betaNodes ) );
+    }
+
+    public boolean isEmpty() {
+        return addedRules.isEmpty();
+    }
+
+    /**
+     * Propagates the facts of the sessions into the rules added so far, then empties this batch
+     */
+    public void insertFacts(InternalWorkingMemory[] wms) {
+        List<AddedRule> rules = addedRules;
+        addedRules = new ArrayList<AddedRule>();
+
+        for ( InternalWorkingMemory wm : wms ) {
+            PropagationContextFactory pctxFactory = ((InternalRuleBase) wm.getRuleBase()).getConfiguration().getComponentFactory().getPropagationContextFactory();
+
+            for ( AddedRule rule : rules ) {
+                if ( rule.liaNode != null ) {
+                    PropagationContext pctx = pctxFactory.createPropagationContext( wm.getNextPropagationIdCounter(), PropagationContext.RULE_ADDITION, null, null, null );
+                    rule.liaNode.getObjectSource().updateSink( new RightTupleSinkAdapter( rule.liaNode ), pctx, wm );
+                }
+            }
+
+            Map<ObjectTypeNode, List<ObjectSink>> sinksByOtn = new LinkedHashMap<ObjectTypeNode, List<ObjectSink>>();
+            Set<BetaNode> visited = new HashSet<BetaNode>();
+            for ( AddedRule rule : rules ) {
+                for ( BetaNode bn : rule.betaNodes ) {
+                    if ( visited.add( bn ) ) {
+                        collectSink( bn, sinksByOtn, pctxFactory, wm );
+                    }
+                }
+            }
+
+            for ( Map.Entry<ObjectTypeNode, List<ObjectSink>> entry : sinksByOtn.entrySet() ) {
+                List<ObjectSink> sinks = entry.getValue();
+                PropagationContext pctx = pctxFactory.createPropagationContext( wm.getNextPropagationIdCounter(), PropagationContext.RULE_ADDITION, null, null, null );
+                entry.getKey().updateSink( sinks.size() == 1 ? sinks.get( 0 ) : new ObjectSinkFanOut( sinks ), pctx, wm );
+            }
+        }
+    }
+
+    /**
+     * Wraps the beta node with the constraints of the alpha nodes between it and its ObjectTypeNode, as done by
+     * their updateSink(), so that it can be fed with the other sinks of the same ObjectTypeNode. A right input
+     * not made only of alpha nodes is updated on its own.
+     */
+    private static void collectSink(BetaNode bn,
+                                    Map<ObjectTypeNode, List<ObjectSink>> sinksByOtn,
+                                    PropagationContextFactory pctxFactory,
+                                    InternalWorkingMemory wm) {
+        ObjectSink sink = bn;
+        ObjectSource source = bn.getRightInput();
+        while ( source.getType() == NodeTypeEnums.AlphaNode ) {
+            AlphaNode alphaNode = (AlphaNode) source;
+            sink = new AlphaNode.ObjectSinkUpdateAdapter( sink,
+                                                          alphaNode.getConstraint(),
+                                                          ((AlphaMemory) wm.getNodeMemory( alphaNode )).context );
+            source = source.getParentObjectSource();
+        }
+
+        if ( source.getType() == NodeTypeEnums.ObjectTypeNode ) {
+            List<ObjectSink> sinks = sinksByOtn.get( source );
+            if ( sinks == null ) {
+                sinks = new ArrayList<ObjectSink>();
+                sinksByOtn.put( (ObjectTypeNode) source, sinks );
+            }
+            sinks.add( sink );
+        } else {
+            PropagationContext pctx = pctxFactory.createPropagationContext( wm.getNextPropagationIdCounter(), PropagationContext.RULE_ADDITION, null, null, null );
+            bn.getRightInput().updateSink( bn, pctx, wm );
+        }
+    }
+
+    private static class AddedRule {
+        private final LeftInputAdapterNode liaNode;
+        private final List<BetaNode>       betaNodes;
+
+        private AddedRule(LeftInputAdapterNode liaNode,
+                          List<BetaNode> betaNodes) {
+            this.liaNode = liaNode;
+            this.betaNodes = betaNodes;
+        }
+    }
+
+    private static class ObjectSinkFanOut
+        implements
+        ObjectSink {
+        private final List<ObjectSink> sinks;
+
+        private ObjectSinkFanOut(List<ObjectSink> sinks) {
+            this.sinks = sinks;
+        }
+
+        public void assertObject(InternalFactHandle factHandle,
+                                 PropagationContext propagationContext,
+                                 InternalWorkingMemory workingMemory) {
+            for ( ObjectSink sink : sinks ) {
+                sink.assertObject( factHandle,
+                                   propagationContext,
+                                   workingMemory );
+            }
+        }
+
+        public void modifyObject(InternalFactHandle factHandle,
+                                 ModifyPreviousTuples modifyPreviousTuples,
+                                 PropagationContext context,
+                                 InternalWorkingMemory workingMemory) {
+            throw new UnsupportedOperationException( "ObjectSinkFanOut only supports assertObject method calls" );
+        }
+
+        public void byPassModifyToBetaNode(InternalFactHandle factHandle,
+                                           ModifyPreviousTuples modifyPreviousTuples,
+                                           PropagationContext context,
+                                           InternalWorkingMemory workingMemory) {
+            throw new UnsupportedOperationException();
+        }
+
+        public int getId() {
+            return 0;
+        }
+
+        public RuleBasePartitionId getPartitionId() {
+            return sinks.get( 0 ).getPartitionId();
+        }
+
+        public short getType() {
+            return sinks.get( 0 ).getType();
+        }
+
+        public Map<Rule, RuleComponent> getAssociations() {
+            return sinks.get( 0 ).getAssociations();
+        }
+
+        public void writeExternal(ObjectOutput out) throws IOException {
+            // this is a short living adapter class, so no need for serialization
+        }
+
+        public void readExternal(ObjectInput in) throws IOException,
+                                                ClassNotFoundException {
+            // this is a short living adapter class, so no need for serialization
+        }
+    }
+}
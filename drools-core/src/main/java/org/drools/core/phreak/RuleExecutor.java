@@ -14,6 +14,7 @@ import org.drools.core.reteoo.PathMemory;
 import org.drools.core.reteoo.RuleTerminalNode;
 import org.drools.core.reteoo.RuleTerminalNodeLeftTuple;
 import org.drools.core.reteoo.SegmentMemory;
+import org.drools.core.reteoo.TerminalNode;
 import org.drools.core.rule.Rule;
 import org.drools.core.spi.Activation;
 import org.drools.core.spi.AgendaFilter;
@@ -36,6 +37,8 @@ public class RuleExecutor {
     private volatile boolean                  dirty;
     private boolean                           declarativeAgendaEnabled;
     private boolean                           fireExitedEarly;
+    private boolean                           deferTerminalNode;
+    private LeftTupleSets                     deferredTerminalTuples;
 
     public RuleExecutor(final PathMemory pmem,
             RuleAgendaItem ruleAgendaItem,
@@ -55,6 +58,41 @@ public class RuleExecutor {
         wm.executeQueuedActions();
     }
 
+    /**
+     * Evaluates the network for this rule, but leaves the tuples reaching the terminal node staged,
+     * so that they can be later processed by the agenda thread through evaluateDeferredTerminalNode.
+     * This is used when the network of independent rules is evaluated concurrently.
+     */
+    public synchronized void evaluateNetworkDeferringTerminalNode(InternalWorkingMemory wm) {
+        setDirty(false);
+        deferTerminalNode = true;
+        try {
+            NETWORK_EVALUATOR.evaluateNetwork(pmem, null, this, wm);
+        } finally {
+            deferTerminalNode = false;
+        }
+    }
+
+    public synchronized void evaluateDeferredTerminalNode(InternalWorkingMemory wm) {
+        if (deferredTerminalTuples != null) {
+            LeftTupleSets srcTuples = deferredTerminalTuples;
+            deferredTerminalTuples = null;
+            NETWORK_EVALUATOR.evaluateTerminalNode((TerminalNode) pmem.getNetworkNode(), srcTuples, this, wm);
+        }
+    }
+
+    public boolean isDeferTerminalNode() {
+        return deferTerminalNode;
+    }
+
+    public void deferTerminalTuples(LeftTupleSets srcTuples) {
+        if (deferredTerminalTuples == null) {
+            deferredTerminalTuples = srcTuples;
+        } else {
+            deferredTerminalTuples.addAll(srcTuples);
+        }
+    }
+
     public synchronized int evaluateNetworkAndFire(InternalWorkingMemory wm,
             final AgendaFilter filter,
             int fireCount,
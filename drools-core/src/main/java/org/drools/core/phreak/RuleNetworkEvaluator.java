@@ -116,6 +116,13 @@ public class RuleNetworkEvaluator {
         outerEval(liaNode, pmem, node, bit, nodeMem, smems, smemIndex, srcTuples, wm, stack, outerStack, visitedRules, true, executor);
     }
 
+    public void evaluateTerminalNode(TerminalNode rtn, LeftTupleSets srcTuples, RuleExecutor executor, InternalWorkingMemory wm) {
+        pRtNode.doNode(rtn,
+                       wm,
+                       srcTuples,
+                       executor);
+    }
+
     public static String indent(int size) {
         StringBuilder sbuilder = new StringBuilder();
         for (int i = 0; i < size; i++) {
@@ -312,6 +319,9 @@ public class RuleNetworkEvaluator {
                                    wm,
                                    srcTuples,
                                    stack);
+                } else if (executor.isDeferTerminalNode()) {
+                    // concurrent evaluation, the agenda thread will process the terminal node
+                    executor.deferTerminalTuples(srcTuples);
                 } else {
                     pRtNode.doNode(rtn,
                                    wm,
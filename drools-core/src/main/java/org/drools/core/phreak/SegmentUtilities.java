@@ -187,6 +187,8 @@ public class SegmentUtilities {
                 smem.setStagedTuples( new SynchronizedLeftTupleSets() );
         }
 
+        smem.setInitialLinkedNodeMask(smem.getLinkedNodeMask());
+
         updateRiaAndTerminalMemory(tupleSource, tupleSource, smem, wm, false);
 
         ((ReteooRuleBase)wm.getRuleBase()).registerSegmentPrototype(segmentRoot, smem);
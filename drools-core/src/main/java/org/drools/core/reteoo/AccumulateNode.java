@@ -43,8 +43,6 @@ import org.drools.core.rule.ContextEntry;
 import org.drools.core.spi.AlphaNodeFieldConstraint;
 import org.drools.core.spi.PropagationContext;
 
-import static org.drools.core.util.BitMaskUtil.intersect;
-
 /**
  * AccumulateNode
  * A beta node capable of doing accumulate logic.
@@ -231,6 +229,12 @@ public class AccumulateNode extends BetaNode {
             betaMemory.setSegmentMemory(segmentMemory);
         }
 
+        public void reset() {
+            betaMemory.reset();
+            BetaMemory.resetContext( resultsContext );
+            BetaMemory.resetContext( alphaContexts );
+        }
+
     }
 
     public static class AccumulateContext
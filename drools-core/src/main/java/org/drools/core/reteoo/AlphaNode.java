@@ -35,11 +35,10 @@ import org.drools.core.rule.constraint.MvelConstraint;
 import org.drools.core.spi.AlphaNodeFieldConstraint;
 import org.drools.core.spi.PropagationContext;
 import org.drools.core.spi.RuleComponent;
+import org.drools.core.util.BitMask;
 import org.kie.api.definition.rule.Rule;
 import org.kie.api.runtime.rule.Operator;
 
-import static org.drools.core.util.BitMaskUtil.intersect;
-
 /**
  * <code>AlphaNodes</code> are nodes in the <code>Rete</code> network used
  * to apply <code>FieldConstraint<.code>s on asserted fact
@@ -97,16 +96,16 @@ public class AlphaNode extends ObjectSource
                                             ClassNotFoundException {
         super.readExternal( in );
         constraint = (AlphaNodeFieldConstraint) in.readObject();
-        declaredMask = in.readLong();
-        inferredMask = in.readLong();
+        declaredMask = (BitMask) in.readObject();
+        inferredMask = (BitMask) in.readObject();
         hashcode = in.readInt();
     }
 
     public void writeExternal(ObjectOutput out) throws IOException {
         super.writeExternal(out);
         out.writeObject(constraint);
-        out.writeLong(declaredMask);
-        out.writeLong(inferredMask);
+        out.writeObject(declaredMask);
+        out.writeObject(inferredMask);
         out.writeInt(hashcode);
     }
 
@@ -145,7 +144,7 @@ public class AlphaNode extends ObjectSource
                              final ModifyPreviousTuples modifyPreviousTuples,
                              final PropagationContext context,
                              final InternalWorkingMemory workingMemory) {
-        if ( intersect(context.getModificationMask(), inferredMask ) ) {
+        if ( context.getModificationMask().intersects( inferredMask ) ) {
 
             final AlphaMemory memory = (AlphaMemory) workingMemory.getNodeMemory( this );
             if ( this.constraint.isAllowed( factHandle,
@@ -270,6 +269,12 @@ public class AlphaNode extends ObjectSource
             return NodeTypeEnums.AlphaNode;
         }
 
+        public void reset() {
+            if ( this.context != null ) {
+                this.context.resetFactHandle();
+            }
+        }
+
         public SegmentMemory getSegmentMemory() {
             throw new UnsupportedOperationException();
         }
@@ -304,7 +309,7 @@ public class AlphaNode extends ObjectSource
      * Used with the updateSink method, so that the parent ObjectSource
      * can  update the  TupleSink
      */
-    private static class ObjectSinkUpdateAdapter
+    public static class ObjectSinkUpdateAdapter
         implements
         ObjectSink {
         private final ObjectSink               sink;
@@ -372,26 +377,26 @@ public class AlphaNode extends ObjectSource
 
     }
 
-    public long calculateDeclaredMask(List<String> settableProperties) {
-        Long typeBit = 0L;
+    public BitMask calculateDeclaredMask(List<String> settableProperties) {
+        BitMask typeBit = BitMask.EMPTY;
         if ( constraint instanceof EvaluatorConstraint && ( (EvaluatorConstraint) constraint ).isSelf() ) {
             Operator op = ((EvaluatorConstraint) constraint).getEvaluator().getOperator();
             if ( op == IsAEvaluatorDefinition.ISA || op == IsAEvaluatorDefinition.NOT_ISA ) {
-                typeBit = Long.MIN_VALUE;
+                typeBit = BitMask.TRAIT;
             }
         }
         if (settableProperties == null || !(constraint instanceof MvelConstraint)) {
-            return typeBit | Long.MAX_VALUE;
+            return typeBit.setAll( BitMask.ALL_SET_BUT_TRAIT );
         }
-        return typeBit | ((MvelConstraint)constraint).getListenedPropertyMask(settableProperties);
+        return typeBit.setAll( ((MvelConstraint)constraint).getListenedPropertyMask(settableProperties) );
     }
 
     @Override
-    public long getDeclaredMask() {
+    public BitMask getDeclaredMask() {
         return declaredMask;
     }  
 
-    public long getInferredMask() {
+    public BitMask getInferredMask() {
         return inferredMask;
     }
 
@@ -28,6 +28,10 @@ import java.util.Arrays;
 
 /**
  * A parent class for all specific LeftTuple specializations
+ *
+ * Only the fields used by the tuples of every node type are held here: the children and the blockers are
+ * held by the specializations of the nodes having them, so that the tuples of the terminal nodes, which are
+ * the most numerous, have no child pointers.
  * @author etirelli
  *
  */
@@ -52,10 +56,6 @@ public class BaseLeftTuple
     private LeftTuple          rightParentPrevious;
     private LeftTuple          rightParentNext;
 
-    // children
-    private LeftTuple          firstChild;
-    private LeftTuple          lastChild;
-
     private LeftTupleSink      sink;
     
     private PropagationContext   propagationContext;    
@@ -83,6 +83,17 @@ public class BaseLeftTuple
     public BaseLeftTuple(final InternalFactHandle factHandle,
                              final LeftTupleSink sink,
                              final boolean leftTupleMemoryEnabled) {
+        init( factHandle,
+              sink,
+              leftTupleMemoryEnabled );
+    }
+
+    /**
+     * Initialises a root tuple, either when it is created or when it is taken from the free list of its node
+     */
+    public void init(final InternalFactHandle factHandle,
+                     final LeftTupleSink sink,
+                     final boolean leftTupleMemoryEnabled) {
         this.handle = factHandle;
         this.sink = sink;
         if ( leftTupleMemoryEnabled ) {
@@ -659,19 +670,20 @@ public class BaseLeftTuple
     }
 
     public LeftTuple getFirstChild() {
-        return firstChild;
+        // a terminal tuple never has children
+        return null;
     }
 
     public void setFirstChild(LeftTuple firstChild) {
-        this.firstChild = firstChild;
+        throw new UnsupportedOperationException();
     }
 
     public LeftTuple getLastChild() {
-        return lastChild;
+        return null;
     }
 
     public void setLastChild(LeftTuple lastChild) {
-        this.lastChild = lastChild;
+        throw new UnsupportedOperationException();
     }
 
     public LeftTupleSink getSink() {
@@ -834,7 +846,7 @@ public class BaseLeftTuple
         buf.append( istr );
         buf.append( toExternalString() );
         buf.append( "\n" );
-        for( LeftTuple leftTuple = this.firstChild; leftTuple != null; leftTuple = leftTuple.getLeftParentNext() ) {
+        for( LeftTuple leftTuple = getFirstChild(); leftTuple != null; leftTuple = leftTuple.getLeftParentNext() ) {
             buf.append( leftTuple.toTupleTree( indent+4 ) );
         }
         return buf.toString();
@@ -894,6 +906,40 @@ public class BaseLeftTuple
         this.memory = null;
     }   
     
+    /**
+     * Returns true if this tuple can be returned to the free list of its node once it is deleted,
+     * which is only possible if no other tuple refers to it as its parent.
+     */
+    public boolean isRecyclable() {
+        return false;
+    }
+
+    /**
+     * Drops all the references held by this tuple before it is returned to the free list of its node.
+     * The tuple is marked as recycled until it is initialised again.
+     */
+    public void recycle() {
+        this.index = 0;
+        this.handle = null;
+        this.parent = null;
+        this.leftParent = null;
+        this.leftParentPrevious = null;
+        this.leftParentNext = null;
+        this.rightParent = null;
+        this.rightParentPrevious = null;
+        this.rightParentNext = null;
+        this.sink = null;
+        this.propagationContext = null;
+        this.memory = null;
+        this.next = null;
+        this.previous = null;
+        this.stagedType = LeftTuple.RECYCLED;
+        this.stagedNext = null;
+        this.stagedPrevious = null;
+        this.object = null;
+        this.peer = null;
+    }
+
     public void initPeer(BaseLeftTuple original, LeftTupleSink sink) {
         this.index = original.index;
         this.parent = original.parent;
@@ -16,6 +16,7 @@
 
 package org.drools.core.reteoo;
 
+import org.drools.core.common.InternalFactHandle;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.common.Memory;
 import org.drools.core.common.RightTupleSets;
@@ -44,6 +45,9 @@ public class BetaMemory extends AbstractBaseLinkedListNode<Memory>
     private long                       nodePosMaskBit;
     private int                        counter;
     private RiaPathMemory              riaRuleMemory;
+    // the free lists of the deleted tuples, only set when the session recycles its tuples
+    private TuplePool<BaseLeftTuple>   leftTuplePool;
+    private TuplePool<RightTuple>      rightTuplePool;
 
     public BetaMemory() {
     }
@@ -145,4 +149,113 @@ public class BetaMemory extends AbstractBaseLinkedListNode<Memory>
     public void setNodeCleanWithoutNotify() {
         segmentMemory.updateCleanNodeMask( nodePosMaskBit );
     }
+
+    public TuplePool<BaseLeftTuple> getLeftTuplePool() {
+        return leftTuplePool;
+    }
+
+    public void setLeftTuplePool(TuplePool<BaseLeftTuple> leftTuplePool) {
+        this.leftTuplePool = leftTuplePool;
+    }
+
+    public TuplePool<RightTuple> getRightTuplePool() {
+        return rightTuplePool;
+    }
+
+    public void setRightTuplePool(TuplePool<RightTuple> rightTuplePool) {
+        this.rightTuplePool = rightTuplePool;
+    }
+
+    /**
+     * Creates a root LeftTuple for the given sink, reusing a recycled one when available
+     */
+    public LeftTuple createLeftTuple(final InternalFactHandle factHandle,
+                                     final LeftTupleSink sink,
+                                     final boolean leftTupleMemoryEnabled) {
+        BaseLeftTuple leftTuple = leftTuplePool != null ? leftTuplePool.acquire() : null;
+        if ( leftTuple == null ) {
+            return sink.createLeftTuple( factHandle, sink, leftTupleMemoryEnabled );
+        }
+        leftTuple.clearStaged();
+        leftTuple.init( factHandle, sink, leftTupleMemoryEnabled );
+        return leftTuple;
+    }
+
+    /**
+     * Creates a peer of the given LeftTuple for the given sink, reusing a recycled tuple when available
+     */
+    public LeftTuple createPeer(final LeftTuple original,
+                                final LeftTupleSink sink) {
+        BaseLeftTuple peer = leftTuplePool != null ? leftTuplePool.acquire() : null;
+        if ( peer == null ) {
+            return sink.createPeer( original );
+        }
+        peer.clearStaged();
+        peer.initPeer( (BaseLeftTuple) original, sink );
+        original.setPeer( peer );
+        return peer;
+    }
+
+    /**
+     * Returns a recycled RightTuple, which must be initialised before being used, or null if there is none
+     */
+    public RightTuple acquireRightTuple() {
+        RightTuple rightTuple = rightTuplePool != null ? rightTuplePool.acquire() : null;
+        if ( rightTuple != null ) {
+            rightTuple.clearStaged();
+        }
+        return rightTuple;
+    }
+
+    /**
+     * Returns a deleted LeftTuple of the given node to the free list, if the session recycles its tuples.
+     * This must be called once the tuple has been removed from the left memory and from the staged tuples,
+     * and only if it was deleted on its own. Tuples which had children are never recycled, as their children
+     * could still refer to them.
+     */
+    public void recycleLeftTuple(final LeftTuple leftTuple,
+                                 final LeftTupleSink node) {
+        if ( leftTuplePool != null && leftTuple.getLeftTupleSink() == node && ((BaseLeftTuple) leftTuple).isRecyclable() ) {
+            ((BaseLeftTuple) leftTuple).recycle();
+            leftTuplePool.release( (BaseLeftTuple) leftTuple );
+        }
+    }
+
+    /**
+     * Returns a deleted RightTuple to the free list, if the session recycles its tuples.
+     * This must be called once the tuple has been removed from the right memory and from the staged tuples,
+     * and its children and blocked tuples have been unlinked from it.
+     */
+    public void recycleRightTuple(final RightTuple rightTuple) {
+        if ( rightTuplePool != null ) {
+            rightTuple.recycle();
+            rightTuplePool.release( rightTuple );
+        }
+    }
+
+    public void reset() {
+        if ( this.leftTupleMemory != null ) {
+            // sequential sessions have no left memory
+            this.leftTupleMemory.clear();
+        }
+        this.rightTupleMemory.clear();
+        this.stagedRightTuples.resetAll();
+        resetContext( this.context );
+        this.counter = 0;
+    }
+
+    /**
+     * Drops the references to the tuples and facts cached by the given context entries
+     */
+    public static void resetContext(ContextEntry[] context) {
+        if ( context == null ) {
+            return;
+        }
+        for ( ContextEntry entry : context ) {
+            if ( entry != null ) {
+                entry.resetTuple();
+                entry.resetFactHandle();
+            }
+        }
+    }
 }
@@ -20,7 +20,6 @@ import static org.drools.core.reteoo.PropertySpecificUtil.calculateNegativeMask;
 import static org.drools.core.reteoo.PropertySpecificUtil.calculatePositiveMask;
 import static org.drools.core.reteoo.PropertySpecificUtil.getSettableProperties;
 import static org.drools.core.reteoo.PropertySpecificUtil.isPropertyReactive;
-import static org.drools.core.util.BitMaskUtil.intersect;
 import static org.drools.core.util.ClassUtils.areNullSafeEquals;
 
 import java.io.IOException;
@@ -30,6 +29,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.drools.core.RuleBaseConfiguration;
+import org.drools.core.TupleRecyclingMode;
 import org.drools.core.base.ClassObjectType;
 import org.drools.core.common.BetaConstraints;
 import org.drools.core.common.DoubleBetaConstraints;
@@ -58,6 +58,7 @@ import org.drools.core.rule.Pattern;
 import org.drools.core.spi.BetaNodeFieldConstraint;
 import org.drools.core.spi.ObjectType;
 import org.drools.core.spi.PropagationContext;
+import org.drools.core.util.BitMask;
 import org.drools.core.util.FastIterator;
 import org.drools.core.util.index.IndexUtil;
 import org.slf4j.Logger;
@@ -89,9 +90,9 @@ public abstract class BetaNode extends LeftTupleSource
 
     protected boolean indexedUnificationJoin;
 
-    private long rightDeclaredMask;
-    private long rightInferredMask;
-    private long rightNegativeMask;
+    private BitMask rightDeclaredMask = BitMask.EMPTY;
+    private BitMask rightInferredMask = BitMask.EMPTY;
+    private BitMask rightNegativeMask = BitMask.EMPTY;
 
     private List<String> leftListenedProperties;
     private List<String> rightListenedProperties;
@@ -158,7 +159,7 @@ public abstract class BetaNode extends LeftTupleSource
                                     LeftTupleSource leftInput) {
         if (context == null || context.getLastBuiltPatterns() == null) {
             // only happens during unit tests
-            rightDeclaredMask = -1L;
+            rightDeclaredMask = BitMask.ALL_SET;
             super.initDeclaredMask(context, leftInput);
             return;
         }
@@ -173,19 +174,19 @@ public abstract class BetaNode extends LeftTupleSource
                     rightListenedProperties = pattern.getListenedProperties();
                     List<String> settableProperties = getSettableProperties(context.getRuleBase(), objectClass);
                     rightDeclaredMask = calculatePositiveMask(rightListenedProperties, settableProperties);
-                    rightDeclaredMask |= constraints.getListenedPropertyMask(settableProperties);
+                    rightDeclaredMask = rightDeclaredMask.setAll(constraints.getListenedPropertyMask(settableProperties));
                     rightNegativeMask = calculateNegativeMask(rightListenedProperties, settableProperties);
                 } else {
                     // if property reactive is not on, then accept all modification propagations
-                    rightDeclaredMask = -1L;
+                    rightDeclaredMask = BitMask.ALL_SET;
                 }
             } else {
                 // InitialFact has no type declaration and cannot be property specific
                 // Only ClassObjectType can use property specific
-                rightDeclaredMask = -1L;
+                rightDeclaredMask = BitMask.ALL_SET;
             }
         } else {
-            rightDeclaredMask = -1L;
+            rightDeclaredMask = BitMask.ALL_SET;
             // There would have been no right input pattern, so swap current to first, so leftInput can still work
             context.setLastBuiltPattern( context.getLastBuiltPatterns()[0] );
         }
@@ -212,7 +213,7 @@ public abstract class BetaNode extends LeftTupleSource
         } else {
             rightInferredMask = rightDeclaredMask;
         }
-        rightInferredMask &= (-1L - rightNegativeMask);
+        rightInferredMask = rightInferredMask.resetAll( rightNegativeMask );
     }
 
     public ObjectSource unwrapRightInput() {
@@ -226,9 +227,9 @@ public abstract class BetaNode extends LeftTupleSource
         objectMemory = in.readBoolean();
         tupleMemoryEnabled = in.readBoolean();
         concurrentRightTupleMemory = in.readBoolean();
-        rightDeclaredMask = in.readLong();
-        rightInferredMask = in.readLong();
-        rightNegativeMask = in.readLong();
+        rightDeclaredMask = (BitMask) in.readObject();
+        rightInferredMask = (BitMask) in.readObject();
+        rightNegativeMask = (BitMask) in.readObject();
         leftListenedProperties = (List) in.readObject();
         rightListenedProperties = (List) in.readObject();
         setUnificationJoin();
@@ -254,9 +255,9 @@ public abstract class BetaNode extends LeftTupleSource
         out.writeBoolean( objectMemory );
         out.writeBoolean( tupleMemoryEnabled );
         out.writeBoolean( concurrentRightTupleMemory );
-        out.writeLong( rightDeclaredMask );
-        out.writeLong( rightInferredMask );
-        out.writeLong( rightNegativeMask );
+        out.writeObject( rightDeclaredMask );
+        out.writeObject( rightInferredMask );
+        out.writeObject( rightNegativeMask );
         out.writeObject( leftListenedProperties );
         out.writeObject( rightListenedProperties );
         super.writeExternal( out );
@@ -289,7 +290,7 @@ public abstract class BetaNode extends LeftTupleSource
                               final InternalWorkingMemory wm ) {
         final BetaMemory memory = (BetaMemory) getBetaMemoryFromRightInput(this, wm);
 
-        RightTuple rightTuple = createRightTuple( factHandle, this, pctx );
+        RightTuple rightTuple = createRightTuple( factHandle, this, pctx, memory );
 
         boolean stagedInsertWasEmpty = false;
         if ( streamMode ) {
@@ -337,7 +338,7 @@ public abstract class BetaNode extends LeftTupleSource
         if ( rightTuple != null && (( BetaNode ) rightTuple.getRightTupleSink()).getRightInputOtnId().equals(getRightInputOtnId()) ) {
             modifyPreviousTuples.removeRightTuple();
             rightTuple.reAdd();
-            if ( intersect( context.getModificationMask(), getRightInferredMask() ) ) {
+            if ( context.getModificationMask().intersects( getRightInferredMask() ) ) {
                 // RightTuple previously existed, so continue as modify
                 rightTuple.setPropagationContext( context );  // only update, if the mask intersects
 
@@ -346,7 +347,7 @@ public abstract class BetaNode extends LeftTupleSource
                 doUpdateRightTuple(rightTuple, wm, bm);
             }
         } else {
-            if ( intersect( context.getModificationMask(), getRightInferredMask() ) ) {
+            if ( context.getModificationMask().intersects( getRightInferredMask() ) ) {
                 // RightTuple does not exist for this node, so create and continue as assert
                 assertObject( factHandle,
                               context,
@@ -579,7 +580,37 @@ public abstract class BetaNode extends LeftTupleSource
     }
     
     public Memory createMemory(RuleBaseConfiguration config, InternalWorkingMemory wm) {
-        return constraints.createBetaMemory(config, getType());
+        BetaMemory memory = constraints.createBetaMemory(config, getType());
+        if ( wm != null ) {
+            initTuplePools( memory, wm.getSessionConfiguration().getTupleRecyclingMode() );
+        }
+        return memory;
+    }
+
+    /**
+     * Sets the free lists of the tuples deleted by this node, when the session recycles its tuples.
+     * Only the joins, nots and exists recycle their tuples. The RightTuples created by a subnetwork are not
+     * recycled, and the LeftTuples are recycled only if they are created by a LeftInputAdapterNode, as the
+     * tuples created by the other nodes are referred to by their children.
+     */
+    protected void initTuplePools(BetaMemory memory, TupleRecyclingMode mode) {
+        if ( mode == TupleRecyclingMode.NONE ) {
+            return;
+        }
+        short type = getType();
+        if ( type != NodeTypeEnums.JoinNode && type != NodeTypeEnums.NotNode && type != NodeTypeEnums.ExistsNode ) {
+            return;
+        }
+
+        boolean verify = mode == TupleRecyclingMode.VERIFY;
+        if ( !this.rightInputIsRiaNode ) {
+            memory.setRightTuplePool( new TuplePool<RightTuple>( TuplePool.DEFAULT_CAPACITY, verify ) );
+        }
+        if ( this.leftInput.getType() == NodeTypeEnums.LeftInputAdapterNode &&
+             !((LeftInputAdapterNode) this.leftInput).isRootQueryNode() &&
+             isLeftTupleMemoryEnabled() ) {
+            memory.setLeftTuplePool( new TuplePool<BaseLeftTuple>( TuplePool.DEFAULT_CAPACITY, verify ) );
+        }
     }
 
     public String toString() {
@@ -710,6 +741,22 @@ public abstract class BetaNode extends LeftTupleSource
         rightTuple.setPropagationContext( context );
         return rightTuple;
     }
+
+    /**
+     * Creates a RightTuple, reusing one recycled in the given memory when available
+     */
+    public RightTuple createRightTuple(InternalFactHandle handle,
+                                       RightTupleSink sink,
+                                       PropagationContext context,
+                                       BetaMemory memory) {
+        RightTuple rightTuple = memory.acquireRightTuple();
+        if ( rightTuple == null ) {
+            return createRightTuple( handle, sink, context );
+        }
+        rightTuple.init( handle, sink );
+        rightTuple.setPropagationContext( context );
+        return rightTuple;
+    }
     
     public static Object getBetaMemoryFromRightInput( final BetaNode betaNode, final InternalWorkingMemory workingMemory ) {        
         BetaMemory memory;
@@ -726,19 +773,19 @@ public abstract class BetaNode extends LeftTupleSource
         return memory;
     }
     
-    public long getRightDeclaredMask() {
+    public BitMask getRightDeclaredMask() {
         return rightDeclaredMask;
     }
 
-    public void setRightDeclaredMask(long rightDeclaredMask) {
+    public void setRightDeclaredMask(BitMask rightDeclaredMask) {
         this.rightDeclaredMask = rightDeclaredMask;
     }
 
-    public long getRightInferredMask() {
+    public BitMask getRightInferredMask() {
         return rightInferredMask;
     }
 
-    public long getRightNegativeMask() {
+    public BitMask getRightNegativeMask() {
         return rightNegativeMask;
     }
 
@@ -27,6 +27,7 @@ import org.drools.core.util.LinkedList;
 import org.drools.core.util.LinkedListNode;
 import org.drools.core.util.ObjectHashMap;
 import org.drools.core.util.ObjectHashMap.ObjectEntry;
+import org.drools.core.util.index.IndexUtil;
 import org.drools.core.rule.IndexableConstraint;
 import org.drools.core.spi.AlphaNodeFieldConstraint;
 import org.drools.core.spi.FieldValue;
@@ -38,6 +39,8 @@ import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -58,6 +61,8 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
 
     ObjectHashMap             hashedSinkMap;
 
+    LinkedList<RangeIndex>    rangeIndexes;
+
     private int               alphaNodeHashingThreshold;
 
     private ObjectSink[]      sinks;
@@ -80,6 +85,7 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
         hashableSinks = (ObjectSinkNodeList) in.readObject();
         hashedFieldIndexes = (LinkedList) in.readObject();
         hashedSinkMap = (ObjectHashMap) in.readObject();
+        rangeIndexes = (LinkedList) in.readObject();
         alphaNodeHashingThreshold = in.readInt();
     }
 
@@ -89,6 +95,7 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
         out.writeObject( hashableSinks );
         out.writeObject( hashedFieldIndexes );
         out.writeObject( hashedSinkMap );
+        out.writeObject( rangeIndexes );
         out.writeInt( alphaNodeHashingThreshold );
     }
 
@@ -104,6 +111,22 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
         return this.hashedSinkMap;
     }
 
+    /**
+     * Returns the alpha nodes currently dispatched through a range index, or null if there is none
+     */
+    public AlphaNode[] getRangeIndexedSinks() {
+        if ( this.rangeIndexes == null ) {
+            return null;
+        }
+        final List<AlphaNode> rangeIndexedSinks = new ArrayList<AlphaNode>();
+        for ( RangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+            if ( rangeIndex.isIndexed() ) {
+                rangeIndex.addSinksTo( rangeIndexedSinks );
+            }
+        }
+        return rangeIndexedSinks.isEmpty() ? null : rangeIndexedSinks.toArray( new AlphaNode[rangeIndexedSinks.size()] );
+    }
+
     public void addObjectSink(final ObjectSink sink) {
         this.sinks = null; // dirty it, so it'll rebuild on next get
         if ( sink.getType() ==  NodeTypeEnums.AlphaNode ) {
@@ -141,6 +164,23 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
                     }
                     return;
                 }
+
+                if ( RangeIndex.isRangeIndexable( indexableConstraint ) ) {
+                    final InternalReadAccessor readAccessor = indexableConstraint.getFieldExtractor();
+                    final RangeIndex rangeIndex = registerRangeIndex( readAccessor.getIndex(),
+                                                                      readAccessor );
+
+                    if ( rangeIndex.isIndexed() ) {
+                        rangeIndex.add( alphaNode );
+                        return;
+                    }
+                    if ( rangeIndex.getCount() >= this.alphaNodeHashingThreshold && this.alphaNodeHashingThreshold != 0 ) {
+                        rangeIndex.add( alphaNode );
+                        indexRangeSinks( rangeIndex );
+                        return;
+                    }
+                    // below the threshold the range constraint is evaluated as any other sink
+                }
             }
         }
 
@@ -190,6 +230,18 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
 
                     return;
                 }
+
+                if ( RangeIndex.isRangeIndexable( indexableConstraint ) ) {
+                    final RangeIndex rangeIndex = unregisterRangeIndex( indexableConstraint.getFieldExtractor().getIndex() );
+
+                    if ( rangeIndex.isIndexed() ) {
+                        rangeIndex.remove( alphaNode );
+                        if ( rangeIndex.getCount() <= this.alphaNodeHashingThreshold - 1 ) {
+                            unIndexRangeSinks( rangeIndex );
+                        }
+                        return;
+                    }
+                }
             }
         }
 
@@ -344,6 +396,96 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
         return null;
     }
 
+    /**
+     * Moves the range constrained alpha nodes on the given field from the other sinks to the range index
+     */
+    void indexRangeSinks(final RangeIndex rangeIndex) {
+        if ( this.otherSinks != null ) {
+            ObjectSinkNode currentSink = this.otherSinks.getFirst();
+
+            while ( currentSink != null ) {
+                final ObjectSinkNode sink = currentSink;
+                // position to the next sink now, as the current one may be removed from the list
+                currentSink = currentSink.getNextObjectSinkNode();
+
+                if ( rangeIndex.isIndexedBy( sink ) ) {
+                    this.otherSinks.remove( sink );
+                    rangeIndex.add( (AlphaNode) sink );
+                }
+            }
+
+            if ( this.otherSinks.isEmpty() ) {
+                this.otherSinks = null;
+            }
+        }
+
+        rangeIndex.setIndexed( true );
+    }
+
+    /**
+     * Moves the alpha nodes of the range index back to the other sinks, where they are evaluated one by one
+     */
+    void unIndexRangeSinks(final RangeIndex rangeIndex) {
+        final List<AlphaNode> unindexedSinks = new ArrayList<AlphaNode>();
+        rangeIndex.addSinksTo( unindexedSinks );
+
+        for ( AlphaNode alphaNode : unindexedSinks ) {
+            rangeIndex.remove( alphaNode );
+            if ( this.otherSinks == null ) {
+                this.otherSinks = new ObjectSinkNodeList();
+            }
+            this.otherSinks.add( alphaNode );
+        }
+
+        rangeIndex.setIndexed( false );
+    }
+
+    private RangeIndex registerRangeIndex(final int index,
+                                          final InternalReadAccessor fieldExtractor) {
+        if ( this.rangeIndexes == null ) {
+            this.rangeIndexes = new LinkedList<RangeIndex>();
+        }
+
+        RangeIndex rangeIndex = findRangeIndex( index );
+        if ( rangeIndex == null ) {
+            rangeIndex = new RangeIndex( index,
+                                         fieldExtractor );
+            this.rangeIndexes.add( rangeIndex );
+        }
+
+        rangeIndex.increaseCounter();
+
+        return rangeIndex;
+    }
+
+    private RangeIndex unregisterRangeIndex(final int index) {
+        final RangeIndex rangeIndex = findRangeIndex( index );
+        rangeIndex.decreaseCounter();
+
+        if ( rangeIndex.getCount() == 0 ) {
+            this.rangeIndexes.remove( rangeIndex );
+
+            if ( this.rangeIndexes.isEmpty() ) {
+                this.rangeIndexes = null;
+            }
+        }
+
+        return rangeIndex;
+    }
+
+    private RangeIndex findRangeIndex(final int index) {
+        if ( this.rangeIndexes == null ) {
+            return null;
+        }
+        for ( RangeIndex node = this.rangeIndexes.getFirst(); node != null; node = node.getNext() ) {
+            if ( node.getIndex() == index ) {
+                return node;
+            }
+        }
+
+        return null;
+    }
+
     public void propagateAssertObject(final InternalFactHandle factHandle,
                                       final PropagationContext context,
                                       final InternalWorkingMemory workingMemory) {
@@ -371,6 +513,23 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
             }
         }
 
+        // propagate to the range indexed sinks whose range contains the field value, without retesting them
+        if ( this.rangeIndexes != null ) {
+            for ( RangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+                if ( !rangeIndex.isIndexed() || rangeIndex.isNullValue( workingMemory, object ) ) {
+                    continue;
+                }
+                final AlphaNode[] ascendingSinks = rangeIndex.getAscendingSinks();
+                for ( int i = 0, end = rangeIndex.ascendingEnd( workingMemory, object ); i < end; i++ ) {
+                    ascendingSinks[i].getSinkPropagator().propagateAssertObject( factHandle, context, workingMemory );
+                }
+                final AlphaNode[] descendingSinks = rangeIndex.getDescendingSinks();
+                for ( int i = rangeIndex.descendingStart( workingMemory, object ); i < descendingSinks.length; i++ ) {
+                    descendingSinks[i].getSinkPropagator().propagateAssertObject( factHandle, context, workingMemory );
+                }
+            }
+        }
+
         // propagate unhashed
         if ( this.hashableSinks != null ) {
             for ( ObjectSinkNode sink = this.hashableSinks.getFirst(); sink != null; sink = sink.getNextObjectSinkNode() ) {
@@ -420,6 +579,22 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
             }
         }
 
+        if ( this.rangeIndexes != null ) {
+            for ( RangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+                if ( !rangeIndex.isIndexed() || rangeIndex.isNullValue( workingMemory, object ) ) {
+                    continue;
+                }
+                final AlphaNode[] ascendingSinks = rangeIndex.getAscendingSinks();
+                for ( int i = 0, end = rangeIndex.ascendingEnd( workingMemory, object ); i < end; i++ ) {
+                    ascendingSinks[i].getSinkPropagator().propagateModifyObject( factHandle, modifyPreviousTuples, context, workingMemory );
+                }
+                final AlphaNode[] descendingSinks = rangeIndex.getDescendingSinks();
+                for ( int i = rangeIndex.descendingStart( workingMemory, object ); i < descendingSinks.length; i++ ) {
+                    descendingSinks[i].getSinkPropagator().propagateModifyObject( factHandle, modifyPreviousTuples, context, workingMemory );
+                }
+            }
+        }
+
         // propagate unhashed
         if ( this.hashableSinks != null ) {
             for ( ObjectSinkNode sink = this.hashableSinks.getFirst(); sink != null; sink = sink.getNextObjectSinkNode() ) {
@@ -469,6 +644,23 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
             }
         }
 
+        if ( this.rangeIndexes != null ) {
+            for ( RangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+                if ( !rangeIndex.isIndexed() || rangeIndex.isNullValue( workingMemory, object ) ) {
+                    continue;
+                }
+                // only alpha nodes are range indexed
+                final AlphaNode[] ascendingSinks = rangeIndex.getAscendingSinks();
+                for ( int i = 0, end = rangeIndex.ascendingEnd( workingMemory, object ); i < end; i++ ) {
+                    ascendingSinks[i].getSinkPropagator().byPassModifyToBetaNode( factHandle, modifyPreviousTuples, context, workingMemory );
+                }
+                final AlphaNode[] descendingSinks = rangeIndex.getDescendingSinks();
+                for ( int i = rangeIndex.descendingStart( workingMemory, object ); i < descendingSinks.length; i++ ) {
+                    descendingSinks[i].getSinkPropagator().byPassModifyToBetaNode( factHandle, modifyPreviousTuples, context, workingMemory );
+                }
+            }
+        }
+
         // propagate unhashed
         if ( this.hashableSinks != null ) {
             for ( ObjectSinkNode sink = this.hashableSinks.getFirst(); sink != null; sink = sink.getNextObjectSinkNode() ) {
@@ -541,6 +733,15 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
                 }
             }
         }
+
+        final AlphaNode[] rangeIndexedSinks = getRangeIndexedSinks();
+        if ( rangeIndexedSinks != null ) {
+            for ( AlphaNode sink : rangeIndexedSinks ) {
+                if ( candidate.equals( sink ) ) {
+                    return sink;
+                }
+            }
+        }
         return null;
     }
 
@@ -569,6 +770,13 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
             }
         }
 
+        final AlphaNode[] rangeIndexedSinks = getRangeIndexedSinks();
+        if ( rangeIndexedSinks != null ) {
+            for ( AlphaNode sink : rangeIndexedSinks ) {
+                sinks[at++] = sink;
+            }
+        }
+
         if ( this.hashableSinks != null ) {
             for ( ObjectSinkNode sink = this.hashableSinks.getFirst(); sink != null; sink = sink.getNextObjectSinkNode() ) {
                 sinks[at++] = sink;
@@ -603,7 +811,13 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
     }     
 
     public int size() {
-        return (this.otherSinks != null ? this.otherSinks.size() : 0) + (this.hashableSinks != null ? this.hashableSinks.size() : 0) + (this.hashedSinkMap != null ? this.hashedSinkMap.size() : 0);
+        int rangeIndexed = 0;
+        if ( this.rangeIndexes != null ) {
+            for ( RangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+                rangeIndexed += rangeIndex.size();
+            }
+        }
+        return (this.otherSinks != null ? this.otherSinks.size() : 0) + (this.hashableSinks != null ? this.hashableSinks.size() : 0) + (this.hashedSinkMap != null ? this.hashedSinkMap.size() : 0) + rangeIndexed;
     }
 
     public static class HashKey
@@ -979,4 +1193,379 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
             next = null;
         }
     }
+
+    /**
+     * Indexes the alpha nodes constraining a numeric field against a literal with one of the &lt;, &lt;=, &gt;
+     * and &gt;= operators. The &gt; and &gt;= sinks are sorted by their threshold, so that the ones satisfied by
+     * a value are always a prefix of them, while the &lt; and &lt;= ones are sorted in the same way and the
+     * satisfied ones are a suffix. Both bounds are found with a binary search, so a fact is dispatched to the
+     * matching sinks only, without evaluating the constraints of the others.
+     */
+    public static class RangeIndex
+        implements
+        LinkedListNode<RangeIndex>,
+        Externalizable {
+        private static final long    serialVersionUID = 510l;
+
+        private static final AlphaNode[] EMPTY_SINKS  = new AlphaNode[0];
+
+        private int                  index;
+        private InternalReadAccessor fieldExtractor;
+        private boolean              integral;
+
+        private int                  count;
+
+        private boolean              indexed;
+
+        private AlphaNode[]          ascendingSinks   = EMPTY_SINKS;
+        private long[]               ascendingLongs   = new long[0];
+        private double[]             ascendingDoubles = new double[0];
+        private boolean[]            ascendingInclusive = new boolean[0];
+
+        private AlphaNode[]          descendingSinks  = EMPTY_SINKS;
+        private long[]               descendingLongs  = new long[0];
+        private double[]             descendingDoubles = new double[0];
+        private boolean[]            descendingInclusive = new boolean[0];
+
+        private RangeIndex           previous;
+        private RangeIndex           next;
+
+        public RangeIndex() {
+        }
+
+        public RangeIndex(final int index,
+                          final InternalReadAccessor fieldExtractor) {
+            this.index = index;
+            this.fieldExtractor = fieldExtractor;
+            this.integral = fieldExtractor.getValueType().isIntegerNumber();
+        }
+
+        /**
+         * Only literal comparisons on integer or double fields are indexed: their values can be compared as
+         * primitives exactly as the constraint does, while char, float and BigDecimal fields are left to the
+         * constraint evaluation to avoid any difference in rounding or coercion.
+         */
+        public static boolean isRangeIndexable(final IndexableConstraint constraint) {
+            if ( !constraint.getConstraintType().isComparison() || constraint.getField() == null || constraint.getField().isNull() ) {
+                return false;
+            }
+            final InternalReadAccessor fieldExtractor = constraint.getFieldExtractor();
+            if ( fieldExtractor == null || fieldExtractor instanceof MVELObjectClassFieldReader ) {
+                return false;
+            }
+            final Object value = constraint.getField().getValue();
+            final ValueType vtype = fieldExtractor.getValueType();
+            if ( vtype.isIntegerNumber() ) {
+                return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+            }
+            if ( vtype == ValueType.PDOUBLE_TYPE || vtype == ValueType.DOUBLE_TYPE ) {
+                return value instanceof Number && !( value instanceof BigDecimal ) && !( value instanceof BigInteger ) &&
+                       !Double.isNaN( ((Number) value).doubleValue() );
+            }
+            return false;
+        }
+
+        public void readExternal(ObjectInput in) throws IOException,
+                                                ClassNotFoundException {
+            index = in.readInt();
+            fieldExtractor = (InternalReadAccessor) in.readObject();
+            integral = in.readBoolean();
+            count = in.readInt();
+            indexed = in.readBoolean();
+            ascendingSinks = (AlphaNode[]) in.readObject();
+            ascendingLongs = (long[]) in.readObject();
+            ascendingDoubles = (double[]) in.readObject();
+            ascendingInclusive = (boolean[]) in.readObject();
+            descendingSinks = (AlphaNode[]) in.readObject();
+            descendingLongs = (long[]) in.readObject();
+            descendingDoubles = (double[]) in.readObject();
+            descendingInclusive = (boolean[]) in.readObject();
+        }
+
+        public void writeExternal(ObjectOutput out) throws IOException {
+            out.writeInt( index );
+            out.writeObject( fieldExtractor );
+            out.writeBoolean( integral );
+            out.writeInt( count );
+            out.writeBoolean( indexed );
+            out.writeObject( ascendingSinks );
+            out.writeObject( ascendingLongs );
+            out.writeObject( ascendingDoubles );
+            out.writeObject( ascendingInclusive );
+            out.writeObject( descendingSinks );
+            out.writeObject( descendingLongs );
+            out.writeObject( descendingDoubles );
+            out.writeObject( descendingInclusive );
+        }
+
+        public int getIndex() {
+            return this.index;
+        }
+
+        public InternalReadAccessor getFieldExtractor() {
+            return this.fieldExtractor;
+        }
+
+        public int getCount() {
+            return this.count;
+        }
+
+        public void increaseCounter() {
+            this.count++;
+        }
+
+        public void decreaseCounter() {
+            this.count--;
+        }
+
+        public boolean isIndexed() {
+            return this.indexed;
+        }
+
+        public void setIndexed(final boolean indexed) {
+            this.indexed = indexed;
+        }
+
+        public int size() {
+            return this.ascendingSinks.length + this.descendingSinks.length;
+        }
+
+        public AlphaNode[] getAscendingSinks() {
+            return this.ascendingSinks;
+        }
+
+        public AlphaNode[] getDescendingSinks() {
+            return this.descendingSinks;
+        }
+
+        boolean isIndexedBy(final ObjectSink sink) {
+            if ( sink.getType() != NodeTypeEnums.AlphaNode || !( ((AlphaNode) sink).getConstraint() instanceof IndexableConstraint ) ) {
+                return false;
+            }
+            final IndexableConstraint constraint = (IndexableConstraint) ((AlphaNode) sink).getConstraint();
+            return isRangeIndexable( constraint ) && constraint.getFieldExtractor().getIndex() == this.index;
+        }
+
+        void addSinksTo(final List<AlphaNode> sinks) {
+            for ( AlphaNode sink : this.ascendingSinks ) {
+                sinks.add( sink );
+            }
+            for ( AlphaNode sink : this.descendingSinks ) {
+                sinks.add( sink );
+            }
+        }
+
+        public boolean isNullValue(final InternalWorkingMemory workingMemory,
+                                   final Object object) {
+            return this.fieldExtractor.isNullValue( workingMemory,
+                                                    object );
+        }
+
+        /**
+         * Returns the number of &gt; and &gt;= sinks satisfied by the field value of the given object
+         */
+        public int ascendingEnd(final InternalWorkingMemory workingMemory,
+                                final Object object) {
+            int low = 0;
+            int high = this.ascendingSinks.length;
+            if ( this.integral ) {
+                final long value = this.fieldExtractor.getLongValue( workingMemory,
+                                                                     object );
+                while ( low < high ) {
+                    final int mid = (low + high) >>> 1;
+                    if ( this.ascendingLongs[mid] < value || (this.ascendingLongs[mid] == value && this.ascendingInclusive[mid]) ) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+            } else {
+                final double value = this.fieldExtractor.getDoubleValue( workingMemory,
+                                                                         object );
+                while ( low < high ) {
+                    final int mid = (low + high) >>> 1;
+                    if ( this.ascendingDoubles[mid] < value || (this.ascendingDoubles[mid] == value && this.ascendingInclusive[mid]) ) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Returns the position of the first &lt; or &lt;= sink satisfied by the field value of the given object,
+         * all the following ones being satisfied as well
+         */
+        public int descendingStart(final InternalWorkingMemory workingMemory,
+                                   final Object object) {
+            int low = 0;
+            int high = this.descendingSinks.length;
+            if ( this.integral ) {
+                final long value = this.fieldExtractor.getLongValue( workingMemory,
+                                                                     object );
+                while ( low < high ) {
+                    final int mid = (low + high) >>> 1;
+                    if ( this.descendingLongs[mid] > value || (this.descendingLongs[mid] == value && this.descendingInclusive[mid]) ) {
+                        high = mid;
+                    } else {
+                        low = mid + 1;
+                    }
+                }
+            } else {
+                final double value = this.fieldExtractor.getDoubleValue( workingMemory,
+                                                                         object );
+                while ( low < high ) {
+                    final int mid = (low + high) >>> 1;
+                    if ( this.descendingDoubles[mid] > value || (this.descendingDoubles[mid] == value && this.descendingInclusive[mid]) ) {
+                        high = mid;
+                    } else {
+                        low = mid + 1;
+                    }
+                }
+            }
+            return low;
+        }
+
+        void add(final AlphaNode alphaNode) {
+            final IndexableConstraint constraint = (IndexableConstraint) alphaNode.getConstraint();
+            final IndexUtil.ConstraintType constraintType = constraint.getConstraintType();
+            final FieldValue field = constraint.getField();
+            final boolean ascending = constraintType.isAscending();
+            final boolean inclusive = constraintType == IndexUtil.ConstraintType.GREATER_OR_EQUAL ||
+                                      constraintType == IndexUtil.ConstraintType.LESS_OR_EQUAL;
+            final long longKey = this.integral ? field.getLongValue() : 0;
+            final double doubleKey = this.integral ? 0 : field.getDoubleValue();
+
+            final AlphaNode[] sinks = ascending ? this.ascendingSinks : this.descendingSinks;
+            final long[] longs = ascending ? this.ascendingLongs : this.descendingLongs;
+            final double[] doubles = ascending ? this.ascendingDoubles : this.descendingDoubles;
+            final boolean[] inclusives = ascending ? this.ascendingInclusive : this.descendingInclusive;
+
+            // on equal thresholds the inclusive sinks go first for the ascending ones and last for the descending
+            // ones, so that the satisfied sinks stay contiguous
+            int pos = 0;
+            while ( pos < sinks.length ) {
+                final int cmp = this.integral ? compare( longs[pos], longKey ) : compare( doubles[pos], doubleKey );
+                if ( cmp > 0 || (cmp == 0 && inclusives[pos] != inclusive && inclusive == ascending) ) {
+                    break;
+                }
+                pos++;
+            }
+
+            final int length = sinks.length + 1;
+            final AlphaNode[] newSinks = new AlphaNode[length];
+            final long[] newLongs = new long[this.integral ? length : 0];
+            final double[] newDoubles = new double[this.integral ? 0 : length];
+            final boolean[] newInclusives = new boolean[length];
+            for ( int i = 0, j = 0; i < length; i++ ) {
+                if ( i == pos ) {
+                    newSinks[i] = alphaNode;
+                    newInclusives[i] = inclusive;
+                    if ( this.integral ) {
+                        newLongs[i] = longKey;
+                    } else {
+                        newDoubles[i] = doubleKey;
+                    }
+                } else {
+                    newSinks[i] = sinks[j];
+                    newInclusives[i] = inclusives[j];
+                    if ( this.integral ) {
+                        newLongs[i] = longs[j];
+                    } else {
+                        newDoubles[i] = doubles[j];
+                    }
+                    j++;
+                }
+            }
+            setSinks( ascending, newSinks, newLongs, newDoubles, newInclusives );
+        }
+
+        void remove(final AlphaNode alphaNode) {
+            final boolean ascending = ((IndexableConstraint) alphaNode.getConstraint()).getConstraintType().isAscending();
+            final AlphaNode[] sinks = ascending ? this.ascendingSinks : this.descendingSinks;
+            final long[] longs = ascending ? this.ascendingLongs : this.descendingLongs;
+            final double[] doubles = ascending ? this.ascendingDoubles : this.descendingDoubles;
+            final boolean[] inclusives = ascending ? this.ascendingInclusive : this.descendingInclusive;
+
+            int pos = 0;
+            while ( pos < sinks.length && sinks[pos] != alphaNode ) {
+                pos++;
+            }
+            if ( pos == sinks.length ) {
+                return;
+            }
+
+            final int length = sinks.length - 1;
+            final AlphaNode[] newSinks = length == 0 ? EMPTY_SINKS : new AlphaNode[length];
+            final long[] newLongs = new long[this.integral ? length : 0];
+            final double[] newDoubles = new double[this.integral ? 0 : length];
+            final boolean[] newInclusives = new boolean[length];
+            for ( int i = 0, j = 0; j < sinks.length; j++ ) {
+                if ( j == pos ) {
+                    continue;
+                }
+                newSinks[i] = sinks[j];
+                newInclusives[i] = inclusives[j];
+                if ( this.integral ) {
+                    newLongs[i] = longs[j];
+                } else {
+                    newDoubles[i] = doubles[j];
+                }
+                i++;
+            }
+            setSinks( ascending, newSinks, newLongs, newDoubles, newInclusives );
+        }
+
+        private void setSinks(final boolean ascending,
+                              final AlphaNode[] sinks,
+                              final long[] longs,
+                              final double[] doubles,
+                              final boolean[] inclusives) {
+            if ( ascending ) {
+                this.ascendingSinks = sinks;
+                this.ascendingLongs = longs;
+                this.ascendingDoubles = doubles;
+                this.ascendingInclusive = inclusives;
+            } else {
+                this.descendingSinks = sinks;
+                this.descendingLongs = longs;
+                this.descendingDoubles = doubles;
+                this.descendingInclusive = inclusives;
+            }
+        }
+
+        private static int compare(final long l1,
+                                   final long l2) {
+            return l1 < l2 ? -1 : (l1 == l2 ? 0 : 1);
+        }
+
+        private static int compare(final double d1,
+                                   final double d2) {
+            // unlike Double.compare, -0.0 and 0.0 are equal as they are for the constraint
+            return d1 < d2 ? -1 : (d1 == d2 ? 0 : 1);
+        }
+
+        public RangeIndex getNext() {
+            return this.next;
+        }
+
+        public RangeIndex getPrevious() {
+            return this.previous;
+        }
+
+        public void setNext(final RangeIndex next) {
+            this.next = next;
+        }
+
+        public void setPrevious(final RangeIndex previous) {
+            this.previous = previous;
+        }
+
+        public void nullPrevNext() {
+            previous = null;
+            next = null;
+        }
+    }
 }
@@ -238,6 +238,10 @@ public class ConditionalBranchNode extends LeftTupleSource implements LeftTupleS
         public SegmentMemory getSegmentMemory() {
             return segmentMemory;
         }
+
+        public void reset() {
+            // the context of the condition is kept, as it doesn't refer to any fact
+        }
     }
 
     protected ObjectTypeNode getObjectTypeNode() {
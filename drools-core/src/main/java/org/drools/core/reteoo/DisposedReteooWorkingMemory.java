@@ -39,6 +39,7 @@ import org.drools.core.common.MemoryFactory;
 import org.drools.core.common.NodeMemories;
 import org.drools.core.common.ObjectStore;
 import org.drools.core.common.ObjectTypeConfigurationRegistry;
+import org.drools.core.common.QueryResultsCache;
 import org.drools.core.common.TruthMaintenanceSystem;
 import org.drools.core.common.WorkingMemoryAction;
 import org.drools.core.event.AgendaEventListener;
@@ -57,6 +58,7 @@ import org.drools.core.spi.FactHandleFactory;
 import org.drools.core.spi.GlobalResolver;
 import org.drools.core.time.TimerService;
 import org.drools.core.type.DateFormats;
+import org.drools.core.util.BitMask;
 import org.kie.api.event.process.ProcessEventListener;
 import org.kie.api.runtime.Calendars;
 import org.kie.api.runtime.Channel;
@@ -77,7 +79,7 @@ public class DisposedReteooWorkingMemory implements ReteooWorkingMemoryInterface
     
     private DisposedReteooWorkingMemory() {}
     
-    public void update( FactHandle handle, Object object, long mask, Class<?> modifiedClass, Activation activation ) throws FactException {
+    public void update( FactHandle handle, Object object, BitMask mask, Class<?> modifiedClass, Activation activation ) throws FactException {
         throw new IllegalStateException( ERRORMSG );
     }
 
@@ -121,6 +123,10 @@ public class DisposedReteooWorkingMemory implements ReteooWorkingMemoryInterface
         throw new IllegalStateException( ERRORMSG );
     }
 
+    public QueryResultsCache getQueryResultsCache() {
+        throw new IllegalStateException( ERRORMSG );
+    }
+
     public long getNextPropagationIdCounter() {
         throw new IllegalStateException( ERRORMSG );
     }
@@ -442,6 +448,10 @@ public class DisposedReteooWorkingMemory implements ReteooWorkingMemoryInterface
         throw new IllegalStateException( ERRORMSG );
     }
 
+    public List<FactHandle> insertAll( Collection<?> objects ) throws FactException {
+        throw new IllegalStateException( ERRORMSG );
+    }
+
     public void retract( org.kie.api.runtime.rule.FactHandle handle ) throws FactException {
         throw new IllegalStateException( ERRORMSG );
     }
@@ -482,7 +492,7 @@ public class DisposedReteooWorkingMemory implements ReteooWorkingMemoryInterface
         throw new IllegalStateException( ERRORMSG );
     }
 
-    public void update( org.kie.api.runtime.rule.FactHandle handle, Object object, long mask, Class<?> modifiedClass, Activation activation ) throws FactException {
+    public void update( org.kie.api.runtime.rule.FactHandle handle, Object object, BitMask mask, Class<?> modifiedClass, Activation activation ) throws FactException {
         throw new IllegalStateException( ERRORMSG );
     }
 
@@ -23,6 +23,7 @@ import org.drools.core.common.InternalRuleBase;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.common.InternalWorkingMemoryEntryPoint;
 import org.drools.core.common.PropagationContextFactory;
+import org.drools.core.common.QueryResultsCache;
 import org.drools.core.common.RuleBasePartitionId;
 import org.drools.core.util.Iterator;
 import org.drools.core.util.ObjectHashSet.ObjectEntry;
@@ -32,6 +33,7 @@ import org.drools.core.reteoo.builder.BuildContext;
 import org.drools.core.rule.EntryPointId;
 import org.drools.core.spi.ObjectType;
 import org.drools.core.spi.PropagationContext;
+import org.drools.core.util.BitMask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -255,6 +257,7 @@ public class EntryPointNode extends ObjectSource
         }
         
         ObjectTypeNode[] cachedNodes = objectTypeConf.getObjectTypeNodes();
+        invalidateQueryResults( cachedNodes, workingMemory );
 
         for ( int i = 0, length = cachedNodes.length; i < length; i++ ) {
             cachedNodes[i].assertObject( handle,
@@ -279,6 +282,7 @@ public class EntryPointNode extends ObjectSource
         }
         
         ObjectTypeNode[] cachedNodes = objectTypeConf.getObjectTypeNodes();
+        invalidateQueryResults( cachedNodes, wm );
         
         // make a reference to the previous tuples, then null then on the handle
         ModifyPreviousTuples modifyPreviousTuples = new ModifyPreviousTuples(handle.getFirstLeftTuple(), handle.getFirstRightTuple(), this );
@@ -327,6 +331,13 @@ public class EntryPointNode extends ObjectSource
         modifyPreviousTuples.retractTuples( pctx, wm );
     }
 
+    private void invalidateQueryResults(ObjectTypeNode[] cachedNodes, InternalWorkingMemory wm) {
+        QueryResultsCache queryResultsCache = wm.getQueryResultsCache();
+        if ( queryResultsCache != null ) {
+            queryResultsCache.invalidate( cachedNodes );
+        }
+    }
+
     public void doDeleteObject(PropagationContext pctx, InternalWorkingMemory wm, LeftTuple leftTuple) {
         LeftInputAdapterNode liaNode = (LeftInputAdapterNode) leftTuple.getLeftTupleSink().getLeftTupleSource();
         LiaNodeMemory lm = ( LiaNodeMemory )  wm.getNodeMemory( liaNode );
@@ -390,6 +401,7 @@ public class EntryPointNode extends ObjectSource
             // it is  possible that there are no ObjectTypeNodes for an  object being retracted
             return;
         }
+        invalidateQueryResults( cachedNodes, workingMemory );
 
         for ( int i = 0; i < cachedNodes.length; i++ ) {
             cachedNodes[i].retractObject( handle,
@@ -511,7 +523,7 @@ public class EntryPointNode extends ObjectSource
     }
 
     @Override
-    public long calculateDeclaredMask(List<String> settableProperties) {
+    public BitMask calculateDeclaredMask(List<String> settableProperties) {
         throw new UnsupportedOperationException();
     }
 
@@ -276,6 +276,10 @@ public class EvalConditionNode extends LeftTupleSource
         public SegmentMemory getSegmentMemory() {
             return this.memory;
         }
+
+        public void reset() {
+            // the context of the condition is kept, as it doesn't refer to any fact
+        }
     }
 
     protected ObjectTypeNode getObjectTypeNode() {
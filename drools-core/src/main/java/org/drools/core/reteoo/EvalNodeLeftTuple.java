@@ -25,11 +25,9 @@ public class EvalNodeLeftTuple extends BaseLeftTuple {
 
     private static final long serialVersionUID = 540l;
 
-    private RightTuple blocker;
-
-    private LeftTuple blockedPrevious;
-
-    private LeftTuple blockedNext;
+    // children
+    private LeftTuple firstChild;
+    private LeftTuple lastChild;
 
     public EvalNodeLeftTuple() {
         // constructor needed for serialisation
@@ -96,70 +94,6 @@ public class EvalNodeLeftTuple extends BaseLeftTuple {
               leftTupleMemoryEnabled);
     }
 
-    /* (non-Javadoc)
-     * @see org.kie.reteoo.LeftTuple#unlinkFromLeftParent()
-     */
-    public void unlinkFromLeftParent() {
-        super.unlinkFromLeftParent();
-        this.blocker = null;
-    }
-
-    /* (non-Javadoc)
-     * @see org.kie.reteoo.LeftTuple#unlinkFromRightParent()
-     */
-    public void unlinkFromRightParent() {
-        super.unlinkFromRightParent();
-        this.blocker = null;
-    }
-
-    public void clearBlocker() {
-        this.blockedPrevious = null;
-        this.blockedNext = null;
-        this.blocker = null;
-    }
-
-    /* (non-Javadoc)
-     * @see org.kie.reteoo.LeftTuple#setBlocker(org.kie.reteoo.RightTuple)
-     */
-    public void setBlocker(RightTuple blocker) {
-        this.blocker = blocker;
-    }
-
-    /* (non-Javadoc)
-     * @see org.kie.reteoo.LeftTuple#getBlocker()
-     */
-    public RightTuple getBlocker() {
-        return this.blocker;
-    }
-
-    /* (non-Javadoc)
-     * @see org.kie.reteoo.LeftTuple#getBlockedPrevious()
-     */
-    public LeftTuple getBlockedPrevious() {
-        return this.blockedPrevious;
-    }
-
-    /* (non-Javadoc)
-     * @see org.kie.reteoo.LeftTuple#setBlockedPrevious(org.kie.reteoo.LeftTuple)
-     */
-    public void setBlockedPrevious(LeftTuple blockerPrevious) {
-        this.blockedPrevious = blockerPrevious;
-    }
-
-    /* (non-Javadoc)
-     * @see org.kie.reteoo.LeftTuple#getBlockedNext()
-     */
-    public LeftTuple getBlockedNext() {
-        return this.blockedNext;
-    }
-
-    /* (non-Javadoc)
-     * @see org.kie.reteoo.LeftTuple#setBlockedNext(org.kie.reteoo.LeftTuple)
-     */
-    public void setBlockedNext(LeftTuple blockerNext) {
-        this.blockedNext = blockerNext;
-    }
-
     /* (non-Javadoc)
      * @see org.kie.reteoo.LeftTuple#toString()
      */
@@ -194,4 +128,32 @@ public class EvalNodeLeftTuple extends BaseLeftTuple {
         return builder.toString();
     }
 
+    /* (non-Javadoc)
+     * @see org.kie.reteoo.LeftTuple#getFirstChild()
+     */
+    public LeftTuple getFirstChild() {
+        return this.firstChild;
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.reteoo.LeftTuple#setFirstChild(org.kie.reteoo.LeftTuple)
+     */
+    public void setFirstChild(LeftTuple firstChild) {
+        this.firstChild = firstChild;
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.reteoo.LeftTuple#getLastChild()
+     */
+    public LeftTuple getLastChild() {
+        return this.lastChild;
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.reteoo.LeftTuple#setLastChild(org.kie.reteoo.LeftTuple)
+     */
+    public void setLastChild(LeftTuple lastChild) {
+        this.lastChild = lastChild;
+    }
+
 }
@@ -309,6 +309,11 @@ public class FromNode extends LeftTupleSource
         public void setBetaMemory(BetaMemory betaMemory) {
             this.betaMemory = betaMemory;
         }
+
+        public void reset() {
+            betaMemory.reset();
+            BetaMemory.resetContext( alphaContexts );
+        }
                 
     }
     
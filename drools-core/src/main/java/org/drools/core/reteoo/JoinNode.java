@@ -27,8 +27,6 @@ import org.drools.core.reteoo.builder.BuildContext;
 import org.drools.core.rule.ContextEntry;
 import org.drools.core.spi.PropagationContext;
 
-import static org.drools.core.util.BitMaskUtil.intersect;
-
 public class JoinNode extends BetaNode {
 
     private static final long serialVersionUID = 510l;
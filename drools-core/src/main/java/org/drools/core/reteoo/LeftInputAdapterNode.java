@@ -19,7 +19,6 @@ package org.drools.core.reteoo;
 import static org.drools.core.reteoo.PropertySpecificUtil.calculatePositiveMask;
 import static org.drools.core.reteoo.PropertySpecificUtil.getSettableProperties;
 import static org.drools.core.reteoo.PropertySpecificUtil.isPropertyReactive;
-import static org.drools.core.util.BitMaskUtil.intersect;
 
 import java.io.IOException;
 import java.io.ObjectInput;
@@ -28,6 +27,7 @@ import java.util.Deque;
 import java.util.Map;
 
 import org.drools.core.RuleBaseConfiguration;
+import org.drools.core.TupleRecyclingMode;
 import org.drools.core.base.ClassObjectType;
 import org.drools.core.common.BaseNode;
 import org.drools.core.common.InternalFactHandle;
@@ -51,6 +51,7 @@ import org.drools.core.spi.ObjectType;
 import org.drools.core.spi.PropagationContext;
 import org.drools.core.spi.RuleComponent;
 import org.drools.core.util.AbstractBaseLinkedListNode;
+import org.drools.core.util.BitMask;
 import org.kie.api.definition.rule.Rule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -80,7 +81,7 @@ public class LeftInputAdapterNode extends LeftTupleSource
 
     private   int     segmentMemoryIndex;
 
-    private long sinkMask;
+    private BitMask sinkMask = BitMask.EMPTY;
 
     public LeftInputAdapterNode() {
 
@@ -114,22 +115,22 @@ public class LeftInputAdapterNode extends LeftTupleSource
         sinkMask = calculateSinkMask(context);
     }
 
-    private long calculateSinkMask(BuildContext context) {
+    private BitMask calculateSinkMask(BuildContext context) {
         Pattern pattern = context.getLastBuiltPatterns() != null ? context.getLastBuiltPatterns()[0] : null;
         if (pattern == null) {
-            return -1L;
+            return BitMask.ALL_SET;
         }
         ObjectType objectType = pattern.getObjectType();
         if ( !(objectType instanceof ClassObjectType) ) {
             // Only ClassObjectType can use property specific
-            return -1L;
+            return BitMask.ALL_SET;
         }
 
         Class objectClass = ((ClassWireable) objectType).getClassType();
         return isPropertyReactive( context, objectClass ) ?
                calculatePositiveMask( pattern.getListenedProperties(),
                                       getSettableProperties( context.getRuleBase(), objectClass ) ) :
-               -1L;
+               BitMask.ALL_SET;
     }
 
     public void readExternal(ObjectInput in) throws IOException,
@@ -138,7 +139,7 @@ public class LeftInputAdapterNode extends LeftTupleSource
         objectSource = (ObjectSource) in.readObject();
         leftTupleMemoryEnabled = in.readBoolean();
         rootQueryNode = in.readBoolean();
-        sinkMask = in.readLong();
+        sinkMask = (BitMask) in.readObject();
     }
 
     public void writeExternal(ObjectOutput out) throws IOException {
@@ -146,7 +147,7 @@ public class LeftInputAdapterNode extends LeftTupleSource
         out.writeObject(objectSource);
         out.writeBoolean(leftTupleMemoryEnabled);
         out.writeBoolean(rootQueryNode);
-        out.writeLong(sinkMask);
+        out.writeObject(sinkMask);
     }
 
     public ObjectSource getObjectSource() {
@@ -226,7 +227,8 @@ public class LeftInputAdapterNode extends LeftTupleSource
         }
 
         LeftTupleSink sink = liaNode.getSinkPropagator().getFirstLeftTupleSink();
-        LeftTuple leftTuple = sink.createLeftTuple( factHandle, sink, useLeftMemory );
+        BetaMemory bm = getRecyclingMemory( sink, wm );
+        LeftTuple leftTuple = bm != null ? bm.createLeftTuple( factHandle, sink, useLeftMemory ) : sink.createLeftTuple( factHandle, sink, useLeftMemory );
         leftTuple.setPropagationContext( context );
         doInsertSegmentMemory(context, wm, notifySegment, lm, sm, leftTuple, liaNode);
 
@@ -235,7 +237,8 @@ public class LeftInputAdapterNode extends LeftTupleSource
 
             for ( sm = sm.getNext(); sm != null; sm = sm.getNext() ) {
                 sink =  sm.getSinkFactory();
-                leftTuple = sink.createPeer( leftTuple ); // pctx is set during peer cloning
+                bm = getRecyclingMemory( sink, wm );
+                leftTuple = bm != null ? bm.createPeer( leftTuple, sink ) : sink.createPeer( leftTuple ); // pctx is set during peer cloning
                 doInsertSegmentMemory(context, wm, notifySegment, lm, sm, leftTuple, liaNode);
             }
         }
@@ -259,6 +262,17 @@ public class LeftInputAdapterNode extends LeftTupleSource
         }
     }
 
+    /**
+     * Returns the memory of the given sink if it recycles the LeftTuples created for it, or null otherwise
+     */
+    private static BetaMemory getRecyclingMemory(LeftTupleSink sink, InternalWorkingMemory wm) {
+        if ( wm.getSessionConfiguration().getTupleRecyclingMode() == TupleRecyclingMode.NONE || !NodeTypeEnums.isBetaNode( sink ) ) {
+            return null;
+        }
+        BetaMemory bm = BetaNode.getBetaMemory( (BetaNode) sink, wm );
+        return bm.getLeftTuplePool() != null ? bm : null;
+    }
+
     private static void doInsertSegmentMemory(PropagationContext pctx, InternalWorkingMemory wm, boolean linkOrNotify, final LiaNodeMemory lm,
                                               SegmentMemory sm, LeftTuple leftTuple, LeftInputAdapterNode liaNode) {
         boolean stagedInsertWasEmpty = false;
@@ -298,6 +312,8 @@ public class LeftInputAdapterNode extends LeftTupleSource
             sm = sm.getFirst(); // repoint to the child sm
         }
 
+        // the peer is read before the staging, as a staged tuple can be evaluated and recycled concurrently
+        LeftTuple peer = leftTuple.getPeer();
         doDeleteSegmentMemory(leftTuple, context, lm, sm, wm, linkOrNotify);
 
         if ( sm.getNext() != null) {
@@ -305,10 +321,11 @@ public class LeftInputAdapterNode extends LeftTupleSource
 
             for ( sm = sm.getNext(); sm != null; sm = sm.getNext() ) {
                 // iterate for peers segment memory
-                leftTuple = leftTuple.getPeer();
+                leftTuple = peer;
                 if (leftTuple == null) {
                     break;
                 }
+                peer = leftTuple.getPeer();
                 doDeleteSegmentMemory(leftTuple, context, lm, sm, wm, linkOrNotify);
             }
         }
@@ -435,8 +452,8 @@ public class LeftInputAdapterNode extends LeftTupleSource
             modifyPreviousTuples.removeLeftTuple();
             leftTuple.reAdd();
             LeftTupleSink sink = getSinkPropagator().getFirstLeftTupleSink();
-            long mask = sink.getLeftInferredMask();
-            if ( intersect( context.getModificationMask(),  mask) ) {
+            BitMask mask = sink.getLeftInferredMask();
+            if ( context.getModificationMask().intersects( mask ) ) {
                 doUpdateObject( leftTuple, context, workingMemory, (LeftInputAdapterNode) leftTuple.getLeftTupleSink().getLeftTupleSource(), true, lm, lm.getSegmentMemory() );
                 if (leftTuple instanceof Activation) {
                     ((Activation)leftTuple).setActive(true);
@@ -444,8 +461,8 @@ public class LeftInputAdapterNode extends LeftTupleSource
             }
         } else {
             LeftTupleSink sink = getSinkPropagator().getFirstLeftTupleSink();
-            long mask = sink.getLeftInferredMask();
-            if ( intersect( context.getModificationMask(),  mask) ) {
+            BitMask mask = sink.getLeftInferredMask();
+            if ( context.getModificationMask().intersects( mask ) ) {
                 doInsertObject(factHandle, context, this,
                                workingMemory,
                                lm, true, true);
@@ -564,7 +581,7 @@ public class LeftInputAdapterNode extends LeftTupleSource
 
         final LeftInputAdapterNode other = (LeftInputAdapterNode) object;
 
-        return this.sinkMask == other.sinkMask && this.objectSource.equals(other.objectSource);
+        return this.sinkMask.equals(other.sinkMask) && this.objectSource.equals(other.objectSource);
     }
 
     protected ObjectTypeNode getObjectTypeNode() {
@@ -650,6 +667,10 @@ public class LeftInputAdapterNode extends LeftTupleSource
         public void setNodeDirty(InternalWorkingMemory wm) {
             segmentMemory.notifyRuleLinkSegment(wm, nodePosMaskBit);
         }
+
+        public void reset() {
+            this.counter = 0;
+        }
     }
 
     /**
@@ -15,6 +15,8 @@ public interface LeftTuple
     static final short INSERT = 1;
     static final short UPDATE = 2;
     static final short DELETE = 3;
+    // the tuple was returned to the free list of its node, and must not be used until it is initialised again
+    static final short RECYCLED = 4;
 
     void reAdd();
 
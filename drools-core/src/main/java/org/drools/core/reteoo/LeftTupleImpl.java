@@ -24,6 +24,10 @@ import org.drools.core.spi.PropagationContext;
 public class LeftTupleImpl extends BaseLeftTuple {
     private static final long serialVersionUID = 540l;
 
+    // children
+    private LeftTuple firstChild;
+    private LeftTuple lastChild;
+
     private RightTuple blocker;
     private LeftTuple  blockedPrevious;
     private LeftTuple  blockedNext;
@@ -177,4 +181,32 @@ public class LeftTupleImpl extends BaseLeftTuple {
         return builder.toString();
     }
 
+    /* (non-Javadoc)
+     * @see org.kie.reteoo.LeftTuple#getFirstChild()
+     */
+    public LeftTuple getFirstChild() {
+        return this.firstChild;
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.reteoo.LeftTuple#setFirstChild(org.kie.reteoo.LeftTuple)
+     */
+    public void setFirstChild(LeftTuple firstChild) {
+        this.firstChild = firstChild;
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.reteoo.LeftTuple#getLastChild()
+     */
+    public LeftTuple getLastChild() {
+        return this.lastChild;
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.reteoo.LeftTuple#setLastChild(org.kie.reteoo.LeftTuple)
+     */
+    public void setLastChild(LeftTuple lastChild) {
+        this.lastChild = lastChild;
+    }
+
 }
@@ -54,4 +54,9 @@ public interface LeftTupleMemory {
      */    
     public FastIterator fullFastIterator(LeftTuple leftTuple);
 
+    /**
+     * Removes all the tuples, keeping the allocated capacity so that the memory can be reused by a reset session
+     */
+    public void clear();
+
 }
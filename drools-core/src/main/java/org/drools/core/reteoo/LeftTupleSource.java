@@ -26,6 +26,7 @@ import org.drools.core.rule.Pattern;
 import org.drools.core.spi.ClassWireable;
 import org.drools.core.spi.ObjectType;
 import org.drools.core.spi.PropagationContext;
+import org.drools.core.util.BitMask;
 
 import java.io.Externalizable;
 import java.io.IOException;
@@ -52,9 +53,9 @@ public abstract class LeftTupleSource extends BaseNode
         implements
         Externalizable {
 
-    private long                      leftDeclaredMask;
-    private long                      leftInferredMask;
-    private long                      leftNegativeMask;
+    private BitMask                   leftDeclaredMask = BitMask.EMPTY;
+    private BitMask                   leftInferredMask = BitMask.EMPTY;
+    private BitMask                   leftNegativeMask = BitMask.EMPTY;
 
 
     /** The left input <code>TupleSource</code>. */
@@ -98,18 +99,18 @@ public abstract class LeftTupleSource extends BaseNode
         super.readExternal( in );
         sink = (LeftTupleSinkPropagator) in.readObject();
         leftInput = (LeftTupleSource) in.readObject();        
-        leftDeclaredMask = in.readLong();
-        leftInferredMask = in.readLong();
-        leftNegativeMask = in.readLong();
+        leftDeclaredMask = (BitMask) in.readObject();
+        leftInferredMask = (BitMask) in.readObject();
+        leftNegativeMask = (BitMask) in.readObject();
     }
 
     public void writeExternal(ObjectOutput out) throws IOException {
         super.writeExternal( out );
         out.writeObject( sink );
         out.writeObject( leftInput );        
-        out.writeLong( leftDeclaredMask );
-        out.writeLong( leftInferredMask );
-        out.writeLong( leftNegativeMask );
+        out.writeObject( leftDeclaredMask );
+        out.writeObject( leftInferredMask );
+        out.writeObject( leftNegativeMask );
     }
 
     public abstract short getType();
@@ -202,13 +203,13 @@ public abstract class LeftTupleSource extends BaseNode
                                     LeftTupleSource leftInput) {
         if ( context == null || context.getLastBuiltPatterns() == null ) {
             // only happens during unit tests
-            leftDeclaredMask = -1L;
+            leftDeclaredMask = BitMask.ALL_SET;
             return;
         }
 
         if ( leftInput.getType() != NodeTypeEnums.LeftInputAdapterNode) {
             // BetaNode's not after LIANode are not relevant for left mask property specific, so don't block anything.
-            leftDeclaredMask = -1L;
+            leftDeclaredMask = BitMask.ALL_SET;
             return;
         }
 
@@ -220,7 +221,7 @@ public abstract class LeftTupleSource extends BaseNode
 
         if ( !(objectType instanceof ClassObjectType) ) {
             // Only ClassObjectType can use property specific
-            leftDeclaredMask = -1L;
+            leftDeclaredMask = BitMask.ALL_SET;
             return;
         }
 
@@ -236,7 +237,7 @@ public abstract class LeftTupleSource extends BaseNode
             }
         } else {
             // if property specific is not on, then accept all modification propagations
-            leftDeclaredMask = -1L;
+            leftDeclaredMask = BitMask.ALL_SET;
         }
     }
 
@@ -250,7 +251,7 @@ public abstract class LeftTupleSource extends BaseNode
         } else {
             leftInferredMask = leftDeclaredMask;
         }
-        leftInferredMask &= (-1L - leftNegativeMask);
+        leftInferredMask = leftInferredMask.resetAll( leftNegativeMask );
     }
 
     private LeftTupleSource unwrapLeftInput(LeftTupleSource leftInput) {
@@ -260,19 +261,19 @@ public abstract class LeftTupleSource extends BaseNode
         return leftInput;
     }
 
-    public long getLeftDeclaredMask() {
+    public BitMask getLeftDeclaredMask() {
         return leftDeclaredMask;
     }
 
-    public long getLeftInferredMask() {
+    public BitMask getLeftInferredMask() {
         return leftInferredMask;
     }
 
-    protected void setLeftInferredMask(long leftInferredMask) {
+    protected void setLeftInferredMask(BitMask leftInferredMask) {
         this.leftInferredMask = leftInferredMask;
     }
 
-    public long getLeftNegativeMask() {
+    public BitMask getLeftNegativeMask() {
         return leftNegativeMask;
     }
 
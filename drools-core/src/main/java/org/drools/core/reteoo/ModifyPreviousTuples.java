@@ -58,16 +58,21 @@ public class ModifyPreviousTuples {
     public void retractTuples(PropagationContext pctx,
                               InternalWorkingMemory wm) {
         // retract any remaining LeftTuples
+        // the next tuples are read before the retractions, as a retracted tuple can be recycled concurrently
         if ( this.leftTuple != null ) {
-            for ( LeftTuple current = this.leftTuple; current != null; current = (LeftTuple) current.getLeftParentNext() ) {
+            for ( LeftTuple current = this.leftTuple; current != null; ) {
+                LeftTuple next = current.getLeftParentNext();
                 epNode.doDeleteObject(pctx, wm, current);
+                current = next;
             }
         }
         
         // retract any remaining RightTuples
         if (this.rightTuple != null ) {
-            for ( RightTuple current = this.rightTuple; current != null; current = (RightTuple) current.getHandleNext() ) {
+            for ( RightTuple current = this.rightTuple; current != null; ) {
+                RightTuple next = current.getHandleNext();
                 epNode.doRightDelete(pctx, wm, current);
+                current = next;
             }
         }
     }
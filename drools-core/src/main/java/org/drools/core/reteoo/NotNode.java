@@ -28,8 +28,6 @@ import org.drools.core.phreak.RightTupleEntry;
 import org.drools.core.reteoo.builder.BuildContext;
 import org.drools.core.spi.PropagationContext;
 
-import static org.drools.core.util.BitMaskUtil.intersect;
-
 public class NotNode extends BetaNode {
     private static final long serialVersionUID = 510l;
 
@@ -144,7 +142,8 @@ public class NotNode extends BetaNode {
 
         RightTuple rightTuple = createRightTuple( factHandle,
                                                   this,
-                                                  pctx);
+                                                  pctx,
+                                                  memory );
 
         rightTuple.setPropagationContext(pctx);
 
@@ -24,6 +24,12 @@ import org.drools.core.spi.PropagationContext;
 public class NotNodeLeftTuple extends BaseLeftTuple {
     private static final long serialVersionUID = 540l;
 
+    // children
+    private LeftTuple firstChild;
+    private LeftTuple lastChild;
+    // set once a child refers to this tuple, after which it can't be recycled anymore
+    private boolean   hadChildren;
+
     private RightTuple blocker;
     private LeftTuple  blockedPrevious;
     private LeftTuple  blockedNext;
@@ -197,4 +203,48 @@ public class NotNodeLeftTuple extends BaseLeftTuple {
         this.blockedNext = blockerNext;
     }
 
+    /* (non-Javadoc)
+     * @see org.kie.reteoo.LeftTuple#getFirstChild()
+     */
+    public LeftTuple getFirstChild() {
+        return this.firstChild;
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.reteoo.LeftTuple#setFirstChild(org.kie.reteoo.LeftTuple)
+     */
+    public void setFirstChild(LeftTuple firstChild) {
+        this.firstChild = firstChild;
+        if ( firstChild != null ) {
+            this.hadChildren = true;
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.reteoo.LeftTuple#getLastChild()
+     */
+    public LeftTuple getLastChild() {
+        return this.lastChild;
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.reteoo.LeftTuple#setLastChild(org.kie.reteoo.LeftTuple)
+     */
+    public void setLastChild(LeftTuple lastChild) {
+        this.lastChild = lastChild;
+    }
+
+    public boolean isRecyclable() {
+        return !this.hadChildren;
+    }
+
+    public void recycle() {
+        super.recycle();
+        this.firstChild = null;
+        this.lastChild = null;
+        this.hadChildren = false;
+        this.blocker = null;
+        this.blockedPrevious = null;
+        this.blockedNext = null;
+    }
 }
@@ -54,6 +54,7 @@ import org.drools.core.time.JobHandle;
 import org.drools.core.time.TimerService;
 import org.drools.core.time.impl.DefaultJobHandle;
 import org.drools.core.time.impl.PointInTimeTrigger;
+import org.drools.core.util.BitMask;
 
 import java.io.Externalizable;
 import java.io.IOException;
@@ -241,8 +242,8 @@ public class ObjectTypeNode extends ObjectSource
     }
 
     @Override
-    public long calculateDeclaredMask(List<String> settableProperties) {
-        return 0;
+    public BitMask calculateDeclaredMask(List<String> settableProperties) {
+        return BitMask.EMPTY;
     }
 
     public boolean isAssignableFrom(final ObjectType objectType) {
@@ -252,7 +253,13 @@ public class ObjectTypeNode extends ObjectSource
     public void setCompiledNetwork(CompiledNetwork compiledNetwork) {
         this.compiledNetwork = compiledNetwork;
 
-        this.compiledNetwork.setObjectTypeNode( this );
+        if ( compiledNetwork != null ) {
+            this.compiledNetwork.setObjectTypeNode( this );
+        }
+    }
+
+    public CompiledNetwork getCompiledNetwork() {
+        return this.compiledNetwork;
     }
 
     /**
@@ -347,11 +354,14 @@ public class ObjectTypeNode extends ObjectSource
         }
         factHandle.clearRightTuples();
 
-        for ( LeftTuple leftTuple = factHandle.getFirstLeftTuple(); leftTuple != null; leftTuple = leftTuple.getLeftParentNext() ) {
+        for ( LeftTuple leftTuple = factHandle.getFirstLeftTuple(); leftTuple != null; ) {
+            // the next tuple is read before the retraction, as a retracted tuple can be recycled concurrently
+            LeftTuple nextLeftTuple = leftTuple.getLeftParentNext();
             // must go via the LiaNode, so that the fact counter is updated, for linking
             ((LeftInputAdapterNode) leftTuple.getLeftTupleSink().getLeftTupleSource()).retractLeftTuple( leftTuple,
                                                                                                          context,
                                                                                                          workingMemory );
+            leftTuple = nextLeftTuple;
         }
         factHandle.clearLeftTuples();
     }
@@ -779,6 +789,10 @@ public class ObjectTypeNode extends ObjectSource
             throw new UnsupportedOperationException();
         }
 
+        public void reset() {
+            this.memory.clear();
+        }
+
         public String toString() {
             return "ObjectTypeMemory " + otn;
         }
@@ -124,7 +124,10 @@ public class PathMemory extends AbstractBaseLinkedListNode<Memory>
     public void queueRuleAgendaItem(InternalWorkingMemory wm) {
         InternalAgenda agenda = (InternalAgenda) wm.getAgenda();
         synchronized ( agendaItem ) {
-            agendaItem.getRuleExecutor().setDirty(true);
+            if ( !agendaItem.getRuleExecutor().isDirty() ) {
+                agendaItem.getRuleExecutor().setDirty(true);
+                agenda.addDirtyRuleAgendaItem( agendaItem );
+            }
             ActivationsFilter activationFilter = agenda.getActivationsFilter();
             if ( activationFilter != null && !activationFilter.accept( agendaItem,
                                                                        wm,
@@ -183,6 +186,30 @@ public class PathMemory extends AbstractBaseLinkedListNode<Memory>
         this.segmentMemory = sm;
     }
 
+    /**
+     * Resets the segments of this path and links it back to the ones starting up linked.
+     * The agenda item is dropped, as it is discarded by the cleared agenda.
+     */
+    public void reset() {
+        long mask = 0;
+        if ( segmentMemories != null ) {
+            for ( SegmentMemory smem : segmentMemories ) {
+                if ( smem != null ) {
+                    // a segment shared by many paths is reset more than once, which is harmless
+                    smem.reset();
+                    if ( smem.isSegmentLinked() ) {
+                        mask |= smem.getSegmentPosMaskBit();
+                    }
+                }
+            }
+        }
+        linkedSegmentMask.set( mask );
+        agendaItem = null;
+        if ( queue != null ) {
+            queue.clear();
+        }
+    }
+
     public String toString() {
         return "[RuleMem " + getRule().getName() + "]";
     }
@@ -4,7 +4,7 @@ import org.drools.core.base.ClassObjectType;
 import org.drools.core.common.InternalRuleBase;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.factmodel.traits.TraitableBean;
-import org.drools.core.util.BitMaskUtil;
+import org.drools.core.util.BitMask;
 import org.drools.core.util.ClassUtils;
 import org.drools.core.reteoo.builder.BuildContext;
 import org.drools.core.rule.TypeDeclaration;
@@ -23,22 +23,22 @@ public class PropertySpecificUtil {
         return typeDeclaration != null && typeDeclaration.isPropertyReactive();
     }
 
-    public static long calculatePositiveMask(List<String> listenedProperties, List<String> settableProperties) {
+    public static BitMask calculatePositiveMask(List<String> listenedProperties, List<String> settableProperties) {
         return calculatePatternMask(listenedProperties, settableProperties, true);
     }
 
-    public static long calculateNegativeMask(List<String> listenedProperties, List<String> settableProperties) {
+    public static BitMask calculateNegativeMask(List<String> listenedProperties, List<String> settableProperties) {
         return calculatePatternMask(listenedProperties, settableProperties, false);
     }
 
-    private static long calculatePatternMask(List<String> listenedProperties, List<String> settableProperties, boolean isPositive) {
-        long mask = isPositive ? ( listenedProperties != null && listenedProperties.contains( TraitableBean.TRAITSET_FIELD_NAME ) ? Long.MIN_VALUE : 0 ) : 0;
+    private static BitMask calculatePatternMask(List<String> listenedProperties, List<String> settableProperties, boolean isPositive) {
+        BitMask mask = isPositive && listenedProperties != null && listenedProperties.contains( TraitableBean.TRAITSET_FIELD_NAME ) ? BitMask.TRAIT : BitMask.EMPTY;
         if (listenedProperties == null) {
             return mask;
         }
         for (String propertyName : listenedProperties) {
             if (propertyName.equals(isPositive ? "*" : "!*")) {
-                return isPositive ? -1L : Long.MAX_VALUE;
+                return isPositive ? BitMask.ALL_SET : BitMask.ALL_SET_BUT_TRAIT;
             }
             if (propertyName.startsWith("!") ^ !isPositive) {
                 continue;
@@ -51,7 +51,7 @@ public class PropertySpecificUtil {
             if (pos < 0) {
                 throw new RuntimeException("Unknown property: " + propertyName);
             }
-            mask = BitMaskUtil.set(mask, pos);
+            mask = mask.setProperty(pos);
         }
         return mask;
     }
@@ -610,6 +610,10 @@ public class QueryElementNode extends LeftTupleSource
         public void setNodeCleanWithoutNotify() {
             smem.updateCleanNodeMask( nodePosMaskBit );
         }
+
+        public void reset() {
+            this.resultLeftTuples.resetAll();
+        }
     }
 
     protected ObjectTypeNode getObjectTypeNode() {
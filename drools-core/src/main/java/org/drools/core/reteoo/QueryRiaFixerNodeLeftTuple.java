@@ -22,6 +22,10 @@ import org.drools.core.spi.PropagationContext;
 public class QueryRiaFixerNodeLeftTuple extends BaseLeftTuple {
     private static final long  serialVersionUID = 540l;
 
+    // children
+    private LeftTuple firstChild;
+    private LeftTuple lastChild;
+
     public QueryRiaFixerNodeLeftTuple() {
         // constructor needed for serialisation
     }
@@ -81,4 +85,33 @@ public class QueryRiaFixerNodeLeftTuple extends BaseLeftTuple {
                leftTupleMemoryEnabled );
     }
     
+
+    /* (non-Javadoc)
+     * @see org.kie.reteoo.LeftTuple#getFirstChild()
+     */
+    public LeftTuple getFirstChild() {
+        return this.firstChild;
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.reteoo.LeftTuple#setFirstChild(org.kie.reteoo.LeftTuple)
+     */
+    public void setFirstChild(LeftTuple firstChild) {
+        this.firstChild = firstChild;
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.reteoo.LeftTuple#getLastChild()
+     */
+    public LeftTuple getLastChild() {
+        return this.lastChild;
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.reteoo.LeftTuple#setLastChild(org.kie.reteoo.LeftTuple)
+     */
+    public void setLastChild(LeftTuple lastChild) {
+        this.lastChild = lastChild;
+    }
+
 }
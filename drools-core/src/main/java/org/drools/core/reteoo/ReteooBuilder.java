@@ -23,6 +23,7 @@ import org.drools.core.common.InternalRuleBase;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.common.MemoryFactory;
 import org.drools.core.phreak.AddRemoveRule;
+import org.drools.core.reteoo.compiled.CompiledNetworkFactory;
 import org.drools.core.rule.InvalidPatternException;
 import org.drools.core.rule.Rule;
 import org.drools.core.rule.WindowDeclaration;
@@ -33,11 +34,15 @@ import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 
 /**
  * Builds the Rete-OO network for a <code>Package</code>.
@@ -63,6 +68,9 @@ public class ReteooBuilder
 
     private IdGenerator                 idGenerator;
 
+    /** The ObjectTypeNodes whose CompiledNetwork has to be regenerated, as their alpha network changed */
+    private transient Set<ObjectTypeNode> outdatedCompiledNetworks;
+
     // ------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------
@@ -105,8 +113,11 @@ public class ReteooBuilder
                                                                        this.ruleBase,
                                                                        this.idGenerator );
 
+        final BaseNode[] nodes = terminals.toArray( new BaseNode[terminals.size()] );
         this.rules.put( rule.getName(),
-                        terminals.toArray( new BaseNode[terminals.size()] ) );
+                        nodes );
+
+        invalidateCompiledNetworks( collectObjectTypeNodes( nodes ) );
     }
 
     public void addEntryPoint( String id ) {
@@ -153,11 +164,83 @@ public class ReteooBuilder
 
         final BaseNode[] nodes = this.rules.remove( rule.getName() );
 
+        // the compiled networks refer to the nodes being removed, so they are dropped before the removal
+        invalidateCompiledNetworks( collectObjectTypeNodes( nodes ) );
+
         for (BaseNode node : nodes) {
             removeTerminalNode(context, (TerminalNode) node, workingMemories);
         }
     }
 
+    /**
+     * Regenerates the CompiledNetworks invalidated by the rules added or removed since the last invocation.
+     * It is invoked by the rule base when its write lock is released, so that a package is compiled once
+     * instead of once per rule. Until then the affected ObjectTypeNodes use the interpreted network.
+     */
+    public void updateCompiledNetworks() {
+        if ( this.outdatedCompiledNetworks == null || this.outdatedCompiledNetworks.isEmpty() ) {
+            return;
+        }
+
+        for ( ObjectTypeNode objectTypeNode : this.outdatedCompiledNetworks ) {
+            if ( objectTypeNode.isInUse() ) {
+                objectTypeNode.setCompiledNetwork( CompiledNetworkFactory.newCompiledNetwork( objectTypeNode,
+                                                                                              this.ruleBase ) );
+            }
+        }
+        this.outdatedCompiledNetworks.clear();
+    }
+
+    private void invalidateCompiledNetworks(final Collection<ObjectTypeNode> objectTypeNodes) {
+        if ( !this.ruleBase.getConfiguration().isPhreakEnabled() || !this.ruleBase.getConfiguration().isCompiledAlphaNetwork() ) {
+            return;
+        }
+
+        if ( this.outdatedCompiledNetworks == null ) {
+            this.outdatedCompiledNetworks = new HashSet<ObjectTypeNode>();
+        }
+        for ( ObjectTypeNode objectTypeNode : objectTypeNodes ) {
+            objectTypeNode.setCompiledNetwork( null );
+            this.outdatedCompiledNetworks.add( objectTypeNode );
+        }
+    }
+
+    /**
+     * Returns the ObjectTypeNodes whose alpha network leads to the given terminal nodes
+     */
+    private Collection<ObjectTypeNode> collectObjectTypeNodes(final BaseNode[] terminalNodes) {
+        final Set<ObjectTypeNode> objectTypeNodes = new HashSet<ObjectTypeNode>();
+        final Map<BaseNode, Boolean> visited = new IdentityHashMap<BaseNode, Boolean>();
+        for ( BaseNode node : terminalNodes ) {
+            collectObjectTypeNodes( node,
+                                    objectTypeNodes,
+                                    visited );
+        }
+        return objectTypeNodes;
+    }
+
+    private void collectObjectTypeNodes(final BaseNode node,
+                                        final Set<ObjectTypeNode> objectTypeNodes,
+                                        final Map<BaseNode, Boolean> visited) {
+        if ( node == null || visited.put( node, Boolean.TRUE ) != null ) {
+            return;
+        }
+
+        if ( node.getType() == NodeTypeEnums.ObjectTypeNode ) {
+            objectTypeNodes.add( (ObjectTypeNode) node );
+        } else if ( NodeTypeEnums.isBetaNode( node ) ) {
+            collectObjectTypeNodes( ((BetaNode) node).getLeftTupleSource(), objectTypeNodes, visited );
+            collectObjectTypeNodes( ((BetaNode) node).getRightInput(), objectTypeNodes, visited );
+        } else if ( NodeTypeEnums.LeftInputAdapterNode == node.getType() ) {
+            collectObjectTypeNodes( ((LeftInputAdapterNode) node).getParentObjectSource(), objectTypeNodes, visited );
+        } else if ( NodeTypeEnums.isLeftTupleSink( node ) ) {
+            // terminal nodes, the other left tuple sinks and the right input adapters
+            collectObjectTypeNodes( ((LeftTupleSink) node).getLeftTupleSource(), objectTypeNodes, visited );
+        } else if ( NodeTypeEnums.isObjectSource( node ) ) {
+            collectObjectTypeNodes( ((ObjectSource) node).getParentObjectSource(), objectTypeNodes, visited );
+        }
+    }
+
     public void removeTerminalNode(RuleRemovalContext context, TerminalNode tn, InternalWorkingMemory[] workingMemories)  {
         if ( this.ruleBase.getConfiguration().isPhreakEnabled() ) {
             AddRemoveRule.removeRule( tn, workingMemories, ruleBase );
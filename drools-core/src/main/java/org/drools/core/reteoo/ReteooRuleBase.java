@@ -29,6 +29,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.drools.core.FactException;
@@ -76,6 +77,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.drools.core.RuleBase;
@@ -89,6 +91,7 @@ import org.drools.core.util.ObjectHashSet;
 import org.drools.core.util.TripleStore;
 import org.drools.core.event.RuleBaseEventSupport;
 import org.drools.core.factmodel.traits.TraitRegistry;
+import org.drools.core.phreak.RuleAdditionBatch;
 import org.drools.core.rule.DialectRuntimeRegistry;
 import org.drools.core.rule.Function;
 import org.drools.core.rule.ImportDeclaration;
@@ -124,6 +127,13 @@ public class ReteooRuleBase
      * SERIAL_VERSION_ID=320 stands for version 3.2.0
      */
     private static final long serialVersionUID = 510l;
+
+    /** The milliseconds first waited for the network lock of a session before releasing the ones already taken */
+    private static final long SESSION_LOCK_TIMEOUT = 100;
+
+    /** The longest wait for the network lock of a single session, after backing off */
+    private static final long MAX_SESSION_LOCK_TIMEOUT = 3200;
+
     public  Set<EntryPointNode> addedEntryNodeCache;
     public  Set<EntryPointNode> removedEntryNodeCache;
     // ------------------------------------------------------------
@@ -162,9 +172,24 @@ public class ReteooRuleBase
      */
     private final ReentrantLock statefulSessionLock = new ReentrantLock();
 
+    /**
+     * The network locks of all the sessions, even the ones not kept by reference, write locked while the network
+     * is modified. This lock is used when adding to, or reading the <field>sessionLocks</field> too.
+     */
+    private transient Map<UpgradableReentrantReadWriteLock, Boolean> sessionLocks;
+
+    private transient List<UpgradableReentrantReadWriteLock> lockedSessions;
+
+    /**
+     * The facts of the phreak rules added while this rulebase is locked are propagated when it is unlocked
+     */
+    private transient RuleAdditionBatch ruleAdditionBatch;
+
     private int additionsSinceLock;
     private int removalsSinceLock;
 
+    private volatile int modificationCount;
+
     private transient Map<String, TypeDeclaration> classTypeDeclaration;
 
     private List<RuleBasePartitionId> partitionIDs;
@@ -210,6 +235,7 @@ public class ReteooRuleBase
         this.processes = new HashMap<String, Process>();
         this.globals = new HashMap<String, Class<?>>();
         this.statefulSessions = new ObjectHashSet();
+        this.sessionLocks = new WeakHashMap<UpgradableReentrantReadWriteLock, Boolean>();
 
         this.classTypeDeclaration = new HashMap<String, TypeDeclaration>();
         this.partitionIDs = new CopyOnWriteArrayList<RuleBasePartitionId>();
@@ -330,6 +356,7 @@ public class ReteooRuleBase
         this.eventSupport = (RuleBaseEventSupport) droolsStream.readObject();
         this.eventSupport.setRuleBase(this);
         this.statefulSessions = new ObjectHashSet();
+        this.sessionLocks = new WeakHashMap<UpgradableReentrantReadWriteLock, Boolean>();
 
         this.reteooBuilder = (ReteooBuilder) droolsStream.readObject();
         this.reteooBuilder.setRuleBase(this);
@@ -526,6 +553,15 @@ public class ReteooRuleBase
         // Always lock to increase the counter
         this.lock.writeLock();
         if ( firstLock ) {
+            try {
+                lockSessions();
+            } catch ( RuntimeException e ) {
+                this.lock.writeUnlock();
+                throw e;
+            }
+            if ( getConfiguration().isPhreakEnabled() ) {
+                this.ruleAdditionBatch = new RuleAdditionBatch();
+            }
             this.additionsSinceLock = 0;
             this.removalsSinceLock = 0;
             this.eventSupport.fireAfterRuleBaseLocked();
@@ -535,7 +571,11 @@ public class ReteooRuleBase
     public void unlock() {
         boolean lastUnlock = this.lock.getWriteHoldCount() == 1;
         if (lastUnlock) {
+            insertAddedRulesFacts();
+            this.reteooBuilder.updateCompiledNetworks();
+            this.modificationCount++;
             this.eventSupport.fireBeforeRuleBaseUnlocked();
+            unlockSessions();
         }
         this.lock.writeUnlock();
         if ( lastUnlock ) {
@@ -543,6 +583,18 @@ public class ReteooRuleBase
         }
     }
 
+    private void insertAddedRulesFacts() {
+        RuleAdditionBatch batch = this.ruleAdditionBatch;
+        this.ruleAdditionBatch = null;
+        if ( batch != null && !batch.isEmpty() ) {
+            batch.insertFacts( getWorkingMemories() );
+        }
+    }
+
+    public RuleAdditionBatch getRuleAdditionBatch() {
+        return this.ruleAdditionBatch;
+    }
+
     public void readLock() {
         this.lock.readLock();
     }
@@ -551,6 +603,68 @@ public class ReteooRuleBase
         this.lock.readUnlock();
     }
 
+    public void addSessionLock(UpgradableReentrantReadWriteLock sessionLock) {
+        statefulSessionLock.lock();
+        try {
+            this.sessionLocks.put( sessionLock, Boolean.TRUE );
+        } finally {
+            statefulSessionLock.unlock();
+        }
+    }
+
+    public void removeSessionLock(UpgradableReentrantReadWriteLock sessionLock) {
+        statefulSessionLock.lock();
+        try {
+            this.sessionLocks.remove( sessionLock );
+        } finally {
+            statefulSessionLock.unlock();
+        }
+    }
+
+    private void lockSessions() {
+        List<UpgradableReentrantReadWriteLock> locks;
+        statefulSessionLock.lock();
+        try {
+            locks = new ArrayList<UpgradableReentrantReadWriteLock>( this.sessionLocks.keySet() );
+        } finally {
+            statefulSessionLock.unlock();
+        }
+
+        long timeout = getConfiguration().getSessionLockTimeout();
+        long deadline = timeout > 0 ? System.currentTimeMillis() + timeout : Long.MAX_VALUE;
+        long wait = SESSION_LOCK_TIMEOUT;
+        int locked = 0;
+        while ( locked < locks.size() ) {
+            long remaining = deadline - System.currentTimeMillis();
+            if ( remaining > 0 && locks.get( locked ).tryWriteLock( Math.min( wait, remaining ), TimeUnit.MILLISECONDS ) ) {
+                locked++;
+                continue;
+            }
+
+            // a rule fired by that session may be waiting for one of the sessions locked so far, release them
+            // all instead of holding them while waiting
+            int busy = locked;
+            while ( locked > 0 ) {
+                locks.get( --locked ).writeUnlock();
+            }
+            if ( System.currentTimeMillis() >= deadline ) {
+                throw new IllegalStateException( "Unable to lock the " + locks.size() + " sessions of the rulebase " + this.id +
+                                                 " within " + timeout + "ms: a session is still firing or updating its facts" );
+            }
+            // lock the busy session first on the next round, waiting longer for it, so that a long fire can't starve the update
+            locks.add( 0, locks.remove( busy ) );
+            wait = Math.min( wait * 2, MAX_SESSION_LOCK_TIMEOUT );
+        }
+        this.lockedSessions = locks;
+    }
+
+    private void unlockSessions() {
+        for ( UpgradableReentrantReadWriteLock sessionLock : this.lockedSessions ) {
+            sessionLock.writeUnlock();
+        }
+        this.lockedSessions = null;
+    }
+
     /**
      * Add a <code>Package</code> to the network. Iterates through the
      * <code>Package</code> adding Each individual <code>Rule</code> to the
@@ -1149,6 +1263,10 @@ public class ReteooRuleBase
         return this.reteooBuilder.getIdGenerator().getLastId() + 1;
     }
 
+    public int getModificationCount() {
+        return this.modificationCount;
+    }
+
     public void addPackages(Package[] pkgs) {
         addPackages( Arrays.asList(pkgs) );
     }
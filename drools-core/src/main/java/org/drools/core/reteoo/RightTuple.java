@@ -64,6 +64,15 @@ public class RightTuple
 
     public RightTuple(InternalFactHandle handle,
                       RightTupleSink sink) {
+        init( handle,
+              sink );
+    }
+
+    /**
+     * Initialises the tuple, either when it is created or when it is taken from the free list of its node
+     */
+    public void init(InternalFactHandle handle,
+                     RightTupleSink sink) {
         this.handle = handle;
         this.sink = sink;
 
@@ -301,4 +310,29 @@ public class RightTuple
         this.next = null;
         this.memory = null;
     }
+
+    /**
+     * Drops all the references held by this tuple before it is returned to the free list of its node.
+     * The tuple is marked as recycled until it is initialised again.
+     */
+    public void recycle() {
+        this.handle = null;
+        this.handlePrevious = null;
+        this.handleNext = null;
+        this.memory = null;
+        this.previous = null;
+        this.next = null;
+        this.object = null;
+        this.firstChild = null;
+        this.lastChild = null;
+        this.blocked = null;
+        this.sink = null;
+        this.stageType = LeftTuple.RECYCLED;
+        this.stageNext = null;
+        this.stagePrevious = null;
+        this.tempNextRightTuple = null;
+        this.tempRightTupleMemory = null;
+        this.tempBlocked = null;
+        this.propagationContext = null;
+    }
 }
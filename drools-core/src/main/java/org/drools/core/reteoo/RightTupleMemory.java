@@ -75,4 +75,9 @@ public interface RightTupleMemory {
     int size();
 
     IndexType getIndexType();
+
+    /**
+     * Removes all the tuples, keeping the allocated capacity so that the memory can be reused by a reset session
+     */
+    void clear();
 }
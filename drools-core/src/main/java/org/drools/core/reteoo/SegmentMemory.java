@@ -32,6 +32,7 @@ public class SegmentMemory extends LinkedList<SegmentMemory>
     private          NetworkNode        tipNode;
     private          LinkedList<Memory> nodeMemories;
     private          AtomicBitwiseLong  linkedNodeMask;
+    private          long               initialLinkedNodeMask;
     private          AtomicBitwiseLong  dirtyNodeMask;
     private          long               allLinkedMaskTest;
     private          List<PathMemory>   pathMemories;
@@ -104,6 +105,17 @@ public class SegmentMemory extends LinkedList<SegmentMemory>
         //this.linkedNodeMask = linkedNodeMask;
     }
 
+    public long getInitialLinkedNodeMask() {
+        return initialLinkedNodeMask;
+    }
+
+    /**
+     * Sets the nodes linked before any tuple is propagated, as not nodes start up linked in
+     */
+    public void setInitialLinkedNodeMask(long initialLinkedNodeMask) {
+        this.initialLinkedNodeMask = initialLinkedNodeMask;
+    }
+
     public long getDirtyNodeMask() {
         return dirtyNodeMask.get();
     }
@@ -250,6 +262,16 @@ public class SegmentMemory extends LinkedList<SegmentMemory>
         return active;
     }
 
+    /**
+     * Brings this segment back to the state it had when it was created, keeping its node memories and child segments
+     */
+    public void reset() {
+        linkedNodeMask.set( initialLinkedNodeMask );
+        dirtyNodeMask.set( 0 );
+        stagedLeftTuples.resetAll();
+        active = false;
+    }
+
     public void setActive(boolean evaluating) {
         this.active = evaluating;
     }
@@ -354,6 +376,7 @@ public class SegmentMemory extends LinkedList<SegmentMemory>
             SegmentMemory smem = new SegmentMemory(rootNode);
             smem.tipNode = tipNode;
             smem.linkedNodeMask = new AtomicBitwiseLong( linkedNodeMask );
+            smem.initialLinkedNodeMask = linkedNodeMask;
             smem.allLinkedMaskTest = allLinkedMaskTest;
             smem.segmentPosMaskBit = segmentPosMaskBit;
             smem.pos = pos;
@@ -322,6 +322,11 @@ public class TimerNode extends LeftTupleSource
         public void setNodeCleanWithoutNotify() {
             memory.updateCleanNodeMask( nodePosMaskBit );
         }
+
+        public void reset() {
+            this.insertOrUpdateLeftTuples.clear();
+            this.deleteLeftTuples.clear();
+        }
     }
 
     @Override
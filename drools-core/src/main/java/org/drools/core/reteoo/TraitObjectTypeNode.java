@@ -27,6 +27,7 @@ import org.drools.core.factmodel.traits.TraitableBean;
 import org.drools.core.reteoo.builder.BuildContext;
 import org.drools.core.spi.ObjectType;
 import org.drools.core.spi.PropagationContext;
+import org.drools.core.util.BitMask;
 import org.drools.core.util.HierarchyEncoderImpl;
 
 import java.io.IOException;
@@ -120,7 +121,7 @@ public class TraitObjectTypeNode extends ObjectTypeNode {
                      || ! HierarchyEncoderImpl.supersetOrEqualset( vetoMask, this.typeMask ) ) {    // this node is not vetoed
 
                     // "don" update :
-                    if ( context.getModificationMask() == Long.MIN_VALUE ) {
+                    if ( context.getModificationMask().equals( BitMask.TRAIT ) ) {
                         // property reactivity may block trait proxies which have been asserted and then immediately updated because of another "don"
                         // however, PR must be disabled only once for each OTN: that is, a proxy will not pass an OTN if one of its ancestors can also pass it
 
@@ -131,9 +132,9 @@ public class TraitObjectTypeNode extends ObjectTypeNode {
                         Collection<Thing> x = tMap.immediateParents( this.typeMask );
                         Thing k = x.iterator().next();
 
-                        long originalMask = context.getModificationMask();
+                        BitMask originalMask = context.getModificationMask();
                         if ( ! k.isTop() ) {
-                            context.setModificationMask( -1L );
+                            context.setModificationMask( BitMask.ALL_SET );
                         }
                         //System.out.println(" MODIFY PASS !! " + factHandle.getObject() + " " + ( (TraitProxy) factHandle.getObject() ).getTypeCode() + " >> " + vetoMask + " checks in " + typeMask );
                         this.sink.propagateModifyObject( factHandle,
@@ -156,7 +157,7 @@ public class TraitObjectTypeNode extends ObjectTypeNode {
             } else {
                 this.sink.propagateModifyObject( factHandle,
                         modifyPreviousTuples,
-                        context.getModificationMask() > 0L ? context.adaptModificationMaskForObjectType( objectType, workingMemory ) : context,
+                        isPositive( context.getModificationMask() ) ? context.adaptModificationMaskForObjectType( objectType, workingMemory ) : context,
                         workingMemory );
             }
 
@@ -168,11 +169,16 @@ public class TraitObjectTypeNode extends ObjectTypeNode {
         return true;
     }
 
-    public long updateMask(long mask) {
-        long returnMask;
-        returnMask = declaredMask | mask;
-        inferredMask = inferredMask | returnMask;
+    public BitMask updateMask(BitMask mask) {
+        BitMask returnMask;
+        returnMask = declaredMask.setAll( mask );
+        inferredMask = inferredMask.setAll( returnMask );
         return returnMask;
     }
 
+    private boolean isPositive(BitMask mask) {
+        // the equivalent of a positive long mask: some properties are modified, but not the trait set
+        return !mask.isEmpty() && !mask.isSet( BitMask.TRAIT_BIT );
+    }
+
 }
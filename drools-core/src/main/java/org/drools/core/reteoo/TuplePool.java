@@ -0,0 +1,83 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.reteoo;
+
+/**
+ * A bounded free list of the tuples deleted by a node, held by the node memory of a session.
+ *
+ * The tuples are released by the thread evaluating the network, while they are acquired by the
+ * thread inserting the facts, so the accesses are synchronized.
+ * When the pool verifies the recycling, the released tuples are counted but never handed out again,
+ * so that a use of a recycled tuple finds it cleared.
+ */
+public class TuplePool<T> {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private final Object[] tuples;
+    private final boolean  verify;
+
+    private int            size;
+
+    private long           releasedCount;
+    private long           reusedCount;
+
+    public TuplePool(int capacity,
+                     boolean verify) {
+        this.tuples = new Object[capacity];
+        this.verify = verify;
+    }
+
+    /**
+     * Returns a recycled tuple, or null if there is none left
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized T acquire() {
+        if ( size == 0 ) {
+            return null;
+        }
+        T tuple = (T) tuples[--size];
+        tuples[size] = null;
+        reusedCount++;
+        return tuple;
+    }
+
+    /**
+     * Keeps the given tuple, which must have been already cleared, for a following acquire.
+     * Returns false if the pool is full, in which case the tuple is left to the garbage collector.
+     */
+    public synchronized boolean release(T tuple) {
+        releasedCount++;
+        if ( verify || size == tuples.length ) {
+            return false;
+        }
+        tuples[size++] = tuple;
+        return true;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long getReleasedCount() {
+        return releasedCount;
+    }
+
+    public synchronized long getReusedCount() {
+        return reusedCount;
+    }
+}
@@ -33,6 +33,7 @@ import org.drools.core.rule.EntryPointId;
 import org.drools.core.rule.SlidingTimeWindow;
 import org.drools.core.spi.AlphaNodeFieldConstraint;
 import org.drools.core.spi.PropagationContext;
+import org.drools.core.util.BitMask;
 import org.drools.core.util.Iterator;
 import org.drools.core.util.ObjectHashSet.ObjectEntry;
 
@@ -330,6 +331,7 @@ public class WindowNode extends ObjectSource
         for (AlphaNodeFieldConstraint alpha : constraints) {
             memory.context[index++] = alpha.createContextEntry();
         }
+        memory.behavior = this.behavior;
         memory.behaviorContext = this.behavior.createBehaviorContext();
         memory.gate = new ReentrantLock();
         return memory;
@@ -403,7 +405,7 @@ public class WindowNode extends ObjectSource
     }
 
     @Override
-    public long calculateDeclaredMask(List<String> settableProperties) {
+    public BitMask calculateDeclaredMask(List<String> settableProperties) {
         throw new UnsupportedOperationException();
     }
 
@@ -416,14 +418,21 @@ public class WindowNode extends ObjectSource
     }
 
     public static class WindowMemory implements Memory {
-        public           ContextEntry[] context;
-        public           Object         behaviorContext;
-        public transient ReentrantLock  gate;
+        public           ContextEntry[]  context;
+        public           Object          behaviorContext;
+        public           BehaviorManager behavior;
+        public transient ReentrantLock   gate;
 
         public short getNodeType() {
             return NodeTypeEnums.WindowNode;
         }
 
+        public void reset() {
+            BetaMemory.resetContext( this.context );
+            // the events held by the windows are dropped together with their behavior context
+            this.behaviorContext = this.behavior.createBehaviorContext();
+        }
+
         public SegmentMemory getSegmentMemory() {
             throw new UnsupportedOperationException();
         }
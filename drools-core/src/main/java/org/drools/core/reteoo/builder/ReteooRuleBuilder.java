@@ -24,8 +24,10 @@ import org.drools.core.common.InternalRuleBase;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.common.UpdateContext;
 import org.drools.core.phreak.AddRemoveRule;
+import org.drools.core.phreak.RuleAdditionBatch;
 import org.drools.core.reteoo.LeftTupleSource;
 import org.drools.core.reteoo.ReteooBuilder;
+import org.drools.core.reteoo.ReteooRuleBase;
 import org.drools.core.reteoo.RuleBuilder;
 import org.drools.core.reteoo.TerminalNode;
 import org.drools.core.reteoo.WindowNode;
@@ -182,7 +184,12 @@ public class ReteooRuleBuilder implements RuleBuilder {
         baseTerminalNode.networkUpdated(new UpdateContext());
         baseTerminalNode.attach(context);
         if ( context.getRuleBase().getConfiguration().isPhreakEnabled() ) {
-            AddRemoveRule.addRule( terminal, context.getWorkingMemories(), context.getRuleBase() );
+            RuleAdditionBatch batch = ((ReteooRuleBase) context.getRuleBase()).getRuleAdditionBatch();
+            if ( batch != null ) {
+                AddRemoveRule.addRule( terminal, context.getWorkingMemories(), context.getRuleBase(), batch );
+            } else {
+                AddRemoveRule.addRule( terminal, context.getWorkingMemories(), context.getRuleBase() );
+            }
         }
 
         // adds the terminal node to the list of nodes created/added by this sub-rule
@@ -19,7 +19,6 @@ package org.drools.core.reteoo.compiled;
 import org.drools.core.base.ClassFieldReader;
 import org.drools.core.reteoo.AlphaNode;
 import org.drools.core.reteoo.Sink;
-import org.drools.core.rule.ContextEntry;
 
 /**
  * This handler is used as a base class for all {@link org.kie.reteoo.compiled.NetworkHandler}s used for
@@ -31,6 +30,16 @@ abstract class AbstractCompilerHandler extends NetworkHandlerAdaptor {
 
     private static final String MAP_VARIABLE_NAME_SUFFIX = "ToNodeId";
 
+    private static final String READER_VARIABLE_NAME_SUFFIX = "Reader";
+
+    private static final String NODE_ID_VARIABLE_NAME_SUFFIX = "NodeId";
+
+    /**
+     * Counts the sets of hashed alphas encountered so far, so that the variables of two sets hashed on the
+     * same field, under different alpha nodes, get different names
+     */
+    private int hashedAlphasCount;
+
     protected Class<?> getVariableType(AlphaNode alphaNode) {
 
         // for alphas, we use the constraint of the alpha for the declaration
@@ -48,12 +57,6 @@ abstract class AbstractCompilerHandler extends NetworkHandlerAdaptor {
         return getVariableName(variableType, alphaNode.getId());
     }
 
-    protected String getContextVariableName(AlphaNode alphaNode) {
-        Class<?> variableType = ContextEntry.class;
-
-        return getVariableName(variableType, alphaNode.getId());
-    }
-
     protected String getVariableName(Sink sink) {
         Class<?> variableType = getVariableType(sink);
 
@@ -61,7 +64,22 @@ abstract class AbstractCompilerHandler extends NetworkHandlerAdaptor {
     }
 
     protected String getVariableName(ClassFieldReader fieldReader) {
-        return fieldReader.getFieldName() + MAP_VARIABLE_NAME_SUFFIX;
+        return fieldReader.getFieldName() + MAP_VARIABLE_NAME_SUFFIX + hashedAlphasCount;
+    }
+
+    protected String getReaderVariableName(ClassFieldReader fieldReader) {
+        return fieldReader.getFieldName() + READER_VARIABLE_NAME_SUFFIX + hashedAlphasCount;
+    }
+
+    protected String getNodeIdVariableName(ClassFieldReader fieldReader) {
+        return fieldReader.getFieldName() + NODE_ID_VARIABLE_NAME_SUFFIX + hashedAlphasCount;
+    }
+
+    /**
+     * Has to be called by the handlers declaring variables for the hashed alphas when a new set of them starts
+     */
+    protected void nextHashedAlphas() {
+        hashedAlphasCount++;
     }
 
     /**
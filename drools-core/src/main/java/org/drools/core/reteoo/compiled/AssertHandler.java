@@ -21,16 +21,17 @@ import org.drools.core.common.InternalFactHandle;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.reteoo.AlphaNode;
 import org.drools.core.reteoo.BetaNode;
+import org.drools.core.reteoo.CompositeObjectSinkAdapter;
 import org.drools.core.reteoo.LeftInputAdapterNode;
 import org.drools.core.reteoo.ObjectTypeNode;
 import org.drools.core.spi.PropagationContext;
 
 /**
- * todo: document
+ * This handler is used to create the assertObject method of a generated subclass of a {@link CompiledNetwork}.
+ * Non-hashed alphas become if statements evaluating their constraint, and each set of hashed alphas becomes a
+ * switch on the id of the alpha whose key is equal to the one of the asserted fact.
  */
 public class AssertHandler extends AbstractCompilerHandler {
-    private static final String LOCAL_FACT_VAR_NAME = "fact";
-
     private static final String FACT_HANDLE_PARAM_TYPE = InternalFactHandle.class.getName();
     private static final String PROP_CONTEXT_PARAM_TYPE = PropagationContext.class.getName();
     private static final String WORKING_MEMORY_PARAM_TYPE = InternalWorkingMemory.class.getName();
@@ -39,46 +40,22 @@ public class AssertHandler extends AbstractCompilerHandler {
     private static final String PROP_CONTEXT_PARAM_NAME = "context";
     private static final String WORKING_MEMORY_PARAM_NAME = "wm";
 
+    private static final String HASH_KEY_TYPE = CompositeObjectSinkAdapter.HashKey.class.getName().replace('$', '.');
+
     private static final String ASSERT_METHOD_SIGNATURE = "public final void assertObject("
             + FACT_HANDLE_PARAM_TYPE + " " + FACT_HANDLE_PARAM_NAME + ","
             + PROP_CONTEXT_PARAM_TYPE + " " + PROP_CONTEXT_PARAM_NAME + ","
             + WORKING_MEMORY_PARAM_TYPE + " " + WORKING_MEMORY_PARAM_NAME + "){";
 
-    /**
-     * This flag is used to instruct the AssertHandler to tell it to generate a local varible
-     * in the {@link org.kie.reteoo.compiled.CompiledNetwork#assertObject} for holding the value returned
-     * from the {@link org.kie.common.InternalFactHandle#getFactHandle()}.
-     *
-     * This is only needed if there is at least 1 set of hashed alpha nodes in the network
-     */
-    private final boolean alphaNetContainsHashedField;
-
     private final StringBuilder builder;
-    private final String factClassName;
-
-    AssertHandler(StringBuilder builder, String factClassName) {
-        this(builder, factClassName, false);
-    }
 
-    public AssertHandler(StringBuilder builder, String factClassName, boolean alphaNetContainsHashedField) {
+    public AssertHandler(StringBuilder builder) {
         this.builder = builder;
-        this.factClassName = factClassName;
-        this.alphaNetContainsHashedField = alphaNetContainsHashedField;
     }
 
     @Override
     public void startObjectTypeNode(ObjectTypeNode objectTypeNode) {
         builder.append(ASSERT_METHOD_SIGNATURE).append(NEWLINE);
-
-        // we only need to create a reference to the object, not handle, if there is a hashed alpha in the network
-        if (alphaNetContainsHashedField) {
-            // example of what this will look like
-            // ExampleFact fact = (ExampleFact) handle.getObject();
-            builder.append(factClassName).append(" ").append(LOCAL_FACT_VAR_NAME).
-                    append(" = (").append(factClassName).append(")").
-                    append(FACT_HANDLE_PARAM_NAME).append(".getObject();").
-                    append(NEWLINE);
-        }
     }
 
     @Override
@@ -99,10 +76,10 @@ public class AssertHandler extends AbstractCompilerHandler {
 
     @Override
     public void startNonHashedAlphaNode(AlphaNode alphaNode) {
+        // only constraints without a context entry are compiled, as it would be shared by all the sessions
         builder.append("if ( ").append(getVariableName(alphaNode)).
                 append(".isAllowed(").append(FACT_HANDLE_PARAM_NAME).append(",").
-                append(WORKING_MEMORY_PARAM_NAME).append(", ").
-                append(getContextVariableName(alphaNode)).append(") ) {").append(NEWLINE);
+                append(WORKING_MEMORY_PARAM_NAME).append(", null) ) {").append(NEWLINE);
 
     }
 
@@ -114,18 +91,17 @@ public class AssertHandler extends AbstractCompilerHandler {
 
     @Override
     public void startHashedAlphaNodes(ClassFieldReader hashedFieldReader) {
-        String attributeName = hashedFieldReader.getFieldName();
-        String localVariableName = attributeName + "NodeId";
-
-        // todo get accessor smarter because of booleans. Note that right now booleans wouldn't be hashed
-        String attributeGetterName = "get" + Character.toTitleCase(attributeName.charAt(0)) + attributeName.substring(1);
+        nextHashedAlphas();
+        String readerVariableName = getReaderVariableName(hashedFieldReader);
+        String localVariableName = getNodeIdVariableName(hashedFieldReader);
 
-        // get the attribute from the fact that we are switching over
-        builder.append("Integer ").append(localVariableName);
+        // look up the id of the alpha with the same key as the fact, built as the CompositeObjectSinkAdapter does
         // todo we are casting to Integer because generics aren't supported
-        builder.append(" = (Integer)").append(getVariableName(hashedFieldReader)).append(".get(").
-                append(LOCAL_FACT_VAR_NAME).append(".").append(attributeGetterName)
-                .append("());").append(NEWLINE);
+        builder.append("Integer ").append(localVariableName);
+        builder.append(" = (Integer)").append(getVariableName(hashedFieldReader)).append(".get(new ").
+                append(HASH_KEY_TYPE).append("(").append(readerVariableName).append(".getIndex(), ").
+                append(FACT_HANDLE_PARAM_NAME).append(".getObject(), ").append(readerVariableName).
+                append("));").append(NEWLINE);
 
         // ensure that the value is present in the node map
         builder.append("if(").append(localVariableName).append(" != null) {").append(NEWLINE);
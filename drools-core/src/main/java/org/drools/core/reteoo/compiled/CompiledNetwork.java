@@ -16,13 +16,21 @@
 
 package org.drools.core.reteoo.compiled;
 
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.common.NetworkNode;
 import org.drools.core.common.RuleBasePartitionId;
 import org.drools.core.reteoo.*;
+import org.drools.core.rule.IndexableConstraint;
+import org.drools.core.spi.InternalReadAccessor;
+import org.drools.core.spi.PropagationContext;
+import org.drools.core.spi.RuleComponent;
+import org.kie.api.definition.rule.Rule;
 
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.Map;
 
 /**
  * This is the base type for all generated classes that that represent a "compiled" portion of the RETE network.
@@ -50,6 +58,60 @@ public abstract class CompiledNetwork implements ObjectSink {
         return objectTypeNode.getPartitionId();
     }
 
+    public short getType() {
+        return NodeTypeEnums.ObjectTypeNode;
+    }
+
+    public Map<Rule, RuleComponent> getAssociations() {
+        return objectTypeNode.getAssociations();
+    }
+
+    public ObjectTypeNode getObjectTypeNode() {
+        return objectTypeNode;
+    }
+
+    /**
+     * Only the assertions are compiled: modifications are delegated to the interpreted network, since they
+     * also have to check the property reactivity masks of each node.
+     */
+    public void modifyObject(InternalFactHandle factHandle,
+                             ModifyPreviousTuples modifyPreviousTuples,
+                             PropagationContext context,
+                             InternalWorkingMemory workingMemory) {
+        objectTypeNode.getSinkPropagator().propagateModifyObject( factHandle,
+                                                                  modifyPreviousTuples,
+                                                                  context,
+                                                                  workingMemory );
+    }
+
+    public void byPassModifyToBetaNode(InternalFactHandle factHandle,
+                                       ModifyPreviousTuples modifyPreviousTuples,
+                                       PropagationContext context,
+                                       InternalWorkingMemory workingMemory) {
+        objectTypeNode.getSinkPropagator().byPassModifyToBetaNode( factHandle,
+                                                                   modifyPreviousTuples,
+                                                                   context,
+                                                                   workingMemory );
+    }
+
+    /**
+     * Returns the reader of the field on which the given hashed alpha node is hashed
+     */
+    protected static InternalReadAccessor getHashedFieldReader(NetworkNode hashedAlpha) {
+        return ((IndexableConstraint) ((AlphaNode) hashedAlpha).getConstraint()).getFieldExtractor();
+    }
+
+    /**
+     * Returns the key of the given hashed alpha node, built as the CompositeObjectSinkAdapter does, so that
+     * a fact is dispatched to the same alpha nodes by the compiled and the interpreted networks
+     */
+    protected static CompositeObjectSinkAdapter.HashKey getHashKey(NetworkNode hashedAlpha) {
+        IndexableConstraint constraint = (IndexableConstraint) ((AlphaNode) hashedAlpha).getConstraint();
+        return new CompositeObjectSinkAdapter.HashKey( constraint.getFieldExtractor().getIndex(),
+                                                       constraint.getField(),
+                                                       constraint.getFieldExtractor() );
+    }
+
     /**
      * The object implements the writeExternal method to save its contents
      * by calling the methods of DataOutput for its primitive values or
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.reteoo.compiled;
+
+import org.drools.core.common.InternalRuleBase;
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.kie.internal.utils.ServiceRegistryImpl;
+
+public class CompiledNetworkFactory {
+
+    private static CompiledNetworkFactoryService provider;
+
+    private static boolean                       loaded;
+
+    /**
+     * Returns the CompiledNetwork for the given ObjectTypeNode, or null if no CompiledNetworkFactoryService
+     * is available or it didn't compile this node
+     */
+    public static CompiledNetwork newCompiledNetwork(ObjectTypeNode objectTypeNode,
+                                                     InternalRuleBase ruleBase) {
+        CompiledNetworkFactoryService service = getCompiledNetworkFactoryService();
+        return service != null ? service.newCompiledNetwork( objectTypeNode, ruleBase ) : null;
+    }
+
+    public static synchronized void setCompiledNetworkFactoryService(CompiledNetworkFactoryService provider) {
+        CompiledNetworkFactory.provider = provider;
+        CompiledNetworkFactory.loaded = true;
+    }
+
+    public static synchronized CompiledNetworkFactoryService getCompiledNetworkFactoryService() {
+        if ( !loaded ) {
+            loadProvider();
+        }
+        return provider;
+    }
+
+    private static void loadProvider() {
+        ServiceRegistryImpl.getInstance().addDefault( CompiledNetworkFactoryService.class, "org.drools.compiler.reteoo.compiled.CompiledNetworkFactoryServiceImpl" );
+        CompiledNetworkFactoryService service = null;
+        try {
+            service = ServiceRegistryImpl.getInstance().get( CompiledNetworkFactoryService.class );
+        } catch ( RuntimeException e ) {
+            // drools-compiler is not available, the alpha network is interpreted
+        }
+        setCompiledNetworkFactoryService( service );
+    }
+
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.reteoo.compiled;
+
+import org.drools.core.common.InternalRuleBase;
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.kie.api.Service;
+
+/**
+ * CompiledNetworkFactoryService is used by the ReteooBuilder to "provide" the generation of the
+ * {@link CompiledNetwork}s, which requires a java compiler and so it is implemented by drools-compiler.
+ */
+public interface CompiledNetworkFactoryService extends Service {
+
+    /**
+     * Generates and loads a CompiledNetwork for the given ObjectTypeNode, using the class loader of the rule base.
+     *
+     * @return the CompiledNetwork or null if the alpha network of this node cannot or doesn't need to be compiled,
+     * in which case it remains interpreted
+     */
+    public CompiledNetwork newCompiledNetwork(ObjectTypeNode objectTypeNode,
+                                              InternalRuleBase ruleBase);
+
+}
@@ -21,7 +21,7 @@ import org.drools.core.reteoo.AlphaNode;
 import org.drools.core.reteoo.BetaNode;
 import org.drools.core.reteoo.LeftInputAdapterNode;
 import org.drools.core.reteoo.Sink;
-import org.drools.core.rule.ContextEntry;
+import org.drools.core.spi.InternalReadAccessor;
 
 import java.util.*;
 
@@ -34,6 +34,7 @@ import java.util.*;
  * <li>{@link BetaNode}s</li>
  * <li>A {@link Map} for each set of hashed {@link AlphaNode}s. The keys are the hashed values, and the values are
  * the IDs of the alphas</li>
+ * <li>The {@link InternalReadAccessor} of the field of each set of hashed {@link AlphaNode}s</li>
  */
 public class DeclarationsHandler extends AbstractCompilerHandler {
     private static final String PRIVATE_MODIFIER = "private";
@@ -68,13 +69,6 @@ public class DeclarationsHandler extends AbstractCompilerHandler {
         return PRIVATE_MODIFIER + " " + variableType.getName() + " " + variableName + "; // " + comment;
     }
 
-    private String getContextVariableDeclaration(AlphaNode alphaNode){
-        Class<?> variableType = ContextEntry.class;
-        String variableName = getContextVariableName(alphaNode);
-
-        return PRIVATE_MODIFIER + " " + variableType.getName() + " " + variableName + ";";
-    }
-
     private String getVariableDeclaration(Sink sink) {
         Class<?> declarationType = getVariableType(sink);
         String variableName = getVariableName(sink);
@@ -95,6 +89,10 @@ public class DeclarationsHandler extends AbstractCompilerHandler {
                 + " = new " + createType.getName() + "();";
     }
 
+    private String getReaderVariableDeclaration(ClassFieldReader fieldReader) {
+        return PRIVATE_MODIFIER + " " + InternalReadAccessor.class.getName() + " " + getReaderVariableName(fieldReader) + ";";
+    }
+
     public Collection<HashedAlphasDeclaration> getHashedAlphaDeclarations() {
         return Collections.unmodifiableCollection(hashedAlphaDeclarations);
     }
@@ -102,7 +100,6 @@ public class DeclarationsHandler extends AbstractCompilerHandler {
     @Override
     public void startNonHashedAlphaNode(AlphaNode alphaNode) {
         builder.append(getVariableDeclaration(alphaNode)).append(NEWLINE);
-        builder.append(getContextVariableDeclaration(alphaNode)).append(NEWLINE);
     }
 
     @Override
@@ -117,6 +114,7 @@ public class DeclarationsHandler extends AbstractCompilerHandler {
 
     @Override
     public void startHashedAlphaNodes(ClassFieldReader hashedFieldReader) {
+        nextHashedAlphas();
         // we create a new hashed alpha that will be used to keep track of the hashes values to node ID for each
         // class field reader.
         currentHashedAlpha = new HashedAlphasDeclaration(getVariableName(hashedFieldReader),
@@ -126,6 +124,7 @@ public class DeclarationsHandler extends AbstractCompilerHandler {
         hashedAlphaDeclarations.add(currentHashedAlpha);
 
         builder.append(getVariableDeclaration(hashedFieldReader)).append(NEWLINE);
+        builder.append(getReaderVariableDeclaration(hashedFieldReader)).append(NEWLINE);
     }
 
     @Override
@@ -23,6 +23,11 @@ import org.drools.core.reteoo.*;
 import org.drools.core.rule.constraint.MvelConstraint;
 import org.drools.core.spi.AlphaNodeFieldConstraint;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * This class is used for reading an {@link ObjectTypeNode} using callbacks.
  * <p/>
@@ -80,9 +85,16 @@ public class ObjectTypeNodeParser {
         } else if (propagator instanceof CompositeObjectSinkAdapter) {
             CompositeObjectSinkAdapter composite = (CompositeObjectSinkAdapter) propagator;
 
+            // the generated code would evaluate each range indexed alpha in turn instead of looking them up
+            // through the RangeIndex, so these networks are left interpreted
+            if (composite.getRangeIndexedSinks() != null) {
+                throw new IllegalArgumentException("Range indexed AlphaNodes are not supported, " + objectTypeNode + " has to be interpreted");
+            }
+
+            // same order as the propagations of the CompositeObjectSinkAdapter
+            traverseHashedAlphaNodes(composite.getHashedSinkMap(), handler);
             traverseSinkLisk(composite.getHashableSinks(), handler);
             traverseSinkLisk(composite.getOthers(), handler);
-            traverseHashedAlphaNodes(composite.getHashedSinkMap(), handler);
         }
     }
 
@@ -119,26 +131,38 @@ public class ObjectTypeNodeParser {
 
     private void traverseHashedAlphaNodes(ObjectHashMap hashedAlphaNodes, NetworkHandler handler) {
         if (hashedAlphaNodes != null && hashedAlphaNodes.size() > 0) {
-            AlphaNode firstAlpha = getFirstAlphaNode(hashedAlphaNodes);
-            ClassFieldReader hashedFieldReader = getClassFieldReaderForHashedAlpha(firstAlpha);
-
-            // start the hashed alphas
-            handler.startHashedAlphaNodes(hashedFieldReader);
-
+            // the same map can contain the alphas hashed on different fields, so they are grouped by field
+            Map<Integer, List<AlphaNode>> hashedAlphasByField = new LinkedHashMap<Integer, List<AlphaNode>>();
             Iterator iter = hashedAlphaNodes.iterator();
             for (ObjectHashMap.ObjectEntry entry = (ObjectHashMap.ObjectEntry) iter.next(); entry != null; entry = (ObjectHashMap.ObjectEntry) iter.next()) {
                 CompositeObjectSinkAdapter.HashKey hashKey = (CompositeObjectSinkAdapter.HashKey) entry.getKey();
-                AlphaNode alphaNode = (AlphaNode) entry.getValue();
+                List<AlphaNode> hashedAlphas = hashedAlphasByField.get(hashKey.getIndex());
+                if (hashedAlphas == null) {
+                    hashedAlphas = new ArrayList<AlphaNode>();
+                    hashedAlphasByField.put(hashKey.getIndex(), hashedAlphas);
+                }
+                hashedAlphas.add((AlphaNode) entry.getValue());
+            }
 
-                handler.startHashedAlphaNode(alphaNode, hashKey.getObjectValue());
-                // traverse the propagator for each alpha
-                traversePropagator(alphaNode.getSinkPropagator(), handler);
+            for (List<AlphaNode> hashedAlphas : hashedAlphasByField.values()) {
+                ClassFieldReader hashedFieldReader = getClassFieldReaderForHashedAlpha(hashedAlphas.get(0));
 
-                handler.endHashedAlphaNode(alphaNode, hashKey.getObjectValue());
-            }
+                // start the hashed alphas
+                handler.startHashedAlphaNodes(hashedFieldReader);
+
+                for (AlphaNode alphaNode : hashedAlphas) {
+                    Object hashedValue = ((MvelConstraint) alphaNode.getConstraint()).getField().getValue();
+
+                    handler.startHashedAlphaNode(alphaNode, hashedValue);
+                    // traverse the propagator for each alpha
+                    traversePropagator(alphaNode.getSinkPropagator(), handler);
 
-            // end of the hashed alphas
-            handler.endHashedAlphaNodes(hashedFieldReader);
+                    handler.endHashedAlphaNode(alphaNode, hashedValue);
+                }
+
+                // end of the hashed alphas
+                handler.endHashedAlphaNodes(hashedFieldReader);
+            }
         }
     }
 
@@ -170,28 +194,6 @@ public class ObjectTypeNodeParser {
         // todo traverse sink's propagator
     }
 
-    /**
-     * Returns the first {@link org.kie.reteoo.AlphaNode} from the specified {@link ObjectHashMap}.
-     *
-     * @param hashedAlphaNodes map of hashed AlphaNodes
-     * @return first alpha from the specified map
-     * @throws IllegalArgumentException thrown if the map doesn't contain any alpha nodes
-     */
-    private AlphaNode getFirstAlphaNode(final ObjectHashMap hashedAlphaNodes) throws IllegalArgumentException {
-        AlphaNode firstAlphaNode;
-
-        final Iterator iter = hashedAlphaNodes.iterator();
-        final ObjectHashMap.ObjectEntry entry = (ObjectHashMap.ObjectEntry) iter.next();
-
-        if (entry != null) {
-            firstAlphaNode = (AlphaNode) entry.getValue();
-        } else {
-            throw new IllegalArgumentException("ObjectHashMap does not contain any hashed AlphaNodes!");
-        }
-
-        return firstAlphaNode;
-    }
-
     /**
      * Returns the {@link ClassFieldReader} for the hashed AlphaNode. The AlphaNode's constraint has to be a
      * MvelConstraint. This is the only type of hashed alpha currently supported.
@@ -16,6 +16,7 @@
 
 package org.drools.core.reteoo.compiled;
 
+import org.drools.core.base.ClassFieldReader;
 import org.drools.core.common.NetworkNode;
 import org.drools.core.reteoo.*;
 
@@ -27,6 +28,7 @@ import org.drools.core.reteoo.*;
  * <li>Non-hashed {@link AlphaNode}s</li>
  * <li>{@link LeftInputAdapterNode}s</li>
  * <li>{@link BetaNode}s</li>
+ * <li>Hashed {@link AlphaNode}s, whose keys are put in the map of their set along with their ids</li>
  */
 public class SetNodeReferenceHandler extends AbstractCompilerHandler {
 
@@ -37,6 +39,11 @@ public class SetNodeReferenceHandler extends AbstractCompilerHandler {
 
     private final StringBuilder builder;
 
+    /**
+     * The field reader of the current set of hashed alphas
+     */
+    private ClassFieldReader currentHashedFieldReader;
+
     public SetNodeReferenceHandler(StringBuilder builder) {
         this.builder = builder;
     }
@@ -62,19 +69,6 @@ public class SetNodeReferenceHandler extends AbstractCompilerHandler {
         return assignmentStatement;
     }
 
-    private String getContextVariableAssignmentStatement(AlphaNode alphaNode) {
-        String contextVariableName = getContextVariableName(alphaNode);
-        String alphaVariableName = getVariableName(alphaNode);
-        String assignmentStatement;
-
-        // we need the constraint for an alpha node assignment, so generate a cast, plus the method call to get
-        // the constraint
-        assignmentStatement = contextVariableName + " = " + alphaVariableName + ".createContextEntry();";
-
-        return assignmentStatement;
-    }
-
-
     @Override
     public void startObjectTypeNode(ObjectTypeNode objectTypeNode) {
         builder.append(SET_NETWORK_NODE_REFERENCE_SIGNATURE).append(NEWLINE);
@@ -99,7 +93,27 @@ public class SetNodeReferenceHandler extends AbstractCompilerHandler {
 
         builder.append("case ").append(alphaNode.getId()).append(": ").append(NEWLINE);
         builder.append(getVariableAssignmentStatement(alphaNode, PARAM_NAME)).append(NEWLINE);
-        builder.append(getContextVariableAssignmentStatement(alphaNode)).append(NEWLINE);
+        builder.append("break;").append(NEWLINE);
+    }
+
+    @Override
+    public void startHashedAlphaNodes(ClassFieldReader hashedFieldReader) {
+        nextHashedAlphas();
+        currentHashedFieldReader = hashedFieldReader;
+    }
+
+    @Override
+    public void startHashedAlphaNode(AlphaNode hashedAlpha, Object hashedValue) {
+        // case statement for the hashed alphas looks like the following
+        // case 24:
+        //      typeReader1 = getHashedFieldReader(node);
+        //      typeToNodeId1.put(getHashKey(node), new Integer(24));
+        //      break;
+        builder.append("case ").append(hashedAlpha.getId()).append(": ").append(NEWLINE);
+        builder.append(getReaderVariableName(currentHashedFieldReader)).append(" = getHashedFieldReader(").
+                append(PARAM_NAME).append(");").append(NEWLINE);
+        builder.append(getVariableName(currentHashedFieldReader)).append(".put(getHashKey(").append(PARAM_NAME).
+                append("), new Integer(").append(hashedAlpha.getId()).append("));").append(NEWLINE);
         builder.append("break;").append(NEWLINE);
     }
 
@@ -67,6 +67,8 @@ public class Rule
 
     public static final String DEFAULT_CONSEQUENCE_NAME = "default";
 
+    public static final String ASYNC_META_ATTRIBUTE = "async";
+
     /**   */
     // ------------------------------------------------------------
     // Instance members
@@ -776,6 +778,18 @@ public class Rule
         return Collections.unmodifiableMap( metaAttributes );
     }
 
+    /**
+     * Returns true if the consequence of this rule is run by an executor instead of the firing thread,
+     * as requested by an @async metadata without value or with a value other than false
+     */
+    public boolean isAsync() {
+        if ( !this.metaAttributes.containsKey( ASYNC_META_ATTRIBUTE ) ) {
+            return false;
+        }
+        Object value = this.metaAttributes.get( ASYNC_META_ATTRIBUTE );
+        return value == null || !"false".equals( value.toString() );
+    }
+
     @Deprecated
     public Map<String, Object> getMetaAttributes() {
         return Collections.unmodifiableMap( metaAttributes );
@@ -20,7 +20,8 @@ import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
-import java.util.PriorityQueue;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.drools.core.common.EventFactHandle;
 import org.drools.core.common.InternalFactHandle;
@@ -48,12 +49,23 @@ import org.drools.core.time.JobHandle;
 import org.drools.core.time.TimerService;
 import org.drools.core.time.impl.PointInTimeTrigger;
 
+/**
+ * A sliding window containing the events of the last <code>size</code> milliseconds.
+ *
+ * When a pane size is given, e.g. <code>over window:time( 60s, 1s )</code>, the events are grouped in
+ * consecutive panes of that duration and the window slides by whole panes: all the events of a pane are
+ * expired together, by a single timer job, when the end of the pane leaves the window. Each event then
+ * stays in the window up to a pane longer, but at high event rates this replaces the scheduling and the
+ * propagation of one expiration per event with one per pane, and lets the nodes below the window (an
+ * accumulate in particular) process all the retractions of the pane as a single batch.
+ */
 public class SlidingTimeWindow
     implements
     Externalizable,
     Behavior {
 
     private long              size;
+    private long              paneSize;
     // stateless job
     public static final BehaviorJob job = new BehaviorJob();
 
@@ -67,8 +79,19 @@ public class SlidingTimeWindow
      * @param size
      */
     public SlidingTimeWindow(final long size) {
+        this( size,
+              0 );
+    }
+
+    /**
+     * @param size
+     * @param paneSize the duration of the panes the window slides by, or 0 to expire each event on its own
+     */
+    public SlidingTimeWindow(final long size,
+                             final long paneSize) {
         super();
         this.size = size;
+        this.paneSize = paneSize;
     }
 
     /**
@@ -79,6 +102,7 @@ public class SlidingTimeWindow
     public void readExternal(final ObjectInput in) throws IOException,
                                                   ClassNotFoundException {
         this.size = in.readLong();
+        this.paneSize = in.readLong();
         this.nodeId = in.readInt();
     }
 
@@ -89,6 +113,7 @@ public class SlidingTimeWindow
      */
     public void writeExternal(final ObjectOutput out) throws IOException {
         out.writeLong( this.size );
+        out.writeLong( this.paneSize );
         out.writeInt( this.nodeId );
     }
 
@@ -114,6 +139,14 @@ public class SlidingTimeWindow
         this.size = size;
     }
 
+    public long getPaneSize() {
+        return paneSize;
+    }
+
+    public void setPaneSize(final long paneSize) {
+        this.paneSize = paneSize;
+    }
+
     public Object createContext() {
         return new SlidingTimeWindowContext();
     }
@@ -126,13 +159,13 @@ public class SlidingTimeWindow
         final SlidingTimeWindowContext queue = (SlidingTimeWindowContext) context;
         final EventFactHandle handle = (EventFactHandle) fact;
         long currentTime = workingMemory.getTimerService().getCurrentTime();
-        if ( isExpired( currentTime, handle ) ) {
+        long expirationTime = getExpirationTime( handle );
+        if ( expirationTime <= currentTime ) {
             return false;
         }
-        synchronized (queue.queue) {
-            queue.queue.add( handle );
-            if ( queue.queue.peek() == handle ) {
-                // update next expiration time
+        synchronized (queue) {
+            if ( queue.add( handle, expirationTime ) ) {
+                // it is the first event of a new head bucket, update next expiration time
                 updateNextExpiration( handle,
                                       pctx,
                                       workingMemory,
@@ -153,22 +186,10 @@ public class SlidingTimeWindow
         final SlidingTimeWindowContext queue = (SlidingTimeWindowContext) context;
         final EventFactHandle handle = (EventFactHandle) fact;
         // it may be a call back to expire the tuple that is already being expired
-        synchronized (queue.queue) {
+        synchronized (queue) {
             if ( queue.expiringHandle != handle ) {
-                if ( queue.queue.peek() == handle ) {
-                    // it was the head of the queue
-                    queue.queue.poll();
-                    // update next expiration time
-                    updateNextExpiration( queue.queue.peek(),
-                                          pctx,
-                                          workingMemory,
-                                          memory,
-                                          this,
-                                          queue,
-                                          nodeId);
-                } else {
-                    queue.queue.remove( handle );
-                }
+                // the job scheduled for the head bucket is kept: when it fires it schedules the next one
+                queue.remove( handle, getExpirationTime( handle ) );
             }
         }
     }
@@ -180,25 +201,25 @@ public class SlidingTimeWindow
         TimerService clock = workingMemory.getTimerService();
         long currentTime = clock.getCurrentTime();
         SlidingTimeWindowContext queue = (SlidingTimeWindowContext) context;
-        synchronized (queue.queue) {
-            EventFactHandle handle = queue.queue.peek();
-            while ( handle != null && isExpired( currentTime,
-                                                 handle ) ) {
-                queue.expiringHandle = handle;
-                queue.queue.remove();
-                if( handle.isValid()) {
-                    // if not expired yet, expire it
-                    PropagationContextFactory pctxFactory = ((InternalRuleBase) workingMemory.getRuleBase()).getConfiguration().getComponentFactory().getPropagationContextFactory();
-                    final PropagationContext expiresPctx = pctxFactory.createPropagationContext(workingMemory.getNextPropagationIdCounter(), PropagationContext.EXPIRATION,
-                                                                                                null, null, handle);
-                    ObjectTypeNode.doRetractObject(handle, expiresPctx, workingMemory);
-                    expiresPctx.evaluateActionQueue( workingMemory );
+        synchronized (queue) {
+            // all the events leaving the window in the same tick are expired as a batch
+            while ( !queue.isEmpty() && queue.getFirstExpirationTime() <= currentTime ) {
+                List<EventFactHandle> bucket = queue.pollFirstBucket();
+                for ( EventFactHandle handle : bucket ) {
+                    queue.expiringHandle = handle;
+                    if( handle.isValid()) {
+                        // if not expired yet, expire it
+                        PropagationContextFactory pctxFactory = ((InternalRuleBase) workingMemory.getRuleBase()).getConfiguration().getComponentFactory().getPropagationContextFactory();
+                        final PropagationContext expiresPctx = pctxFactory.createPropagationContext(workingMemory.getNextPropagationIdCounter(), PropagationContext.EXPIRATION,
+                                                                                                    null, null, handle);
+                        ObjectTypeNode.doRetractObject(handle, expiresPctx, workingMemory);
+                        expiresPctx.evaluateActionQueue( workingMemory );
+                    }
+                    queue.expiringHandle = null;
                 }
-                queue.expiringHandle = null;
-                handle = queue.queue.peek();
             }
             // update next expiration time 
-            updateNextExpiration( handle,
+            updateNextExpiration( queue.peek(),
                                   pctx,
                                   workingMemory,
                                   memory,
@@ -211,7 +232,19 @@ public class SlidingTimeWindow
 
     private boolean isExpired(final long currentTime,
                               final EventFactHandle handle) {
-        return handle.getStartTimestamp() + this.size <= currentTime;
+        return getExpirationTime( handle ) <= currentTime;
+    }
+
+    /**
+     * Returns the time the given event leaves the window at, which is the same for all the events of a pane
+     */
+    private long getExpirationTime(final EventFactHandle handle) {
+        long timestamp = handle.getStartTimestamp();
+        if ( this.paneSize <= 0 ) {
+            return timestamp + this.size;
+        }
+        long paneStart = timestamp - ( ( timestamp % this.paneSize ) + this.paneSize ) % this.paneSize;
+        return paneStart + this.paneSize + this.size;
     }
 
     private static void updateNextExpiration(final InternalFactHandle fact,
@@ -223,7 +256,7 @@ public class SlidingTimeWindow
                                              final int nodeId) {
         TimerService clock = workingMemory.getTimerService();
         if ( fact != null ) {
-            long nextTimestamp = ((EventFactHandle) fact).getStartTimestamp() + stw.getSize();
+            long nextTimestamp = stw.getExpirationTime( (EventFactHandle) fact );
             if ( nextTimestamp < clock.getCurrentTime() ) {
                 // Past and out-of-order events should not be insert,
                 // but the engine silently accepts them anyway, resulting in possibly undesirable behaviors
@@ -240,44 +273,186 @@ public class SlidingTimeWindow
     }
 
     public long getExpirationOffset() {
-        return this.size;
+        return this.size + Math.max( this.paneSize, 0 );
     }
 
     public String toString() {
-        return "SlidingTimeWindow( size=" + size + " )";
+        return paneSize > 0 ? "SlidingTimeWindow( size=" + size + ", paneSize=" + paneSize + " )" : "SlidingTimeWindow( size=" + size + " )";
     }
 
+    /**
+     * The events of a window, bucketed by expiration time: the events leaving the window in the same
+     * tick, or in the same pane, share a bucket. The buckets are kept in an array sorted by expiration
+     * time, used as a queue: as events arrive in timestamp order, adding one either joins the last bucket
+     * or appends a new one, and expiring the head bucket removes all its events at once, both in amortized
+     * constant time. Removing an event before its expiration, or adding one out of order, finds its bucket
+     * with a binary search. Without panes, each distinct expiration time still gets its own bucket.
+     */
     public static class SlidingTimeWindowContext
         implements
         Externalizable {
 
-        public PriorityQueue<EventFactHandle> queue;
-        public EventFactHandle                expiringHandle;
+        /** The buckets from head on, the slots before it are released when enough of them are polled */
+        private ArrayList<Bucket> buckets = new ArrayList<Bucket>();
+        private int               head;
+        private int               size;
+        public EventFactHandle    expiringHandle;
 
         public SlidingTimeWindowContext() {
-            this.queue = new PriorityQueue<EventFactHandle>( 16 ); // arbitrary size... can we improve it?
         }
 
-        @SuppressWarnings("unchecked")
+        /**
+         * Adds the event to the bucket of its expiration time and returns true if it is a new head bucket
+         */
+        public boolean add(EventFactHandle handle,
+                           long expirationTime) {
+            size++;
+            int last = buckets.size() - 1;
+            if ( last < head ) {
+                buckets.add( new Bucket( expirationTime, handle ) );
+                return true;
+            }
+            Bucket lastBucket = buckets.get( last );
+            if ( lastBucket.expirationTime == expirationTime ) {
+                lastBucket.add( handle );
+                return false;
+            }
+            if ( lastBucket.expirationTime < expirationTime ) {
+                buckets.add( new Bucket( expirationTime, handle ) );
+                return false;
+            }
+
+            // an event out of order, which the engine accepts anyway
+            int index = indexOf( expirationTime );
+            if ( index >= 0 ) {
+                buckets.get( index ).add( handle );
+                return false;
+            }
+            index = -(index + 1);
+            buckets.add( index, new Bucket( expirationTime, handle ) );
+            return index == head;
+        }
+
+        public boolean remove(EventFactHandle handle,
+                              long expirationTime) {
+            int index = indexOf( expirationTime );
+            if ( index < 0 ) {
+                return false;
+            }
+            Bucket bucket = buckets.get( index );
+            for ( int i = bucket.size() - 1; i >= 0; i-- ) {
+                if ( bucket.get( i ) == handle ) {
+                    bucket.remove( i );
+                    size--;
+                    if ( index == head ) {
+                        // the other emptied buckets are skipped when they reach the head
+                        skipEmptyBuckets();
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Returns the first event of the head bucket, which is one of the events expiring first
+         */
+        public EventFactHandle peek() {
+            return head < buckets.size() ? buckets.get( head ).get( 0 ) : null;
+        }
+
+        public long getFirstExpirationTime() {
+            return buckets.get( head ).expirationTime;
+        }
+
+        public List<EventFactHandle> pollFirstBucket() {
+            Bucket first = buckets.get( head );
+            buckets.set( head++, null );
+            size -= first.size();
+            skipEmptyBuckets();
+            return first;
+        }
+
+        private void skipEmptyBuckets() {
+            while ( head < buckets.size() && buckets.get( head ).isEmpty() ) {
+                buckets.set( head++, null );
+            }
+            if ( head == buckets.size() ) {
+                buckets.clear();
+                head = 0;
+            } else if ( head > 16 && head > buckets.size() / 2 ) {
+                buckets.subList( 0, head ).clear();
+                head = 0;
+            }
+        }
+
+        /**
+         * Returns the index of the bucket of the given expiration time, or (-(insertion point) - 1)
+         */
+        private int indexOf(long expirationTime) {
+            int low = head;
+            int high = buckets.size() - 1;
+            while ( low <= high ) {
+                int mid = (low + high) >>> 1;
+                long midTime = buckets.get( mid ).expirationTime;
+                if ( midTime < expirationTime ) {
+                    low = mid + 1;
+                } else if ( midTime > expirationTime ) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
         public void readExternal(ObjectInput in) throws IOException,
                                                 ClassNotFoundException {
-            this.queue = (PriorityQueue<EventFactHandle>) in.readObject();
+            this.buckets = new ArrayList<Bucket>();
+            this.head = 0;
+            this.size = 0;
+            int bucketCount = in.readInt();
+            for ( int i = 0; i < bucketCount; i++ ) {
+                Bucket bucket = new Bucket( in.readLong() );
+                int events = in.readInt();
+                for ( int j = 0; j < events; j++ ) {
+                    bucket.add( (EventFactHandle) in.readObject() );
+                }
+                this.buckets.add( bucket );
+                this.size += events;
+            }
             this.expiringHandle = (EventFactHandle) in.readObject();
         }
 
         public void writeExternal(ObjectOutput out) throws IOException {
-            out.writeObject( this.queue );
+            int bucketCount = 0;
+            for ( int i = this.head; i < this.buckets.size(); i++ ) {
+                if ( !this.buckets.get( i ).isEmpty() ) {
+                    bucketCount++;
+                }
+            }
+            out.writeInt( bucketCount );
+            for ( int i = this.head; i < this.buckets.size(); i++ ) {
+                Bucket bucket = this.buckets.get( i );
+                if ( !bucket.isEmpty() ) {
+                    out.writeLong( bucket.expirationTime );
+                    out.writeInt( bucket.size() );
+                    for ( EventFactHandle handle : bucket ) {
+                        out.writeObject( handle );
+                    }
+                }
+            }
             out.writeObject( this.expiringHandle );
         }
 
-        public PriorityQueue<EventFactHandle> getQueue() {
-            return queue;
-        }
-
-        public void setQueue(PriorityQueue<EventFactHandle> queue) {
-            this.queue = queue;
-        }
-
         public EventFactHandle getExpiringHandle() {
             return expiringHandle;
         }
@@ -287,6 +462,27 @@ public class SlidingTimeWindow
         }
 
     }
+
+    /**
+     * The events of a window sharing the same expiration time
+     */
+    private static class Bucket extends ArrayList<EventFactHandle> {
+
+        private static final long serialVersionUID = 510l;
+
+        private final long expirationTime;
+
+        private Bucket(long expirationTime) {
+            this.expirationTime = expirationTime;
+        }
+
+        private Bucket(long expirationTime,
+                       EventFactHandle handle) {
+            super( 4 );
+            this.expirationTime = expirationTime;
+            add( handle );
+        }
+    }
     
     public static class BehaviorJobContextTimerOutputMarshaller implements TimersOutputMarshaller {
         public void write(JobContext jobCtx,
@@ -298,7 +494,7 @@ public class SlidingTimeWindow
             // write out SlidingTimeWindowContext
             SlidingTimeWindowContext slCtx = ( SlidingTimeWindowContext ) bjobCtx.behaviorContext;
   
-            EventFactHandle handle = slCtx.getQueue().peek();
+            EventFactHandle handle = slCtx.peek();
             outputCtx.writeInt( handle.getId() );
 
 //            BetaNode node = (BetaNode) handle.getRightTupleSink();
@@ -321,7 +517,7 @@ public class SlidingTimeWindow
             // write out SlidingTimeWindowContext
             SlidingTimeWindowContext slCtx = ( SlidingTimeWindowContext ) bjobCtx.behaviorContext;
   
-            EventFactHandle handle = slCtx.getQueue().peek();
+            EventFactHandle handle = slCtx.peek();
             
             return ProtobufMessages.Timers.Timer.newBuilder()
                     .setType( ProtobufMessages.Timers.TimerType.BEHAVIOR )
@@ -505,7 +701,7 @@ public class SlidingTimeWindow
             // write out SlidingTimeWindowContext
             SlidingTimeWindowContext slCtx = ( SlidingTimeWindowContext ) context;
 
-            EventFactHandle handle = slCtx.getQueue().peek();
+            EventFactHandle handle = slCtx.peek();
             outputCtx.writeInt( handle.getId() );
         }
             
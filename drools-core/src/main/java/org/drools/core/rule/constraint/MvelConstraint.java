@@ -8,7 +8,7 @@ import org.drools.core.common.InternalFactHandle;
 import org.drools.core.common.InternalRuleBase;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.util.AbstractHashTable.FieldIndex;
-import org.drools.core.util.BitMaskUtil;
+import org.drools.core.util.BitMask;
 import org.drools.core.util.MemoryUtil;
 import org.drools.core.util.index.IndexUtil;
 import org.drools.core.reteoo.LeftTuple;
@@ -340,14 +340,14 @@ public class MvelConstraint extends MutableTypeConstraint implements IndexableCo
 
     // Slot specific
 
-    public long getListenedPropertyMask(List<String> settableProperties) {
+    public BitMask getListenedPropertyMask(List<String> settableProperties) {
         return analyzedCondition != null ?
                 calculateMask(analyzedCondition, settableProperties) :
                 calculateMaskFromExpression(settableProperties);
     }
 
-    private long calculateMaskFromExpression(List<String> settableProperties) {
-        long mask = 0;
+    private BitMask calculateMaskFromExpression(List<String> settableProperties) {
+        BitMask mask = BitMask.EMPTY;
         String[] simpleExpressions = expression.split("\\Q&&\\E|\\Q||\\E");
 
         for (String simpleExpression : simpleExpressions) {
@@ -356,7 +356,7 @@ public class MvelConstraint extends MutableTypeConstraint implements IndexableCo
                 continue;
             }
             if (propertyName.equals("this")) {
-                return Long.MAX_VALUE;
+                return BitMask.ALL_SET_BUT_TRAIT;
             }
             int pos = settableProperties.indexOf(propertyName);
             if (pos < 0 && Character.isUpperCase(propertyName.charAt(0))) {
@@ -364,7 +364,7 @@ public class MvelConstraint extends MutableTypeConstraint implements IndexableCo
                 pos = settableProperties.indexOf(propertyName);
             }
             if (pos >= 0) { // Ignore not settable properties
-                mask = BitMaskUtil.set(mask, pos);
+                mask = mask.setProperty(pos);
             }
         }
 
@@ -397,28 +397,28 @@ public class MvelConstraint extends MutableTypeConstraint implements IndexableCo
         return propertyName;
     }
 
-    private long calculateMask(Condition condition, List<String> settableProperties) {
+    private BitMask calculateMask(Condition condition, List<String> settableProperties) {
         if (condition instanceof SingleCondition) {
             return calculateMask((SingleCondition) condition, settableProperties);
         }
-        long mask = 0L;
+        BitMask mask = BitMask.EMPTY;
         for (Condition c : ((CombinedCondition)condition).getConditions()) {
-            mask |= calculateMask(c, settableProperties);
+            mask = mask.setAll(calculateMask(c, settableProperties));
         }
         return mask;
     }
 
-    private long calculateMask(SingleCondition condition, List<String> settableProperties) {
+    private BitMask calculateMask(SingleCondition condition, List<String> settableProperties) {
         String propertyName = getFirstInvokedPropertyName(condition.getLeft());
         if (propertyName == null) {
-            return Long.MAX_VALUE;
+            return BitMask.ALL_SET_BUT_TRAIT;
         }
 
         int pos = settableProperties.indexOf(propertyName);
         if (pos < 0) {
             throw new RuntimeException("Unknown property: " + propertyName);
         }
-        return 1L << pos;
+        return BitMask.EMPTY.setProperty(pos);
     }
 
     private String getFirstInvokedPropertyName(Expression expression) {
@@ -27,6 +27,7 @@ import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.reteoo.TerminalNode;
 import org.drools.core.rule.EntryPointId;
 import org.drools.core.rule.Rule;
+import org.drools.core.util.BitMask;
 
 public interface PropagationContext
     extends
@@ -74,9 +75,9 @@ public interface PropagationContext
 
     void evaluateActionQueue(InternalWorkingMemory workingMemory);
 
-    long getModificationMask();
+    BitMask getModificationMask();
     PropagationContext adaptModificationMaskForObjectType(ObjectType type, InternalWorkingMemory workingMemory);
-    void setModificationMask(long mask);
+    void setModificationMask(BitMask mask);
 
     ObjectType getObjectType();
     void setObjectType(ObjectType objectType);
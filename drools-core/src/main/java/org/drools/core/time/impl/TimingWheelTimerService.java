@@ -0,0 +1,392 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.time.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.drools.core.time.AcceptsTimerJobFactoryManager;
+import org.drools.core.time.InternalSchedulerService;
+import org.drools.core.time.Job;
+import org.drools.core.time.JobContext;
+import org.drools.core.time.JobHandle;
+import org.drools.core.time.TimerService;
+import org.drools.core.time.Trigger;
+import org.kie.api.time.SessionClock;
+
+/**
+ * A real time Scheduler implementation backed by a hierarchical timing wheel, meant for the sessions
+ * having a very large number of pending jobs, such as the expiration jobs of millions of events.
+ *
+ * The wheel has 4 levels of 256 slots, each slot being a doubly linked list of jobs: the slots of the
+ * first level last one tick and those of each following level as long as a whole turn of the previous one.
+ * Scheduling and cancelling a job are O(1) and don't create any object other than the list entry, while
+ * the jobs of the upper levels are moved down one level at a time as the wheel turns. All the jobs due in
+ * the same tick are executed as a batch by a single timer thread, which is only started when the first job
+ * is scheduled and waits without polling while there are no pending jobs.
+ *
+ * It is enabled through the session configuration:
+ * drools.timerService = org.drools.core.time.impl.TimingWheelTimerService
+ * The jobs fire on the first tick after their fire time, the default tick being 1 millisecond.
+ */
+public class TimingWheelTimerService
+        implements
+        TimerService,
+        SessionClock,
+        InternalSchedulerService,
+        AcceptsTimerJobFactoryManager {
+
+    private static final int          SLOT_BITS         = 8;
+    private static final int          SLOT_MASK         = ( 1 << SLOT_BITS ) - 1;
+    private static final int          LEVELS            = 4;
+
+    /** The longest delay a job can be placed at, the jobs scheduled further away are placed again when reached */
+    private static final long         MAX_DELAY         = ( 1L << ( SLOT_BITS * LEVELS ) ) - 1;
+
+    private AtomicLong                idCounter         = new AtomicLong();
+
+    protected TimerJobFactoryManager  jobFactoryManager = DefaultTimerJobFactoryManager.instance;
+
+    private final long                tickMillis;
+
+    /** The sentinels of the slot lists of each level */
+    private final WheelEntry[][]      wheels;
+
+    /** The first tick that hasn't been processed yet */
+    private long                      nextTick;
+
+    private int                       size;
+
+    private Thread                    worker;
+
+    private boolean                   shutdown;
+
+    public TimingWheelTimerService() {
+        this( 1 );
+    }
+
+    public TimingWheelTimerService(long tickMillis) {
+        if ( tickMillis <= 0 ) {
+            throw new IllegalArgumentException( "The tick of the timing wheel must be positive: " + tickMillis );
+        }
+        this.tickMillis = tickMillis;
+        this.wheels = new WheelEntry[LEVELS][1 << SLOT_BITS];
+        for ( WheelEntry[] wheel : wheels ) {
+            for ( int i = 0; i < wheel.length; i++ ) {
+                wheel[i] = new WheelEntry( null, 0 );
+            }
+        }
+    }
+
+    public void setTimerJobFactoryManager(TimerJobFactoryManager timerJobFactoryManager) {
+        this.jobFactoryManager = timerJobFactoryManager;
+    }
+
+    public void setCounter(long counter) {
+        idCounter = new AtomicLong( counter );
+    }
+
+    public TimerJobFactoryManager getTimerJobFactoryManager() {
+        return this.jobFactoryManager;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    public long getCurrentTime() {
+        return System.currentTimeMillis();
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    public synchronized void shutdown() {
+        this.shutdown = true;
+        for ( WheelEntry[] wheel : wheels ) {
+            for ( WheelEntry sentinel : wheel ) {
+                sentinel.clear();
+            }
+        }
+        this.size = 0;
+        notifyAll();
+        if ( this.worker != null ) {
+            this.worker.interrupt();
+        }
+    }
+
+    public JobHandle scheduleJob(Job job,
+                                 JobContext ctx,
+                                 Trigger trigger) {
+        Date date = trigger.hasNextFireTime();
+        if ( date != null ) {
+            WheelJobHandle jobHandle = new WheelJobHandle( idCounter.getAndIncrement() );
+
+            TimerJobInstance jobInstance = jobFactoryManager.createTimerJobInstance( job,
+                                                                                     ctx,
+                                                                                     trigger,
+                                                                                     jobHandle,
+                                                                                     this );
+            jobHandle.setTimerJobInstance( jobInstance );
+            internalSchedule( jobInstance );
+
+            return jobHandle;
+        } else {
+            return null;
+        }
+    }
+
+    public void internalSchedule(TimerJobInstance timerJobInstance) {
+        Date date = timerJobInstance.getTrigger().hasNextFireTime();
+        // rounded up, so that no job is fired before its time
+        WheelEntry entry = new WheelEntry( timerJobInstance,
+                                           ( date.getTime() + tickMillis - 1 ) / tickMillis );
+        ((WheelJobHandle) timerJobInstance.getJobHandle()).setEntry( entry );
+
+        synchronized ( this ) {
+            if ( shutdown ) {
+                return;
+            }
+            if ( size == 0 ) {
+                // the wheel is empty, so it can be moved to the current tick without processing the elapsed ones
+                nextTick = currentTick();
+                notifyAll();
+            }
+            place( entry );
+            size++;
+            if ( worker == null ) {
+                startWorker();
+            }
+        }
+        jobFactoryManager.addTimerJobInstance( timerJobInstance );
+    }
+
+    public boolean removeJob(JobHandle jobHandle) {
+        jobHandle.setCancel( true );
+        WheelJobHandle wheelJobHandle = (WheelJobHandle) jobHandle;
+        jobFactoryManager.removeTimerJobInstance( wheelJobHandle.getTimerJobInstance() );
+        synchronized ( this ) {
+            WheelEntry entry = wheelJobHandle.getEntry();
+            if ( entry == null || !entry.isLinked() ) {
+                return false;
+            }
+            entry.unlink();
+            size--;
+            return true;
+        }
+    }
+
+    public long getTimeToNextJob() {
+        return 0;
+    }
+
+    public Collection<TimerJobInstance> getTimerJobInstances(int id) {
+        return jobFactoryManager.getTimerJobInstances();
+    }
+
+    public synchronized int getPendingJobCount() {
+        return size;
+    }
+
+    private long currentTick() {
+        return getCurrentTime() / tickMillis;
+    }
+
+    private void startWorker() {
+        worker = new Thread( new Runnable() {
+            public void run() {
+                turnWheel();
+            }
+        }, "drools-timing-wheel" );
+        worker.setDaemon( true );
+        worker.start();
+    }
+
+    private void turnWheel() {
+        List<WheelEntry> due = new ArrayList<WheelEntry>();
+        while ( true ) {
+            synchronized ( this ) {
+                try {
+                    while ( size == 0 && !shutdown ) {
+                        wait();
+                    }
+                } catch ( InterruptedException e ) {
+                    // checks if the service has been shut down
+                }
+                if ( shutdown ) {
+                    return;
+                }
+                advance( currentTick(),
+                         due );
+            }
+
+            for ( WheelEntry entry : due ) {
+                execute( entry.jobInstance );
+            }
+
+            if ( due.isEmpty() ) {
+                try {
+                    Thread.sleep( tickMillis );
+                } catch ( InterruptedException e ) {
+                    // checks if the service has been shut down
+                }
+            }
+            due.clear();
+        }
+    }
+
+    private void execute(TimerJobInstance jobInstance) {
+        try {
+            ((Callable<?>) jobInstance).call();
+        } catch ( Exception e ) {
+            // already logged by the job instance, the following jobs must be executed anyway
+        }
+    }
+
+    /**
+     * Processes all the ticks up to the given one, collecting the jobs that are due
+     */
+    private void advance(long tick,
+                         List<WheelEntry> due) {
+        while ( nextTick <= tick && size > 0 ) {
+            int index = (int) ( nextTick & SLOT_MASK );
+            // on each turn of a level, the jobs of the current slot of the following level are moved down
+            for ( int level = 1; index == 0 && level < LEVELS; level++ ) {
+                index = (int) ( ( nextTick >>> ( level * SLOT_BITS ) ) & SLOT_MASK );
+                cascade( wheels[level][index] );
+            }
+
+            WheelEntry sentinel = wheels[0][(int) ( nextTick & SLOT_MASK )];
+            for ( WheelEntry entry = sentinel.next; entry != sentinel; entry = sentinel.next ) {
+                entry.unlink();
+                if ( entry.tick <= nextTick ) {
+                    due.add( entry );
+                    size--;
+                } else {
+                    // it was scheduled further away than the wheel can hold
+                    place( entry );
+                }
+            }
+            nextTick++;
+        }
+        if ( size == 0 && nextTick <= tick ) {
+            nextTick = tick + 1;
+        }
+    }
+
+    private void cascade(WheelEntry sentinel) {
+        for ( WheelEntry entry = sentinel.next; entry != sentinel; entry = sentinel.next ) {
+            entry.unlink();
+            place( entry );
+        }
+    }
+
+    private void place(WheelEntry entry) {
+        long tick = entry.tick;
+        long delay = tick - nextTick;
+        WheelEntry sentinel;
+        if ( delay < 0 ) {
+            sentinel = wheels[0][(int) ( nextTick & SLOT_MASK )];
+        } else if ( delay < 1L << SLOT_BITS ) {
+            sentinel = wheels[0][(int) ( tick & SLOT_MASK )];
+        } else if ( delay < 1L << ( 2 * SLOT_BITS ) ) {
+            sentinel = wheels[1][(int) ( ( tick >>> SLOT_BITS ) & SLOT_MASK )];
+        } else if ( delay < 1L << ( 3 * SLOT_BITS ) ) {
+            sentinel = wheels[2][(int) ( ( tick >>> ( 2 * SLOT_BITS ) ) & SLOT_MASK )];
+        } else {
+            if ( delay > MAX_DELAY ) {
+                tick = nextTick + MAX_DELAY;
+            }
+            sentinel = wheels[3][(int) ( ( tick >>> ( 3 * SLOT_BITS ) ) & SLOT_MASK )];
+        }
+        entry.linkBefore( sentinel );
+    }
+
+    /**
+     * An entry of the doubly linked list of a slot, or the sentinel of that list
+     */
+    private static class WheelEntry {
+        private final TimerJobInstance jobInstance;
+        private final long             tick;
+        private WheelEntry             previous;
+        private WheelEntry             next;
+
+        private WheelEntry(TimerJobInstance jobInstance,
+                           long tick) {
+            this.jobInstance = jobInstance;
+            this.tick = tick;
+            if ( jobInstance == null ) {
+                this.previous = this;
+                this.next = this;
+            }
+        }
+
+        private boolean isLinked() {
+            return next != null;
+        }
+
+        private void linkBefore(WheelEntry sentinel) {
+            previous = sentinel.previous;
+            next = sentinel;
+            previous.next = this;
+            sentinel.previous = this;
+        }
+
+        private void unlink() {
+            previous.next = next;
+            next.previous = previous;
+            previous = null;
+            next = null;
+        }
+
+        private void clear() {
+            for ( WheelEntry entry = next; entry != this; ) {
+                WheelEntry following = entry.next;
+                entry.previous = null;
+                entry.next = null;
+                entry = following;
+            }
+            previous = this;
+            next = this;
+        }
+    }
+
+    public static class WheelJobHandle extends DefaultJobHandle
+            implements
+            JobHandle {
+
+        private static final long     serialVersionUID = 510l;
+
+        private transient WheelEntry  entry;
+
+        public WheelJobHandle(long id) {
+            super( id );
+        }
+
+        private WheelEntry getEntry() {
+            return entry;
+        }
+
+        private void setEntry(WheelEntry entry) {
+            this.entry = entry;
+        }
+    }
+}
@@ -519,6 +519,214 @@ public abstract class AbstractHashTable
         }
     }
 
+    /**
+     * Base class for the single indexes on a primitive int, long or double field. Both the indexed field and
+     * the declaration it is compared with are read as primitives, so neither hashing nor comparing box the keys.
+     */
+    public abstract static class AbstractPrimitiveSingleIndex
+        implements
+        Index {
+
+        private static final long      serialVersionUID = 510l;
+
+        protected InternalReadAccessor extractor;
+        protected Declaration          declaration;
+        protected IndexEvaluator       evaluator;
+
+        protected int                  startResult;
+
+        public AbstractPrimitiveSingleIndex() {
+
+        }
+
+        public AbstractPrimitiveSingleIndex(final FieldIndex[] indexes,
+                                            final int startResult) {
+            this.startResult = startResult;
+
+            this.extractor = indexes[0].extractor;
+            this.declaration = indexes[0].declaration;
+            this.evaluator = indexes[0].evaluator;
+        }
+
+        public void readExternal(ObjectInput in) throws IOException,
+                                                ClassNotFoundException {
+            extractor = (InternalReadAccessor) in.readObject();
+            declaration = (Declaration) in.readObject();
+            evaluator = (IndexEvaluator) in.readObject();
+            startResult = in.readInt();
+        }
+
+        public void writeExternal(ObjectOutput out) throws IOException {
+            out.writeObject( extractor );
+            out.writeObject( declaration );
+            out.writeObject( evaluator );
+            out.writeInt( startResult );
+        }
+
+        public FieldIndex getFieldIndex(int index) {
+            if ( index > 0 ) {
+                throw new IllegalArgumentException( "IndexUtil position " + index + " does not exist" );
+            }
+            return new FieldIndex( extractor,
+                                   declaration,
+                                   evaluator );
+        }
+
+        protected int hashCodeOf(final int value) {
+            return rehash( LeftTupleIndexHashTable.PRIME * this.startResult + value );
+        }
+    }
+
+    public static class IntSingleIndex extends AbstractPrimitiveSingleIndex {
+
+        private static final long serialVersionUID = 510l;
+
+        public IntSingleIndex() {
+
+        }
+
+        public IntSingleIndex(final FieldIndex[] indexes,
+                              final int startResult) {
+            super( indexes,
+                   startResult );
+        }
+
+        public int hashCodeOf(final Object object) {
+            return hashCodeOf( this.extractor.getIntValue( null,
+                                                           object ) );
+        }
+
+        public int hashCodeOf(final LeftTuple tuple) {
+            return hashCodeOf( this.declaration.getIntValue( null,
+                                                             tuple.get( this.declaration ).getObject() ) );
+        }
+
+        public boolean equal(final Object right,
+                             final LeftTuple tuple) {
+            return this.declaration.getIntValue( null,
+                                                 tuple.get( this.declaration ).getObject() ) == this.extractor.getIntValue( null,
+                                                                                                                             right );
+        }
+
+        public boolean equal(final Object object1,
+                             final Object object2) {
+            return this.extractor.getIntValue( null,
+                                               object1 ) == this.extractor.getIntValue( null,
+                                                                                        object2 );
+        }
+
+        public boolean equal(final LeftTuple tuple1,
+                             final LeftTuple tuple2) {
+            return this.declaration.getIntValue( null,
+                                                 tuple1.get( this.declaration ).getObject() ) == this.declaration.getIntValue( null,
+                                                                                                                                tuple2.get( this.declaration ).getObject() );
+        }
+    }
+
+    public static class LongSingleIndex extends AbstractPrimitiveSingleIndex {
+
+        private static final long serialVersionUID = 510l;
+
+        public LongSingleIndex() {
+
+        }
+
+        public LongSingleIndex(final FieldIndex[] indexes,
+                               final int startResult) {
+            super( indexes,
+                   startResult );
+        }
+
+        public int hashCodeOf(final Object object) {
+            return hashCodeOf( longHashCode( this.extractor.getLongValue( null,
+                                                                          object ) ) );
+        }
+
+        public int hashCodeOf(final LeftTuple tuple) {
+            return hashCodeOf( longHashCode( this.declaration.getLongValue( null,
+                                                                            tuple.get( this.declaration ).getObject() ) ) );
+        }
+
+        public boolean equal(final Object right,
+                             final LeftTuple tuple) {
+            return this.declaration.getLongValue( null,
+                                                  tuple.get( this.declaration ).getObject() ) == this.extractor.getLongValue( null,
+                                                                                                                               right );
+        }
+
+        public boolean equal(final Object object1,
+                             final Object object2) {
+            return this.extractor.getLongValue( null,
+                                                object1 ) == this.extractor.getLongValue( null,
+                                                                                          object2 );
+        }
+
+        public boolean equal(final LeftTuple tuple1,
+                             final LeftTuple tuple2) {
+            return this.declaration.getLongValue( null,
+                                                  tuple1.get( this.declaration ).getObject() ) == this.declaration.getLongValue( null,
+                                                                                                                                  tuple2.get( this.declaration ).getObject() );
+        }
+
+        private static int longHashCode(final long value) {
+            return (int) (value ^ (value >>> 32));
+        }
+    }
+
+    public static class DoubleSingleIndex extends AbstractPrimitiveSingleIndex {
+
+        private static final long serialVersionUID = 510l;
+
+        public DoubleSingleIndex() {
+
+        }
+
+        public DoubleSingleIndex(final FieldIndex[] indexes,
+                                 final int startResult) {
+            super( indexes,
+                   startResult );
+        }
+
+        // doubles are compared through their bits, as Double.equals() does, so NaN matches NaN and 0.0 doesn't match -0.0
+
+        public int hashCodeOf(final Object object) {
+            return hashCodeOf( bitsHashCode( rightBits( object ) ) );
+        }
+
+        public int hashCodeOf(final LeftTuple tuple) {
+            return hashCodeOf( bitsHashCode( leftBits( tuple ) ) );
+        }
+
+        public boolean equal(final Object right,
+                             final LeftTuple tuple) {
+            return leftBits( tuple ) == rightBits( right );
+        }
+
+        public boolean equal(final Object object1,
+                             final Object object2) {
+            return rightBits( object1 ) == rightBits( object2 );
+        }
+
+        public boolean equal(final LeftTuple tuple1,
+                             final LeftTuple tuple2) {
+            return leftBits( tuple1 ) == leftBits( tuple2 );
+        }
+
+        private long rightBits(final Object object) {
+            return Double.doubleToLongBits( this.extractor.getDoubleValue( null,
+                                                                           object ) );
+        }
+
+        private long leftBits(final LeftTuple tuple) {
+            return Double.doubleToLongBits( this.declaration.getDoubleValue( null,
+                                                                             tuple.get( this.declaration ).getObject() ) );
+        }
+
+        private static int bitsHashCode(final long bits) {
+            return (int) (bits ^ (bits >>> 32));
+        }
+    }
+
     public static class DoubleCompositeIndex
         implements
         Index {
@@ -235,6 +235,15 @@ public class BinaryHeapQueue
         return result;
     }
 
+    /**
+     * Removes the given element, using its queue index.
+     *
+     * @param activation the element to be removed
+     */
+    public synchronized Activation dequeue(final Activation activation) {
+        return dequeue( activation.getQueueIndex() );
+    }
+
 //    /**
 //     * Percolates Queueable down heap from the position given by the index.
 //     * <p/>
@@ -0,0 +1,336 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * An immutable set of bits of arbitrary width, used as property reactivity mask so that the properties of
+ * a class after the 64th are tracked as precisely as the first ones.
+ *
+ * A mask is either a finite set of bits or the complement of one, so that the masks accepting every
+ * modification (-1L and Long.MAX_VALUE as long masks) keep including the properties beyond the 64th.
+ * As for the long masks, the bit 63 is used to mark the modifications of the trait set, so the properties
+ * from the 64th on are stored one bit after their index: see setProperty() and isPropertySet().
+ * The masks fitting in a single long are checked without any array access, and the ones created from the
+ * long masks of the generated consequences are interned, so that a modify doesn't allocate a new mask.
+ */
+public final class BitMask implements Serializable {
+
+    private static final long   serialVersionUID  = 510l;
+
+    public static final int     TRAIT_BIT         = 63;
+
+    public static final BitMask EMPTY             = new BitMask( 0L, null, false );
+
+    public static final BitMask ALL_SET           = new BitMask( 0L, null, true );
+
+    /** Every bit but the trait one, the equivalent of Long.MAX_VALUE */
+    public static final BitMask ALL_SET_BUT_TRAIT = new BitMask( Long.MIN_VALUE, null, true );
+
+    public static final BitMask TRAIT             = new BitMask( Long.MIN_VALUE, null, false );
+
+    /** The narrow masks interned by valueOf(long) are 2^CACHE_BITS */
+    private static final int    CACHE_BITS        = 8;
+
+    /**
+     * The narrow masks last created by valueOf(long), indexed by the hash of their word. A racy access only
+     * causes a miss, as the masks are immutable and their fields final.
+     */
+    private static final BitMask[] CACHE          = new BitMask[1 << CACHE_BITS];
+
+    private static final int    OR                = 0;
+    private static final int    AND               = 1;
+    private static final int    AND_NOT           = 2;
+
+    /** The bits from 0 to 63 of the finite set */
+    private final long          word;
+
+    /** The following words of the finite set, without trailing zeros, or null if there are none */
+    private final long[]        moreWords;
+
+    /** If true this mask contains all the bits that are not in the finite set */
+    private final boolean       complement;
+
+    private BitMask(long word,
+                    long[] moreWords,
+                    boolean complement) {
+        this.word = word;
+        this.moreWords = moreWords;
+        this.complement = complement;
+    }
+
+    /**
+     * Returns the mask equivalent to the given long mask: -1L and Long.MAX_VALUE are extended to
+     * the properties beyond the 64th.
+     */
+    public static BitMask valueOf(long mask) {
+        if ( mask == -1L ) {
+            return ALL_SET;
+        }
+        if ( mask == Long.MAX_VALUE ) {
+            return ALL_SET_BUT_TRAIT;
+        }
+        int slot = ( (int) ( mask ^ ( mask >>> 32 ) ) * 0x9E3779B9 ) >>> ( 32 - CACHE_BITS );
+        BitMask cached = CACHE[slot];
+        if ( cached == null || cached.word != mask ) {
+            cached = create( mask, false );
+            CACHE[slot] = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * Returns the mask having exactly the bits set in the given words, the first one holding the bits
+     * from 0 to 63. Used by the generated consequences modifying the properties beyond the 64th.
+     */
+    public static BitMask valueOf(long[] words) {
+        return create( words, false );
+    }
+
+    public BitMask set(int index) {
+        return isSet( index ) ? this : flip( index );
+    }
+
+    public BitMask reset(int index) {
+        return isSet( index ) ? flip( index ) : this;
+    }
+
+    /**
+     * Sets the bit of the property having the given index in the settable properties of its class
+     */
+    public BitMask setProperty(int propertyIndex) {
+        return set( propertyBit( propertyIndex ) );
+    }
+
+    public boolean isPropertySet(int propertyIndex) {
+        return isSet( propertyBit( propertyIndex ) );
+    }
+
+    public boolean isSet(int index) {
+        if ( index < 0 ) {
+            throw new IllegalArgumentException( "negative position" );
+        }
+        return ( ( wordAt( index >>> 6 ) & ( 1L << index ) ) != 0 ) ^ complement;
+    }
+
+    public boolean isEmpty() {
+        return !complement && word == 0 && moreWords == null;
+    }
+
+    public boolean isAllSet() {
+        return complement && word == 0 && moreWords == null;
+    }
+
+    /**
+     * Returns the union of this mask and the given one
+     */
+    public BitMask setAll(BitMask mask) {
+        if ( !complement && !mask.complement ) {
+            if ( moreWords == null && mask.moreWords == null ) {
+                long union = word | mask.word;
+                // reuses one of the operands when possible, so that the common case doesn't allocate
+                return union == word ? this : union == mask.word ? mask : create( union, false );
+            }
+            return create( combine( this, mask, OR ), false );
+        }
+        if ( complement && mask.complement ) {
+            return create( combine( this, mask, AND ), true );
+        }
+        return complement ? create( combine( this, mask, AND_NOT ), true ) : create( combine( mask, this, AND_NOT ), true );
+    }
+
+    /**
+     * Returns the bits of this mask that are not set in the given one
+     */
+    public BitMask resetAll(BitMask mask) {
+        if ( !complement && !mask.complement ) {
+            if ( moreWords == null && mask.moreWords == null ) {
+                long difference = word & ~mask.word;
+                return difference == word ? this : create( difference, false );
+            }
+            return create( combine( this, mask, AND_NOT ), false );
+        }
+        if ( complement && mask.complement ) {
+            return create( combine( mask, this, AND_NOT ), false );
+        }
+        return complement ? create( combine( this, mask, OR ), true ) : create( combine( this, mask, AND ), false );
+    }
+
+    public boolean intersects(BitMask mask) {
+        if ( !complement && !mask.complement ) {
+            if ( moreWords == null && mask.moreWords == null ) {
+                return ( word & mask.word ) != 0;
+            }
+            return intersects( this, mask, false );
+        }
+        if ( complement && mask.complement ) {
+            // both of them contain an infinite number of bits
+            return true;
+        }
+        return complement ? intersects( mask, this, true ) : intersects( this, mask, true );
+    }
+
+    /**
+     * Returns the bits from 0 to 63 of this mask
+     */
+    public long asLong() {
+        return complement ? ~word : word;
+    }
+
+    /**
+     * Returns true if this mask is a finite set of bits whose positions are all lower than 64
+     */
+    public boolean isLong() {
+        return !complement && moreWords == null;
+    }
+
+    /**
+     * Returns the words of this mask if it is a finite set of bits, as accepted by valueOf(long[])
+     */
+    public long[] toLongArray() {
+        if ( complement ) {
+            throw new UnsupportedOperationException( "The mask " + this + " has an infinite number of bits" );
+        }
+        long[] words = new long[wordCount()];
+        for ( int i = 0; i < words.length; i++ ) {
+            words[i] = wordAt( i );
+        }
+        return words;
+    }
+
+    public boolean equals(Object obj) {
+        if ( this == obj ) {
+            return true;
+        }
+        if ( !(obj instanceof BitMask) ) {
+            return false;
+        }
+        BitMask other = (BitMask) obj;
+        return word == other.word && complement == other.complement && Arrays.equals( moreWords, other.moreWords );
+    }
+
+    public int hashCode() {
+        int result = (int) ( word ^ ( word >>> 32 ) );
+        result = 31 * result + Arrays.hashCode( moreWords );
+        return complement ? ~result : result;
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder( complement ? "~[" : "[" );
+        for ( int i = wordCount() - 1; i >= 0; i-- ) {
+            sb.append( Long.toHexString( wordAt( i ) ) );
+            if ( i > 0 ) {
+                sb.append( ':' );
+            }
+        }
+        return sb.append( ']' ).toString();
+    }
+
+    private Object readResolve() {
+        // the constants are restored, so that they don't get duplicated
+        return moreWords == null ? create( word, complement ) : this;
+    }
+
+    private static int propertyBit(int propertyIndex) {
+        // skips the bit of the trait set
+        return propertyIndex < TRAIT_BIT ? propertyIndex : propertyIndex + 1;
+    }
+
+    private BitMask flip(int index) {
+        if ( index < 64 && moreWords == null ) {
+            return create( word ^ ( 1L << index ), complement );
+        }
+        long[] words = new long[Math.max( wordCount(), ( index >>> 6 ) + 1 )];
+        for ( int i = 0; i < words.length; i++ ) {
+            words[i] = wordAt( i );
+        }
+        words[index >>> 6] ^= 1L << index;
+        return create( words, complement );
+    }
+
+    private long wordAt(int index) {
+        if ( index == 0 ) {
+            return word;
+        }
+        return moreWords != null && index <= moreWords.length ? moreWords[index - 1] : 0L;
+    }
+
+    private int wordCount() {
+        return moreWords == null ? 1 : moreWords.length + 1;
+    }
+
+    private static long[] combine(BitMask mask1,
+                                  BitMask mask2,
+                                  int operation) {
+        long[] words = new long[Math.max( mask1.wordCount(), mask2.wordCount() )];
+        for ( int i = 0; i < words.length; i++ ) {
+            long word1 = mask1.wordAt( i );
+            long word2 = mask2.wordAt( i );
+            switch ( operation ) {
+                case OR :
+                    words[i] = word1 | word2;
+                    break;
+                case AND :
+                    words[i] = word1 & word2;
+                    break;
+                default :
+                    words[i] = word1 & ~word2;
+            }
+        }
+        return words;
+    }
+
+    private static boolean intersects(BitMask mask1,
+                                      BitMask mask2,
+                                      boolean negateMask2) {
+        int length = Math.max( mask1.wordCount(), mask2.wordCount() );
+        for ( int i = 0; i < length; i++ ) {
+            long word2 = mask2.wordAt( i );
+            if ( ( mask1.wordAt( i ) & ( negateMask2 ? ~word2 : word2 ) ) != 0 ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static BitMask create(long word,
+                                  boolean complement) {
+        if ( word == 0 ) {
+            return complement ? ALL_SET : EMPTY;
+        }
+        if ( word == Long.MIN_VALUE ) {
+            return complement ? ALL_SET_BUT_TRAIT : TRAIT;
+        }
+        return new BitMask( word, null, complement );
+    }
+
+    private static BitMask create(long[] words,
+                                  boolean complement) {
+        int length = words.length;
+        while ( length > 1 && words[length - 1] == 0 ) {
+            length--;
+        }
+        if ( length <= 1 ) {
+            return create( length == 0 ? 0L : words[0], complement );
+        }
+        long[] moreWords = new long[length - 1];
+        System.arraycopy( words, 1, moreWords, 0, length - 1 );
+        return new BitMask( words[0], moreWords, complement );
+    }
+}
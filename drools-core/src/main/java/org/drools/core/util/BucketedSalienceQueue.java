@@ -0,0 +1,301 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.util;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Comparator;
+
+import org.drools.core.rule.Rule;
+import org.drools.core.spi.Activation;
+import org.drools.core.spi.Salience;
+
+/**
+ * A queue of activations keeping one bucket for each salience value.
+ *
+ * The buckets cover a contiguous range of saliences, grown on demand, so adding and removing an
+ * activation only touches the bucket of its salience, and the next activation is taken from the highest
+ * non empty bucket. Inside a bucket the activations are ordered by the given comparator, which must
+ * order the activations by salience first, as the PhreakConflictResolver does, so the order of the queue is
+ * the same as the one of a BinaryHeapQueue using that comparator.
+ *
+ * The salience of an activation must not change while it is queued. As soon as an activation of a rule with a
+ * dynamic salience is added, or the saliences don't fit in MAX_SALIENCE_SPAN buckets, the queued activations
+ * are moved to a BinaryHeapQueue, which is then used for all the following operations.
+ */
+public class BucketedSalienceQueue
+    implements
+    Queue,
+    Externalizable {
+
+    /** The widest range of saliences kept in buckets */
+    public static final int   MAX_SALIENCE_SPAN = 1024;
+
+    /** The comparator used to order the activations of a bucket */
+    private Comparator        comparator;
+
+    /** The buckets, the first one holding the activations with minSalience */
+    private BinaryHeapQueue[] buckets;
+
+    private int               minSalience;
+
+    /** The index of the highest non empty bucket, -1 if the queue is empty */
+    private int               highest;
+
+    private int               size;
+
+    /** The heap used instead of the buckets, once a dynamic salience has been found */
+    private BinaryHeapQueue   fallback;
+
+    public BucketedSalienceQueue() {
+
+    }
+
+    public BucketedSalienceQueue(final Comparator comparator) {
+        this.comparator = comparator;
+        this.buckets = new BinaryHeapQueue[0];
+        this.highest = -1;
+    }
+
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        comparator = (Comparator) in.readObject();
+        buckets = (BinaryHeapQueue[]) in.readObject();
+        minSalience = in.readInt();
+        highest = in.readInt();
+        size = in.readInt();
+        fallback = (BinaryHeapQueue) in.readObject();
+    }
+
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeObject(comparator);
+        out.writeObject(buckets);
+        out.writeInt(minSalience);
+        out.writeInt(highest);
+        out.writeInt(size);
+        out.writeObject(fallback);
+    }
+
+    /**
+     * Returns false once the activations have been moved to a BinaryHeapQueue
+     */
+    public synchronized boolean isBucketed() {
+        return this.fallback == null;
+    }
+
+    public synchronized void clear() {
+        if ( this.fallback != null ) {
+            this.fallback.clear();
+            return;
+        }
+        this.buckets = new BinaryHeapQueue[this.buckets.length]; // for gc
+        this.highest = -1;
+        this.size = 0;
+    }
+
+    public synchronized Activation[] getAndClear() {
+        if ( this.fallback != null ) {
+            return this.fallback.getAndClear();
+        }
+        Activation[] queue = (Activation[]) toArray( new Activation[this.size] );
+        clear();
+        return queue;
+    }
+
+    public synchronized boolean isEmpty() {
+        return this.fallback != null ? this.fallback.isEmpty() : this.size == 0;
+    }
+
+    public synchronized int size() {
+        return this.fallback != null ? this.fallback.size() : this.size;
+    }
+
+    public synchronized Activation peek() {
+        if ( this.fallback != null ) {
+            return this.fallback.peek();
+        }
+        return this.highest < 0 ? null : this.buckets[this.highest].peek();
+    }
+
+    public synchronized void enqueue(final Activation activation) {
+        if ( this.fallback == null && (!hasConstantSalience( activation ) || !ensureBucket( activation.getSalience() )) ) {
+            fallBack();
+        }
+        if ( this.fallback != null ) {
+            this.fallback.enqueue( activation );
+            return;
+        }
+
+        int index = activation.getSalience() - this.minSalience;
+        BinaryHeapQueue bucket = this.buckets[index];
+        if ( bucket == null ) {
+            bucket = new BinaryHeapQueue( this.comparator );
+            this.buckets[index] = bucket;
+        }
+        bucket.enqueue( activation );
+        this.size++;
+        if ( index > this.highest ) {
+            this.highest = index;
+        }
+    }
+
+    public synchronized Activation dequeue() {
+        if ( this.fallback != null ) {
+            return this.fallback.dequeue();
+        }
+        if ( this.highest < 0 ) {
+            return null;
+        }
+        Activation result = this.buckets[this.highest].dequeue();
+        this.size--;
+        skipEmptyBuckets();
+        return result;
+    }
+
+    public synchronized Activation dequeue(final Activation activation) {
+        if ( this.fallback != null ) {
+            return this.fallback.dequeue( activation );
+        }
+        if ( !activation.isQueued() ) {
+            return null;
+        }
+        int index = activation.getSalience() - this.minSalience;
+        if ( index < 0 || index > this.highest || this.buckets[index] == null ) {
+            return null;
+        }
+        Activation result = this.buckets[index].dequeue( activation.getQueueIndex() );
+        if ( result != null ) {
+            this.size--;
+            skipEmptyBuckets();
+        }
+        return result;
+    }
+
+    /**
+     * The queue index of an activation is only meaningful inside its bucket, so the
+     * activations must be removed with dequeue(Activation) until the queue falls back to a heap.
+     */
+    public synchronized Activation dequeue(final int index) {
+        if ( this.fallback != null ) {
+            return this.fallback.dequeue( index );
+        }
+        throw new UnsupportedOperationException( "A bucketed queue can't remove an activation by its queue index only" );
+    }
+
+    public synchronized Object[] toArray(Object a[]) {
+        if ( this.fallback != null ) {
+            return this.fallback.toArray( a );
+        }
+        if ( a.length < this.size ) {
+            a = (Object[]) java.lang.reflect.Array.newInstance( a.getClass().getComponentType(),
+                                                                this.size );
+        }
+
+        int length = 0;
+        for ( int i = this.highest; i >= 0; i-- ) {
+            BinaryHeapQueue bucket = this.buckets[i];
+            if ( bucket != null && !bucket.isEmpty() ) {
+                Object[] activations = bucket.toArray( new Activation[bucket.size()] );
+                System.arraycopy( activations,
+                                  0,
+                                  a,
+                                  length,
+                                  activations.length );
+                length += activations.length;
+            }
+        }
+
+        if ( a.length > this.size ) {
+            a[this.size] = null;
+        }
+
+        return a;
+    }
+
+    private boolean hasConstantSalience(Activation activation) {
+        Rule rule = activation.getRule();
+        if ( rule == null ) {
+            return true;
+        }
+        Salience salience = rule.getSalience();
+        return salience == null || !salience.isDynamic();
+    }
+
+    /**
+     * Grows the buckets to cover the given salience, returns false if they would span too many saliences
+     */
+    private boolean ensureBucket(int salience) {
+        if ( this.buckets.length == 0 ) {
+            this.buckets = new BinaryHeapQueue[1];
+            this.minSalience = salience;
+            return true;
+        }
+
+        long maxSalience = (long) this.minSalience + this.buckets.length - 1;
+        if ( salience >= this.minSalience && salience <= maxSalience ) {
+            return true;
+        }
+
+        long newMin = Math.min( this.minSalience, salience );
+        long newMax = Math.max( maxSalience, salience );
+        if ( newMax - newMin + 1 > MAX_SALIENCE_SPAN ) {
+            return false;
+        }
+
+        int shift = (int) (this.minSalience - newMin);
+        BinaryHeapQueue[] buckets = new BinaryHeapQueue[(int) (newMax - newMin + 1)];
+        System.arraycopy( this.buckets,
+                          0,
+                          buckets,
+                          shift,
+                          this.buckets.length );
+        this.buckets = buckets;
+        this.minSalience = (int) newMin;
+        if ( this.highest >= 0 ) {
+            this.highest += shift;
+        }
+        return true;
+    }
+
+    private void skipEmptyBuckets() {
+        while ( this.highest >= 0 && (this.buckets[this.highest] == null || this.buckets[this.highest].isEmpty()) ) {
+            this.highest--;
+        }
+    }
+
+    /**
+     * Moves the queued activations to a heap, which is used from now on
+     */
+    private void fallBack() {
+        BinaryHeapQueue heap = new BinaryHeapQueue( this.comparator );
+        for ( int i = this.highest; i >= 0; i-- ) {
+            BinaryHeapQueue bucket = this.buckets[i];
+            if ( bucket != null ) {
+                for ( Activation activation : bucket.getAndClear() ) {
+                    if ( activation != null ) {
+                        heap.enqueue( activation );
+                    }
+                }
+            }
+        }
+        this.fallback = heap;
+        this.buckets = null;
+        this.highest = -1;
+        this.size = 0;
+    }
+}
@@ -28,11 +28,9 @@ public class JavaIteratorAdapter
     public static int    OBJECT = 0;
     public static int    FACT_HANDLE = 1;
 
-    private Iterator     iterator;
-    private ObjectEntry  nextEntry;
-    //    private Object  nextObject;
-    //    private InternalFactHandle  nextHandle;
-    private ObjectFilter filter;
+    private Iterator           iterator;
+    private InternalFactHandle nextHandle;
+    private ObjectFilter       filter;
     private int          type;
 
     public JavaIteratorAdapter(Iterator iterator,
@@ -52,11 +50,11 @@ public class JavaIteratorAdapter
     }
 
     public boolean hasNext() {
-        return (this.nextEntry != null);
+        return (this.nextHandle != null);
     }
 
     public Object next() {
-        ObjectEntry current = this.nextEntry;
+        InternalFactHandle current = this.nextHandle;
 
         if ( current != null ) {
             setNext();
@@ -65,31 +63,30 @@ public class JavaIteratorAdapter
         }
 
         if ( this.type == OBJECT ) {
-            return ((InternalFactHandle) current.getKey()).getObject();
+            return current.getObject();
         } else {
-            return current.getKey();
+            return current;
         }
     }
 
     private void setNext() {
-        ObjectEntry entry = null;
+        InternalFactHandle handle = null;
 
-        while ( entry == null ) {
-            entry = (ObjectEntry) this.iterator.next();
-            if ( entry == null ) {
+        while ( handle == null ) {
+            Object next = this.iterator.next();
+            if ( next == null ) {
                 break;
             }
+            // the chained hash tables iterate their entries, while the open addressing ones directly iterate their keys
+            handle = (InternalFactHandle) (next instanceof ObjectEntry ? ((ObjectEntry) next).getKey() : next);
             if ( this.filter != null ) {
-                Object object = ((InternalFactHandle) entry.getKey()).getObject();
-                if ( this.filter.accept( object ) == false ) {
-                    entry = null;
+                if ( this.filter.accept( handle.getObject() ) == false ) {
+                    handle = null;
                 }
             }
         }
 
-        this.nextEntry = entry;
-        //        this.nextHandle = handle;
-        //        this.nextObject = object;
+        this.nextHandle = handle;
     }
 
     public void remove() {
@@ -58,6 +58,7 @@ public class ObjectHashSet extends AbstractHashTable {
         this.table = new Entry[Math.min( this.table.length,
                                          16 )];
         this.threshold = (int) (this.table.length * this.loadFactor);
+        this.size = 0;
     }
 
     public boolean add(final Object value,
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.util;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+import org.drools.core.util.AbstractHashTable.EqualityEquals;
+import org.drools.core.util.AbstractHashTable.ObjectComparator;
+
+/**
+ * A hash map using open addressing with linear probing, as an alternative to the chained ObjectHashMap.
+ *
+ * Keys, values and their hash codes are kept in parallel arrays, so no entry is allocated per mapping and
+ * probing a key walks contiguous memory. Removals shift the following entries of the probe sequence back,
+ * so no tombstone is ever left in the table. As for ObjectHashMap, hashing and equality are delegated to
+ * the ObjectComparator, whose equal() is always invoked with the searched key as first argument.
+ */
+public class OpenAddressingObjectHashMap
+    implements
+    Externalizable {
+
+    private static final long  serialVersionUID = 510l;
+
+    static final int           MAX_CAPACITY     = 1 << 30;
+
+    private Object[]           keys;
+    private Object[]           values;
+    private int[]              hashCodes;
+
+    private int                size;
+    private int                threshold;
+    private float              loadFactor;
+
+    private ObjectComparator   comparator;
+
+    public OpenAddressingObjectHashMap() {
+        this( 16,
+              0.75f );
+    }
+
+    public OpenAddressingObjectHashMap(final int capacity,
+                                       final float loadFactor) {
+        if ( loadFactor <= 0 || loadFactor >= 1 ) {
+            throw new IllegalArgumentException( "The load factor of an open addressing map must be between 0 and 1, found: " + loadFactor );
+        }
+        this.loadFactor = loadFactor;
+        this.comparator = EqualityEquals.getInstance();
+        init( tableSizeFor( capacity ) );
+    }
+
+    public void readExternal(ObjectInput in) throws IOException,
+                                            ClassNotFoundException {
+        loadFactor = in.readFloat();
+        comparator = (ObjectComparator) in.readObject();
+        int length = in.readInt();
+        init( length );
+        int entries = in.readInt();
+        for ( int i = 0; i < entries; i++ ) {
+            Object key = in.readObject();
+            // hash codes are recomputed, as identity based ones don't survive serialization
+            insert( key,
+                    in.readObject(),
+                    hashOf( key ) );
+        }
+    }
+
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeFloat( loadFactor );
+        out.writeObject( comparator );
+        out.writeInt( keys.length );
+        out.writeInt( size );
+        for ( int i = 0; i < keys.length; i++ ) {
+            if ( keys[i] != null ) {
+                out.writeObject( keys[i] );
+                out.writeObject( values[i] );
+            }
+        }
+    }
+
+    public void setComparator(final ObjectComparator comparator) {
+        this.comparator = comparator;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public void clear() {
+        init( Math.min( this.keys.length,
+                        16 ) );
+    }
+
+    /**
+     * Associates the value with the key, replacing the value of an equal key if already present.
+     */
+    public Object put(final Object key,
+                      final Object value) {
+        final int hashCode = hashOf( key );
+        final int slot = indexOf( key,
+                                  hashCode );
+        if ( slot >= 0 ) {
+            final Object oldValue = this.values[slot];
+            this.values[slot] = value;
+            return oldValue;
+        }
+
+        insert( key,
+                value,
+                hashCode );
+        if ( this.size > this.threshold ) {
+            resize( 2 * this.keys.length );
+        }
+        return null;
+    }
+
+    public Object get(final Object key) {
+        final int slot = indexOf( key,
+                                  hashOf( key ) );
+        return slot >= 0 ? this.values[slot] : null;
+    }
+
+    public Object remove(final Object key) {
+        final int slot = indexOf( key,
+                                  hashOf( key ) );
+        if ( slot < 0 ) {
+            return null;
+        }
+        final Object oldValue = this.values[slot];
+        delete( slot );
+        return oldValue;
+    }
+
+    /**
+     * Iterates the keys of this map. As for the other hash table iterators, the map must not be modified
+     * while iterating.
+     */
+    public Iterator keyIterator() {
+        return new KeyIterator( this );
+    }
+
+    /**
+     * Spreads the higher bits of the hash code as the chained hash tables do, since the probe starts
+     * from its lower bits only
+     */
+    private int hashOf(final Object key) {
+        return AbstractHashTable.rehash( this.comparator.hashCodeOf( key ) );
+    }
+
+    private int indexOf(final Object key,
+                        final int hashCode) {
+        final int mask = this.keys.length - 1;
+        for ( int i = hashCode & mask; this.keys[i] != null; i = (i + 1) & mask ) {
+            if ( this.hashCodes[i] == hashCode && this.comparator.equal( key,
+                                                                         this.keys[i] ) ) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(final Object key,
+                        final Object value,
+                        final int hashCode) {
+        final int mask = this.keys.length - 1;
+        int i = hashCode & mask;
+        while ( this.keys[i] != null ) {
+            i = (i + 1) & mask;
+        }
+        this.keys[i] = key;
+        this.values[i] = value;
+        this.hashCodes[i] = hashCode;
+        this.size++;
+    }
+
+    private void delete(int slot) {
+        final int mask = this.keys.length - 1;
+        // shift back the entries of the probe sequence that would become unreachable through the emptied slot
+        for ( int i = (slot + 1) & mask; this.keys[i] != null; i = (i + 1) & mask ) {
+            final int home = this.hashCodes[i] & mask;
+            if ( ((i - home) & mask) >= ((i - slot) & mask) ) {
+                this.keys[slot] = this.keys[i];
+                this.values[slot] = this.values[i];
+                this.hashCodes[slot] = this.hashCodes[i];
+                slot = i;
+            }
+        }
+        this.keys[slot] = null;
+        this.values[slot] = null;
+        this.size--;
+    }
+
+    private void resize(final int newCapacity) {
+        if ( this.keys.length == MAX_CAPACITY ) {
+            this.threshold = MAX_CAPACITY - 1;
+            return;
+        }
+        final Object[] oldKeys = this.keys;
+        final Object[] oldValues = this.values;
+        final int[] oldHashCodes = this.hashCodes;
+
+        init( newCapacity );
+        for ( int i = 0; i < oldKeys.length; i++ ) {
+            if ( oldKeys[i] != null ) {
+                insert( oldKeys[i],
+                        oldValues[i],
+                        oldHashCodes[i] );
+            }
+        }
+    }
+
+    private void init(final int capacity) {
+        this.keys = new Object[capacity];
+        this.values = new Object[capacity];
+        this.hashCodes = new int[capacity];
+        this.size = 0;
+        // at least one slot is always left empty, so that probing terminates
+        this.threshold = Math.min( (int) (capacity * this.loadFactor),
+                                   capacity - 1 );
+    }
+
+    private static int tableSizeFor(final int capacity) {
+        int size = 2;
+        while ( size < capacity && size < MAX_CAPACITY ) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    public static class KeyIterator
+        implements
+        Iterator {
+
+        private static final long                 serialVersionUID = 510l;
+
+        private final OpenAddressingObjectHashMap map;
+        private int                               row;
+
+        public KeyIterator(final OpenAddressingObjectHashMap map) {
+            this.map = map;
+        }
+
+        public Object next() {
+            final Object[] keys = this.map.keys;
+            while ( this.row < keys.length ) {
+                final Object key = keys[this.row++];
+                if ( key != null ) {
+                    return key;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -25,5 +25,17 @@ public interface Queue {
 
     public Activation dequeue(int index);
 
+    public Activation dequeue(Activation activation);
+
     public boolean isEmpty();
+
+    public Activation peek();
+
+    public int size();
+
+    public void clear();
+
+    public Activation[] getAndClear();
+
+    public Object[] toArray(Object a[]);
 }
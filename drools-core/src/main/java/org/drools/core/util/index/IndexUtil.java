@@ -1,7 +1,14 @@
 package org.drools.core.util.index;
 
 import org.drools.core.RuleBaseConfiguration;
+import org.drools.core.base.ClassFieldReader;
+import org.drools.core.base.ValueType;
+import org.drools.core.util.AbstractHashTable.DoubleSingleIndex;
 import org.drools.core.util.AbstractHashTable.FieldIndex;
+import org.drools.core.util.AbstractHashTable.Index;
+import org.drools.core.util.AbstractHashTable.IntSingleIndex;
+import org.drools.core.util.AbstractHashTable.LongSingleIndex;
+import org.drools.core.util.AbstractHashTable.SingleIndex;
 import org.drools.core.reteoo.BetaMemory;
 import org.drools.core.reteoo.LeftTupleMemory;
 import org.drools.core.reteoo.NodeTypeEnums;
@@ -11,6 +18,7 @@ import org.drools.core.rule.IndexableConstraint;
 import org.drools.core.rule.constraint.MvelConstraint;
 import org.drools.core.spi.BetaNodeFieldConstraint;
 import org.drools.core.spi.Constraint;
+import org.drools.core.spi.ReadAccessor;
 import org.kie.internal.conf.IndexPrecedenceOption;
 
 import java.util.ArrayList;
@@ -244,6 +252,43 @@ public class IndexUtil {
         }
     }
 
+    /**
+     * Creates the index for a single equality constraint. When both the indexed field and the declaration
+     * it is joined with are primitive int, long or double, the returned index reads and compares them as
+     * primitives, avoiding to box the keys on every insert and lookup.
+     */
+    public static Index createSingleIndex(FieldIndex[] indexes, int startResult) {
+        ValueType keyType = getPrimitiveKeyType(indexes[0]);
+        if (keyType == ValueType.PINTEGER_TYPE) {
+            return new IntSingleIndex(indexes, startResult);
+        }
+        if (keyType == ValueType.PLONG_TYPE) {
+            return new LongSingleIndex(indexes, startResult);
+        }
+        if (keyType == ValueType.PDOUBLE_TYPE) {
+            return new DoubleSingleIndex(indexes, startResult);
+        }
+        return new SingleIndex(indexes, startResult);
+    }
+
+    private static ValueType getPrimitiveKeyType(FieldIndex fieldIndex) {
+        // a custom evaluator could define equality differently, and mixed types must keep the boxed equals() semantic
+        if ( !(fieldIndex.getEvaluator() instanceof MvelConstraint.PlainIndexEvaluator) || fieldIndex.getDeclaration() == null ) {
+            return null;
+        }
+        ValueType rightType = getValueType(fieldIndex.getExtractor());
+        ValueType leftType = getValueType(fieldIndex.getDeclaration().getExtractor());
+        return rightType != null && rightType == leftType ? rightType : null;
+    }
+
+    private static ValueType getValueType(ReadAccessor readAccessor) {
+        if ( readAccessor == null || (readAccessor instanceof ClassFieldReader && !((ClassFieldReader) readAccessor).hasReadAccessor()) ) {
+            // not wired yet, so the type is unknown
+            return null;
+        }
+        return readAccessor.getValueType();
+    }
+
     public static class Factory {
         public static BetaMemory createBetaMemory(RuleBaseConfiguration config, short nodeType, BetaNodeFieldConstraint... constraints) {
             int keyDepth = config.getCompositeKeyDepth();
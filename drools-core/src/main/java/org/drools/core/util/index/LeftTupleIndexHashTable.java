@@ -19,6 +19,7 @@ package org.drools.core.util.index;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.Arrays;
 
 import org.drools.core.util.AbstractHashTable;
 import org.drools.core.util.Entry;
@@ -72,8 +73,8 @@ public class LeftTupleIndexHashTable extends AbstractHashTable
             case 0 :
                 throw new IllegalArgumentException( "FieldIndexHashTable cannot use an index[] of length  0" );
             case 1 :
-                this.index = new SingleIndex( index,
-                                              this.startResult );
+                this.index = IndexUtil.createSingleIndex( index,
+                                                         this.startResult );
                 break;
             case 2 :
                 this.index = new DoubleCompositeIndex( index,
@@ -498,6 +499,13 @@ public class LeftTupleIndexHashTable extends AbstractHashTable
         return this.factSize;
     }
 
+    public void clear() {
+        // the buckets are dropped but the table keeps its capacity
+        Arrays.fill( this.table, null );
+        this.size = 0;
+        this.factSize = 0;
+    }
+
     public String toString() {
         StringBuilder builder = new StringBuilder();
         Iterator it = iterator();
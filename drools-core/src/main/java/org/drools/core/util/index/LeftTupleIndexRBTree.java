@@ -80,6 +80,11 @@ public class LeftTupleIndexRBTree implements LeftTupleMemory, Externalizable {
         return size;
     }
 
+    public void clear() {
+        tree.root = null;
+        size = 0;
+    }
+
     public Entry[] toArray() {
         FastIterator it = tree.fastIterator();
         if (it == null) {
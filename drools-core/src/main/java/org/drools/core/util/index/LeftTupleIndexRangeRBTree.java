@@ -98,6 +98,11 @@ public class LeftTupleIndexRangeRBTree implements LeftTupleMemory, Externalizabl
         return size;
     }
 
+    public void clear() {
+        tree.root = null;
+        size = 0;
+    }
+
     public Entry[] toArray() {
         FastIterator it = tree.fastIterator();
         if (it == null) {
@@ -82,6 +82,11 @@ public class RightTupleIndexRBTree implements RightTupleMemory, Externalizable {
         return size;
     }
 
+    public void clear() {
+        tree.root = null;
+        size = 0;
+    }
+
     public Entry[] toArray() {
         FastIterator it = tree.fastIterator();
         if (it == null) {
@@ -94,6 +94,11 @@ public class RightTupleIndexRangeRBTree implements RightTupleMemory, Externaliza
         return size;
     }
 
+    public void clear() {
+        tree.root = null;
+        size = 0;
+    }
+
     public Entry[] toArray() {
         FastIterator it = tree.fastIterator();
         if (it == null) {
@@ -1,6 +1,8 @@
 package org.drools.core.common;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.Assert;
@@ -128,6 +130,43 @@ public class UpgradableReentrantReadWriteLockTest {
         Assert.assertTrue( success.get() );
     }
 
+    @Test(timeout=10000)
+    public void testTryWriteLock() throws InterruptedException {
+        final UpgradableReentrantReadWriteLock lock = new UpgradableReentrantReadWriteLock();
+        final CountDownLatch read = new CountDownLatch( 1 );
+        final CountDownLatch release = new CountDownLatch( 1 );
+        Thread reader = new Thread(new Runnable() {
+            public void run() {
+                lock.readLock();
+                read.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                lock.readUnlock();
+            }
+        });
+        reader.start();
+        read.await();
+
+        // another thread holds a read lock
+        Assert.assertFalse( lock.tryWriteLock( 50, TimeUnit.MILLISECONDS ) );
+        release.countDown();
+        reader.join();
+        Assert.assertTrue( lock.tryWriteLock( 50, TimeUnit.MILLISECONDS ) );
+        lock.writeUnlock();
+
+        // a read lock of the current thread is upgraded
+        lock.readLock();
+        Assert.assertTrue( lock.tryWriteLock( 50, TimeUnit.MILLISECONDS ) );
+        Assert.assertTrue( lock.isWriteLockedByCurrentThread() );
+        lock.writeUnlock();
+        lock.readUnlock();
+        Assert.assertTrue( lock.tryWriteLock( 50, TimeUnit.MILLISECONDS ) );
+        lock.writeUnlock();
+    }
+
     private void sleep() {
         try {
             Thread.sleep(100L);
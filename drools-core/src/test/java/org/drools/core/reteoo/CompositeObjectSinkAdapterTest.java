@@ -23,6 +23,7 @@ import org.drools.core.base.ClassFieldAccessorStore;
 import org.drools.core.base.ValueType;
 import org.drools.core.base.field.LongFieldImpl;
 import org.drools.core.base.field.ObjectFieldImpl;
+import org.drools.core.common.DefaultFactHandle;
 import org.drools.core.common.DisconnectedWorkingMemoryEntryPoint;
 import org.drools.core.common.EmptyBetaConstraints;
 import org.drools.core.common.InternalFactHandle;
@@ -444,6 +445,85 @@ public class CompositeObjectSinkAdapterTest {
         assertNull( ad.hashedSinkMap );
     }    
 
+    @Test
+    public void testRangeIndexedAlphas() {
+        final CompositeObjectSinkAdapter ad = new CompositeObjectSinkAdapter();
+        final InternalReadAccessor extractor = store.getReader( Cheese.class,
+                                                                "price",
+                                                                this.getClass().getClassLoader() );
+
+        final String[] expressions = new String[]{"price > 10", "price >= 20", "price < 15", "price <= 20"};
+        final long[] thresholds = new long[]{10, 20, 15, 20};
+        final AlphaNode[] alphas = new AlphaNode[expressions.length];
+        final MockObjectSink[] sinks = new MockObjectSink[expressions.length];
+        for ( int i = 0; i < expressions.length; i++ ) {
+            alphas[i] = new AlphaNode( buildContext.getNextId(),
+                                       new MvelConstraintTestUtil( expressions[i],
+                                                                   new LongFieldImpl( thresholds[i] ),
+                                                                   extractor ),
+                                       new MockObjectSource( buildContext.getNextId() ),
+                                       buildContext );
+            sinks[i] = new MockObjectSink();
+            alphas[i].addObjectSink( sinks[i] );
+        }
+
+        ad.addObjectSink( alphas[0] );
+        ad.addObjectSink( alphas[1] );
+
+        // below the threshold the range constraints are evaluated one by one
+        assertEquals( 2,
+                      ad.otherSinks.size() );
+        assertNull( ad.getRangeIndexedSinks() );
+
+        ad.addObjectSink( alphas[2] );
+        ad.addObjectSink( alphas[3] );
+
+        assertNull( ad.otherSinks );
+        assertEquals( 4,
+                      ad.getRangeIndexedSinks().length );
+        assertEquals( 4,
+                      ad.size() );
+        assertEquals( 4,
+                      ad.getSinks().length );
+        assertSame( alphas[2],
+                    ad.getMatchingNode( alphas[2] ) );
+
+        ad.propagateAssertObject( new DefaultFactHandle( 1,
+                                                         new Cheese( "brie",
+                                                                     20 ) ),
+                                  null,
+                                  null );
+        ad.propagateAssertObject( new DefaultFactHandle( 2,
+                                                         new Cheese( "brie",
+                                                                     15 ) ),
+                                  null,
+                                  null );
+        ad.propagateAssertObject( new DefaultFactHandle( 3,
+                                                         new Cheese( "brie",
+                                                                     5 ) ),
+                                  null,
+                                  null );
+
+        // price > 10 matches 20 and 15, price >= 20 only 20, price < 15 only 5 and price <= 20 all of them
+        assertEquals( 2,
+                      sinks[0].getAsserted().size() );
+        assertEquals( 1,
+                      sinks[1].getAsserted().size() );
+        assertEquals( 1,
+                      sinks[2].getAsserted().size() );
+        assertEquals( 3,
+                      sinks[3].getAsserted().size() );
+
+        //now remove two, check the indexing is undone
+        ad.removeObjectSink( alphas[1] );
+        ad.removeObjectSink( alphas[3] );
+        assertNull( ad.getRangeIndexedSinks() );
+        assertEquals( 2,
+                      ad.otherSinks.size() );
+        assertEquals( 2,
+                      ad.size() );
+    }
+
     @Test
     public void testPropagationWithNullValue() {
 
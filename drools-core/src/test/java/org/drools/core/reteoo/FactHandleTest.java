@@ -21,6 +21,7 @@ import static org.junit.Assert.*;
 
 import org.drools.core.common.DefaultFactHandle;
 import org.drools.core.common.DisconnectedWorkingMemoryEntryPoint;
+import org.drools.core.common.EqualityKey;
 
 public class FactHandleTest {
     /*
@@ -95,4 +96,34 @@ public class FactHandleTest {
                       f0.getId() );
     }
 
+    @Test
+    public void testRarelyUsedState() {
+        final DefaultFactHandle f0 = new DefaultFactHandle( 134,
+                                                            "cheese" );
+        assertNull( f0.getEqualityKey() );
+        assertNull( f0.getNext() );
+        assertFalse( f0.isDisconnected() );
+        assertFalse( f0.isTraitOrTraitable() );
+
+        final EqualityKey key = new EqualityKey( f0 );
+        f0.setEqualityKey( key );
+        assertSame( key,
+                    f0.getEqualityKey() );
+
+        final DefaultFactHandle f1 = f0.quickClone();
+        assertSame( key,
+                    f1.getEqualityKey() );
+        assertFalse( f1.isDisconnected() );
+
+        f0.disconnect();
+        assertNull( f0.getEqualityKey() );
+        assertTrue( f0.isDisconnected() );
+
+        final DefaultFactHandle f2 = new DefaultFactHandle( f0.toExternalForm() );
+        assertEquals( 134,
+                      f2.getId() );
+        assertTrue( f2.isDisconnected() );
+        assertFalse( f2.isTraitOrTraitable() );
+    }
+
 }
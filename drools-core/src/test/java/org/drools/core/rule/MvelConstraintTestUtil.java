@@ -48,18 +48,18 @@ public class MvelConstraintTestUtil extends MvelConstraint {
         if (expression.contains("!=")) {
             return IndexUtil.ConstraintType.NOT_EQUAL;
         }
-        if (expression.contains(">")) {
-            return IndexUtil.ConstraintType.GREATER_THAN;
-        }
         if (expression.contains(">=")) {
             return IndexUtil.ConstraintType.GREATER_OR_EQUAL;
         }
-        if (expression.contains("<")) {
-            return IndexUtil.ConstraintType.LESS_THAN;
+        if (expression.contains(">")) {
+            return IndexUtil.ConstraintType.GREATER_THAN;
         }
         if (expression.contains("<=")) {
             return IndexUtil.ConstraintType.LESS_OR_EQUAL;
         }
+        if (expression.contains("<")) {
+            return IndexUtil.ConstraintType.LESS_THAN;
+        }
         return IndexUtil.ConstraintType.UNKNOWN;
     }
 }
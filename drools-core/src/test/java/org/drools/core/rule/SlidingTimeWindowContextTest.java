@@ -0,0 +1,104 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.rule;
+
+import java.util.Arrays;
+
+import org.drools.core.common.EventFactHandle;
+import org.drools.core.rule.SlidingTimeWindow.SlidingTimeWindowContext;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SlidingTimeWindowContextTest {
+
+    @Test
+    public void testEventsAreBucketedByExpirationTime() {
+        SlidingTimeWindowContext context = new SlidingTimeWindowContext();
+        EventFactHandle h1 = newHandle( 1 );
+        EventFactHandle h2 = newHandle( 2 );
+        EventFactHandle h3 = newHandle( 3 );
+        EventFactHandle h4 = newHandle( 4 );
+
+        // only the first event of a new head bucket needs a new expiration job
+        assertTrue( context.add( h1, 100 ) );
+        assertFalse( context.add( h2, 100 ) );
+        assertFalse( context.add( h3, 200 ) );
+        assertTrue( context.add( h4, 50 ) );
+        assertEquals( 4, context.size() );
+
+        assertSame( h4, context.peek() );
+        assertEquals( 50, context.getFirstExpirationTime() );
+        assertEquals( Arrays.asList( h4 ), context.pollFirstBucket() );
+        assertEquals( Arrays.asList( h1, h2 ), context.pollFirstBucket() );
+        assertSame( h3, context.peek() );
+        assertEquals( 1, context.size() );
+    }
+
+    @Test
+    public void testRemove() {
+        SlidingTimeWindowContext context = new SlidingTimeWindowContext();
+        EventFactHandle h1 = newHandle( 1 );
+        EventFactHandle h2 = newHandle( 2 );
+        EventFactHandle h3 = newHandle( 3 );
+        context.add( h1, 100 );
+        context.add( h2, 100 );
+        context.add( h3, 200 );
+
+        assertFalse( context.remove( h3, 100 ) );
+        assertTrue( context.remove( h3, 200 ) );
+        assertTrue( context.remove( h1, 100 ) );
+        assertSame( h2, context.peek() );
+
+        // the emptied last bucket is replaced by the previous one
+        assertFalse( context.add( newHandle( 4 ), 100 ) );
+        assertEquals( 2, context.pollFirstBucket().size() );
+        assertTrue( context.isEmpty() );
+        assertNull( context.peek() );
+    }
+
+    @Test
+    public void testManyBuckets() {
+        SlidingTimeWindowContext context = new SlidingTimeWindowContext();
+        for ( int i = 0; i < 100; i++ ) {
+            assertEquals( i == 0, context.add( newHandle( i ), i * 10 ) );
+        }
+        // an event out of order joins an existing bucket or gets a new one in between
+        assertFalse( context.add( newHandle( 100 ), 500 ) );
+        assertFalse( context.add( newHandle( 101 ), 505 ) );
+        assertEquals( 102, context.size() );
+
+        for ( int i = 0; i < 50; i++ ) {
+            assertEquals( i * 10, context.getFirstExpirationTime() );
+            assertEquals( 1, context.pollFirstBucket().size() );
+        }
+        assertEquals( 500, context.getFirstExpirationTime() );
+        assertEquals( 2, context.pollFirstBucket().size() );
+        assertEquals( 505, context.getFirstExpirationTime() );
+        assertEquals( 1, context.pollFirstBucket().size() );
+        assertEquals( 510, context.getFirstExpirationTime() );
+
+        // the polled buckets have been released, a new head bucket is still found
+        assertTrue( context.add( newHandle( 102 ), 200 ) );
+        assertEquals( 200, context.getFirstExpirationTime() );
+        assertEquals( 50, context.size() );
+    }
+
+    private EventFactHandle newHandle(int id) {
+        return new EventFactHandle( id, "event" + id, id, id, 0, null );
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.time.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.drools.core.ClockType;
+import org.drools.core.SessionConfiguration;
+import org.drools.core.time.Job;
+import org.drools.core.time.JobContext;
+import org.drools.core.time.JobHandle;
+import org.drools.core.time.TimerService;
+import org.drools.core.time.TimerServiceFactory;
+import org.drools.core.time.impl.JDKTimerServiceTest.DelayedTrigger;
+import org.drools.core.time.impl.JDKTimerServiceTest.HelloWorldJob;
+import org.drools.core.time.impl.JDKTimerServiceTest.HelloWorldJobContext;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TimingWheelTimerServiceTest {
+
+    @Test
+    public void testSelectedBySessionConfiguration() {
+        TimerService timeService = newTimerService();
+        assertTrue( timeService instanceof TimingWheelTimerService );
+        timeService.shutdown();
+    }
+
+    @Test
+    public void testSingleExecutionJob() throws Exception {
+        TimerService timeService = newTimerService();
+        HelloWorldJobContext ctx = new HelloWorldJobContext( "hello world", timeService );
+        timeService.scheduleJob( new HelloWorldJob(), ctx, new DelayedTrigger( 100 ) );
+        Thread.sleep( 500 );
+        timeService.shutdown();
+        assertEquals( 1, ctx.getList().size() );
+    }
+
+    @Test
+    public void testRepeatedExecutionJobWithRemove() throws Exception {
+        TimerService timeService = newTimerService();
+        HelloWorldJobContext ctx = new HelloWorldJobContext( "hello world", timeService );
+        ctx.setLimit( 3 );
+        ctx.setJobHandle( timeService.scheduleJob( new HelloWorldJob(),
+                                                   ctx,
+                                                   new DelayedTrigger( new long[] { 100, 100, 100, 100, 100, 100, 100, 100 } ) ) );
+        Thread.sleep( 1000 );
+        timeService.shutdown();
+        assertEquals( 5, ctx.getList().size() );
+    }
+
+    @Test
+    public void testManyJobsWithCancellation() throws Exception {
+        TimingWheelTimerService timeService = new TimingWheelTimerService();
+        CountingJob job = new CountingJob();
+        List<JobHandle> handles = new ArrayList<JobHandle>();
+        // spread over the first two levels of the wheel
+        for ( int i = 0; i < 20000; i++ ) {
+            handles.add( timeService.scheduleJob( job, new CountingJobContext(), new DelayedTrigger( 50 + i % 700 ) ) );
+        }
+        // the far away jobs are placed in the upper levels
+        JobHandle hour = timeService.scheduleJob( job, new CountingJobContext(), new DelayedTrigger( 3600000 ) );
+        JobHandle year = timeService.scheduleJob( job, new CountingJobContext(), new DelayedTrigger( 365L * 24 * 3600000 ) );
+
+        for ( int i = 0; i < handles.size(); i += 2 ) {
+            assertTrue( timeService.removeJob( handles.get( i ) ) );
+        }
+        assertEquals( 10002, timeService.getPendingJobCount() );
+
+        Thread.sleep( 1500 );
+        assertEquals( 10000, job.count.get() );
+        assertEquals( 2, timeService.getPendingJobCount() );
+        // already fired
+        assertFalse( timeService.removeJob( handles.get( 1 ) ) );
+
+        assertTrue( timeService.removeJob( hour ) );
+        assertTrue( timeService.removeJob( year ) );
+        assertEquals( 0, timeService.getPendingJobCount() );
+        timeService.shutdown();
+    }
+
+    @Test
+    public void testJobsAreNotFiredEarly() throws Exception {
+        TimingWheelTimerService timeService = new TimingWheelTimerService( 10 );
+        final long fireTime = System.currentTimeMillis() + 300;
+        final List<Long> firedAt = new ArrayList<Long>();
+        timeService.scheduleJob( new Job() {
+            public void execute(JobContext ctx) {
+                firedAt.add( System.currentTimeMillis() );
+            }
+        }, new CountingJobContext(), new DelayedTrigger( 300 ) );
+        Thread.sleep( 600 );
+        timeService.shutdown();
+        assertEquals( 1, firedAt.size() );
+        assertTrue( firedAt.get( 0 ) >= fireTime );
+    }
+
+    private TimerService newTimerService() {
+        Properties properties = new Properties();
+        properties.setProperty( "drools.timerService", TimingWheelTimerService.class.getName() );
+        SessionConfiguration config = new SessionConfiguration( properties );
+        config.setClockType( ClockType.REALTIME_CLOCK );
+        return TimerServiceFactory.getTimerService( config );
+    }
+
+    public static class CountingJob implements Job {
+        private final AtomicInteger count = new AtomicInteger();
+
+        public void execute(JobContext ctx) {
+            count.incrementAndGet();
+        }
+    }
+
+    public static class CountingJobContext implements JobContext {
+        private JobHandle jobHandle;
+
+        public JobHandle getJobHandle() {
+            return jobHandle;
+        }
+
+        public void setJobHandle(JobHandle jobHandle) {
+            this.jobHandle = jobHandle;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BitMaskTest {
+
+    @Test
+    public void testLongMasks() {
+        assertSame( BitMask.ALL_SET,
+                    BitMask.valueOf( -1L ) );
+        assertSame( BitMask.ALL_SET_BUT_TRAIT,
+                    BitMask.valueOf( Long.MAX_VALUE ) );
+        assertSame( BitMask.TRAIT,
+                    BitMask.valueOf( Long.MIN_VALUE ) );
+        assertSame( BitMask.EMPTY,
+                    BitMask.valueOf( 0L ) );
+
+        BitMask mask = BitMask.valueOf( 5L );
+        assertTrue( mask.isLong() );
+        assertEquals( 5L,
+                      mask.asLong() );
+        assertEquals( 7L,
+                      mask.setAll( BitMask.valueOf( 2L ) ).asLong() );
+        assertEquals( 4L,
+                      mask.resetAll( BitMask.valueOf( 3L ) ).asLong() );
+        assertTrue( mask.intersects( BitMask.valueOf( 4L ) ) );
+        assertFalse( mask.intersects( BitMask.valueOf( 2L ) ) );
+
+        assertEquals( -1L,
+                      BitMask.ALL_SET.asLong() );
+        assertEquals( Long.MAX_VALUE,
+                      BitMask.ALL_SET_BUT_TRAIT.asLong() );
+    }
+
+    @Test
+    public void testNarrowMasksAreReused() {
+        BitMask mask = BitMask.valueOf( 6L );
+        assertSame( mask,
+                    BitMask.valueOf( 6L ) );
+        assertSame( mask,
+                    mask.setAll( BitMask.valueOf( 2L ) ) );
+        assertSame( mask,
+                    BitMask.valueOf( 2L ).setAll( mask ) );
+        assertSame( mask,
+                    mask.resetAll( BitMask.valueOf( 1L ) ) );
+        assertEquals( 2L,
+                      mask.resetAll( BitMask.valueOf( 4L ) ).asLong() );
+    }
+
+    @Test
+    public void testWideMasks() {
+        BitMask mask = BitMask.EMPTY.set( 1 ).set( 130 );
+        assertFalse( mask.isLong() );
+        assertTrue( mask.isSet( 1 ) );
+        assertTrue( mask.isSet( 130 ) );
+        assertFalse( mask.isSet( 66 ) );
+        assertFalse( mask.isSet( 200 ) );
+
+        // the bits beyond the 64th are not folded on the first ones
+        assertFalse( BitMask.EMPTY.set( 66 ).intersects( BitMask.EMPTY.set( 2 ) ) );
+        assertTrue( mask.intersects( BitMask.EMPTY.set( 130 ) ) );
+
+        assertEquals( BitMask.EMPTY.set( 1 ),
+                      mask.reset( 130 ) );
+        assertTrue( mask.reset( 130 ).isLong() );
+        assertEquals( BitMask.EMPTY.set( 130 ),
+                      mask.resetAll( BitMask.EMPTY.set( 1 ) ) );
+
+        assertEquals( mask,
+                      BitMask.valueOf( mask.toLongArray() ) );
+        assertEquals( mask.hashCode(),
+                      BitMask.valueOf( mask.toLongArray() ).hashCode() );
+    }
+
+    @Test
+    public void testAllSetMasks() {
+        BitMask wide = BitMask.EMPTY.set( 100 );
+        assertTrue( BitMask.ALL_SET.intersects( wide ) );
+        assertTrue( BitMask.ALL_SET_BUT_TRAIT.intersects( wide ) );
+        assertFalse( BitMask.ALL_SET_BUT_TRAIT.intersects( BitMask.TRAIT ) );
+        assertTrue( BitMask.ALL_SET.isSet( 500 ) );
+
+        assertSame( BitMask.ALL_SET,
+                    BitMask.ALL_SET_BUT_TRAIT.setAll( BitMask.TRAIT ) );
+        assertSame( BitMask.ALL_SET_BUT_TRAIT,
+                    BitMask.ALL_SET.resetAll( BitMask.TRAIT ) );
+        assertSame( BitMask.EMPTY,
+                    wide.resetAll( BitMask.ALL_SET ) );
+
+        BitMask allButWide = BitMask.ALL_SET.resetAll( wide );
+        assertFalse( allButWide.isSet( 100 ) );
+        assertTrue( allButWide.isSet( 99 ) );
+        assertFalse( allButWide.intersects( wide ) );
+        assertSame( BitMask.ALL_SET,
+                    allButWide.setAll( wide ) );
+    }
+
+    @Test
+    public void testPropertyBits() {
+        BitMask mask = BitMask.EMPTY.setProperty( 62 ).setProperty( 63 );
+        assertTrue( mask.isPropertySet( 62 ) );
+        assertTrue( mask.isPropertySet( 63 ) );
+        // the 64th property doesn't use the bit of the trait set
+        assertFalse( mask.intersects( BitMask.TRAIT ) );
+        assertTrue( mask.isSet( 64 ) );
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        BitMask wide = BitMask.EMPTY.set( 3 ).set( 70 );
+        assertEquals( wide,
+                      serializeAndDeserialize( wide ) );
+        assertSame( BitMask.ALL_SET,
+                    serializeAndDeserialize( BitMask.ALL_SET ) );
+        assertSame( BitMask.ALL_SET_BUT_TRAIT,
+                    serializeAndDeserialize( BitMask.ALL_SET_BUT_TRAIT ) );
+        assertSame( BitMask.EMPTY,
+                    serializeAndDeserialize( BitMask.EMPTY ) );
+    }
+
+    private BitMask serializeAndDeserialize(BitMask mask) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream( baos );
+        out.writeObject( mask );
+        out.close();
+        ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( baos.toByteArray() ) );
+        return (BitMask) in.readObject();
+    }
+}
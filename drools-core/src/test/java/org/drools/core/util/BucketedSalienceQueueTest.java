@@ -0,0 +1,172 @@
+package org.drools.core.util;
+
+import org.drools.core.WorkingMemory;
+import org.drools.core.base.SalienceInteger;
+import org.drools.core.conflict.PhreakConflictResolver;
+import org.drools.core.rule.Rule;
+import org.drools.core.spi.KnowledgeHelper;
+import org.drools.core.spi.Salience;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BucketedSalienceQueueTest {
+
+    @Test
+    public void testRemoveAndPoll() {
+        Random random = new Random( 0 );
+        for ( int run = 0; run < 20; run++ ) {
+            BucketedSalienceQueue bucketed = new BucketedSalienceQueue( new PhreakConflictResolver() );
+            BinaryHeapQueue heap = new BinaryHeapQueue( new PhreakConflictResolver() );
+
+            List<Item[]> items = new ArrayList<Item[]>();
+            for ( int i = 0; i < 200; i++ ) {
+                Rule rule = newRule( i, new SalienceInteger( random.nextInt( 40 ) - 20 ) );
+                Item[] pair = new Item[]{new Item( bucketed, rule ), new Item( heap, rule )};
+                bucketed.enqueue( pair[0] );
+                heap.enqueue( pair[1] );
+                items.add( pair );
+            }
+
+            // removes some items from the middle of the queues
+            for ( int i = 0; i < 50; i++ ) {
+                Item[] pair = items.remove( random.nextInt( items.size() ) );
+                assertSame( pair[0], bucketed.dequeue( pair[0] ) );
+                assertSame( pair[1], heap.dequeue( pair[1] ) );
+                assertFalse( pair[0].isQueued() );
+            }
+            assertEquals( heap.size(), bucketed.size() );
+            assertEquals( bucketed.size(), bucketed.toArray( new Item[0] ).length );
+
+            assertPolledInSameOrder( bucketed, heap );
+            assertTrue( bucketed.isBucketed() );
+        }
+    }
+
+    @Test
+    public void testFallBackOnDynamicSalience() {
+        BucketedSalienceQueue bucketed = new BucketedSalienceQueue( new PhreakConflictResolver() );
+        BinaryHeapQueue heap = new BinaryHeapQueue( new PhreakConflictResolver() );
+        for ( int i = 0; i < 10; i++ ) {
+            Rule rule = newRule( i, new SalienceInteger( i % 3 ) );
+            bucketed.enqueue( new Item( bucketed, rule ) );
+            heap.enqueue( new Item( heap, rule ) );
+        }
+        assertTrue( bucketed.isBucketed() );
+
+        Rule dynamic = newRule( 10, new DynamicSalience( 1 ) );
+        Item item = new Item( bucketed, dynamic );
+        bucketed.enqueue( item );
+        Item heapItem = new Item( heap, dynamic );
+        heap.enqueue( heapItem );
+        assertFalse( bucketed.isBucketed() );
+        assertEquals( 11, bucketed.size() );
+
+        // the activations are still removed through their index in the heap
+        assertSame( item, bucketed.dequeue( item ) );
+        heap.dequeue( heapItem );
+
+        assertPolledInSameOrder( bucketed, heap );
+    }
+
+    @Test
+    public void testFallBackOnWideSalienceRange() {
+        BucketedSalienceQueue bucketed = new BucketedSalienceQueue( new PhreakConflictResolver() );
+        bucketed.enqueue( new Item( bucketed, newRule( 0, new SalienceInteger( -10 ) ) ) );
+        bucketed.enqueue( new Item( bucketed, newRule( 1, new SalienceInteger( 10 ) ) ) );
+        assertTrue( bucketed.isBucketed() );
+
+        bucketed.enqueue( new Item( bucketed, newRule( 2, new SalienceInteger( Integer.MAX_VALUE ) ) ) );
+        assertFalse( bucketed.isBucketed() );
+        assertEquals( Integer.MAX_VALUE, bucketed.dequeue().getSalience() );
+        assertEquals( 10, bucketed.dequeue().getSalience() );
+        assertEquals( -10, bucketed.dequeue().getSalience() );
+        assertNull( bucketed.dequeue() );
+    }
+
+    @Test
+    public void testGetAndClear() {
+        BucketedSalienceQueue bucketed = new BucketedSalienceQueue( new PhreakConflictResolver() );
+        for ( int i = 0; i < 10; i++ ) {
+            bucketed.enqueue( new Item( bucketed, newRule( i, new SalienceInteger( i ) ) ) );
+        }
+        assertEquals( 10, bucketed.getAndClear().length );
+        assertTrue( bucketed.isEmpty() );
+        assertNull( bucketed.peek() );
+        assertNull( bucketed.dequeue() );
+
+        bucketed.enqueue( new Item( bucketed, newRule( 20, new SalienceInteger( 5 ) ) ) );
+        assertEquals( 5, bucketed.peek().getSalience() );
+    }
+
+    private void assertPolledInSameOrder(Queue bucketed, Queue heap) {
+        while ( !heap.isEmpty() ) {
+            Item expected = (Item) heap.dequeue();
+            Item actual = (Item) bucketed.dequeue();
+            assertSame( expected.getRule(), actual.getRule() );
+        }
+        assertTrue( bucketed.isEmpty() );
+        assertNull( bucketed.dequeue() );
+    }
+
+    private Rule newRule(int loadOrder, Salience salience) {
+        Rule rule = new Rule( "rule" + loadOrder );
+        rule.setLoadOrder( loadOrder );
+        rule.setSalience( salience );
+        return rule;
+    }
+
+    public static class Item extends BaseQueueable {
+        private final Rule rule;
+        private boolean    queued;
+
+        public Item(Queue queue, Rule rule) {
+            super( queue );
+            this.rule = rule;
+        }
+
+        public Rule getRule() {
+            return this.rule;
+        }
+
+        public int getSalience() {
+            return this.rule.getSalience().getValue();
+        }
+
+        public boolean isQueued() {
+            return this.queued;
+        }
+
+        public void setQueued(boolean queued) {
+            this.queued = queued;
+        }
+    }
+
+    public static class DynamicSalience implements Salience {
+        private final int value;
+
+        public DynamicSalience(int value) {
+            this.value = value;
+        }
+
+        public int getValue(KnowledgeHelper khelper, org.kie.api.definition.rule.Rule rule, WorkingMemory workingMemory) {
+            return this.value;
+        }
+
+        public int getValue() {
+            return this.value;
+        }
+
+        public boolean isDynamic() {
+            return true;
+        }
+    }
+}
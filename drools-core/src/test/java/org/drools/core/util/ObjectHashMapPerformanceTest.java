@@ -0,0 +1,93 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.util;
+
+import org.drools.core.common.DefaultFactHandle;
+import org.drools.core.common.EqualityAssertMapComparator;
+import org.drools.core.common.InternalFactHandle;
+import org.junit.Ignore;
+import org.junit.Test;
+
+/**
+ * Compares the footprint and the lookup time of the chained ObjectHashMap and of the
+ * OpenAddressingObjectHashMap, when used as the assert map of an object store.
+ * Run it with -Dfact.count=10000000 -Xmx4g to reproduce the figures of large sessions.
+ */
+@Ignore
+public class ObjectHashMapPerformanceTest {
+    private static final int FACT_COUNT  = Integer.parseInt(System.getProperty("fact.count", "1000000"));
+    private static final int LOOKUP_RUNS = Integer.parseInt(System.getProperty("lookup.runs", "5"));
+
+    @Test
+    public void testChainedVsOpenAddressing() {
+        InternalFactHandle[] handles = createHandles(FACT_COUNT);
+
+        long before = usedMemory();
+        ObjectHashMap chained = new ObjectHashMap();
+        chained.setComparator(new EqualityAssertMapComparator());
+        for (InternalFactHandle handle : handles) {
+            chained.put(handle, handle, false);
+        }
+        System.out.println("ObjectHashMap footprint: " + (usedMemory() - before) / 1024 + "KB for " + FACT_COUNT + " facts");
+
+        before = usedMemory();
+        OpenAddressingObjectHashMap openAddressing = new OpenAddressingObjectHashMap();
+        openAddressing.setComparator(new EqualityAssertMapComparator());
+        for (InternalFactHandle handle : handles) {
+            openAddressing.put(handle, handle);
+        }
+        System.out.println("OpenAddressingObjectHashMap footprint: " + (usedMemory() - before) / 1024 + "KB for " + FACT_COUNT + " facts");
+
+        for (int run = 0; run < LOOKUP_RUNS; run++) {
+            long start = System.nanoTime();
+            int found = 0;
+            for (InternalFactHandle handle : handles) {
+                if (chained.get(handle.getObject()) != null) {
+                    found++;
+                }
+            }
+            long chainedTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (InternalFactHandle handle : handles) {
+                if (openAddressing.get(handle.getObject()) != null) {
+                    found++;
+                }
+            }
+            long openAddressingTime = System.nanoTime() - start;
+
+            System.out.println("Run " + run + ": ObjectHashMap lookups in " + chainedTime / 1000000 + "ms, " +
+                               "OpenAddressingObjectHashMap lookups in " + openAddressingTime / 1000000 + "ms (" + found + " found)");
+        }
+    }
+
+    private static InternalFactHandle[] createHandles(int count) {
+        InternalFactHandle[] handles = new InternalFactHandle[count];
+        for (int i = 0; i < count; i++) {
+            handles[i] = new DefaultFactHandle(i, "fact" + i);
+        }
+        return handles;
+    }
+
+    private static long usedMemory() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.drools.core.RuleBaseConfiguration;
+import org.drools.core.common.DefaultFactHandle;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.OpenAddressingObjectStore;
+import org.drools.core.test.model.Cheese;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OpenAddressingObjectHashMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        final OpenAddressingObjectHashMap map = new OpenAddressingObjectHashMap();
+        final Cheese stilton = new Cheese( "stilton",
+                                           5 );
+        final Cheese cheddar = new Cheese( "cheddar",
+                                           5 );
+
+        assertNull( map.put( 1,
+                             stilton ) );
+        assertSame( stilton,
+                    map.get( 1 ) );
+
+        // an equal key replaces the value
+        assertSame( stilton,
+                    map.put( 1,
+                             cheddar ) );
+        assertSame( cheddar,
+                    map.get( 1 ) );
+        assertEquals( 1,
+                      map.size() );
+
+        assertSame( cheddar,
+                    map.remove( 1 ) );
+        assertNull( map.get( 1 ) );
+        assertNull( map.remove( 1 ) );
+        assertTrue( map.isEmpty() );
+    }
+
+    @Test
+    public void testRemoveFromCollidingKeys() {
+        final OpenAddressingObjectHashMap map = new OpenAddressingObjectHashMap();
+        final List<CollidingKey> keys = new ArrayList<CollidingKey>();
+        for ( int i = 0; i < 10; i++ ) {
+            CollidingKey key = new CollidingKey( i );
+            keys.add( key );
+            map.put( key,
+                     i );
+        }
+
+        // removing from the middle of the probe sequence must keep the following keys reachable
+        assertEquals( 3,
+                      map.remove( keys.get( 3 ) ) );
+        assertEquals( 0,
+                      map.remove( keys.get( 0 ) ) );
+        assertEquals( 8,
+                      map.size() );
+        for ( int i = 0; i < 10; i++ ) {
+            if ( i == 0 || i == 3 ) {
+                assertNull( map.get( keys.get( i ) ) );
+            } else {
+                assertEquals( i,
+                              map.get( keys.get( i ) ) );
+            }
+        }
+    }
+
+    @Test
+    public void testRandomOperationsMatchHashMap() {
+        final OpenAddressingObjectHashMap map = new OpenAddressingObjectHashMap();
+        final Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        final Random random = new Random( 0 );
+
+        for ( int i = 0; i < 100000; i++ ) {
+            Integer key = random.nextInt( 5000 );
+            if ( random.nextInt( 3 ) == 0 ) {
+                assertEquals( expected.remove( key ),
+                              map.remove( key ) );
+            } else {
+                assertEquals( expected.put( key, i ),
+                              map.put( key, i ) );
+            }
+        }
+
+        assertEquals( expected.size(),
+                      map.size() );
+        for ( Map.Entry<Integer, Integer> entry : expected.entrySet() ) {
+            assertEquals( entry.getValue(),
+                          map.get( entry.getKey() ) );
+        }
+
+        Set<Object> iterated = new HashSet<Object>();
+        Iterator it = map.keyIterator();
+        for ( Object key = it.next(); key != null; key = it.next() ) {
+            assertTrue( iterated.add( key ) );
+        }
+        assertEquals( expected.keySet(),
+                      iterated );
+
+        map.clear();
+        assertTrue( map.isEmpty() );
+        assertNull( map.get( expected.keySet().iterator().next() ) );
+    }
+
+    @Test
+    public void testObjectStore() {
+        final RuleBaseConfiguration conf = new RuleBaseConfiguration();
+        conf.setAssertBehaviour( RuleBaseConfiguration.AssertBehaviour.EQUALITY );
+        final OpenAddressingObjectStore store = new OpenAddressingObjectStore( conf,
+                                                                               new ReentrantLock() );
+
+        final Cheese stilton = new Cheese( "stilton",
+                                           5 );
+        final InternalFactHandle handle = new DefaultFactHandle( 1,
+                                                                 stilton );
+        store.addHandle( handle,
+                         stilton );
+
+        assertSame( handle,
+                    store.getHandleForObject( new Cheese( "stilton",
+                                                          5 ) ) );
+        assertSame( handle,
+                    store.getHandleForObjectIdentity( stilton ) );
+        assertNull( store.getHandleForObjectIdentity( new Cheese( "stilton",
+                                                                  5 ) ) );
+        assertSame( stilton,
+                    store.getObjectForHandle( handle ) );
+
+        final Cheese cheddar = new Cheese( "cheddar",
+                                           7 );
+        store.updateHandle( handle,
+                            cheddar );
+        assertNull( store.getHandleForObject( stilton ) );
+        assertSame( handle,
+                    store.getHandleForObject( cheddar ) );
+
+        java.util.Iterator it = store.iterateObjects();
+        assertSame( cheddar,
+                    it.next() );
+        assertFalse( it.hasNext() );
+
+        store.removeHandle( handle );
+        assertTrue( store.isEmpty() );
+        assertNull( store.getHandleForObjectIdentity( cheddar ) );
+    }
+
+    public static class CollidingKey {
+        private final int id;
+
+        public CollidingKey(int id) {
+            this.id = id;
+        }
+
+        public int hashCode() {
+            return 42;
+        }
+
+        public boolean equals(Object obj) {
+            return obj instanceof CollidingKey && ((CollidingKey) obj).id == id;
+        }
+    }
+}
@@ -41,6 +41,7 @@ import java.util.List;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class RightTupleIndexHashTableTest {
 
@@ -626,4 +627,61 @@ public class RightTupleIndexHashTableTest {
                                                  true ), stiltonHandle, null ) );
     }
 
+    @Test
+    public void testPrimitiveIntIndex() throws Exception {
+        final InternalReadAccessor extractor = store.getReader( Cheese.class,
+                                                                "price",
+                                                                getClass().getClassLoader() );
+
+        final Pattern pattern = new Pattern( 0,
+                                             new ClassObjectType( Cheese.class ) );
+
+        final Declaration declaration = new Declaration( "priceOfCheese",
+                                                         extractor,
+                                                         pattern );
+
+        final FieldIndex fieldIndex = new FieldIndex( extractor,
+                                                      declaration,
+                                                      MvelConstraint.INDEX_EVALUATOR );
+
+        final RightTupleIndexHashTable map = new RightTupleIndexHashTable( new FieldIndex[]{fieldIndex} );
+        assertTrue( map.getIndex() instanceof AbstractHashTable.IntSingleIndex );
+
+        final RightTuple stiltonRightTuple = new RightTuple( new DefaultFactHandle( 1,
+                                                                                    new Cheese( "stilton",
+                                                                                                35 ) ),
+                                                             null );
+        map.add( stiltonRightTuple );
+        map.add( new RightTuple( new DefaultFactHandle( 2,
+                                                        new Cheese( "brie",
+                                                                    35 ) ),
+                                 null ) );
+        map.add( new RightTuple( new DefaultFactHandle( 3,
+                                                        new Cheese( "cheddar",
+                                                                    10 ) ),
+                                 null ) );
+
+        assertEquals( 3,
+                      map.size() );
+        assertEquals( 2,
+                      tablePopulationSize( map ) );
+
+        final InternalFactHandle leftHandle = new DefaultFactHandle( 4,
+                                                                     new Cheese( "gouda",
+                                                                                 35 ) );
+        final RightTupleList list = map.get( new LeftTupleImpl( leftHandle,
+                                                                null,
+                                                                true ), leftHandle );
+        assertSame( stiltonRightTuple,
+                    list.first );
+        assertEquals( 2,
+                      list.size() );
+
+        final InternalFactHandle missingHandle = new DefaultFactHandle( 5,
+                                                                        new Cheese( "gouda",
+                                                                                    20 ) );
+        assertNull( map.get( new LeftTupleImpl( missingHandle,
+                                                null,
+                                                true ), missingHandle ) );
+    }
 }
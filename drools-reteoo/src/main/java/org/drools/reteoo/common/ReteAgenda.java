@@ -323,6 +323,11 @@ public class ReteAgenda
         eager.remove(item);
     }
 
+    @Override
+    public void addDirtyRuleAgendaItem(RuleAgendaItem item) {
+        // multithread evaluation is not supported by rete
+    }
+
     /**
      * Schedule an agenda item for delayed firing.
      *
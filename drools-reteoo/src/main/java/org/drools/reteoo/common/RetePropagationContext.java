@@ -28,7 +28,7 @@ import org.drools.core.rule.*;
 import org.drools.core.rule.Package;
 import org.drools.core.spi.ObjectType;
 import org.drools.core.spi.PropagationContext;
-import org.drools.core.util.BitMaskUtil;
+import org.drools.core.util.BitMask;
 
 import java.io.IOException;
 import java.io.ObjectInput;
@@ -63,9 +63,9 @@ public class RetePropagationContext
     
     private LinkedList<WorkingMemoryAction> queue2; // for evaluations and fixers
 
-    private long                            modificationMask = Long.MAX_VALUE;
+    private BitMask                         modificationMask = BitMask.ALL_SET_BUT_TRAIT;
 
-    private long                            originalMask = Long.MAX_VALUE;
+    private BitMask                         originalMask = BitMask.ALL_SET_BUT_TRAIT;
 
     private Class<?>                        modifiedClass;
 
@@ -90,7 +90,7 @@ public class RetePropagationContext
               leftTuple,
               factHandle,
               EntryPointId.DEFAULT,
-              Long.MAX_VALUE,
+              BitMask.ALL_SET_BUT_TRAIT,
               Object.class,
               null );
         this.originOffset = -1;
@@ -108,7 +108,7 @@ public class RetePropagationContext
               leftTuple,
               factHandle,
               entryPoint,
-              Long.MAX_VALUE,
+              BitMask.ALL_SET_BUT_TRAIT,
               Object.class,
               null );
     }
@@ -121,7 +121,7 @@ public class RetePropagationContext
                                   final int activeActivations,
                                   final int dormantActivations,
                                   final EntryPointId entryPoint,
-                                  final long modificationMask) {
+                                  final BitMask modificationMask) {
         this( number,
               type,
               rule,
@@ -146,7 +146,7 @@ public class RetePropagationContext
               leftTuple,
               factHandle,
               entryPoint,
-              Long.MAX_VALUE,
+              BitMask.ALL_SET_BUT_TRAIT,
               Object.class,
               readerContext );
     }
@@ -157,7 +157,7 @@ public class RetePropagationContext
                                   final LeftTuple leftTuple,
                                   final InternalFactHandle factHandle,
                                   final EntryPointId entryPoint,
-                                  final long modificationMask,
+                                  final BitMask modificationMask,
                                   final Class<?> modifiedClass,
                                   final MarshallerReaderContext readerContext) {
         this.type = type;
@@ -182,7 +182,7 @@ public class RetePropagationContext
         this.leftTuple = (LeftTuple) in.readObject();
         this.entryPoint = (EntryPointId) in.readObject();
         this.originOffset = in.readInt();
-        this.modificationMask = in.readLong();
+        this.modificationMask = (BitMask) in.readObject();
     }
 
     public void writeExternal(ObjectOutput out) throws IOException {
@@ -192,7 +192,7 @@ public class RetePropagationContext
         out.writeObject( this.leftTuple );
         out.writeObject( this.entryPoint );
         out.writeInt( this.originOffset );
-        out.writeLong(this.modificationMask);
+        out.writeObject(this.modificationMask);
     }
 
     public long getPropagationNumber() {
@@ -346,52 +346,57 @@ public class RetePropagationContext
         }
     }
 
-    public long getModificationMask() {
+    public BitMask getModificationMask() {
         return modificationMask;
     }
 
-    public void setModificationMask( long modificationMask ) {
+    public void setModificationMask( BitMask modificationMask ) {
         this.modificationMask = modificationMask;
     }
 
     public PropagationContext adaptModificationMaskForObjectType(ObjectType type, InternalWorkingMemory workingMemory) {
-        if (originalMask == Long.MAX_VALUE || originalMask <= 0 || !(type instanceof ClassObjectType)) {
+        if (originalMask.equals(BitMask.ALL_SET_BUT_TRAIT) || originalMask.isEmpty() || originalMask.isSet(BitMask.TRAIT_BIT) || !(type instanceof ClassObjectType)) {
             return this;
         }
         ClassObjectType classObjectType = (ClassObjectType)type;
-        Long cachedMask = classObjectType.getTransformedMask(modifiedClass, originalMask);
+        BitMask cachedMask = classObjectType.getTransformedMask(modifiedClass, originalMask);
 
         if (cachedMask != null) {
+            modificationMask = cachedMask;
             return this;
         }
 
         modificationMask = originalMask;
-        long typeBit = modificationMask & Long.MIN_VALUE;
-        modificationMask &= Long.MAX_VALUE;
+        boolean typeBit = modificationMask.isSet(BitMask.TRAIT_BIT);
+        modificationMask = modificationMask.reset(BitMask.TRAIT_BIT);
 
 
         Class<?> classType = classObjectType.getClassType();
         String pkgName = classType.getPackage().getName();
 
         if (classType == modifiedClass || "java.lang".equals(pkgName) || !(classType.isInterface() || modifiedClass.isInterface())) {
-            modificationMask |= typeBit;
+            if (typeBit) {
+                modificationMask = modificationMask.set(BitMask.TRAIT_BIT);
+            }
             return this;
         }
 
-        modificationMask = 0L;
+        modificationMask = BitMask.EMPTY;
         List<String> typeClassProps = getSettableProperties(workingMemory, classType, pkgName);
         List<String> modifiedClassProps = getSettableProperties( workingMemory, modifiedClass );
 
         for (int i = 0; i < modifiedClassProps.size(); i++) {
-            if (BitMaskUtil.isPositionSet(originalMask, i)) {
+            if (originalMask.isPropertySet(i)) {
                 int posInType = typeClassProps.indexOf(modifiedClassProps.get(i));
                 if (posInType >= 0) {
-                    modificationMask = BitMaskUtil.set(modificationMask, posInType);
+                    modificationMask = modificationMask.setProperty(posInType);
                 }
             }
         }
 
-        modificationMask |= typeBit;
+        if (typeBit) {
+            modificationMask = modificationMask.set(BitMask.TRAIT_BIT);
+        }
 
         classObjectType.storeTransformedMask(modifiedClass, originalMask, modificationMask);
 
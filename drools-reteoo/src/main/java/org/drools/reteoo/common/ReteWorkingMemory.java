@@ -48,8 +48,9 @@ public class ReteWorkingMemory extends AbstractWorkingMemory {
 
     public void reset(int handleId,
                       long handleCounter,
-                      long propagationCounter) {
-        super.reset(handleId, handleCounter, propagationCounter );
+                      long propagationCounter,
+                      boolean keepNodeMemories) {
+        super.reset(handleId, handleCounter, propagationCounter, keepNodeMemories );
         if (liaPropagations != null) liaPropagations.clear();
     }
 
@@ -88,7 +89,7 @@ public class ReteWorkingMemory extends AbstractWorkingMemory {
 
             try {
                 startOperation();
-                ruleBase.readLock();
+                this.networkLock.readLock();
 
                 // If we're already firing a rule, then it'll pick up the firing for any other assertObject(..) that get
                 // nested inside, avoiding concurrent-modification exceptions, depending on code paths of the actions.
@@ -106,7 +107,7 @@ public class ReteWorkingMemory extends AbstractWorkingMemory {
                                                       fireLimit );
                 return fireCount;
             } finally {
-                ruleBase.readUnlock();
+                this.networkLock.readUnlock();
                 endOperation();
                 this.firing.set( false );
             }
@@ -118,7 +119,7 @@ public class ReteWorkingMemory extends AbstractWorkingMemory {
 
         try {
             startOperation();
-            this.ruleBase.readLock();
+            this.networkLock.readLock();
             this.lock.lock();
 
             final PropagationContext pCtx = pctxFactory.createPropagationContext(getNextPropagationIdCounter(), PropagationContext.INSERTION,
@@ -134,7 +135,7 @@ public class ReteWorkingMemory extends AbstractWorkingMemory {
 
         } finally {
             this.lock.unlock();
-            this.ruleBase.readUnlock();
+            this.networkLock.readUnlock();
             endOperation();
         }
     }
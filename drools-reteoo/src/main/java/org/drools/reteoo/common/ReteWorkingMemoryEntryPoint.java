@@ -12,9 +12,11 @@ import org.drools.core.reteoo.EntryPointNode;
 import org.drools.core.rule.EntryPointId;
 import org.drools.core.rule.Rule;
 import org.drools.core.spi.Activation;
+import org.drools.core.util.BitMask;
 import org.kie.api.runtime.ObjectFilter;
 
 import java.util.Collection;
+import java.util.List;
 
 public class ReteWorkingMemoryEntryPoint implements WorkingMemoryEntryPoint, InternalWorkingMemoryEntryPoint {
 
@@ -43,6 +45,12 @@ public class ReteWorkingMemoryEntryPoint implements WorkingMemoryEntryPoint, Int
         return delegate.insert(object, dynamic);
     }
 
+    @Override
+    public List<FactHandle> insertAll(Collection<?> objects) throws FactException {
+        reteWm.initInitialFact();
+        return delegate.insertAll(objects);
+    }
+
     @Override
     public void retract(org.kie.api.runtime.rule.FactHandle handle) throws FactException {
         delegate.retract( handle );
@@ -119,7 +127,7 @@ public class ReteWorkingMemoryEntryPoint implements WorkingMemoryEntryPoint, Int
     }
 
     @Override
-    public void update(org.kie.api.runtime.rule.FactHandle handle, Object object, long mask, Class<?> modifiedClass, Activation activation) throws FactException {
+    public void update(org.kie.api.runtime.rule.FactHandle handle, Object object, BitMask mask, Class<?> modifiedClass, Activation activation) throws FactException {
         ((InternalWorkingMemoryEntryPoint)delegate).update(handle, object, mask, modifiedClass, activation);
     }
 
@@ -63,6 +63,7 @@ import org.drools.core.rule.EntryPointId;
 import org.drools.core.rule.Rule;
 import org.drools.core.spi.BetaNodeFieldConstraint;
 import org.drools.core.spi.PropagationContext;
+import org.drools.core.util.BitMask;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -576,9 +577,9 @@ public class JoinNodeTest extends DroolsTestCase {
 
     @Test
     public void testSlotSpecific() {
-        PropagationContext contextPassAll = pctxFactory.createPropagationContext(0, PropagationContext.INSERTION, null, null, null, 0, 0, EntryPointId.DEFAULT, Long.MAX_VALUE);
-        PropagationContext contextPassNothing = pctxFactory.createPropagationContext(0, PropagationContext.INSERTION, null, null, null, 0, 0, EntryPointId.DEFAULT, 0);
-        PropagationContext contextPass2And3 = pctxFactory.createPropagationContext(0, PropagationContext.INSERTION, null, null, null, 0, 0, EntryPointId.DEFAULT, 6);
+        PropagationContext contextPassAll = pctxFactory.createPropagationContext(0, PropagationContext.INSERTION, null, null, null, 0, 0, EntryPointId.DEFAULT, BitMask.ALL_SET_BUT_TRAIT);
+        PropagationContext contextPassNothing = pctxFactory.createPropagationContext(0, PropagationContext.INSERTION, null, null, null, 0, 0, EntryPointId.DEFAULT, BitMask.EMPTY);
+        PropagationContext contextPass2And3 = pctxFactory.createPropagationContext(0, PropagationContext.INSERTION, null, null, null, 0, 0, EntryPointId.DEFAULT, BitMask.valueOf(6));
 
         when( constraint.isAllowedCachedLeft(any(ContextEntry.class), any(InternalFactHandle.class))).thenReturn(true);
         when( constraint.isAllowedCachedRight(any(LeftTupleImpl.class), any(ContextEntry.class))).thenReturn(true);
@@ -615,17 +616,17 @@ public class JoinNodeTest extends DroolsTestCase {
         joinNode.modifyObject(string1Handle, modifyPreviousTuples, contextPassNothing, workingMemory);
         assertLength(0, sink1.getAsserted());
 
-        joinNode.setRightDeclaredMask(0);
+        joinNode.setRightDeclaredMask(BitMask.EMPTY);
         joinNode.initInferredMask();
         joinNode.modifyObject(string1Handle, modifyPreviousTuples, contextPass2And3, workingMemory);
         assertLength(0, sink1.getAsserted());
 
-        joinNode.setRightDeclaredMask(9);
+        joinNode.setRightDeclaredMask(BitMask.valueOf(9));
         joinNode.initInferredMask();
         joinNode.modifyObject(string1Handle, modifyPreviousTuples, contextPass2And3, workingMemory);
         assertLength(0, sink1.getAsserted());
 
-        joinNode.setRightDeclaredMask(3);
+        joinNode.setRightDeclaredMask(BitMask.valueOf(3));
         joinNode.initInferredMask();
         joinNode.modifyObject(string1Handle, modifyPreviousTuples, contextPass2And3, workingMemory);
         assertLength(1, sink1.getAsserted());